@@ -4,7 +4,9 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -13,8 +15,11 @@ import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -27,18 +32,31 @@ import org.apache.commons.cli.ParseException;
 
 import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
 import fr.hardcoding.software.sourcechecksum.difference.AbstractDifference;
+import fr.hardcoding.software.sourcechecksum.difference.DifferenceVisitor;
 import fr.hardcoding.software.sourcechecksum.difference.DirectoryDifference;
+import fr.hardcoding.software.sourcechecksum.difference.DirectoryDifferenceBuilder;
 import fr.hardcoding.software.sourcechecksum.difference.FileDifference;
 import fr.hardcoding.software.sourcechecksum.difference.FileDifferenceType;
+import fr.hardcoding.software.sourcechecksum.difference.MoveDetector;
+import fr.hardcoding.software.sourcechecksum.difference.MovedDirectoryDifference;
 import fr.hardcoding.software.sourcechecksum.generator.ChecksumGenerator;
 import fr.hardcoding.software.sourcechecksum.generator.FsChecksumGenerator;
+import fr.hardcoding.software.sourcechecksum.generator.SvnBatchGenerator;
 import fr.hardcoding.software.sourcechecksum.generator.SvnChecksumGenerator;
+import fr.hardcoding.software.sourcechecksum.generator.SvnDumpChecksumGenerator;
+import fr.hardcoding.software.sourcechecksum.generator.SvnServerDiff;
+import fr.hardcoding.software.sourcechecksum.generator.SvnWorkingCopyDiff;
 import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
 import fr.hardcoding.software.sourcechecksum.listener.ConsoleOutputListener;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestFileReader;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestReader;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestSorter;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
 import fr.hardcoding.software.sourcechecksum.resource.svn.SvnResource;
+import fr.hardcoding.software.sourcechecksum.session.SvnRetryPolicy;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
 
 /**
  * This class is the main application entry point.
@@ -47,6 +65,9 @@ import fr.hardcoding.software.sourcechecksum.resource.svn.SvnResource;
  *
  */
 public class ChecksumTool {
+	/** The checksum output for files left unhashed in diff mode. */
+	public static final String UNHASHED_CHECKSUM = "unhashed";
+
 	/**
 	 * The main procedure.
 	 * 
@@ -72,10 +93,10 @@ public class ChecksumTool {
 		modeGroup.addOption(listOption);
 		options.addOptionGroup(modeGroup);
 		// Create path option
-		Option pathOption = Option.builder().longOpt("path").desc("The paths to compute checksums or differences").numberOfArgs(2).build();
+		Option pathOption = Option.builder().longOpt("path").desc("The paths to compute checksums or differences (or a working copy path to diff against an URL)").numberOfArgs(2).build();
 		options.addOption(pathOption);
 		// Create URL option
-		Option urlOption = Option.builder().longOpt("url").desc("The URLs of Subversion resources to compute checksums or differences").numberOfArgs(2).build();
+		Option urlOption = Option.builder().longOpt("url").desc("The URLs of Subversion resources to compute checksums or differences (or an URL to diff against a working copy path)").numberOfArgs(2).build();
 		options.addOption(urlOption);
 		// Create user option
 		Option userOption = Option.builder().longOpt("user").desc("The Subversion user name").hasArg(true).build();
@@ -95,6 +116,78 @@ public class ChecksumTool {
 		ignoreGroup.addOption(ignoreGlobsOption);
 		ignoreGroup.addOption(ignoreFileOption);
 		options.addOptionGroup(ignoreGroup);
+		// Create directory checksums option
+		Option directoryChecksumsOption = Option.builder().longOpt("directoryChecksums").desc("Output directory checksums, always computed with SHA256 (list mode only)").build();
+		options.addOption(directoryChecksumsOption);
+		// Create manifest option
+		Option manifestOption = Option.builder().longOpt("manifest").desc("The manifest files written in list mode to compute differences").numberOfArgs(2).build();
+		options.addOption(manifestOption);
+		// Create moves option
+		Option movesOption = Option.builder().longOpt("moves").desc("Detect moved and copied files (diff mode only)").build();
+		options.addOption(movesOption);
+		// Create out of core option
+		Option outOfCoreOption = Option.builder().longOpt("outOfCore").desc("Compute differences using sorted temporary files instead of memory (diff mode on paths only)").build();
+		options.addOption(outOfCoreOption);
+		// Create memory option
+		Option memoryOption = Option.builder().longOpt("memory").desc("The memory budget in MB for out of core mode (256 by default)").hasArg(true).build();
+		options.addOption(memoryOption);
+		// Create temporary directory option
+		Option tempDirOption = Option.builder().longOpt("tempDir").desc("The temporary directory for out of core and dump modes").hasArg(true).build();
+		options.addOption(tempDirOption);
+		// Create report listing option
+		Option reportListingOption = Option.builder().longOpt("reportListing").desc("List Subversion directory trees from a single report instead of listing each directory").build();
+		options.addOption(reportListingOption);
+		// Create report content option
+		Option reportContentOption = Option.builder().longOpt("reportContent").desc("Hash Subversion file contents from a single report instead of getting each file").build();
+		options.addOption(reportContentOption);
+		// Create cache option
+		Option cacheOption = Option.builder().longOpt("cache").desc("The directory of the persistent Subversion checksum and directory listing caches").hasArg(true).build();
+		options.addOption(cacheOption);
+		// Create server checksums option
+		Option serverChecksumsOption = Option.builder().longOpt("serverChecksums").desc("Use Subversion server checksums instead of downloading file contents (MD5 algorithm only)").build();
+		options.addOption(serverChecksumsOption);
+		// Create server diff option
+		Option serverDiffOption = Option.builder().longOpt("serverDiff").desc("Only hash files changed according to a Subversion server-side diff (diff mode on URLs of the same repository only)").build();
+		options.addOption(serverDiffOption);
+		// Create verify rate option
+		Option verifyRateOption = Option.builder().longOpt("verifyRate").desc("The rate of server checksums to verify by downloading file contents (from 0 to 1, 0 by default)").hasArg(true).build();
+		options.addOption(verifyRateOption);
+		// Create sessions option
+		Option sessionsOption = Option.builder().longOpt("sessions").desc("The maximum number of concurrent Subversion sessions ("+SvnSessionPool.DEFAULT_SIZE+" for HTTP(S), "+SvnSessionPool.DEFAULT_SVN_SIZE+" for SVN and the number of processors for FILE protocol by default)").hasArg(true).build();
+		options.addOption(sessionsOption);
+		// Create update option
+		Option updateOption = Option.builder().longOpt("update").desc("The manifest written in list mode at a previous revision to update from the Subversion log (list mode on URL only)").hasArg(true).build();
+		options.addOption(updateOption);
+		// Create from option
+		Option fromOption = Option.builder().longOpt("from").desc("The revision the manifest to update was computed at (update mode only)").hasArg(true).build();
+		options.addOption(fromOption);
+		// Create to option
+		Option toOption = Option.builder().longOpt("to").desc("The Subversion revision to compute checksums at (HEAD by default)").hasArg(true).build();
+		options.addOption(toOption);
+		// Create batch option
+		Option batchOption = Option.builder().longOpt("batch").desc("Compute checksums of each child directory of the URL (such as tags), writing one manifest per child in the output directory (list mode on URL only)").build();
+		options.addOption(batchOption);
+		// Create retries option
+		Option retriesOption = Option.builder().longOpt("retries").desc("The number of retries of failed Subversion requests ("+SvnRetryPolicy.DEFAULT_RETRIES+" by default)").hasArg(true).build();
+		options.addOption(retriesOption);
+		// Create continue on error option
+		Option continueOnErrorOption = Option.builder().longOpt("continueOnError").desc("Skip Subversion files and directories that could not be computed, writing them as FAILED lines in the output (list mode on URL only)").build();
+		options.addOption(continueOnErrorOption);
+		// Create adaptive sessions option
+		Option adaptiveSessionsOption = Option.builder().longOpt("adaptiveSessions").desc("Adapt the number of concurrent Subversion requests to the server latency and failures, up to the number of sessions").build();
+		options.addOption(adaptiveSessionsOption);
+		// Create max rate option
+		Option maxRateOption = Option.builder().longOpt("maxRate").desc("The maximum number of Subversion requests per second (not bounded by default)").hasArg(true).build();
+		options.addOption(maxRateOption);
+		// Create hedge rate option
+		Option hedgeRateOption = Option.builder().longOpt("hedgeRate").desc("The maximum rate of extra Subversion file requests sent again when slower than usual (from 0 to 1, 0 by default)").hasArg(true).build();
+		options.addOption(hedgeRateOption);
+		// Create dump option
+		Option dumpOption = Option.builder().longOpt("dump").desc("The Subversion dump file written by svnadmin dump or svnrdump dump to compute checksums of the URL from (- for standard input, list mode only)").hasArg(true).build();
+		options.addOption(dumpOption);
+		// Create repository root option
+		Option rootOption = Option.builder().longOpt("root").desc("The Subversion repository root URL of the dump (dump mode only)").hasArg(true).build();
+		options.addOption(rootOption);
 		// Create output option
 		Option outputOption = Option.builder().longOpt("output").desc("The result output file").hasArg(true).required(true).build();
 		options.addOption(outputOption);
@@ -159,6 +252,10 @@ public class ChecksumTool {
 		if (commandLine.hasOption("list")) {
 			// Declare checksum generator
 			ChecksumGenerator checksumGenerator = null;
+			// Declare Subversion session pool
+			SvnSessionPool sessionPool = null;
+			// Declare Subversion dump stream
+			InputStream dumpInputStream = null;
 			// Check target parameter
 			if (commandLine.hasOption("path")) {
 				// Create checksum generator on file system
@@ -170,6 +267,28 @@ public class ChecksumTool {
 					listener.onError(exception);
 					System.exit(0);
 				}
+			} else if (commandLine.hasOption("dump")&&commandLine.hasOption("url")&&commandLine.hasOption("root")) {
+				// Create checksum generator on Subversion dump
+				try {
+					// Open dump stream
+					String dump = commandLine.getOptionValue("dump");
+					try {
+						dumpInputStream = "-".equals(dump) ? System.in : Files.newInputStream(Paths.get(dump));
+					} catch (IOException exception) {
+						throw new ChecksumException("Unable to read dump file \""+dump+"\".", exception);
+					}
+					// Create checksum generator
+					checksumGenerator = ChecksumTool.createSvnDumpChecksumGenerator(commandLine.getOptionValue("url"), commandLine.getOptionValue("root"),
+							dumpInputStream, commandLine);
+				} catch (ChecksumException exception) {
+					// Notify user then exit
+					listener.onError(exception);
+					System.exit(0);
+				}
+			} else if (commandLine.hasOption("dump")) {
+				// Notify user then exit
+				System.err.println("Missing url or root parameters.");
+				System.exit(0);
 			} else if (commandLine.hasOption("url")) {
 				// Create checksum generator on Subversion
 				try {
@@ -177,14 +296,22 @@ public class ChecksumTool {
 					String url = commandLine.getOptionValue("url");
 					String user = commandLine.getOptionValue("user");
 					// Get user password
-					char[] passwd;
-					if (commandLine.hasOption("password")) {
-						passwd = commandLine.getOptionValue("password").toCharArray();
-					} else {
-						passwd = ChecksumTool.readPasswd();
+					char[] passwd = ChecksumTool.getPasswd(commandLine);
+					// Create Subversion session pool
+					sessionPool = ChecksumTool.createSvnSessionPool(url, user, passwd, commandLine);
+					// Check batch mode
+					if (commandLine.hasOption("batch")) {
+						// Compute checksums of each child directory
+						try {
+							ChecksumTool.computeBatch(url, sessionPool, commandLine, algorithm, outputFile, listener, ignoreMatchers);
+						} finally {
+							sessionPool.close();
+						}
+						// Exit
+						return;
 					}
 					// Create checksum generator
-					checksumGenerator = new SvnChecksumGenerator(url, user, passwd);
+					checksumGenerator = ChecksumTool.createSvnChecksumGenerator(url, sessionPool, commandLine);
 				} catch (ChecksumException exception) {
 					// Notify user then exit
 					listener.onError(exception);
@@ -196,20 +323,125 @@ public class ChecksumTool {
 				System.exit(0);
 			}
 			try {
-				// Compute checksums
-				AbstractDirectory directory = checksumGenerator.compute(algorithm, listener, ignoreMatchers);
+				// Declare computed directory
+				AbstractDirectory directory;
+				// Check update mode
+				if (commandLine.hasOption("update")) {
+					// Check generator supports update mode
+					if (!(checksumGenerator instanceof SvnChecksumGenerator)) {
+						// Notify user then exit
+						System.err.println("Update mode is only available for URLs.");
+						System.exit(0);
+					}
+					// Get manifest revision
+					long fromRevision = -1;
+					try {
+						fromRevision = Long.parseLong(commandLine.getOptionValue("from", "-1"));
+					} catch (NumberFormatException exception) {
+						// Revision will be checked as invalid
+					}
+					if (fromRevision<0) {
+						// Notify user then exit
+						System.err.println("Missing or invalid from parameter.");
+						System.exit(0);
+					}
+					// Update manifest checksums
+					try (ManifestReader manifestReader = new ManifestFileReader(Paths.get(commandLine.getOptionValue("update")))) {
+						directory = ((SvnChecksumGenerator) checksumGenerator).update(manifestReader, fromRevision, algorithm, listener, ignoreMatchers);
+					}
+				} else {
+					// Compute checksums
+					directory = checksumGenerator.compute(algorithm, listener, ignoreMatchers);
+				}
+				// Get paths skipped on error
+				Map<String, String> failedPaths = checksumGenerator instanceof SvnChecksumGenerator ? ((SvnChecksumGenerator) checksumGenerator)
+						.getFailedPaths() : Collections.<String, String> emptyMap();
 				// Output checksums
-				ChecksumTool.outputResourceChecksum(directory, outputFile);
+				ChecksumTool.outputResourceChecksum(directory, outputFile, commandLine.hasOption("directoryChecksums"), failedPaths);
 			} catch (ChecksumException exception) {
 				// Notify listener on error
 				listener.onError(exception);
 			}
+			// Close Subversion session pool
+			if (sessionPool!=null)
+				sessionPool.close();
+			// Close Subversion dump stream
+			if (dumpInputStream!=null) {
+				try {
+					dumpInputStream.close();
+				} catch (IOException exception) {
+					// Dump stream was fully read
+				}
+			}
 		} else if (commandLine.hasOption("diff")) {
+			// Check continue on error mode is not requested as skipped files would not be reported
+			if (commandLine.hasOption("continueOnError")) {
+				// Notify user then exit
+				System.err.println("Continue on error mode is only available in list mode.");
+				System.exit(0);
+			}
+			// Check manifest parameter
+			if (commandLine.hasOption("manifest")) {
+				// Get manifest paths from command line
+				String[] manifests = commandLine.getOptionValues("manifest");
+				if (manifests.length!=2) {
+					// Notify user then exit
+					System.err.println("Missing the two manifests for diffing.");
+					System.exit(0);
+				}
+				// Open manifests
+				try (ManifestReader leftReader = new ManifestFileReader(Paths.get(manifests[0]));
+						ManifestReader rightReader = new ManifestFileReader(Paths.get(manifests[1]))) {
+					// Output differences
+					ChecksumTool.outputDiffResourceChecksum(leftReader, rightReader, outputFile, commandLine.hasOption("moves"));
+				} catch (ChecksumException exception) {
+					// Notify listener on error
+					listener.onError(exception);
+				}
+				// Exit
+				return;
+			}
 			// Declare checksum generators
 			ChecksumGenerator leftChecksumGenerator = null;
 			ChecksumGenerator rightChecksumGenerator = null;
+			// Declare Subversion session pools
+			SvnSessionPool leftSessionPool = null;
+			SvnSessionPool rightSessionPool = null;
 			// Check target parameter
-			if (commandLine.hasOption("path")) {
+			if (commandLine.hasOption("path")&&commandLine.hasOption("url")) {
+				// Create checksum generators on working copy and Subversion
+				try {
+					// Get working copy path and URL from command line
+					String[] paths = commandLine.getOptionValues("path");
+					String urls[] = commandLine.getOptionValues("url");
+					if (paths.length!=1||urls.length!=1) {
+						// Notify user then exit
+						System.err.println("Missing the working copy path and the URL for diffing.");
+						System.exit(0);
+					}
+					// Get user parameter for checksum generator
+					String user = commandLine.getOptionValue("user");
+					// Get user password
+					char[] passwd = ChecksumTool.getPasswd(commandLine);
+					// Create checksum generators
+					FsChecksumGenerator leftFsChecksumGenerator = new FsChecksumGenerator(Paths.get(paths[0]));
+					rightSessionPool = ChecksumTool.createSvnSessionPool(urls[0], user, passwd, commandLine);
+					SvnChecksumGenerator rightSvnChecksumGenerator = ChecksumTool.createSvnChecksumGenerator(urls[0], rightSessionPool, commandLine);
+					// Restrict checksum generators to locally modified and out-of-date files
+					new SvnWorkingCopyDiff(leftFsChecksumGenerator, rightSvnChecksumGenerator).prepare(listener);
+					// Ignore working copy administrative directories
+					ignoreMatcherList.add(defaultFileSystem.getPathMatcher("glob:{.svn,**/.svn}"));
+					ignoreMatchers = ignoreMatcherList.toArray(new PathMatcher[ignoreMatcherList.size()]);
+					// Save checksum generators
+					leftChecksumGenerator = leftFsChecksumGenerator;
+					rightChecksumGenerator = rightSvnChecksumGenerator;
+				} catch (ChecksumException exception) {
+					// Notify user then exit
+					listener.onError(exception);
+					ChecksumTool.closeSessionPools(leftSessionPool, rightSessionPool);
+					System.exit(0);
+				}
+			} else if (commandLine.hasOption("path")) {
 				// Create checksum generator on file system
 				try {
 					// Get paths from command lines
@@ -233,15 +465,6 @@ public class ChecksumTool {
 			} else if (commandLine.hasOption("url")) {
 				// Create checksum generator on Subversion
 				try {
-					// Get user parameter for checksum generators
-					String user = commandLine.getOptionValue("user");
-					// Get user password
-					char[] passwd;
-					if (commandLine.hasOption("passwd")) {
-						passwd = commandLine.getOptionValue("passwd").toCharArray();
-					} else {
-						passwd = ChecksumTool.readPasswd();
-					}
 					// Get URLs for checksum generators
 					String urls[] = commandLine.getOptionValues("url");
 					if (urls.length!=2) {
@@ -249,12 +472,38 @@ public class ChecksumTool {
 						System.err.println("Missing the two URLs for diffing.");
 						System.exit(0);
 					}
+					// Get user parameter for checksum generators
+					String user = commandLine.getOptionValue("user");
+					// Get user password
+					char[] passwd = ChecksumTool.getPasswd(commandLine);
+					// Create Subversion session pools, sharing sessions if both URLs are in the same repository
+					leftSessionPool = ChecksumTool.createSvnSessionPool(urls[0], user, passwd, commandLine);
+					if (leftSessionPool.contains(urls[1]))
+						rightSessionPool = leftSessionPool;
+					else
+						rightSessionPool = ChecksumTool.createSvnSessionPool(urls[1], user, passwd, commandLine);
 					// Create checksum generators
-					leftChecksumGenerator = new SvnChecksumGenerator(urls[0], user, passwd);
-					rightChecksumGenerator = new SvnChecksumGenerator(urls[1], user, passwd);
+					SvnChecksumGenerator leftSvnChecksumGenerator = ChecksumTool.createSvnChecksumGenerator(urls[0], leftSessionPool, commandLine);
+					SvnChecksumGenerator rightSvnChecksumGenerator = ChecksumTool.createSvnChecksumGenerator(urls[1], rightSessionPool, commandLine);
+					// Check server diff mode
+					if (commandLine.hasOption("serverDiff")) {
+						// Check both URLs are in the same repository
+						if (rightSessionPool!=leftSessionPool) {
+							// Notify user then exit
+							System.err.println("Server diff mode is only available for URLs of the same repository.");
+							ChecksumTool.closeSessionPools(leftSessionPool, rightSessionPool);
+							System.exit(0);
+						}
+						// Restrict checksum generators to the differences reported by the server
+						new SvnServerDiff(leftSvnChecksumGenerator, rightSvnChecksumGenerator).prepare(listener);
+					}
+					// Save checksum generators
+					leftChecksumGenerator = leftSvnChecksumGenerator;
+					rightChecksumGenerator = rightSvnChecksumGenerator;
 				} catch (ChecksumException exception) {
 					// Notify user then exit
 					listener.onError(exception);
+					ChecksumTool.closeSessionPools(leftSessionPool, rightSessionPool);
 					System.exit(0);
 				}
 			} else {
@@ -262,19 +511,266 @@ public class ChecksumTool {
 				System.err.println("Missing path or url parameters.");
 				System.exit(0);
 			}
+			// Check out of core mode
+			if (commandLine.hasOption("outOfCore")) {
+				// Check generators support out of core mode
+				if (!(leftChecksumGenerator instanceof FsChecksumGenerator)||!(rightChecksumGenerator instanceof FsChecksumGenerator)) {
+					// Notify user then exit
+					System.err.println("Out of core mode is only available for paths.");
+					System.exit(0);
+				}
+				// Get memory budget for each side
+				long memoryBudget = 0;
+				try {
+					memoryBudget = Long.parseLong(commandLine.getOptionValue("memory", "256"))*1024*1024/2;
+				} catch (NumberFormatException exception) {
+					// Notify user then exit
+					System.err.println("Invalid memory parameter.");
+					System.exit(0);
+				}
+				// Get temporary directory
+				Path tempDir = Paths.get(commandLine.getOptionValue("tempDir", System.getProperty("java.io.tmpdir")));
+				// Create manifest sorters
+				try (ManifestSorter leftSorter = new ManifestSorter(tempDir, memoryBudget);
+						ManifestSorter rightSorter = new ManifestSorter(tempDir, memoryBudget)) {
+					// Compute checksums
+					((FsChecksumGenerator) leftChecksumGenerator).compute(algorithm, listener, leftSorter, ignoreMatchers);
+					((FsChecksumGenerator) rightChecksumGenerator).compute(algorithm, listener, rightSorter, ignoreMatchers);
+					// Output checksums
+					ChecksumTool.outputDiffResourceChecksum(leftSorter.sort(), rightSorter.sort(), outputFile, commandLine.hasOption("moves"));
+				} catch (ChecksumException exception) {
+					// Notify listener on error
+					listener.onError(exception);
+				}
+				// Exit
+				return;
+			}
 			try {
 				// Compute checksums
 				AbstractDirectory leftDirectory = leftChecksumGenerator.compute(algorithm, listener, ignoreMatchers);
 				AbstractDirectory rightDirectory = rightChecksumGenerator.compute(algorithm, listener, ignoreMatchers);
 				// Output checksums
-				ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, outputFile);
+				ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, outputFile, commandLine.hasOption("moves"));
 			} catch (ChecksumException exception) {
 				// Notify listener on error
 				listener.onError(exception);
 			}
+			// Close Subversion session pools
+			ChecksumTool.closeSessionPools(leftSessionPool, rightSessionPool);
 		}
 	}
 
+	/**
+	 * Close the Subversion session pools of a diff.
+	 * 
+	 * @param leftSessionPool
+	 *            The left session pool (<code>null</code> if none).
+	 * @param rightSessionPool
+	 *            The right session pool (<code>null</code> if none, may be the left session pool).
+	 */
+	private static void closeSessionPools(SvnSessionPool leftSessionPool, SvnSessionPool rightSessionPool) {
+		if (leftSessionPool!=null)
+			leftSessionPool.close();
+		if (rightSessionPool!=null&&rightSessionPool!=leftSessionPool)
+			rightSessionPool.close();
+	}
+
+	/**
+	 * Create a Subversion session pool configured from command line.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the sessions.
+	 * @param user
+	 *            The Subversion user name.
+	 * @param passwd
+	 *            The Subversion user password.
+	 * @param commandLine
+	 *            The command line to get pool options from.
+	 * @return The created Subversion session pool.
+	 * @throws ChecksumException
+	 *             Throws exception if the pool could not be created.
+	 */
+	private static SvnSessionPool createSvnSessionPool(String url, String user, char[] passwd, CommandLine commandLine) throws ChecksumException {
+		// Get pool size
+		int size;
+		try {
+			size = Integer.parseInt(commandLine.getOptionValue("sessions", Integer.toString(SvnSessionPool.getDefaultSize(url))));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid sessions parameter.", exception);
+		}
+		if (size<1)
+			throw new ChecksumException("Invalid sessions parameter.");
+		// Return created session pool
+		return new SvnSessionPool(url, user, passwd, size);
+	}
+
+	/**
+	 * Create a Subversion checksum generator configured from command line.
+	 * 
+	 * @param url
+	 *            The Subversion URL to compute checksum.
+	 * @param sessionPool
+	 *            The Subversion session pool to request the repository.
+	 * @param commandLine
+	 *            The command line to get generator options from.
+	 * @return The created Subversion checksum generator.
+	 * @throws ChecksumException
+	 *             Throws exception if the generator could not be created.
+	 */
+	private static SvnChecksumGenerator createSvnChecksumGenerator(String url, SvnSessionPool sessionPool, CommandLine commandLine) throws ChecksumException {
+		// Create checksum generator
+		SvnChecksumGenerator checksumGenerator = new SvnChecksumGenerator(url, sessionPool);
+		// Configure checksum generator
+		ChecksumTool.configureSvnChecksumGenerator(checksumGenerator, commandLine);
+		// Return created checksum generator
+		return checksumGenerator;
+	}
+
+	/**
+	 * Create a Subversion dump checksum generator configured from command line.
+	 * 
+	 * @param url
+	 *            The Subversion URL to compute checksum.
+	 * @param rootUrl
+	 *            The Subversion repository root URL of the dump.
+	 * @param dumpInputStream
+	 *            The dump stream to read.
+	 * @param commandLine
+	 *            The command line to get generator options from.
+	 * @return The created Subversion dump checksum generator.
+	 * @throws ChecksumException
+	 *             Throws exception if the generator could not be created.
+	 */
+	private static SvnDumpChecksumGenerator createSvnDumpChecksumGenerator(String url, String rootUrl, InputStream dumpInputStream, CommandLine commandLine)
+			throws ChecksumException {
+		// Create checksum generator
+		SvnDumpChecksumGenerator checksumGenerator = new SvnDumpChecksumGenerator(url, rootUrl, dumpInputStream);
+		// Set revision to compute checksums at
+		try {
+			checksumGenerator.setRevision(Long.parseLong(commandLine.getOptionValue("to", "-1")));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid to parameter.", exception);
+		}
+		// Set temporary directory of dump file texts
+		if (commandLine.hasOption("tempDir"))
+			checksumGenerator.setTempDirectory(Paths.get(commandLine.getOptionValue("tempDir")));
+		// Return created checksum generator
+		return checksumGenerator;
+	}
+
+	/**
+	 * Configure a Subversion checksum generator from command line.
+	 * 
+	 * @param checksumGenerator
+	 *            The Subversion checksum generator to configure.
+	 * @param commandLine
+	 *            The command line to get generator options from.
+	 * @throws ChecksumException
+	 *             Throws exception if an option is invalid.
+	 */
+	private static void configureSvnChecksumGenerator(SvnChecksumGenerator checksumGenerator, CommandLine commandLine) throws ChecksumException {
+		// Set listing strategy
+		checksumGenerator.setReportListing(commandLine.hasOption("reportListing"));
+		checksumGenerator.setReportContent(commandLine.hasOption("reportContent"));
+		// Set checksum cache directory
+		if (commandLine.hasOption("cache"))
+			checksumGenerator.setCacheDirectory(Paths.get(commandLine.getOptionValue("cache")));
+		// Set server checksums mode
+		checksumGenerator.setServerChecksums(commandLine.hasOption("serverChecksums"));
+		// Get server checksum verify rate
+		double verifyRate;
+		try {
+			verifyRate = Double.parseDouble(commandLine.getOptionValue("verifyRate", "0"));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid verify rate parameter.", exception);
+		}
+		if (verifyRate<0||verifyRate>1)
+			throw new ChecksumException("Invalid verify rate parameter.");
+		checksumGenerator.setVerifyRate(verifyRate);
+		// Set revision to compute checksums at
+		try {
+			checksumGenerator.setRevision(Long.parseLong(commandLine.getOptionValue("to", "-1")));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid to parameter.", exception);
+		}
+		// Set retry policy
+		int retries;
+		try {
+			retries = Integer.parseInt(commandLine.getOptionValue("retries", Integer.toString(SvnRetryPolicy.DEFAULT_RETRIES)));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid retries parameter.", exception);
+		}
+		if (retries<0)
+			throw new ChecksumException("Invalid retries parameter.");
+		checksumGenerator.setRetryPolicy(new SvnRetryPolicy(retries, SvnRetryPolicy.DEFAULT_DELAY));
+		// Set continue on error mode
+		checksumGenerator.setContinueOnError(commandLine.hasOption("continueOnError"));
+		// Set request concurrency and rate
+		checksumGenerator.setAdaptiveConcurrency(commandLine.hasOption("adaptiveSessions"));
+		double maxRate;
+		try {
+			maxRate = Double.parseDouble(commandLine.getOptionValue("maxRate", "0"));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid max rate parameter.", exception);
+		}
+		if (maxRate<0)
+			throw new ChecksumException("Invalid max rate parameter.");
+		checksumGenerator.setMaxRequestRate(maxRate);
+		// Set hedged file request rate
+		double hedgeRate;
+		try {
+			hedgeRate = Double.parseDouble(commandLine.getOptionValue("hedgeRate", "0"));
+		} catch (NumberFormatException exception) {
+			throw new ChecksumException("Invalid hedge rate parameter.", exception);
+		}
+		if (hedgeRate<0||hedgeRate>1)
+			throw new ChecksumException("Invalid hedge rate parameter.");
+		checksumGenerator.setHedgeRate(hedgeRate);
+	}
+
+	/**
+	 * Compute the checksums of each child directory of a Subversion URL and write one manifest per child directory.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the child directories to compute checksums (such as tags).
+	 * @param sessionPool
+	 *            The Subversion session pool to request the repository.
+	 * @param commandLine
+	 *            The command line to get generator options from.
+	 * @param algorithm
+	 *            The algorithm to use to compute checksums.
+	 * @param outputDirectory
+	 *            The directory to write manifests to.
+	 * @param listener
+	 *            The listener to notify progress.
+	 * @param ignoreMatchers
+	 *            The matchers of paths to ignore.
+	 * @throws ChecksumException
+	 *             Throws exception if a child directory checksums could not be computed.
+	 */
+	private static void computeBatch(String url, SvnSessionPool sessionPool, CommandLine commandLine, ChecksumAlgorithm algorithm, File outputDirectory,
+			ChecksumListener listener, PathMatcher... ignoreMatchers) throws ChecksumException {
+		// Create output directory
+		if (!outputDirectory.isDirectory()&&!outputDirectory.mkdirs())
+			throw new ChecksumException("Unable to create output directory \""+outputDirectory+"\".");
+		// Create batch generator
+		SvnBatchGenerator batchGenerator = new SvnBatchGenerator(url, sessionPool);
+		if (commandLine.hasOption("cache"))
+			batchGenerator.setCacheDirectory(Paths.get(commandLine.getOptionValue("cache")));
+		// Compute checksums of each child directory
+		for (String name : batchGenerator.getNames()) {
+			// Create and configure checksum generator
+			SvnChecksumGenerator checksumGenerator = batchGenerator.createGenerator(name, algorithm);
+			ChecksumTool.configureSvnChecksumGenerator(checksumGenerator, commandLine);
+			// Compute then output checksums
+			AbstractDirectory directory = checksumGenerator.compute(algorithm, listener, ignoreMatchers);
+			ChecksumTool.outputResourceChecksum(directory, new File(outputDirectory, name+".txt"), commandLine.hasOption("directoryChecksums"),
+					checksumGenerator.getFailedPaths());
+		}
+		// Save shared caches
+		batchGenerator.save();
+	}
+
 	/**
 	 * Compare two resources.
 	 * 
@@ -293,24 +789,41 @@ public class ChecksumTool {
 			return 1;
 		else if (resource1!=null&&resource2==null)
 			return -1;
+		// Compare resource names
+		return ChecksumTool.compareName(resource1.getName(), resource1 instanceof AbstractDirectory, resource2.getName(),
+				resource2 instanceof AbstractDirectory);
+	}
+
+	/**
+	 * Compare two resource names.
+	 * 
+	 * @param leftName
+	 *            The first resource name to compare.
+	 * @param leftDirectory
+	 *            <code>true</code> if the first resource is a directory, <code>false</code> if it is a file.
+	 * @param rightName
+	 *            The second resource name to compare.
+	 * @param rightDirectory
+	 *            <code>true</code> if the second resource is a directory, <code>false</code> if it is a file.
+	 * @return A strictly negative number if first resource is before the second one, a strictly positive number if the second resource is before the first one,
+	 *         <code>0</code> if resources are equals.
+	 */
+	public static int compareName(String leftName, boolean leftDirectory, String rightName, boolean rightDirectory) {
 		// Check types
-		if (resource1 instanceof AbstractDirectory&&resource2 instanceof AbstractDirectory) {
-			return resource1.getName().compareTo(resource2.getName());
-		} else if (resource1 instanceof AbstractDirectory&&!(resource2 instanceof AbstractDirectory)) {
+		if (leftDirectory&&rightDirectory) {
+			return leftName.compareTo(rightName);
+		} else if (leftDirectory&&!rightDirectory) {
 			return -1;
-		} else if (!(resource1 instanceof AbstractDirectory)&&resource2 instanceof AbstractDirectory) {
+		} else if (!leftDirectory&&rightDirectory) {
 			return 1;
 		} else {
-			// Check name extensions
-			String leftName = resource1.getName();
-			String rightName = resource2.getName();
 			// Compute dot indexes
 			int leftNameIndex = leftName.lastIndexOf('.');
 			int rightNameIndex = rightName.lastIndexOf('.');
 			// Check dot presence
 			if (leftNameIndex==-1&&rightNameIndex==-1) {
 				// Compare without extension
-				return resource1.getName().compareTo(resource2.getName());
+				return leftName.compareTo(rightName);
 			} else if (leftNameIndex>0&&rightNameIndex>0) {
 				// Get sub names
 				String leftSubName = leftName.substring(0, leftNameIndex);
@@ -334,6 +847,58 @@ public class ChecksumTool {
 		}
 	}
 
+	/**
+	 * Compare two resources by their path.<br>
+	 * Paths are compared segment by segment with the {@link #compareResource(AbstractResource, AbstractResource)} order, ignoring their first segment
+	 * (the root directory name). A directory is before its content, so sorting resources by path gives the same order as walking sorted directories.
+	 * 
+	 * @param resource1
+	 *            The first resource to compare.
+	 * @param resource2
+	 *            The second resource to compare.
+	 * @return A strictly negative number if first resource is before the second one, a strictly positive number if the second resource is before the first one,
+	 *         <code>0</code> if resources are equals.
+	 */
+	public static int compareResourcePath(AbstractResource resource1, AbstractResource resource2) {
+		// Check null cases
+		if (resource1==null&&resource2==null)
+			return 0;
+		else if (resource1==null&&resource2!=null)
+			return 1;
+		else if (resource1!=null&&resource2==null)
+			return -1;
+		// Get resource paths
+		String leftPath = resource1.getPath();
+		String rightPath = resource2.getPath();
+		// Skip root segments
+		int leftIndex = leftPath.indexOf('/');
+		int rightIndex = rightPath.indexOf('/');
+		// Compare each segment
+		while (leftIndex!=-1&&rightIndex!=-1) {
+			// Compute segment bounds
+			int leftStart = leftIndex+1;
+			int rightStart = rightIndex+1;
+			leftIndex = leftPath.indexOf('/', leftStart);
+			rightIndex = rightPath.indexOf('/', rightStart);
+			int leftEnd = leftIndex==-1 ? leftPath.length() : leftIndex;
+			int rightEnd = rightIndex==-1 ? rightPath.length() : rightIndex;
+			// Check segment types
+			boolean leftDirectory = leftIndex!=-1||resource1 instanceof AbstractDirectory;
+			boolean rightDirectory = rightIndex!=-1||resource2 instanceof AbstractDirectory;
+			// Check segment equality
+			if (leftDirectory==rightDirectory&&leftEnd-leftStart==rightEnd-rightStart
+					&&leftPath.regionMatches(leftStart, rightPath, rightStart, leftEnd-leftStart))
+				continue;
+			// Compare segment names
+			return ChecksumTool.compareName(leftPath.substring(leftStart, leftEnd), leftDirectory, rightPath.substring(rightStart, rightEnd),
+					rightDirectory);
+		}
+		// Check remaining segments (parent directory is before its content)
+		if (leftIndex==-1&&rightIndex==-1)
+			return 0;
+		return leftIndex==-1 ? -1 : 1;
+	}
+
 	/**
 	 * Compute differences between two directories.<br>
 	 * The two directories must be sorted (calling {@link AbstractDirectory#sort()}) in order to compute differences.
@@ -345,6 +910,43 @@ public class ChecksumTool {
 	 * @return The directory difference.
 	 */
 	public static DirectoryDifference computeDifferences(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+		// Create directory difference builder
+		DirectoryDifferenceBuilder builder = new DirectoryDifferenceBuilder();
+		try {
+			// Visit differences to build the directory difference tree
+			ChecksumTool.visitDifferences(leftDirectory, rightDirectory, builder);
+		} catch (ChecksumException exception) {
+			// Directory difference builder never fails
+			throw new IllegalStateException(exception);
+		}
+		// Return directory difference
+		return builder.getDirectoryDifference();
+	}
+
+	/**
+	 * Visit differences between two directories.<br>
+	 * Differences are notified to the visitor as soon as they are found, without building the directory difference tree.<br>
+	 * The two directories must be sorted (calling {@link AbstractDirectory#sort()}) in order to compute differences. Files left unhashed on both
+	 * sides are not reported, files hashed on one side only are reported as different.
+	 * 
+	 * @param leftDirectory
+	 *            The left resource to compute differences.
+	 * @param rightDirectory
+	 *            The right resource to compute differences.
+	 * @param visitor
+	 *            The visitor to notify differences.
+	 * @throws ChecksumException
+	 *             Throws exception if the visitor could not process a difference.
+	 */
+	public static void visitDifferences(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory, DifferenceVisitor visitor) throws ChecksumException {
+		// Notify visitor directory comparison starts
+		visitor.enterDirectory(leftDirectory, rightDirectory);
+		// Check if directories are identical
+		if (ChecksumTool.haveSameChecksum(leftDirectory, rightDirectory)) {
+			// Notify visitor directory comparison ends
+			visitor.exitDirectory(leftDirectory, rightDirectory);
+			return;
+		}
 		// Create resource iterator on directories
 		Iterator<AbstractResource> leftResourceIterator = leftDirectory==null ? new EmptyIterator<AbstractResource>() : leftDirectory.getChildren().iterator();
 		Iterator<AbstractResource> rightResourceIterator = rightDirectory==null ? new EmptyIterator<AbstractResource>() : rightDirectory.getChildren()
@@ -352,10 +954,8 @@ public class ChecksumTool {
 		// Declare resources to compare
 		AbstractResource leftResource = null;
 		AbstractResource rightResource = null;
-		// Declare resource difference for the compared directory
-		DirectoryDifference directoryDifference = new DirectoryDifference(leftDirectory, rightDirectory);
 		// Generate output while remains resources
-		while (leftResourceIterator.hasNext()||rightResourceIterator.hasNext()) {
+		while (leftResourceIterator.hasNext()||rightResourceIterator.hasNext()||leftResource!=null||rightResource!=null) {
 			/*
 			 * Take new resources.
 			 */
@@ -373,49 +973,37 @@ public class ChecksumTool {
 			// Check resource equality
 			if (compare<0) {
 				if (leftResource instanceof AbstractDirectory) {
-					// Compute and add left directory differences
-					DirectoryDifference leftDirectoryDifference = ChecksumTool.computeDifferences((AbstractDirectory) leftResource, null);
-					// Check if left directory has differences
-					if (leftDirectoryDifference.hasDifference())
-						directoryDifference.addDifference(leftDirectoryDifference);
+					// Visit left directory differences
+					ChecksumTool.visitDifferences((AbstractDirectory) leftResource, null, visitor);
 				} else if (leftResource instanceof AbstractFile) {
-					// Create and add left only difference
-					AbstractDifference leftOnlyDifference = new FileDifference(FileDifferenceType.LEFT_ONLY, (AbstractFile) leftResource, null);
-					directoryDifference.addDifference(leftOnlyDifference);
+					// Notify left only difference
+					visitor.visitFile(new FileDifference(FileDifferenceType.LEFT_ONLY, (AbstractFile) leftResource, null));
 				}
 				// Clear resource
 				leftResource = null;
 			} else if (compare>0) {
 				if (rightResource instanceof AbstractDirectory) {
-					// Compute and add right directory differences
-					DirectoryDifference rightDirectoryDifference = ChecksumTool.computeDifferences(null, (AbstractDirectory) rightResource);
-					// Check if right directory has differences
-					if (rightDirectoryDifference.hasDifference())
-						directoryDifference.addDifference(rightDirectoryDifference);
+					// Visit right directory differences
+					ChecksumTool.visitDifferences(null, (AbstractDirectory) rightResource, visitor);
 				} else if (rightResource instanceof AbstractFile) {
-					// Create and add right only difference
-					AbstractDifference rightOnlyDifference = new FileDifference(FileDifferenceType.RIGHT_ONLY, null, (AbstractFile) rightResource);
-					directoryDifference.addDifference(rightOnlyDifference);
+					// Notify right only difference
+					visitor.visitFile(new FileDifference(FileDifferenceType.RIGHT_ONLY, null, (AbstractFile) rightResource));
 				}
 				// Clear resource
 				rightResource = null;
 			} else if (compare==0) {
-				if (leftResource instanceof AbstractDirectory&&rightDirectory instanceof AbstractDirectory) {
-					// Recursively compute directory differences
-					DirectoryDifference subDirectoryDifference = ChecksumTool.computeDifferences((AbstractDirectory) leftResource,
-							(AbstractDirectory) rightResource);
-					// Check if sub-directory has differences
-					if (subDirectoryDifference.hasDifference())
-						directoryDifference.addDifference(subDirectoryDifference);
+				if (leftResource instanceof AbstractDirectory&&rightResource instanceof AbstractDirectory) {
+					// Skip identical sub-directories
+					if (!ChecksumTool.haveSameChecksum((AbstractDirectory) leftResource, (AbstractDirectory) rightResource))
+						// Recursively visit directory differences
+						ChecksumTool.visitDifferences((AbstractDirectory) leftResource, (AbstractDirectory) rightResource, visitor);
 				} else if (leftResource instanceof AbstractFile&&rightResource instanceof AbstractFile) {
-					// Compare file checksums
+					// Compare file checksums, unhashed files being only equal to unhashed files
 					AbstractFile leftFile = (AbstractFile) leftResource;
 					AbstractFile rightFile = (AbstractFile) rightResource;
 					if (!Arrays.equals(leftFile.getChecksum(), rightFile.getChecksum())) {
-						// Create and add different difference
-						AbstractDifference differentDifference = new FileDifference(FileDifferenceType.DIFFERENT, (AbstractFile) leftResource,
-								(AbstractFile) rightResource);
-						directoryDifference.addDifference(differentDifference);
+						// Notify different difference
+						visitor.visitFile(new FileDifference(FileDifferenceType.DIFFERENT, leftFile, rightFile));
 					}
 				}
 				// Clear resources
@@ -423,8 +1011,114 @@ public class ChecksumTool {
 				rightResource = null;
 			}
 		}
-		// Return directory difference
-		return directoryDifference;
+		// Notify visitor directory comparison ends
+		visitor.exitDirectory(leftDirectory, rightDirectory);
+	}
+
+	/**
+	 * Visit differences between two manifests.<br>
+	 * Both manifest readers must return resources sorted by path (see {@link #compareResourcePath(AbstractResource, AbstractResource)}), the
+	 * comparison failing on the first resource out of order. Differences are notified to the visitor as a single directory comparison. The content
+	 * of directories with the same checksum on both sides is skipped. Files without checksum on both sides are not reported, files with a checksum
+	 * on one side only are reported as different.
+	 * 
+	 * @param leftReader
+	 *            The left manifest reader.
+	 * @param rightReader
+	 *            The right manifest reader.
+	 * @param visitor
+	 *            The visitor to notify differences.
+	 * @throws ChecksumException
+	 *             Throws exception if a manifest could not be read or the visitor could not process a difference.
+	 */
+	public static void visitDifferences(ManifestReader leftReader, ManifestReader rightReader, DifferenceVisitor visitor) throws ChecksumException {
+		// Notify visitor comparison starts
+		visitor.enterDirectory(null, null);
+		// Read first resources
+		AbstractResource leftResource = ChecksumTool.checkPathOrder(null, leftReader.read());
+		AbstractResource rightResource = ChecksumTool.checkPathOrder(null, rightReader.read());
+		// Generate output while remains resources
+		while (leftResource!=null||rightResource!=null) {
+			// Compare resource paths
+			int compare = ChecksumTool.compareResourcePath(leftResource, rightResource);
+			// Check resource equality
+			if (compare<0) {
+				// Notify left only difference
+				if (leftResource instanceof AbstractFile)
+					visitor.visitFile(new FileDifference(FileDifferenceType.LEFT_ONLY, (AbstractFile) leftResource, null));
+				// Take next left resource
+				leftResource = ChecksumTool.checkPathOrder(leftResource, leftReader.read());
+			} else if (compare>0) {
+				// Notify right only difference
+				if (rightResource instanceof AbstractFile)
+					visitor.visitFile(new FileDifference(FileDifferenceType.RIGHT_ONLY, null, (AbstractFile) rightResource));
+				// Take next right resource
+				rightResource = ChecksumTool.checkPathOrder(rightResource, rightReader.read());
+			} else if (leftResource instanceof AbstractDirectory) {
+				// Check if directories are identical
+				if (ChecksumTool.haveSameChecksum((AbstractDirectory) leftResource, (AbstractDirectory) rightResource)) {
+					// Skip directory contents
+					leftResource = ChecksumTool.checkPathOrder(leftResource, leftReader.skip((AbstractDirectory) leftResource));
+					rightResource = ChecksumTool.checkPathOrder(rightResource, rightReader.skip((AbstractDirectory) rightResource));
+				} else {
+					// Take next resources
+					leftResource = ChecksumTool.checkPathOrder(leftResource, leftReader.read());
+					rightResource = ChecksumTool.checkPathOrder(rightResource, rightReader.read());
+				}
+			} else {
+				// Compare file checksums, unhashed files being only equal to unhashed files
+				AbstractFile leftFile = (AbstractFile) leftResource;
+				AbstractFile rightFile = (AbstractFile) rightResource;
+				if (!Arrays.equals(leftFile.getChecksum(), rightFile.getChecksum())) {
+					// Notify different difference
+					visitor.visitFile(new FileDifference(FileDifferenceType.DIFFERENT, leftFile, rightFile));
+				}
+				// Take next resources
+				leftResource = ChecksumTool.checkPathOrder(leftResource, leftReader.read());
+				rightResource = ChecksumTool.checkPathOrder(rightResource, rightReader.read());
+			}
+		}
+		// Notify visitor comparison ends
+		visitor.exitDirectory(null, null);
+	}
+
+	/**
+	 * Check a manifest resource is after the previous one by path.
+	 * 
+	 * @param previousResource
+	 *            The previous resource read from the manifest (<code>null</code> if none).
+	 * @param resource
+	 *            The resource read from the manifest (<code>null</code> if no resource left).
+	 * @return The checked resource.
+	 * @throws ChecksumException
+	 *             Throws exception if the resource is not after the previous one.
+	 */
+	private static AbstractResource checkPathOrder(AbstractResource previousResource, AbstractResource resource) throws ChecksumException {
+		// Check resource order
+		if (previousResource!=null&&resource!=null&&ChecksumTool.compareResourcePath(previousResource, resource)>=0)
+			throw new ChecksumException("Manifest is not sorted by path: \""+resource.getPath()+"\" found after \""+previousResource.getPath()+"\".");
+		// Return checked resource
+		return resource;
+	}
+
+	/**
+	 * Check if two directories have the same computed checksum.
+	 * 
+	 * @param leftDirectory
+	 *            The left directory to check.
+	 * @param rightDirectory
+	 *            The right directory to check.
+	 * @return <code>true</code> if both directory checksums are computed and equal, <code>false</code> otherwise.
+	 */
+	private static boolean haveSameChecksum(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+		// Check missing directories
+		if (leftDirectory==null||rightDirectory==null)
+			return false;
+		// Check missing checksums
+		if (leftDirectory.getChecksum()==null||rightDirectory.getChecksum()==null)
+			return false;
+		// Compare directory checksums
+		return Arrays.equals(leftDirectory.getChecksum(), rightDirectory.getChecksum());
 	}
 
 	/**
@@ -438,10 +1132,52 @@ public class ChecksumTool {
 	 *             Throws exception if the checksums could not be output.
 	 */
 	public static void outputResourceChecksum(AbstractResource resource, File outputFile) throws ChecksumException {
+		ChecksumTool.outputResourceChecksum(resource, outputFile, false);
+	}
+
+	/**
+	 * Output resource checksum.
+	 * 
+	 * @param resource
+	 *            The resource to output checksum.
+	 * @param outputFile
+	 *            The output file to store checksums.
+	 * @param directoryChecksums
+	 *            <code>true</code> to output directory checksums before their content, <code>false</code> to output file checksums only.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be output.
+	 */
+	public static void outputResourceChecksum(AbstractResource resource, File outputFile, boolean directoryChecksums) throws ChecksumException {
+		ChecksumTool.outputResourceChecksum(resource, outputFile, directoryChecksums, Collections.<String, String> emptyMap());
+	}
+
+	/**
+	 * Output resource checksum, followed by the resources skipped on error.<br>
+	 * Each skipped resource is output as a line with <code>FAILED</code> instead of its checksum, followed by its working copy path and the error
+	 * message. Such output is not a valid manifest so a partial computation could not be diffed as a complete one.
+	 * 
+	 * @param resource
+	 *            The resource to output checksum.
+	 * @param outputFile
+	 *            The output file to store checksums.
+	 * @param directoryChecksums
+	 *            <code>true</code> to output directory checksums before their content, <code>false</code> to output file checksums only.
+	 * @param failedPaths
+	 *            The error messages of resources skipped on error, by working copy path.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be output.
+	 */
+	public static void outputResourceChecksum(AbstractResource resource, File outputFile, boolean directoryChecksums, Map<String, String> failedPaths)
+			throws ChecksumException {
 		// Create an output writer
 		try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath())) {
 			// Output resource on the writer
-			ChecksumTool.outputResourceChecksum(writer, resource);
+			ChecksumTool.outputResourceChecksum(writer, resource, directoryChecksums);
+			// Output each resource skipped on error
+			for (Map.Entry<String, String> failedPath : failedPaths.entrySet()) {
+				writer.write("FAILED\t"+failedPath.getKey()+"\t"+failedPath.getValue());
+				writer.newLine();
+			}
 		} catch (IOException exception) {
 			throw new ChecksumException("Unable to write checksum file.", exception);
 		}
@@ -461,17 +1197,121 @@ public class ChecksumTool {
 	 *             Throws exception if the checksums could not be output.
 	 */
 	public static void outputDiffResourceChecksum(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory, File outputFile) throws ChecksumException {
+		ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, outputFile, false);
+	}
+
+	/**
+	 * Output different resource checksums.<br>
+	 * The two directories must be sorted (calling {@link AbstractDirectory#sort()}) in order to compute differences.
+	 * 
+	 * @param leftDirectory
+	 *            The left resource to output checksum.
+	 * @param rightDirectory
+	 *            The right resource to output checksum.
+	 * @param outputFile
+	 *            The output file to store checksums.
+	 * @param detectMoves
+	 *            <code>true</code> to detect moved and copied resources (output after the other differences), <code>false</code> otherwise.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be output.
+	 */
+	public static void outputDiffResourceChecksum(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory, File outputFile, boolean detectMoves)
+			throws ChecksumException {
 		// Create an output writer
 		try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath())) {
-			// Compute differences
-			DirectoryDifference directoryDifference = ChecksumTool.computeDifferences(leftDirectory, rightDirectory);
-			// Output differences on the writer
-			ChecksumTool.outputDiffResourceChecksum(writer, directoryDifference);
+			// Output differences on the writer as soon as they are found
+			ChecksumTool.visitDifferences(leftDirectory, rightDirectory, ChecksumTool.createDifferenceWriter(writer, detectMoves));
 		} catch (IOException exception) {
 			throw new ChecksumException("Unable to write checksum file.", exception);
 		}
 	}
 
+	/**
+	 * Output different resource checksums of two manifests.<br>
+	 * Both manifest readers must return resources sorted by path (see {@link #compareResourcePath(AbstractResource, AbstractResource)}).
+	 * 
+	 * @param leftReader
+	 *            The left manifest reader.
+	 * @param rightReader
+	 *            The right manifest reader.
+	 * @param outputFile
+	 *            The output file to store checksums.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be output.
+	 */
+	public static void outputDiffResourceChecksum(ManifestReader leftReader, ManifestReader rightReader, File outputFile) throws ChecksumException {
+		ChecksumTool.outputDiffResourceChecksum(leftReader, rightReader, outputFile, false);
+	}
+
+	/**
+	 * Output different resource checksums of two manifests.<br>
+	 * Both manifest readers must return resources sorted by path (see {@link #compareResourcePath(AbstractResource, AbstractResource)}).
+	 * 
+	 * @param leftReader
+	 *            The left manifest reader.
+	 * @param rightReader
+	 *            The right manifest reader.
+	 * @param outputFile
+	 *            The output file to store checksums.
+	 * @param detectMoves
+	 *            <code>true</code> to detect moved and copied files (output after the other differences), <code>false</code> otherwise.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be output.
+	 */
+	public static void outputDiffResourceChecksum(ManifestReader leftReader, ManifestReader rightReader, File outputFile, boolean detectMoves)
+			throws ChecksumException {
+		// Create an output writer
+		try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath())) {
+			// Output differences on the writer as soon as they are found
+			ChecksumTool.visitDifferences(leftReader, rightReader, ChecksumTool.createDifferenceWriter(writer, detectMoves));
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to write checksum file.", exception);
+		}
+	}
+
+	/**
+	 * Create a difference visitor to output differences.
+	 * 
+	 * @param writer
+	 *            The writer to output differences.
+	 * @param detectMoves
+	 *            <code>true</code> to detect moved and copied resources, <code>false</code> otherwise.
+	 * @return The difference visitor to output differences.
+	 */
+	private static DifferenceVisitor createDifferenceWriter(BufferedWriter writer, boolean detectMoves) {
+		// Create difference writer
+		DifferenceVisitor visitor = new DifferenceWriter(writer);
+		// Decorate it with move detector if needed
+		return detectMoves ? new MoveDetector(visitor) : visitor;
+	}
+
+	/**
+	 * Output resource checksum.<br>
+	 * Directory lines end with the byte length of the directory content lines, so a manifest reader could skip the content of identical
+	 * directories without reading it.
+	 * 
+	 * @param writer
+	 *            The writer to output checksum.
+	 * @param resource
+	 *            The resource to output checksum.
+	 * @param directoryChecksums
+	 *            <code>true</code> to output directory checksums before their content, <code>false</code> to output file checksums only.
+	 * @throws IOException
+	 *             Throws exception if the checksum could not be output.
+	 */
+	protected static void outputResourceChecksum(BufferedWriter writer, AbstractResource resource, boolean directoryChecksums) throws IOException {
+		// Check directory checksums output
+		if (!directoryChecksums) {
+			ChecksumTool.outputResourceChecksum(writer, resource, (Map<AbstractDirectory, Long>) null);
+			return;
+		}
+		// Compute directory content lengths
+		Map<AbstractDirectory, Long> contentLengths = new IdentityHashMap<>();
+		ChecksumTool.computeOutputLength(resource, contentLengths);
+		// Output resource with directory checksums
+		ChecksumTool.outputResourceChecksum(writer, resource, contentLengths);
+	}
+
 	/**
 	 * Output resource checksum.
 	 * 
@@ -479,37 +1319,119 @@ public class ChecksumTool {
 	 *            The writer to output checksum.
 	 * @param resource
 	 *            The resource to output checksum.
+	 * @param contentLengths
+	 *            The byte length of the content of each directory with checksum (<code>null</code> to output file checksums only).
 	 * @throws IOException
 	 *             Throws exception if the checksum could not be output.
 	 */
-	protected static void outputResourceChecksum(BufferedWriter writer, AbstractResource resource) throws IOException {
+	private static void outputResourceChecksum(BufferedWriter writer, AbstractResource resource, Map<AbstractDirectory, Long> contentLengths)
+			throws IOException {
 		// Check directory resource type
 		if (resource instanceof AbstractDirectory) {
+			// Get directory resource
+			AbstractDirectory directory = (AbstractDirectory) resource;
+			// Output directory checksum
+			if (contentLengths!=null&&directory.getChecksum()!=null) {
+				writer.write(ChecksumTool.createDirectoryLine(directory, contentLengths.get(directory)));
+				writer.newLine();
+			}
 			// Output each child of directory
-			for (AbstractResource child : ((AbstractDirectory) resource).getChildren())
-				ChecksumTool.outputResourceChecksum(writer, child);
-			// Return
-			return;
+			for (AbstractResource child : directory.getChildren())
+				ChecksumTool.outputResourceChecksum(writer, child, contentLengths);
 		}
 		// Check file resource type
 		else if (resource instanceof AbstractFile) {
 			// Get file resource
 			AbstractFile file = (AbstractFile) resource;
-			// Get file checksum bytes
-			byte[] checksumBytes = file.getChecksum();
-			if (checksumBytes==null)
-				return;
-			// Create hash string representation
-			StringBuilder stringBuilder = new StringBuilder();
-			for (byte b : file.getChecksum())
-				stringBuilder.append(String.format("%02x", b));
-			// Append file working copy path
-			stringBuilder.append('\t');
-			stringBuilder.append(file instanceof SvnResource ? ((SvnResource) file).getWorkingCopyPath() : file.getPath());
-			// Append buffer to output
-			writer.write(stringBuilder.toString());
-			writer.newLine();
+			// Output file checksum
+			if (file.getChecksum()!=null) {
+				writer.write(ChecksumTool.createFileLine(file));
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Compute the byte length of resource checksum output, including directory checksums.
+	 * 
+	 * @param resource
+	 *            The resource to compute output length.
+	 * @param contentLengths
+	 *            The byte length of the content of each directory with checksum, to fill.
+	 * @return The byte length of the resource checksum lines.
+	 */
+	private static long computeOutputLength(AbstractResource resource, Map<AbstractDirectory, Long> contentLengths) {
+		// Get line separator length
+		int separatorLength = System.lineSeparator().length();
+		// Check directory resource type
+		if (resource instanceof AbstractDirectory) {
+			// Get directory resource
+			AbstractDirectory directory = (AbstractDirectory) resource;
+			// Compute content length
+			long contentLength = 0;
+			for (AbstractResource child : directory.getChildren())
+				contentLength += ChecksumTool.computeOutputLength(child, contentLengths);
+			// Check directory checksum
+			if (directory.getChecksum()==null)
+				return contentLength;
+			// Save content length and add directory line length
+			contentLengths.put(directory, contentLength);
+			return ChecksumTool.createDirectoryLine(directory, contentLength).getBytes(StandardCharsets.UTF_8).length+separatorLength+contentLength;
+		}
+		// Check file resource type
+		else if (resource instanceof AbstractFile) {
+			// Get file resource
+			AbstractFile file = (AbstractFile) resource;
+			// Compute file line length
+			if (file.getChecksum()!=null)
+				return ChecksumTool.createFileLine(file).getBytes(StandardCharsets.UTF_8).length+separatorLength;
 		}
+		// No output
+		return 0;
+	}
+
+	/**
+	 * Create a file checksum line.
+	 * 
+	 * @param file
+	 *            The file to create line.
+	 * @return The file checksum and working copy path separated by a tabulation.
+	 */
+	private static String createFileLine(AbstractFile file) {
+		// Create hash string representation
+		StringBuilder stringBuilder = new StringBuilder();
+		for (byte b : file.getChecksum())
+			stringBuilder.append(String.format("%02x", b));
+		// Append file working copy path
+		stringBuilder.append('\t');
+		stringBuilder.append(file instanceof SvnResource ? ((SvnResource) file).getWorkingCopyPath() : file.getPath());
+		// Return line
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Create a directory checksum line.
+	 * 
+	 * @param directory
+	 *            The directory to create line.
+	 * @param contentLength
+	 *            The byte length of the directory content lines.
+	 * @return The directory checksum, working copy path with trailing slash and content length separated by tabulations.
+	 */
+	private static String createDirectoryLine(AbstractDirectory directory, long contentLength) {
+		// Create hash string representation
+		StringBuilder stringBuilder = new StringBuilder();
+		for (byte b : directory.getChecksum())
+			stringBuilder.append(String.format("%02x", b));
+		// Append directory working copy path with trailing slash
+		stringBuilder.append('\t');
+		stringBuilder.append(directory instanceof SvnResource ? ((SvnResource) directory).getWorkingCopyPath() : directory.getPath());
+		stringBuilder.append('/');
+		// Append directory content length
+		stringBuilder.append('\t');
+		stringBuilder.append(contentLength);
+		// Return line
+		return stringBuilder.toString();
 	}
 
 	/**
@@ -530,51 +1452,148 @@ public class ChecksumTool {
 				// Recursively output sub-directory difference
 				ChecksumTool.outputDiffResourceChecksum(writer, (DirectoryDifference) difference);
 			} else if (difference instanceof FileDifference) {
-				FileDifference fileDifference = (FileDifference) difference;
-				// Get left and right related files
-				AbstractFile leftFile = fileDifference.getLeftFile();
-				AbstractFile rightFile = fileDifference.getRightFile();
-				// Create output string builder
-				StringBuilder stringBuilder = new StringBuilder();
-				switch (fileDifference.getType()) {
-					case LEFT_ONLY:
-						// Output left file checksum
-						for (byte b : leftFile.getChecksum())
-							stringBuilder.append(String.format("%02x", b));
-						stringBuilder.append('\t');
-						stringBuilder.append(leftFile instanceof SvnResource ? ((SvnResource) leftFile).getWorkingCopyPath() : leftFile.getPath());
-						stringBuilder.append('\t');
-						stringBuilder.append('\t');
-						break;
-					case DIFFERENT:
-						// Output file checksums
-						for (byte b : leftFile.getChecksum())
-							stringBuilder.append(String.format("%02x", b));
-						stringBuilder.append('\t');
-						stringBuilder.append(leftFile instanceof SvnResource ? ((SvnResource) leftFile).getWorkingCopyPath() : leftFile.getPath());
-						stringBuilder.append('\t');
-						for (byte b : rightFile.getChecksum())
-							stringBuilder.append(String.format("%02x", b));
-						stringBuilder.append('\t');
-						stringBuilder.append(rightFile instanceof SvnResource ? ((SvnResource) rightFile).getWorkingCopyPath() : rightFile.getPath());
-						break;
-					case RIGHT_ONLY:
-						// Output right file checksums
-						stringBuilder.append('\t');
-						stringBuilder.append('\t');
-						for (byte b : rightFile.getChecksum())
-							stringBuilder.append(String.format("%02x", b));
-						stringBuilder.append('\t');
-						stringBuilder.append(rightFile instanceof SvnResource ? ((SvnResource) rightFile).getWorkingCopyPath() : rightFile.getPath());
-						break;
-				}
-				// Append the file difference
-				writer.write(stringBuilder.toString());
-				writer.newLine();
+				// Output file difference
+				ChecksumTool.outputFileDifference(writer, (FileDifference) difference);
+			} else if (difference instanceof MovedDirectoryDifference) {
+				// Output moved directory difference
+				ChecksumTool.outputMovedDirectoryDifference(writer, (MovedDirectoryDifference) difference);
 			}
 		}
 	}
 
+	/**
+	 * Output a file difference.
+	 * 
+	 * @param writer
+	 *            The writer to output checksum.
+	 * @param fileDifference
+	 *            The file difference to output.
+	 * @throws IOException
+	 *             Throws exception if the checksum could not be output.
+	 */
+	protected static void outputFileDifference(BufferedWriter writer, FileDifference fileDifference) throws IOException {
+		// Get left and right related files
+		AbstractFile leftFile = fileDifference.getLeftFile();
+		AbstractFile rightFile = fileDifference.getRightFile();
+		// Create output string builder
+		StringBuilder stringBuilder = new StringBuilder();
+		switch (fileDifference.getType()) {
+			case LEFT_ONLY:
+				// Output left file checksum
+				ChecksumTool.appendFileChecksum(stringBuilder, leftFile);
+				stringBuilder.append('\t');
+				stringBuilder.append(leftFile instanceof SvnResource ? ((SvnResource) leftFile).getWorkingCopyPath() : leftFile.getPath());
+				stringBuilder.append('\t');
+				stringBuilder.append('\t');
+				break;
+			case DIFFERENT:
+				// Output file checksums
+				ChecksumTool.appendFileChecksum(stringBuilder, leftFile);
+				stringBuilder.append('\t');
+				stringBuilder.append(leftFile instanceof SvnResource ? ((SvnResource) leftFile).getWorkingCopyPath() : leftFile.getPath());
+				stringBuilder.append('\t');
+				ChecksumTool.appendFileChecksum(stringBuilder, rightFile);
+				stringBuilder.append('\t');
+				stringBuilder.append(rightFile instanceof SvnResource ? ((SvnResource) rightFile).getWorkingCopyPath() : rightFile.getPath());
+				break;
+			case RIGHT_ONLY:
+				// Output right file checksums
+				stringBuilder.append('\t');
+				stringBuilder.append('\t');
+				ChecksumTool.appendFileChecksum(stringBuilder, rightFile);
+				stringBuilder.append('\t');
+				stringBuilder.append(rightFile instanceof SvnResource ? ((SvnResource) rightFile).getWorkingCopyPath() : rightFile.getPath());
+				break;
+			case MOVED:
+			case COPIED:
+				// Output file checksums then difference type
+				ChecksumTool.appendFileChecksum(stringBuilder, leftFile);
+				stringBuilder.append('\t');
+				stringBuilder.append(leftFile instanceof SvnResource ? ((SvnResource) leftFile).getWorkingCopyPath() : leftFile.getPath());
+				stringBuilder.append('\t');
+				ChecksumTool.appendFileChecksum(stringBuilder, rightFile);
+				stringBuilder.append('\t');
+				stringBuilder.append(rightFile instanceof SvnResource ? ((SvnResource) rightFile).getWorkingCopyPath() : rightFile.getPath());
+				stringBuilder.append('\t');
+				stringBuilder.append(fileDifference.getType());
+				break;
+		}
+		// Append the file difference
+		writer.write(stringBuilder.toString());
+		writer.newLine();
+	}
+
+	/**
+	 * Append a file checksum to a difference output.
+	 * 
+	 * @param stringBuilder
+	 *            The string builder to append checksum to.
+	 * @param file
+	 *            The file to append checksum.
+	 */
+	private static void appendFileChecksum(StringBuilder stringBuilder, AbstractFile file) {
+		// Get file checksum bytes
+		byte[] checksumBytes = file.getChecksum();
+		// Check if file was left unhashed
+		if (checksumBytes==null) {
+			stringBuilder.append(ChecksumTool.UNHASHED_CHECKSUM);
+			return;
+		}
+		// Append hash string representation
+		for (byte b : checksumBytes)
+			stringBuilder.append(String.format("%02x", b));
+	}
+
+	/**
+	 * Output a moved directory difference.
+	 * 
+	 * @param writer
+	 *            The writer to output checksum.
+	 * @param movedDirectoryDifference
+	 *            The moved directory difference to output.
+	 * @throws IOException
+	 *             Throws exception if the checksum could not be output.
+	 */
+	protected static void outputMovedDirectoryDifference(BufferedWriter writer, MovedDirectoryDifference movedDirectoryDifference) throws IOException {
+		// Get left and right related directories
+		AbstractDirectory leftDirectory = movedDirectoryDifference.getLeftDirectory();
+		AbstractDirectory rightDirectory = movedDirectoryDifference.getRightDirectory();
+		// Create output string builder
+		StringBuilder stringBuilder = new StringBuilder();
+		// Output directory checksums with trailing slash paths then difference type
+		for (byte b : leftDirectory.getChecksum())
+			stringBuilder.append(String.format("%02x", b));
+		stringBuilder.append('\t');
+		stringBuilder.append(leftDirectory instanceof SvnResource ? ((SvnResource) leftDirectory).getWorkingCopyPath() : leftDirectory.getPath());
+		stringBuilder.append('/');
+		stringBuilder.append('\t');
+		for (byte b : rightDirectory.getChecksum())
+			stringBuilder.append(String.format("%02x", b));
+		stringBuilder.append('\t');
+		stringBuilder.append(rightDirectory instanceof SvnResource ? ((SvnResource) rightDirectory).getWorkingCopyPath() : rightDirectory.getPath());
+		stringBuilder.append('/');
+		stringBuilder.append('\t');
+		stringBuilder.append(FileDifferenceType.MOVED);
+		// Append the moved directory difference
+		writer.write(stringBuilder.toString());
+		writer.newLine();
+	}
+
+	/**
+	 * Get user password from command line, or read it if not given.
+	 * 
+	 * @param commandLine
+	 *            The parsed command line.
+	 * @return The user password.
+	 */
+	private static char[] getPasswd(CommandLine commandLine) {
+		// Check password parameter
+		if (commandLine.hasOption("password"))
+			return commandLine.getOptionValue("password").toCharArray();
+		// Read user password
+		return ChecksumTool.readPasswd();
+	}
+
 	/**
 	 * Read user password.
 	 * 
@@ -597,6 +1616,61 @@ public class ChecksumTool {
 		}
 	}
 
+	/**
+	 * This class is a difference visitor to output file differences as soon as they are found.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class DifferenceWriter implements DifferenceVisitor {
+		/** The writer to output differences. */
+		private final BufferedWriter writer;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param writer
+		 *            The writer to output differences.
+		 */
+		public DifferenceWriter(BufferedWriter writer) {
+			this.writer = writer;
+		}
+
+		/*
+		 * Difference visitor.
+		 */
+
+		@Override
+		public void enterDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+			// Nothing to output
+		}
+
+		@Override
+		public void visitFile(FileDifference fileDifference) throws ChecksumException {
+			try {
+				// Output file difference
+				ChecksumTool.outputFileDifference(this.writer, fileDifference);
+			} catch (IOException exception) {
+				throw new ChecksumException("Unable to write checksum file.", exception);
+			}
+		}
+
+		@Override
+		public void visitMovedDirectory(MovedDirectoryDifference movedDirectoryDifference) throws ChecksumException {
+			try {
+				// Output moved directory difference
+				ChecksumTool.outputMovedDirectoryDifference(this.writer, movedDirectoryDifference);
+			} catch (IOException exception) {
+				throw new ChecksumException("Unable to write checksum file.", exception);
+			}
+		}
+
+		@Override
+		public void exitDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+			// Nothing to output
+		}
+	}
+
 	/**
 	 * This class represents an always empty iterator.
 	 * 
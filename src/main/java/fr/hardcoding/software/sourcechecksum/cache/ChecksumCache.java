@@ -0,0 +1,180 @@
+package fr.hardcoding.software.sourcechecksum.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+
+/**
+ * This class is a persistent cache of file checksums.<br>
+ * Checksums are stored by file path with the committed revision they were computed for, so a cached checksum is only used while the file is not
+ * committed again. A cache file holds the checksums of a single set of settings (such as repository, algorithm and translation settings): it is
+ * ignored when loaded with other settings.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ChecksumCache {
+	/** The cache file. */
+	private final Path cachePath;
+	/** The settings of the cached checksums. */
+	private final String settings;
+	/** The cached entries by file path. */
+	private final Map<String, CacheEntry> entries;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param cachePath
+	 *            The cache file (<code>null</code> for a cache that is never loaded nor saved).
+	 * @param settings
+	 *            The settings of the cached checksums.
+	 */
+	public ChecksumCache(Path cachePath, String settings) {
+		this.cachePath = cachePath;
+		this.settings = settings;
+		this.entries = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Load the cache file.<br>
+	 * Nothing is loaded if the cache file does not exist or was saved with other settings.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the cache file could not be read.
+	 */
+	public void load() throws ChecksumException {
+		// Check cache file
+		if (!Files.exists(this.cachePath))
+			return;
+		try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.cachePath)))) {
+			// Check cache settings
+			if (!this.settings.equals(inputStream.readUTF()))
+				return;
+			// Read each entry
+			while (true) {
+				String path;
+				try {
+					path = inputStream.readUTF();
+				} catch (EOFException exception) {
+					// End of cache file
+					break;
+				}
+				long revision = inputStream.readLong();
+				byte[] checksum = new byte[inputStream.readShort()];
+				inputStream.readFully(checksum);
+				this.entries.put(path, new CacheEntry(revision, checksum));
+			}
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to read checksum cache \""+this.cachePath+"\".", exception);
+		}
+	}
+
+	/**
+	 * Save the cache file.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the cache file could not be written.
+	 */
+	public void save() throws ChecksumException {
+		try {
+			// Create cache directory
+			Path cacheDirectory = this.cachePath.toAbsolutePath().getParent();
+			Files.createDirectories(cacheDirectory);
+			// Write cache to a temporary file
+			Path temporaryPath = Files.createTempFile(cacheDirectory, "cache", ".tmp");
+			try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+				// Write cache settings
+				outputStream.writeUTF(this.settings);
+				// Write each entry
+				for (Map.Entry<String, CacheEntry> entry : this.entries.entrySet()) {
+					outputStream.writeUTF(entry.getKey());
+					outputStream.writeLong(entry.getValue().revision);
+					outputStream.writeShort(entry.getValue().checksum.length);
+					outputStream.write(entry.getValue().checksum);
+				}
+			}
+			// Replace cache file
+			Files.move(temporaryPath, this.cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to write checksum cache \""+this.cachePath+"\".", exception);
+		}
+	}
+
+	/**
+	 * Get a cached checksum.
+	 * 
+	 * @param path
+	 *            The file path.
+	 * @param revision
+	 *            The file committed revision.
+	 * @return The cached checksum (<code>null</code> if no checksum is cached for the file committed revision).
+	 */
+	public byte[] get(String path, long revision) {
+		// Get cached entry
+		CacheEntry entry = this.entries.get(path);
+		// Check cached entry revision
+		if (entry==null||entry.revision!=revision)
+			return null;
+		// Return cached checksum
+		return entry.checksum;
+	}
+
+	/**
+	 * Cache a checksum.
+	 * 
+	 * @param path
+	 *            The file path.
+	 * @param revision
+	 *            The file committed revision.
+	 * @param checksum
+	 *            The checksum to cache.
+	 */
+	public void put(String path, long revision, byte[] checksum) {
+		this.entries.put(path, new CacheEntry(revision, checksum));
+	}
+
+	/**
+	 * Get the number of cached checksums.
+	 * 
+	 * @return The number of cached checksums.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * This class is a cached checksum entry.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class CacheEntry {
+		/** The file committed revision. */
+		private final long revision;
+		/** The file checksum. */
+		private final byte[] checksum;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param revision
+		 *            The file committed revision.
+		 * @param checksum
+		 *            The file checksum.
+		 */
+		private CacheEntry(long revision, byte[] checksum) {
+			this.revision = revision;
+			this.checksum = checksum;
+		}
+	}
+}
\ No newline at end of file
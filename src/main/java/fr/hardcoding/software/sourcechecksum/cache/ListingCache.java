@@ -0,0 +1,334 @@
+package fr.hardcoding.software.sourcechecksum.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+
+/**
+ * This class is a persistent cache of directory listings.<br>
+ * Listings are stored by directory path with the committed revision they were listed for. As the committed revision of a directory changes each
+ * time its content changes (at any depth), a cached listing is valid for its whole subtree while the directory committed revision is unchanged.
+ * Listings are stored unfiltered, with the directory externals definition. A cache file starts with its format version and settings (such as the
+ * repository): it is ignored when loaded by another format version or with other settings.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ListingCache {
+	/** The cache file format version. */
+	private static final int FORMAT_VERSION = 1;
+	/** The cache file. */
+	private final Path cachePath;
+	/** The settings of the cached listings. */
+	private final String settings;
+	/** The cached listings by directory path. */
+	private final Map<String, Listing> listings;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param cachePath
+	 *            The cache file (<code>null</code> for a cache that is never loaded nor saved).
+	 * @param settings
+	 *            The settings of the cached listings.
+	 */
+	public ListingCache(Path cachePath, String settings) {
+		this.cachePath = cachePath;
+		this.settings = settings;
+		this.listings = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Load the cache file.<br>
+	 * Nothing is loaded if the cache file does not exist, was saved by another format version or with other settings.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the cache file could not be read.
+	 */
+	public void load() throws ChecksumException {
+		// Check cache file
+		if (!Files.exists(this.cachePath))
+			return;
+		try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.cachePath)))) {
+			// Check cache format version and settings
+			try {
+				if (inputStream.readInt()!=ListingCache.FORMAT_VERSION||!this.settings.equals(inputStream.readUTF()))
+					return;
+			} catch (EOFException|UTFDataFormatException exception) {
+				// Cache file was not written as listing cache
+				return;
+			}
+			// Read each listing
+			while (true) {
+				String path;
+				try {
+					path = inputStream.readUTF();
+				} catch (EOFException exception) {
+					// End of cache file
+					break;
+				}
+				long revision = inputStream.readLong();
+				// Read externals definition
+				String externals = null;
+				int externalsLength = inputStream.readInt();
+				if (externalsLength>=0) {
+					byte[] externalsBytes = new byte[externalsLength];
+					inputStream.readFully(externalsBytes);
+					externals = new String(externalsBytes, StandardCharsets.UTF_8);
+				}
+				// Read entries
+				int entryCount = inputStream.readInt();
+				List<ListingEntry> entries = new ArrayList<>(entryCount);
+				for (int i = 0; i<entryCount; i++) {
+					String name = inputStream.readUTF();
+					boolean directory = inputStream.readBoolean();
+					long size = inputStream.readLong();
+					boolean properties = inputStream.readBoolean();
+					long entryRevision = inputStream.readLong();
+					entries.add(new ListingEntry(name, directory, size, properties, entryRevision));
+				}
+				this.listings.put(path, new Listing(revision, entries, externals));
+			}
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to read listing cache \""+this.cachePath+"\".", exception);
+		}
+	}
+
+	/**
+	 * Save the cache file.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the cache file could not be written.
+	 */
+	public void save() throws ChecksumException {
+		try {
+			// Create cache directory
+			Path cacheDirectory = this.cachePath.toAbsolutePath().getParent();
+			Files.createDirectories(cacheDirectory);
+			// Write cache to a temporary file
+			Path temporaryPath = Files.createTempFile(cacheDirectory, "cache", ".tmp");
+			try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+				// Write cache format version and settings
+				outputStream.writeInt(ListingCache.FORMAT_VERSION);
+				outputStream.writeUTF(this.settings);
+				// Write each listing
+				for (Map.Entry<String, Listing> entry : this.listings.entrySet()) {
+					Listing listing = entry.getValue();
+					outputStream.writeUTF(entry.getKey());
+					outputStream.writeLong(listing.revision);
+					// Write externals definition
+					if (listing.externals==null) {
+						outputStream.writeInt(-1);
+					} else {
+						byte[] externalsBytes = listing.externals.getBytes(StandardCharsets.UTF_8);
+						outputStream.writeInt(externalsBytes.length);
+						outputStream.write(externalsBytes);
+					}
+					// Write entries
+					outputStream.writeInt(listing.entries.size());
+					for (ListingEntry listingEntry : listing.entries) {
+						outputStream.writeUTF(listingEntry.name);
+						outputStream.writeBoolean(listingEntry.directory);
+						outputStream.writeLong(listingEntry.size);
+						outputStream.writeBoolean(listingEntry.properties);
+						outputStream.writeLong(listingEntry.revision);
+					}
+				}
+			}
+			// Replace cache file
+			Files.move(temporaryPath, this.cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to write listing cache \""+this.cachePath+"\".", exception);
+		}
+	}
+
+	/**
+	 * Get a cached listing.
+	 * 
+	 * @param path
+	 *            The directory path.
+	 * @param revision
+	 *            The directory committed revision.
+	 * @return The cached listing (<code>null</code> if no listing is cached for the directory committed revision).
+	 */
+	public Listing get(String path, long revision) {
+		// Get cached listing
+		Listing listing = this.listings.get(path);
+		// Check cached listing revision
+		if (listing==null||listing.revision!=revision)
+			return null;
+		// Return cached listing
+		return listing;
+	}
+
+	/**
+	 * Cache a listing.
+	 * 
+	 * @param path
+	 *            The directory path.
+	 * @param listing
+	 *            The listing to cache.
+	 */
+	public void put(String path, Listing listing) {
+		this.listings.put(path, listing);
+	}
+
+	/**
+	 * Get the number of cached listings.
+	 * 
+	 * @return The number of cached listings.
+	 */
+	public int size() {
+		return this.listings.size();
+	}
+
+	/**
+	 * This class is a cached directory listing.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	public static class Listing {
+		/** The directory committed revision. */
+		private final long revision;
+		/** The directory entries. */
+		private final List<ListingEntry> entries;
+		/** The directory externals definition (<code>null</code> if the directory has no externals). */
+		private final String externals;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param revision
+		 *            The directory committed revision.
+		 * @param entries
+		 *            The directory entries.
+		 * @param externals
+		 *            The directory externals definition (<code>null</code> if the directory has no externals).
+		 */
+		public Listing(long revision, List<ListingEntry> entries, String externals) {
+			this.revision = revision;
+			this.entries = Collections.unmodifiableList(entries);
+			this.externals = externals;
+		}
+
+		/**
+		 * Get the directory entries.
+		 * 
+		 * @return The directory entries.
+		 */
+		public List<ListingEntry> getEntries() {
+			return this.entries;
+		}
+
+		/**
+		 * Get the directory externals definition.
+		 * 
+		 * @return The directory externals definition (<code>null</code> if the directory has no externals).
+		 */
+		public String getExternals() {
+			return this.externals;
+		}
+	}
+
+	/**
+	 * This class is a cached directory entry.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	public static class ListingEntry {
+		/** The entry name. */
+		private final String name;
+		/** The entry kind (<code>true</code> for a directory, <code>false</code> for a file). */
+		private final boolean directory;
+		/** The entry size in bytes. */
+		private final long size;
+		/** The entry properties status (<code>true</code> if the entry has properties, <code>false</code> otherwise). */
+		private final boolean properties;
+		/** The entry committed revision. */
+		private final long revision;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param name
+		 *            The entry name.
+		 * @param directory
+		 *            The entry kind (<code>true</code> for a directory, <code>false</code> for a file).
+		 * @param size
+		 *            The entry size in bytes.
+		 * @param properties
+		 *            The entry properties status (<code>true</code> if the entry has properties, <code>false</code> otherwise).
+		 * @param revision
+		 *            The entry committed revision.
+		 */
+		public ListingEntry(String name, boolean directory, long size, boolean properties, long revision) {
+			this.name = name;
+			this.directory = directory;
+			this.size = size;
+			this.properties = properties;
+			this.revision = revision;
+		}
+
+		/**
+		 * Get the entry name.
+		 * 
+		 * @return The entry name.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Check whether the entry is a directory.
+		 * 
+		 * @return <code>true</code> for a directory, <code>false</code> for a file.
+		 */
+		public boolean isDirectory() {
+			return this.directory;
+		}
+
+		/**
+		 * Get the entry size.
+		 * 
+		 * @return The entry size in bytes.
+		 */
+		public long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Check whether the entry has properties.
+		 * 
+		 * @return <code>true</code> if the entry has properties, <code>false</code> otherwise.
+		 */
+		public boolean hasProperties() {
+			return this.properties;
+		}
+
+		/**
+		 * Get the entry committed revision.
+		 * 
+		 * @return The entry committed revision.
+		 */
+		public long getRevision() {
+			return this.revision;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package fr.hardcoding.software.sourcechecksum.difference;
+
+import java.util.Arrays;
+
+/**
+ * This class is an index of integer values by checksum.<br>
+ * It is an open addressing hash table backed by primitive arrays. Values indexed with the same checksum are chained in insertion order.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ChecksumIndex {
+	/** The slot entries (first entry of each checksum, <code>-1</code> for free slot). */
+	private final int[] slotEntries;
+	/** The slot last entries (last entry of each checksum). */
+	private final int[] slotLastEntries;
+	/** The slot mask to compute slot from hash. */
+	private final int slotMask;
+	/** The entry checksums. */
+	private final byte[][] entryChecksums;
+	/** The entry values. */
+	private final int[] entryValues;
+	/** The next entries with the same checksum (<code>-1</code> for last one). */
+	private final int[] entryNexts;
+	/** The number of entries. */
+	private int size;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param capacity
+	 *            The maximum number of entries.
+	 */
+	public ChecksumIndex(int capacity) {
+		// Compute slot count as power of two at least twice the capacity
+		int slotCount = Integer.highestOneBit(Math.max(capacity, 1)*2-1)<<1;
+		this.slotEntries = new int[slotCount];
+		Arrays.fill(this.slotEntries, -1);
+		this.slotLastEntries = new int[slotCount];
+		this.slotMask = slotCount-1;
+		// Create entries
+		this.entryChecksums = new byte[capacity][];
+		this.entryValues = new int[capacity];
+		this.entryNexts = new int[capacity];
+		this.size = 0;
+	}
+
+	/**
+	 * Find the slot of a checksum.
+	 * 
+	 * @param checksum
+	 *            The checksum to find slot.
+	 * @return The slot of the checksum (free slot if checksum is not indexed).
+	 */
+	private int findSlot(byte[] checksum) {
+		// Compute checksum hash
+		int hash = Arrays.hashCode(checksum);
+		hash ^= hash>>>16;
+		// Probe slots until checksum or free slot is found
+		int slot = hash&this.slotMask;
+		while (this.slotEntries[slot]!=-1&&!Arrays.equals(this.entryChecksums[this.slotEntries[slot]], checksum))
+			slot = slot+1&this.slotMask;
+		return slot;
+	}
+
+	/**
+	 * Index a value by checksum.
+	 * 
+	 * @param checksum
+	 *            The checksum to index value.
+	 * @param value
+	 *            The value to index.
+	 */
+	public void add(byte[] checksum, int value) {
+		// Create entry
+		int entry = this.size++;
+		this.entryChecksums[entry] = checksum;
+		this.entryValues[entry] = value;
+		this.entryNexts[entry] = -1;
+		// Find checksum slot
+		int slot = this.findSlot(checksum);
+		// Check if checksum is already indexed
+		if (this.slotEntries[slot]==-1)
+			this.slotEntries[slot] = entry;
+		else
+			this.entryNexts[this.slotLastEntries[slot]] = entry;
+		this.slotLastEntries[slot] = entry;
+	}
+
+	/**
+	 * Get the first entry of a checksum.
+	 * 
+	 * @param checksum
+	 *            The checksum to get entry.
+	 * @return The first entry of the checksum (<code>-1</code> if checksum is not indexed).
+	 */
+	public int getEntry(byte[] checksum) {
+		return this.slotEntries[this.findSlot(checksum)];
+	}
+
+	/**
+	 * Get the next entry with the same checksum.
+	 * 
+	 * @param entry
+	 *            The entry to get next entry.
+	 * @return The next entry with the same checksum (<code>-1</code> if entry is the last one).
+	 */
+	public int getNextEntry(int entry) {
+		return this.entryNexts[entry];
+	}
+
+	/**
+	 * Get the value of an entry.
+	 * 
+	 * @param entry
+	 *            The entry to get value.
+	 * @return The entry value.
+	 */
+	public int getValue(int entry) {
+		return this.entryValues[entry];
+	}
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package fr.hardcoding.software.sourcechecksum.difference;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+
+/**
+ * This interface is used to visit differences as soon as they are found.<br>
+ * Directories are entered and exited following the tree traversal, so a visitor only needs memory bounded by the tree depth.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public interface DifferenceVisitor {
+	/**
+	 * Notify a directory comparison starts.
+	 * 
+	 * @param leftDirectory
+	 *            The compared left directory (may be <code>null</code> if missing from the left part).
+	 * @param rightDirectory
+	 *            The compared right directory (may be <code>null</code> if missing from the right part).
+	 * @throws ChecksumException
+	 *             Throws exception if the visitor could not process the directory.
+	 */
+	public void enterDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) throws ChecksumException;
+
+	/**
+	 * Notify a file difference is found.
+	 * 
+	 * @param fileDifference
+	 *            The found file difference.
+	 * @throws ChecksumException
+	 *             Throws exception if the visitor could not process the difference.
+	 */
+	public void visitFile(FileDifference fileDifference) throws ChecksumException;
+
+	/**
+	 * Notify a moved directory is found.
+	 * 
+	 * @param movedDirectoryDifference
+	 *            The found moved directory difference.
+	 * @throws ChecksumException
+	 *             Throws exception if the visitor could not process the difference.
+	 */
+	public void visitMovedDirectory(MovedDirectoryDifference movedDirectoryDifference) throws ChecksumException;
+
+	/**
+	 * Notify a directory comparison ends.
+	 * 
+	 * @param leftDirectory
+	 *            The compared left directory (may be <code>null</code> if missing from the left part).
+	 * @param rightDirectory
+	 *            The compared right directory (may be <code>null</code> if missing from the right part).
+	 * @throws ChecksumException
+	 *             Throws exception if the visitor could not process the directory.
+	 */
+	public void exitDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) throws ChecksumException;
+}
\ No newline at end of file
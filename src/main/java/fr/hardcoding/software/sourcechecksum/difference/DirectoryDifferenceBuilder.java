@@ -0,0 +1,72 @@
+package fr.hardcoding.software.sourcechecksum.difference;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+
+/**
+ * This class is a difference visitor to build the directory difference tree.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class DirectoryDifferenceBuilder implements DifferenceVisitor {
+	/** The directory differences being built, from the currently compared directory to the root one. */
+	private final Deque<DirectoryDifference> directoryDifferences;
+	/** The root directory difference (<code>null</code> until the root directory comparison ends). */
+	private DirectoryDifference rootDirectoryDifference;
+
+	/**
+	 * Constructor.
+	 */
+	public DirectoryDifferenceBuilder() {
+		this.directoryDifferences = new ArrayDeque<>();
+	}
+
+	/**
+	 * Get the built root directory difference.
+	 * 
+	 * @return The root directory difference (<code>null</code> until the root directory comparison ends).
+	 */
+	public DirectoryDifference getDirectoryDifference() {
+		return this.rootDirectoryDifference;
+	}
+
+	/*
+	 * Difference visitor.
+	 */
+
+	@Override
+	public void enterDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+		// Create the directory difference
+		this.directoryDifferences.push(new DirectoryDifference(leftDirectory, rightDirectory));
+	}
+
+	@Override
+	public void visitFile(FileDifference fileDifference) {
+		// Add file difference to the current directory difference
+		this.directoryDifferences.peek().addDifference(fileDifference);
+	}
+
+	@Override
+	public void visitMovedDirectory(MovedDirectoryDifference movedDirectoryDifference) {
+		// Add moved directory difference to the current directory difference
+		this.directoryDifferences.peek().addDifference(movedDirectoryDifference);
+	}
+
+	@Override
+	public void exitDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+		// Get the ended directory difference
+		DirectoryDifference directoryDifference = this.directoryDifferences.pop();
+		// Check if root directory difference ends
+		if (this.directoryDifferences.isEmpty()) {
+			this.rootDirectoryDifference = directoryDifference;
+		}
+		// Check if directory has differences
+		else if (directoryDifference.hasDifference()) {
+			// Add directory difference to its parent
+			this.directoryDifferences.peek().addDifference(directoryDifference);
+		}
+	}
+}
\ No newline at end of file
@@ -13,4 +13,8 @@ public enum FileDifferenceType {
 	DIFFERENT,
 	/** The right only resource difference type. */
 	RIGHT_ONLY,
+	/** The moved resource difference type (left only resource found with the same checksum as a right only one). */
+	MOVED,
+	/** The copied resource difference type (right only resource found with the same checksum as an already moved left one). */
+	COPIED,
 }
\ No newline at end of file
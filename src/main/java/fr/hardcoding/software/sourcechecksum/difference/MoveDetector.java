@@ -0,0 +1,273 @@
+package fr.hardcoding.software.sourcechecksum.difference;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
+
+/**
+ * This class is a difference visitor to detect moved and copied resources.<br>
+ * Left only and right only differences are held back until the root directory comparison ends. They are then matched by checksum: directories first
+ * (using directory checksums), then files. Matched resources are notified as moved or copied to the decorated visitor, the others as left or right
+ * only differences. A directory is only matched if neither one of its parents nor one of its descendants was matched before, so a resource is
+ * never moved twice. Matching runs in linear time of the number of held back differences.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class MoveDetector implements DifferenceVisitor {
+	/** The decorated visitor to notify differences. */
+	private final DifferenceVisitor visitor;
+	/** The left only directory candidates (in traversal order). */
+	private final List<Candidate> leftDirectories;
+	/** The right only directory candidates (in traversal order). */
+	private final List<Candidate> rightDirectories;
+	/** The left only file candidates (in traversal order). */
+	private final List<Candidate> leftFiles;
+	/** The right only file candidates (in traversal order). */
+	private final List<Candidate> rightFiles;
+	/** The currently compared one sided directory candidates (innermost first). */
+	private final Deque<Candidate> openDirectories;
+	/** The current directory depth. */
+	private int depth;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param visitor
+	 *            The decorated visitor to notify differences.
+	 */
+	public MoveDetector(DifferenceVisitor visitor) {
+		this.visitor = visitor;
+		this.leftDirectories = new ArrayList<>();
+		this.rightDirectories = new ArrayList<>();
+		this.leftFiles = new ArrayList<>();
+		this.rightFiles = new ArrayList<>();
+		this.openDirectories = new ArrayDeque<>();
+		this.depth = 0;
+	}
+
+	/**
+	 * Detect moved and copied resources from held back differences and notify them.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the visitor could not process a difference.
+	 */
+	private void detect() throws ChecksumException {
+		/*
+		 * Match directories.
+		 */
+		// Index left directories by checksum
+		ChecksumIndex directoryIndex = new ChecksumIndex(this.leftDirectories.size());
+		for (int i = 0; i<this.leftDirectories.size(); i++) {
+			Candidate leftDirectory = this.leftDirectories.get(i);
+			byte[] checksum = ((AbstractDirectory) leftDirectory.resource).getChecksum();
+			if (checksum!=null&&leftDirectory.fileCount>0)
+				directoryIndex.add(checksum, i);
+		}
+		// Match each right directory, outermost first
+		for (Candidate rightDirectory : this.rightDirectories) {
+			// Check if directory could be matched
+			byte[] checksum = ((AbstractDirectory) rightDirectory.resource).getChecksum();
+			if (checksum==null||rightDirectory.fileCount==0||rightDirectory.isConsumed())
+				continue;
+			// Find a left directory with the same checksum
+			for (int entry = directoryIndex.getEntry(checksum); entry!=-1; entry = directoryIndex.getNextEntry(entry)) {
+				Candidate leftDirectory = this.leftDirectories.get(directoryIndex.getValue(entry));
+				if (leftDirectory.isConsumed()||leftDirectory.descendantConsumed)
+					continue;
+				// Consume both directories
+				leftDirectory.consume();
+				rightDirectory.consume();
+				// Notify moved directory
+				this.visitor.visitMovedDirectory(new MovedDirectoryDifference((AbstractDirectory) leftDirectory.resource,
+						(AbstractDirectory) rightDirectory.resource));
+				break;
+			}
+		}
+		/*
+		 * Match files.
+		 */
+		// Index left files by checksum
+		ChecksumIndex fileIndex = new ChecksumIndex(this.leftFiles.size());
+		for (int i = 0; i<this.leftFiles.size(); i++) {
+			Candidate leftFile = this.leftFiles.get(i);
+			if (!leftFile.isConsumed())
+				fileIndex.add(((AbstractFile) leftFile.resource).getChecksum(), i);
+		}
+		// Initialize the next left file entry to move for each checksum
+		int[] nextEntries = new int[this.leftFiles.size()];
+		for (int i = 0; i<nextEntries.length; i++)
+			nextEntries[i] = i;
+		// Match each right file
+		for (Candidate rightFile : this.rightFiles) {
+			// Check if file is in a moved directory
+			if (rightFile.isConsumed())
+				continue;
+			// Find the left files with the same checksum
+			int firstEntry = fileIndex.getEntry(((AbstractFile) rightFile.resource).getChecksum());
+			if (firstEntry==-1) {
+				// Notify right only difference
+				this.visitor.visitFile(new FileDifference(FileDifferenceType.RIGHT_ONLY, null, (AbstractFile) rightFile.resource));
+				continue;
+			}
+			// Get the next left file to move
+			int entry = nextEntries[firstEntry];
+			if (entry==-1) {
+				// Notify copied file from the first moved left file
+				Candidate leftFile = this.leftFiles.get(fileIndex.getValue(firstEntry));
+				this.visitor.visitFile(new FileDifference(FileDifferenceType.COPIED, (AbstractFile) leftFile.resource, (AbstractFile) rightFile.resource));
+			} else {
+				// Consume left file
+				Candidate leftFile = this.leftFiles.get(fileIndex.getValue(entry));
+				leftFile.consume();
+				nextEntries[firstEntry] = fileIndex.getNextEntry(entry);
+				// Notify moved file
+				this.visitor.visitFile(new FileDifference(FileDifferenceType.MOVED, (AbstractFile) leftFile.resource, (AbstractFile) rightFile.resource));
+			}
+		}
+		// Notify remaining left files
+		for (Candidate leftFile : this.leftFiles) {
+			if (!leftFile.isConsumed())
+				this.visitor.visitFile(new FileDifference(FileDifferenceType.LEFT_ONLY, (AbstractFile) leftFile.resource, null));
+		}
+		// Clear candidates
+		this.leftDirectories.clear();
+		this.rightDirectories.clear();
+		this.leftFiles.clear();
+		this.rightFiles.clear();
+	}
+
+	/*
+	 * Difference visitor.
+	 */
+
+	@Override
+	public void enterDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) throws ChecksumException {
+		// Notify decorated visitor
+		this.visitor.enterDirectory(leftDirectory, rightDirectory);
+		this.depth++;
+		// Check one sided directory
+		if (this.depth>1&&(leftDirectory==null)!=(rightDirectory==null)) {
+			// Create directory candidate
+			Candidate directory = new Candidate(leftDirectory!=null ? leftDirectory : rightDirectory, this.openDirectories.peek());
+			(leftDirectory!=null ? this.leftDirectories : this.rightDirectories).add(directory);
+			this.openDirectories.push(directory);
+		}
+	}
+
+	@Override
+	public void visitFile(FileDifference fileDifference) throws ChecksumException {
+		// Check difference type
+		switch (fileDifference.getType()) {
+			case LEFT_ONLY:
+				if (fileDifference.getLeftFile().getChecksum()!=null) {
+					// Hold back left file candidate
+					this.leftFiles.add(new Candidate(fileDifference.getLeftFile(), this.openDirectories.peek()));
+					if (!this.openDirectories.isEmpty())
+						this.openDirectories.peek().fileCount++;
+					return;
+				}
+				break;
+			case RIGHT_ONLY:
+				if (fileDifference.getRightFile().getChecksum()!=null) {
+					// Hold back right file candidate
+					this.rightFiles.add(new Candidate(fileDifference.getRightFile(), this.openDirectories.peek()));
+					if (!this.openDirectories.isEmpty())
+						this.openDirectories.peek().fileCount++;
+					return;
+				}
+				break;
+			default:
+				break;
+		}
+		// Notify decorated visitor
+		this.visitor.visitFile(fileDifference);
+	}
+
+	@Override
+	public void visitMovedDirectory(MovedDirectoryDifference movedDirectoryDifference) throws ChecksumException {
+		// Notify decorated visitor
+		this.visitor.visitMovedDirectory(movedDirectoryDifference);
+	}
+
+	@Override
+	public void exitDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) throws ChecksumException {
+		// Check one sided directory
+		if (this.depth>1&&(leftDirectory==null)!=(rightDirectory==null)) {
+			// Add directory file count to its parent
+			Candidate directory = this.openDirectories.pop();
+			if (directory.parent!=null)
+				directory.parent.fileCount += directory.fileCount;
+		}
+		this.depth--;
+		// Check if root directory comparison ends
+		if (this.depth==0)
+			this.detect();
+		// Notify decorated visitor
+		this.visitor.exitDirectory(leftDirectory, rightDirectory);
+	}
+
+	/**
+	 * This class represents a held back resource to match.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class Candidate {
+		/** The held back resource. */
+		private final AbstractResource resource;
+		/** The parent one sided directory candidate (<code>null</code> if parent directory is on both sides). */
+		private final Candidate parent;
+		/** The consumed status (<code>true</code> if resource was matched, <code>false</code> otherwise). */
+		private boolean consumed;
+		/** The consumed descendant status (<code>true</code> if a resource in the directory was matched, <code>false</code> otherwise). */
+		private boolean descendantConsumed;
+		/** The number of held back files in the directory (directory candidate only). */
+		private int fileCount;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param resource
+		 *            The held back resource.
+		 * @param parent
+		 *            The parent one sided directory candidate (<code>null</code> if parent directory is on both sides).
+		 */
+		public Candidate(AbstractResource resource, Candidate parent) {
+			this.resource = resource;
+			this.parent = parent;
+			this.consumed = false;
+			this.descendantConsumed = false;
+			this.fileCount = 0;
+		}
+
+		/**
+		 * Mark the resource as matched.<br>
+		 * Its parent directories are marked as having a matched descendant.
+		 */
+		public void consume() {
+			this.consumed = true;
+			for (Candidate candidate = this.parent; candidate!=null&&!candidate.descendantConsumed; candidate = candidate.parent)
+				candidate.descendantConsumed = true;
+		}
+
+		/**
+		 * Check if the resource or one of its parent directories was matched.
+		 * 
+		 * @return <code>true</code> if the resource or one of its parent directories was matched, <code>false</code> otherwise.
+		 */
+		public boolean isConsumed() {
+			for (Candidate candidate = this; candidate!=null; candidate = candidate.parent) {
+				if (candidate.consumed)
+					return true;
+			}
+			return false;
+		}
+	}
+}
\ No newline at end of file
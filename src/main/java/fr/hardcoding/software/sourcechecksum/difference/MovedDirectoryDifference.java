@@ -0,0 +1,42 @@
+package fr.hardcoding.software.sourcechecksum.difference;
+
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+
+/**
+ * This class represents a moved directory difference.<br>
+ * The left only directory and the right only directory have the same checksum so their whole content is the same.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class MovedDirectoryDifference extends AbstractDifference {
+	/**
+	 * Constructor.
+	 * 
+	 * @param leftDirectory
+	 *            The moved left directory.
+	 * @param rightDirectory
+	 *            The moved right directory.
+	 */
+	public MovedDirectoryDifference(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+		super(leftDirectory, rightDirectory);
+	}
+
+	/**
+	 * Get the left directory related to the difference.
+	 * 
+	 * @return The left directory related to the difference.
+	 */
+	public AbstractDirectory getLeftDirectory() {
+		return (AbstractDirectory) this.leftResource;
+	}
+
+	/**
+	 * Get the right directory related to the difference.
+	 * 
+	 * @return The right directory related to the difference.
+	 */
+	public AbstractDirectory getRightDirectory() {
+		return (AbstractDirectory) this.rightResource;
+	}
+}
\ No newline at end of file
@@ -12,20 +12,25 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import fr.hardcoding.software.sourcechecksum.ChecksumException;
 import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
 import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestSorter;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
 import fr.hardcoding.software.sourcechecksum.resource.fs.FsDirectory;
 import fr.hardcoding.software.sourcechecksum.resource.fs.FsFile;
+import fr.hardcoding.software.sourcechecksum.resource.manifest.ManifestFile;
 
 /**
  * This class is the main checksum generator program.
@@ -40,11 +45,13 @@ public class FsChecksumGenerator implements ChecksumGenerator {
 	private final Path path;
 	/** The algorithm to use to compute checksum. */
 	private ChecksumAlgorithm algorithm;
+	/** The relative paths of unchanged files to skip hashing (<code>null</code> to hash all files). */
+	private Set<String> unchangedPaths;
 	/*
 	 * Progress related.
 	 */
 	/** The break status (<code>true</code> if the process should break, <code>false</code> otherwise). */
-	private boolean shouldBreak;
+	private volatile boolean shouldBreak;
 	/** The file counter of computed checksum. */
 	private AtomicInteger progressCounter;
 	/** The file counter to compute checksum. */
@@ -66,6 +73,28 @@ public class FsChecksumGenerator implements ChecksumGenerator {
 		this.path = path;
 	}
 
+	/**
+	 * Get the path to compute checksum.
+	 * 
+	 * @return The path to compute checksum.
+	 */
+	Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Set the unchanged files to skip hashing.<br/>
+	 * Unchanged files are listed without checksum. As the file system may contain files unknown in advance, the files to skip are given
+	 * instead of the files to hash.
+	 * 
+	 * @param unchangedPaths
+	 *            The paths of unchanged files, relative to the path to compute checksum with <code>/</code> separator (<code>null</code> to hash
+	 *            all files).
+	 */
+	void setUnchangedPaths(Set<String> unchangedPaths) {
+		this.unchangedPaths = unchangedPaths;
+	}
+
 	/*
 	 * Checksum Generator.
 	 */
@@ -119,6 +148,8 @@ public class FsChecksumGenerator implements ChecksumGenerator {
 			throw new ChecksumException("An error occured while checksum computation.");
 		// Sort root directory
 		rootDirectory.sort();
+		// Compute directory checksums
+		rootDirectory.computeChecksum();
 		// Notify worker
 		listener.onDone();
 		// Compute elapsed time
@@ -130,6 +161,63 @@ public class FsChecksumGenerator implements ChecksumGenerator {
 		return rootDirectory;
 	}
 
+	/**
+	 * Generate the checksums to a manifest sorter.<br>
+	 * Files are hashed as soon as they are listed and no resource tree is built, so memory usage is bounded by the sorter memory budget.
+	 * 
+	 * @param algorithm
+	 *            The algorithm to use to compute checksum.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param sorter
+	 *            The manifest sorter to add file checksums to.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throws exception if checksums could not be computed.
+	 */
+	public void compute(ChecksumAlgorithm algorithm, ChecksumListener listener, ManifestSorter sorter, PathMatcher... ignoreMatchers)
+			throws ChecksumException {
+		// Save algorithm to use
+		this.algorithm = algorithm;
+		// Save start time
+		long startTime = System.nanoTime();
+		// Initialize progress
+		this.shouldBreak = false;
+		this.progressCounter = new AtomicInteger();
+		// Notify worker
+		listener.onStart();
+		// Create executor service with bounded queue, listing thread hashes files itself when queue is full
+		ExecutorService executorService = new ThreadPoolExecutor(FsChecksumGenerator.NBR_EXECUTORS, FsChecksumGenerator.NBR_EXECUTORS, 0L,
+				TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(FsChecksumGenerator.NBR_EXECUTORS*4), new ThreadPoolExecutor.CallerRunsPolicy());
+		// List and hash files
+		FsManifestVisitor fileVisitor = new FsManifestVisitor(executorService, sorter, listener, ignoreMatchers);
+		try {
+			Files.walkFileTree(this.path, fileVisitor);
+		} catch (IOException exception) {
+			executorService.shutdownNow();
+			throw new ChecksumException("Unable to list file to compute checksums.", exception);
+		}
+		// Await terminaison
+		try {
+			executorService.shutdown();
+			executorService.awaitTermination(1, TimeUnit.DAYS);
+		} catch (InterruptedException exception) {
+			throw new ChecksumException("Checksum computation did not end in time.", exception);
+		}
+		// Check if process has broken
+		if (this.shouldBreak)
+			throw new ChecksumException("An error occured while checksum computation.");
+		// Notify worker
+		listener.onDone();
+		// Compute elapsed time
+		long elapsedTime = (System.nanoTime()-startTime)/1000000000;
+		if (elapsedTime==0)
+			elapsedTime = 1;
+		int hashCounter = this.progressCounter.get();
+		listener.onDebug(hashCounter+" hashs in "+elapsedTime+" secs ("+hashCounter/elapsedTime+" hashs/secs, "+sorter.getRunCount()+" sorted runs)");
+	}
+
 	/**
 	 * Process a directory.
 	 * 
@@ -171,6 +259,12 @@ public class FsChecksumGenerator implements ChecksumGenerator {
 	 *             Throws exception if the checksum could not be computed.
 	 */
 	public void prepareFile(ExecutorService executorService, final FsFile file, final ChecksumListener listener) throws ChecksumException {
+		// Check if file is unchanged
+		if (this.unchangedPaths!=null&&this.unchangedPaths.contains(this.getRelativePath(file))) {
+			// Update progress counter without hashing file
+			this.progressCounter.incrementAndGet();
+			return;
+		}
 		// Submit a new task to process file
 		executorService.submit(new Callable<Void>() {
 			@Override
@@ -237,6 +331,136 @@ public class FsChecksumGenerator implements ChecksumGenerator {
 		}
 	}
 
+	/**
+	 * Get the relative path of a file.
+	 * 
+	 * @param file
+	 *            The file to get relative path.
+	 * @return The file path, relative to the path to compute checksum with <code>/</code> separator.
+	 */
+	private String getRelativePath(FsFile file) {
+		// Append each relative path part
+		StringBuilder pathBuilder = new StringBuilder();
+		for (Path part : this.path.relativize(file.getFile())) {
+			if (pathBuilder.length()>0)
+				pathBuilder.append('/');
+			pathBuilder.append(part.toString());
+		}
+		// Return relative path
+		return pathBuilder.toString();
+	}
+
+	/**
+	 * This class is a file visitor to hash files to a manifest sorter.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private class FsManifestVisitor extends SimpleFileVisitor<Path> {
+		/** The executor service to get executors. */
+		private final ExecutorService executorService;
+		/** The manifest sorter to add file checksums to. */
+		private final ManifestSorter sorter;
+		/** The listener to notify computation progress. */
+		private final ChecksumListener listener;
+		/** The list of path matcher to check for ignoring resource. */
+		private final PathMatcher[] ignoreMatchers;
+		/** The root directory name. */
+		private final String rootName;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param executorService
+		 *            The executor service to get executors.
+		 * @param sorter
+		 *            The manifest sorter to add file checksums to.
+		 * @param listener
+		 *            The listener to notify computation progress.
+		 * @param ignoreMatchers
+		 *            The list of path matcher to check for ignoring resource.
+		 */
+		public FsManifestVisitor(ExecutorService executorService, ManifestSorter sorter, ChecksumListener listener, PathMatcher[] ignoreMatchers) {
+			this.executorService = executorService;
+			this.sorter = sorter;
+			this.listener = listener;
+			this.ignoreMatchers = ignoreMatchers;
+			this.rootName = FsChecksumGenerator.this.path.getFileName().toString();
+		}
+
+		/*
+		 * File Visitor.
+		 */
+
+		@Override
+		public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+			// Check if should break
+			if (FsChecksumGenerator.this.shouldBreak)
+				return FileVisitResult.TERMINATE;
+			// Get relative directory
+			Path relativeDir = FsChecksumGenerator.this.path.relativize(dir);
+			// Check each path matcher (except for root directory)
+			if (!dir.equals(FsChecksumGenerator.this.path)) {
+				for (PathMatcher matcher : this.ignoreMatchers) {
+					// Check if path matcher matches
+					if (matcher.matches(relativeDir))
+						// Skip the directory
+						return FileVisitResult.SKIP_SUBTREE;
+				}
+			}
+			// Continue visiting
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFile(final Path file, BasicFileAttributes attrs) throws IOException {
+			// Check if should break
+			if (FsChecksumGenerator.this.shouldBreak)
+				return FileVisitResult.TERMINATE;
+			// Get relative file
+			Path relativeFile = FsChecksumGenerator.this.path.relativize(file);
+			// Check each path matcher
+			for (PathMatcher matcher : this.ignoreMatchers) {
+				// Check if path matcher matches
+				if (matcher.matches(relativeFile))
+					// Skip the file
+					return FileVisitResult.CONTINUE;
+			}
+			// Compute file path from root name
+			StringBuilder pathBuilder = new StringBuilder(this.rootName);
+			for (Path part : relativeFile)
+				pathBuilder.append('/').append(part.toString());
+			final String filePath = pathBuilder.toString();
+			// Submit a new task to hash file
+			this.executorService.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					// Check if should break
+					if (FsChecksumGenerator.this.shouldBreak)
+						return null;
+					try {
+						// Process file
+						FsFile fsFile = new FsFile(file);
+						FsChecksumGenerator.this.processFile(fsFile);
+						// Add file checksum to sorter
+						FsManifestVisitor.this.sorter.add(new ManifestFile(filePath, fsFile.getChecksum()));
+						// Update progress counter
+						FsChecksumGenerator.this.progressCounter.incrementAndGet();
+					} catch (ChecksumException exception) {
+						// Break the process
+						FsChecksumGenerator.this.shouldBreak = true;
+						// Notify listener
+						FsManifestVisitor.this.listener.onError(exception);
+					}
+					// Return void
+					return null;
+				}
+			});
+			// Continue visiting
+			return FileVisitResult.CONTINUE;
+		}
+	}
+
 	/**
 	 * This class is a file visitor to create file system.
 	 * 
@@ -0,0 +1,171 @@
+package fr.hardcoding.software.sourcechecksum.generator;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
+import fr.hardcoding.software.sourcechecksum.cache.ChecksumCache;
+import fr.hardcoding.software.sourcechecksum.cache.ListingCache;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
+
+/**
+ * This class creates the checksum generators of each child directory of a Subversion location, such as the tags or branches directory.<br/>
+ * Child directories are ordered by committed revision, and their generators share the same session pool and caches. As each generator caches
+ * checksums and listings by copy origin, resources unchanged between copies of the same location are only listed and hashed once.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnBatchGenerator {
+	/** The Subversion session pool to request the repository. */
+	private final SvnSessionPool sessionPool;
+	/** The child directory entries, ordered by committed revision. */
+	private final List<SVNDirEntry> entries;
+	/** The location URL. */
+	private final SVNURL url;
+	/** The persistent cache directory (<code>null</code> to only share caches during the batch). */
+	private Path cacheDirectory;
+	/** The algorithm of the shared checksum cache. */
+	private ChecksumAlgorithm algorithm;
+	/** The shared checksum cache (<code>null</code> until the first generator is created). */
+	private ChecksumCache cache;
+	/** The shared directory listing cache (<code>null</code> until the first generator is created). */
+	private ListingCache listingCache;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the location to list child directories (must be a directory).
+	 * @param sessionPool
+	 *            The Subversion session pool to request the repository.
+	 * @throws ChecksumException
+	 *             Throws exception if the child directories could not be listed.
+	 */
+	public SvnBatchGenerator(String url, SvnSessionPool sessionPool) throws ChecksumException {
+		// Save session pool
+		this.sessionPool = sessionPool;
+		// Get location URL and path
+		try {
+			this.url = SVNURL.parseURIEncoded(url);
+		} catch (SVNException exception) {
+			throw new ChecksumException("Invalid Subversion URL \""+url+"\".", exception);
+		}
+		String path = this.url.getPath().substring(sessionPool.getRepositoryRoot().getPath().length());
+		// List child directories
+		this.entries = new ArrayList<>();
+		SVNRepository repository = sessionPool.acquire();
+		try {
+			Collection<?> entries = repository.getDir(path.isEmpty() ? "/" : path, -1, null, (Collection<?>) null);
+			for (Object entry : entries) {
+				SVNDirEntry dirEntry = (SVNDirEntry) entry;
+				if (dirEntry.getKind()==SVNNodeKind.DIR)
+					this.entries.add(dirEntry);
+			}
+		} catch (SVNException exception) {
+			sessionPool.invalidate(repository);
+			throw new ChecksumException("Unable to list Subversion directory \""+url+"\".", exception);
+		}
+		sessionPool.release(repository);
+		// Order child directories by committed revision then name so successive copies are computed one after the other
+		Collections.sort(this.entries, new Comparator<SVNDirEntry>() {
+			@Override
+			public int compare(SVNDirEntry entry1, SVNDirEntry entry2) {
+				int comparison = Long.compare(entry1.getRevision(), entry2.getRevision());
+				return comparison!=0 ? comparison : entry1.getName().compareTo(entry2.getName());
+			}
+		});
+	}
+
+	/**
+	 * Set the persistent cache directory.<br/>
+	 * Caches are loaded when the first generator is created and saved by {@link #save()}.
+	 * 
+	 * @param cacheDirectory
+	 *            The cache directory (<code>null</code> to only share caches during the batch).
+	 */
+	public void setCacheDirectory(Path cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Get the names of the child directories.
+	 * 
+	 * @return The child directory names, ordered by committed revision.
+	 */
+	public List<String> getNames() {
+		List<String> names = new ArrayList<>(this.entries.size());
+		for (SVNDirEntry entry : this.entries) {
+			names.add(entry.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Create the checksum generator of a child directory.
+	 * 
+	 * @param name
+	 *            The child directory name.
+	 * @param algorithm
+	 *            The algorithm the generator will compute checksums with.
+	 * @return The created checksum generator, sharing session pool and caches.
+	 * @throws ChecksumException
+	 *             Throws exception if the generator could not be created.
+	 */
+	public SvnChecksumGenerator createGenerator(String name, ChecksumAlgorithm algorithm) throws ChecksumException {
+		// Create shared caches for the algorithm
+		if (this.cache==null||this.algorithm!=algorithm) {
+			// Create checksum cache
+			String repositoryUuid = this.sessionPool.getRepositoryUuid();
+			this.algorithm = algorithm;
+			this.cache = SvnChecksumGenerator.createChecksumCache(this.cacheDirectory, repositoryUuid, algorithm);
+			// Create directory listing cache
+			this.listingCache = new ListingCache(this.cacheDirectory==null ? null : this.cacheDirectory.resolve(repositoryUuid+".listing"),
+					repositoryUuid);
+			// Load persistent caches
+			if (this.cacheDirectory!=null) {
+				this.cache.load();
+				this.listingCache.load();
+			}
+		}
+		// Get child directory URL
+		String url;
+		try {
+			url = this.url.appendPath(name, false).toString();
+		} catch (SVNException exception) {
+			throw new ChecksumException("Invalid Subversion directory name \""+name+"\".", exception);
+		}
+		// Create checksum generator caching by copy origin
+		SvnChecksumGenerator generator = new SvnChecksumGenerator(url, this.sessionPool);
+		generator.setCopyOrigins(true);
+		generator.setCaches(this.cache, this.listingCache);
+		// Return created checksum generator
+		return generator;
+	}
+
+	/**
+	 * Save the persistent caches.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the caches could not be saved.
+	 */
+	public void save() throws ChecksumException {
+		// Check if there are persistent caches to save
+		if (this.cacheDirectory==null||this.cache==null)
+			return;
+		// Save caches
+		this.cache.save();
+		this.listingCache.save();
+	}
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package fr.hardcoding.software.sourcechecksum.generator;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
@@ -9,42 +10,73 @@ import java.nio.file.Paths;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.tmatesoft.svn.core.ISVNLogEntryHandler;
+import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNLogEntry;
+import org.tmatesoft.svn.core.SVNLogEntryPath;
 import org.tmatesoft.svn.core.SVNNodeKind;
 import org.tmatesoft.svn.core.SVNProperties;
 import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
 import org.tmatesoft.svn.core.SVNURL;
-import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
-import org.tmatesoft.svn.core.internal.io.dav.DAVRepositoryFactory;
 import org.tmatesoft.svn.core.internal.wc.SVNExternal;
+import org.tmatesoft.svn.core.internal.wc.SVNFileUtil;
 import org.tmatesoft.svn.core.internal.wc.admin.SVNTranslator;
+import org.tmatesoft.svn.core.io.ISVNReporter;
+import org.tmatesoft.svn.core.io.ISVNReporterBaton;
 import org.tmatesoft.svn.core.io.SVNRepository;
-import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaProcessor;
+import org.tmatesoft.svn.core.io.diff.SVNDiffWindow;
 import org.tmatesoft.svn.core.wc.ISVNOptions;
 import org.tmatesoft.svn.core.wc.SVNWCUtil;
 
 import fr.hardcoding.software.sourcechecksum.ChecksumException;
 import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
+import fr.hardcoding.software.sourcechecksum.cache.ChecksumCache;
+import fr.hardcoding.software.sourcechecksum.cache.ListingCache;
+import fr.hardcoding.software.sourcechecksum.cache.ListingCache.Listing;
+import fr.hardcoding.software.sourcechecksum.cache.ListingCache.ListingEntry;
 import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestReader;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
 import fr.hardcoding.software.sourcechecksum.resource.svn.SvnDirectory;
 import fr.hardcoding.software.sourcechecksum.resource.svn.SvnFile;
 import fr.hardcoding.software.sourcechecksum.resource.svn.SvnResource;
-import fr.hardcoding.software.sourcechecksum.thread.SvnClientThread;
-import fr.hardcoding.software.sourcechecksum.thread.SvnClientThreadFactory;
+import fr.hardcoding.software.sourcechecksum.session.SvnRequest;
+import fr.hardcoding.software.sourcechecksum.session.SvnRequestExecutor;
+import fr.hardcoding.software.sourcechecksum.session.SvnRequestHedger;
+import fr.hardcoding.software.sourcechecksum.session.SvnRequestLimiter;
+import fr.hardcoding.software.sourcechecksum.session.SvnRetryPolicy;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
 
 /**
  * This class is the main checksum generator program.
@@ -53,94 +85,122 @@ import fr.hardcoding.software.sourcechecksum.thread.SvnClientThreadFactory;
 public class SvnChecksumGenerator implements ChecksumGenerator {
 	/** The default Subversion options. */
 	private static final ISVNOptions SVN_OPTIONS = SVNWCUtil.createDefaultOptions(true);
-	/** The number of executors for checksum computation. */
-	private static final int NBR_EXECUTORS = 30;
 	/*
 	 * Subversion related.
 	 */
-	/** The Subversion repository to compute checksums. */
-	private SVNRepository repository;
+	/** The Subversion session pool to compute checksums. */
+	private final SvnSessionPool sessionPool;
 	/** The root directory to compute checksums. */
 	private SvnDirectory rootDirectory;
-	/** The Subversion client thread factory. */
-	private SvnClientThreadFactory svnClientThreadFactory;
+	/** The Subversion repository root URL (cached as it is the same for each session). */
+	private SVNURL repositoryRootUrl;
+	/** The Subversion repository UUID (cached as it is the same for each session). */
+	private String repositoryUuid;
+	/** The requested revision to compute checksums (<code>-1</code> for HEAD). */
+	private long requestedRevision;
+	/** The revision to compute checksums (requested revision or HEAD revision resolved at computation start). */
+	private long revision;
+	/** The changed paths to restrict file hashing to (<code>null</code> to hash all files). */
+	private Set<String> changedPaths;
+	/** The Subversion session pools created for external repositories. */
+	private List<SvnSessionPool> externalRepositoryPools;
+	/** The revisions to compute checksums of external repositories (HEAD revision resolved at first use), by session pool. */
+	private Map<SvnSessionPool, Long> externalRepositoryRevisions;
+	/** The session pools of external resources from another repository than their owner, by external resource. */
+	private Map<AbstractResource, SvnSessionPool> externalSessionPools;
+	/** The listed external directories, by resolved URL and revision. */
+	private Map<String, SvnDirectory> externalDirectories;
+	/** The external directories to graft, with the listed external directory of the same URL and revision to graft from. */
+	private Map<SvnDirectory, SvnDirectory> externalGrafts;
 	/*
 	 * Checksum computation related.
 	 */
 	/** The algorithm to use to compute checksum. */
 	private ChecksumAlgorithm algorithm;
+	/** The report listing status (<code>true</code> to list a whole directory tree from a single report, <code>false</code> to list each directory). */
+	private boolean reportListing;
+	/** The report content status (<code>true</code> to hash file contents from the listing report, <code>false</code> to get each file). */
+	private boolean reportContent;
+	/** The persistent checksum cache directory (<code>null</code> if checksums are not cached). */
+	private Path cacheDirectory;
+	/** The persistent checksum cache (<code>null</code> if checksums are not cached). */
+	private ChecksumCache cache;
+	/** The persistent directory listing cache (<code>null</code> if listings are not cached). */
+	private ListingCache listingCache;
+	/** The shared caches status (<code>true</code> if caches are shared with other generators and managed by their owner, <code>false</code> otherwise). */
+	private boolean sharedCaches;
+	/** The copy origins status (<code>true</code> to cache checksums and listings by copy origin, <code>false</code> to cache them by path). */
+	private boolean copyOrigins;
+	/** The copies of the root directory history, by copied path (<code>null</code> if copy origins are not used). */
+	private Map<String, Copy> copies;
+	/** The server checksums status (<code>true</code> to use checksums stored by the server instead of downloading content, <code>false</code> otherwise). */
+	private boolean serverChecksums;
+	/** The rate of server checksums to verify by downloading content (from <code>0</code> to <code>1</code>). */
+	private double verifyRate;
+	/** The retry policy of failed Subversion requests. */
+	private SvnRetryPolicy retryPolicy;
+	/** The continue on error status (<code>true</code> to skip resources that could not be computed, <code>false</code> to break the process). */
+	private boolean continueOnError;
+	/** The adaptive concurrency status (<code>true</code> to adapt concurrent requests to server feedback, <code>false</code> otherwise). */
+	private boolean adaptiveConcurrency;
+	/** The maximum number of Subversion requests per second (<code>0</code> if the request rate is not bounded). */
+	private double maxRequestRate;
+	/** The maximum rate of hedged file requests (from <code>0</code> to <code>1</code>, <code>0</code> to not hedge requests). */
+	private double hedgeRate;
 	/*
 	 * Progress related.
 	 */
-	/** The pending directories to be listed. */
-	private final Set<SvnDirectory> pendingDirectories = Collections.synchronizedSet(new HashSet<SvnDirectory>());
-	/** The break status (<code>true</code> if the process should break, <code>false</code> otherwise). */
-	private boolean shouldBreak;
+	/** The error messages of resources skipped on error, by working copy path. */
+	private Map<String, String> failedPaths;
 	/** The file counter of computed checksum. */
 	private AtomicInteger progressCounter;
 	/** The file counter to compute checksum. */
 	private AtomicInteger fileCounter;
+	/** The directory counter of listings read from cache. */
+	private AtomicInteger cachedDirectoryCounter;
+	/** The file counter of checksums read from cache. */
+	private AtomicInteger cachedFileCounter;
+	/** The file counter of checksums computed from report. */
+	private AtomicInteger reportedFileCounter;
+	/** The file counter of checksums read from server. */
+	private AtomicInteger serverChecksumCounter;
+	/** The byte counter of file content not downloaded. */
+	private AtomicLong avoidedByteCounter;
 
 	/**
-	 * Create Subversion repository.
+	 * Constructor.
 	 * 
 	 * @param url
-	 *            The URL of the root of the repository.
-	 * @param name
+	 *            The Subversion URL to compute checksum (must be a directory).
+	 * @param user
 	 *            The Subversion user name.
 	 * @param passwd
 	 *            The Subversion user password.
-	 * @return The created Subversion repository.
 	 * @throws ChecksumException
-	 *             Throws exception if the repository could not be created.
+	 *             Throws exception if the generator could not be created.
 	 */
-	public static SVNRepository createRepository(String url, String name, char[] passwd) throws ChecksumException {
-		// Declare repository
-		SVNRepository repository;
-		try {
-			// Initialize factory for DAV access
-			SVNURL svnUrl = SVNURL.parseURIEncoded(url);
-			// Create repository
-			DAVRepositoryFactory.setup();
-			repository = SVNRepositoryFactory.create(svnUrl, null);
-			// Create authentication manager
-			ISVNAuthenticationManager authManager = SVNWCUtil.createDefaultAuthenticationManager(name, passwd);
-			repository.setAuthenticationManager(authManager);
-			// Ensure repository is valid
-			SVNNodeKind nodeKind = repository.checkPath("", -1);
-			if (nodeKind==SVNNodeKind.NONE)
-				throw new ChecksumException("No repository was found at \""+url+"\".");
-			if (nodeKind==SVNNodeKind.FILE)
-				throw new ChecksumException("The URL \""+url+"\" should be a directory.");
-		} catch (SVNException exception) {
-			throw new ChecksumException("Unable to create repository.", exception);
-		}
-		// Return created repository
-		return repository;
+	public SvnChecksumGenerator(final String url, final String user, final char[] passwd) throws ChecksumException {
+		this(url, new SvnSessionPool(url, user, passwd, SvnSessionPool.getDefaultSize(url)));
 	}
 
 	/**
-	 * Constructor.
+	 * Constructor.<br/>
+	 * The session pool may be shared between generators of the same repository. It is not closed by the generator.
 	 * 
 	 * @param url
 	 *            The Subversion URL to compute checksum (must be a directory).
-	 * @param user
-	 *            The Subversion user name.
-	 * @param passwd
-	 *            The Subversion user password.
+	 * @param sessionPool
+	 *            The Subversion session pool to request the repository.
 	 * @throws ChecksumException
 	 *             Throws exception if the generator could not be created.
 	 */
-	public SvnChecksumGenerator(final String url, final String user, final char[] passwd) throws ChecksumException {
-		// Create repository
-		this.repository = SvnChecksumGenerator.createRepository(url, user, passwd);
-		// Get Subversion root URL
-		SVNURL rootUrl = null;
-		try {
-			rootUrl = this.repository.getRepositoryRoot(true);
-		} catch (SVNException exception) {
-			throw new ChecksumException("Unable to get the Subversion root URL.", exception);
-		}
+	public SvnChecksumGenerator(final String url, final SvnSessionPool sessionPool) throws ChecksumException {
+		// Save session pool
+		this.sessionPool = sessionPool;
+		// Get and cache Subversion root URL and UUID
+		SVNURL rootUrl = sessionPool.getRepositoryRoot();
+		this.repositoryRootUrl = rootUrl;
+		this.repositoryUuid = sessionPool.getRepositoryUuid();
 		// Check Subversion root URL
 		String rootUrlString = rootUrl.toString();
 		if (!url.startsWith(rootUrlString))
@@ -148,12 +208,229 @@ public class SvnChecksumGenerator implements ChecksumGenerator {
 		// Get resource URL
 		String resourceUrl = url.substring(rootUrlString.length());
 		// Check URL leading slash
-		if (resourceUrl.charAt(resourceUrl.length()-1)=='/')
+		if (resourceUrl.length()>0&&resourceUrl.charAt(resourceUrl.length()-1)=='/')
 			resourceUrl = resourceUrl.substring(0, resourceUrl.length()-1);
+		// Ensure resource is a directory
+		SVNRepository repository = sessionPool.acquire();
+		SVNNodeKind nodeKind;
+		try {
+			nodeKind = repository.checkPath(resourceUrl.isEmpty() ? "/" : resourceUrl, -1);
+		} catch (SVNException exception) {
+			sessionPool.invalidate(repository);
+			throw new ChecksumException("Unable to create repository.", exception);
+		}
+		sessionPool.release(repository);
+		if (nodeKind==SVNNodeKind.NONE)
+			throw new ChecksumException("No repository was found at \""+url+"\".");
+		if (nodeKind==SVNNodeKind.FILE)
+			throw new ChecksumException("The URL \""+url+"\" should be a directory.");
 		// Create root directory
 		this.rootDirectory = new SvnDirectory(resourceUrl);
-		// Create SVN client thread factory
-		this.svnClientThreadFactory = new SvnClientThreadFactory(url, user, passwd);
+		// Compute checksums at HEAD revision by default
+		this.requestedRevision = -1;
+		// Retry transient failures by default
+		this.retryPolicy = new SvnRetryPolicy(SvnRetryPolicy.DEFAULT_RETRIES, SvnRetryPolicy.DEFAULT_DELAY);
+		this.failedPaths = new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * Get the Subversion session pool to request the repository.
+	 * 
+	 * @return The Subversion session pool.
+	 */
+	SvnSessionPool getSessionPool() {
+		return this.sessionPool;
+	}
+
+	/**
+	 * Get the repository path of the root directory.
+	 * 
+	 * @return The root directory path.
+	 */
+	String getRootPath() {
+		return this.rootDirectory.getPath();
+	}
+
+	/**
+	 * Get the requested revision to compute checksums.
+	 * 
+	 * @return The requested revision (<code>-1</code> for HEAD).
+	 */
+	long getRequestedRevision() {
+		return this.requestedRevision;
+	}
+
+	/**
+	 * Set the revision to compute checksums.
+	 * 
+	 * @param revision
+	 *            The revision to compute checksums (<code>-1</code> for HEAD).
+	 */
+	public void setRevision(long revision) {
+		this.requestedRevision = revision;
+	}
+
+	/**
+	 * Set the changed paths to restrict file hashing to.<br/>
+	 * Only files at or under a changed path are hashed, other files are listed without checksum and marked as unchanged, so directories without
+	 * changed path get the same checksum on both compared locations. Files of externals and files with properties (whose keywords expansion may
+	 * depend on their location) are always hashed.
+	 * 
+	 * @param changedPaths
+	 *            The repository paths of changed resources (<code>null</code> to hash all files).
+	 */
+	void setChangedPaths(Set<String> changedPaths) {
+		this.changedPaths = changedPaths;
+	}
+
+	/**
+	 * Set whether directory trees should be listed from a single report instead of listing each directory.<br/>
+	 * Listing from report saves a request per directory but does not get file sizes.
+	 * 
+	 * @param reportListing
+	 *            <code>true</code> to list directory trees from report, <code>false</code> to list each directory.
+	 */
+	public void setReportListing(boolean reportListing) {
+		this.reportListing = reportListing;
+	}
+
+	/**
+	 * Set whether file contents should be hashed from the listing report instead of getting each file.<br/>
+	 * Directory trees are listed from a single report sending file contents, so each file is hashed while the report is streamed.
+	 * 
+	 * @param reportContent
+	 *            <code>true</code> to hash file contents from report, <code>false</code> to get each file.
+	 */
+	public void setReportContent(boolean reportContent) {
+		this.reportContent = reportContent;
+	}
+
+	/**
+	 * Set the persistent checksum cache directory.<br/>
+	 * Checksums are cached by repository and algorithm, for each file path and committed revision. Only files whose committed revision changed
+	 * since the previous computation are then requested.
+	 * 
+	 * @param cacheDirectory
+	 *            The checksum cache directory (<code>null</code> to not cache checksums).
+	 */
+	public void setCacheDirectory(Path cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Set caches shared with other generators.<br/>
+	 * Shared caches are neither loaded nor saved by the generator.
+	 * 
+	 * @param cache
+	 *            The shared checksum cache.
+	 * @param listingCache
+	 *            The shared directory listing cache.
+	 */
+	void setCaches(ChecksumCache cache, ListingCache listingCache) {
+		this.cache = cache;
+		this.listingCache = listingCache;
+		this.sharedCaches = true;
+	}
+
+	/**
+	 * Set whether checksums and listings should be cached by copy origin instead of path.<br/>
+	 * The copies of the root directory history are read from the repository log. A resource unchanged since it was copied is then cached with the
+	 * path it was copied from, so copies of the same location (such as tags) share their cached checksums and listings. Files with properties are
+	 * still cached by path as their keywords expansion depends on their location.
+	 * 
+	 * @param copyOrigins
+	 *            <code>true</code> to cache by copy origin, <code>false</code> to cache by path.
+	 */
+	public void setCopyOrigins(boolean copyOrigins) {
+		this.copyOrigins = copyOrigins;
+	}
+
+	/**
+	 * Set whether checksums stored by the server should be used instead of downloading file content.<br/>
+	 * Server checksums are MD5 checksums of the repository content. They are only used with the MD5 algorithm and for files without keywords to
+	 * translate.
+	 * 
+	 * @param serverChecksums
+	 *            <code>true</code> to use server checksums, <code>false</code> to always download file content.
+	 */
+	public void setServerChecksums(boolean serverChecksums) {
+		this.serverChecksums = serverChecksums;
+	}
+
+	/**
+	 * Set the rate of server checksums to verify by downloading file content.
+	 * 
+	 * @param verifyRate
+	 *            The rate of server checksums to verify (from <code>0</code> for none to <code>1</code> for all).
+	 */
+	public void setVerifyRate(double verifyRate) {
+		this.verifyRate = verifyRate;
+	}
+
+	/**
+	 * Set the retry policy of failed Subversion requests.<br/>
+	 * A failed request is retried with a new session, so a transient failure does not break the whole computation.
+	 * 
+	 * @param retryPolicy
+	 *            The retry policy of failed requests.
+	 */
+	public void setRetryPolicy(SvnRetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Set whether resources that could not be computed should be skipped instead of breaking the computation.<br/>
+	 * A file skipped on error is left without checksum and a directory skipped on error is left without children. Skipped resources are
+	 * available from {@link #getFailedPaths()}.
+	 * 
+	 * @param continueOnError
+	 *            <code>true</code> to skip resources on error, <code>false</code> to break the computation.
+	 */
+	public void setContinueOnError(boolean continueOnError) {
+		this.continueOnError = continueOnError;
+	}
+
+	/**
+	 * Set whether the number of concurrent Subversion requests should adapt to server feedback.<br/>
+	 * Concurrent requests start low and grow up to the session pool size while request latency stays flat, then shrink on rising latency or
+	 * server failure.
+	 * 
+	 * @param adaptiveConcurrency
+	 *            <code>true</code> to adapt concurrent requests to server feedback, <code>false</code> to use the whole session pool.
+	 */
+	public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+		this.adaptiveConcurrency = adaptiveConcurrency;
+	}
+
+	/**
+	 * Set the maximum number of Subversion requests per second.
+	 * 
+	 * @param maxRequestRate
+	 *            The maximum number of requests per second (<code>0</code> to not bound the request rate).
+	 */
+	public void setMaxRequestRate(double maxRequestRate) {
+		this.maxRequestRate = maxRequestRate;
+	}
+
+	/**
+	 * Set the maximum rate of hedged file requests.<br/>
+	 * A file request still running after the observed 95th percentile latency is sent again on another session, the first request to complete
+	 * being kept and the other one cancelled.
+	 * 
+	 * @param hedgeRate
+	 *            The maximum rate of hedged file requests (from <code>0</code> to <code>1</code>, <code>0</code> to not hedge requests).
+	 */
+	public void setHedgeRate(double hedgeRate) {
+		this.hedgeRate = hedgeRate;
+	}
+
+	/**
+	 * Get the resources skipped on error by the last computation.
+	 * 
+	 * @return The error messages of resources skipped on error, by working copy path.
+	 */
+	public Map<String, String> getFailedPaths() {
+		return this.failedPaths;
 	}
 
 	/*
@@ -162,61 +439,172 @@ public class SvnChecksumGenerator implements ChecksumGenerator {
 
 	@Override
 	public AbstractDirectory compute(ChecksumAlgorithm algorithm, ChecksumListener listener, PathMatcher... ignoreMatchers) throws ChecksumException {
+		return this.compute(algorithm, listener, null, -1, ignoreMatchers);
+	}
+
+	/**
+	 * Update the checksums of a manifest computed at a previous revision.<br/>
+	 * The paths changed since the manifest revision are read from the repository log, including paths added with a copy. Only the resources at
+	 * these paths are listed and hashed again, the checksums of other files being read from the manifest. Externals are not followed by the log so
+	 * pinned externals are only listed again if their definition changed. Unpinned externals follow HEAD and are always listed again, their
+	 * definitions being found by a report of the location tree without file contents.
+	 * 
+	 * @param manifestReader
+	 *            The reader of the manifest to update, written in list mode from the same location.
+	 * @param fromRevision
+	 *            The revision the manifest was computed at.
+	 * @param algorithm
+	 *            The algorithm the manifest was computed with.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @return The root directory with the checksums at the revision to compute checksums.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be updated.
+	 */
+	public AbstractDirectory update(ManifestReader manifestReader, long fromRevision, ChecksumAlgorithm algorithm, ChecksumListener listener,
+			PathMatcher... ignoreMatchers) throws ChecksumException {
+		return this.compute(algorithm, listener, manifestReader, fromRevision, ignoreMatchers);
+	}
+
+	/**
+	 * Compute checksums, listing the whole location or updating a manifest.
+	 * 
+	 * @param algorithm
+	 *            The algorithm to use to compute checksum.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param manifestReader
+	 *            The reader of the manifest to update (<code>null</code> to list the whole location).
+	 * @param fromRevision
+	 *            The revision the manifest was computed at (<code>-1</code> to list the whole location).
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @return The root directory with the computed checksums.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksums could not be computed.
+	 */
+	private AbstractDirectory compute(ChecksumAlgorithm algorithm, ChecksumListener listener, ManifestReader manifestReader, long fromRevision,
+			PathMatcher[] ignoreMatchers) throws ChecksumException {
 		// Save algorithm to use
 		this.algorithm = algorithm;
 		// Save start time
 		long startTime = System.nanoTime();
-		/*
-		 * List files.
-		 */
-		// Initialize progress
-		this.shouldBreak = false;
-		this.fileCounter = new AtomicInteger();
-		// Notify worker
-		listener.onStart();
-		// Create executer service
-		ExecutorService executorService = Executors.newFixedThreadPool(SvnChecksumGenerator.NBR_EXECUTORS, this.svnClientThreadFactory);
-		// List root directory
-		this.prepareListDirectory(executorService, this.rootDirectory, listener, ignoreMatchers);
-		try {
-			// Wait until no pending directory left
-			while (!this.pendingDirectories.isEmpty()&&!this.shouldBreak) {
-				Thread.sleep(100);
+		// Pin requested or HEAD revision for the whole computation
+		if (this.requestedRevision>=0) {
+			this.revision = this.requestedRevision;
+		} else {
+			SVNRepository repository = this.sessionPool.acquire();
+			try {
+				this.revision = repository.getLatestRevision();
+			} catch (SVNException exception) {
+				this.sessionPool.invalidate(repository);
+				throw new ChecksumException("Unable to get the Subversion HEAD revision.", exception);
 			}
-			// Await terminaison
-			executorService.shutdown();
-			executorService.awaitTermination(1, TimeUnit.DAYS);
-		} catch (InterruptedException exception) {
-			throw new ChecksumException("Checksum computation did not end in time.", exception);
+			this.sessionPool.release(repository);
 		}
-		listener.onDebug(this.fileCounter+" files found.");
-		// Check if process has broke
-		if (this.shouldBreak)
-			throw new ChecksumException("An error occured while listing resources.");
+		listener.onDebug("Computing checksums at revision "+this.revision+".");
+		// Check manifest revision
+		if (manifestReader!=null&&(fromRevision<0||fromRevision>this.revision))
+			throw new ChecksumException("Unable to update manifest from revision "+fromRevision+" to revision "+this.revision+".");
+		// Load checksum cache
+		if (this.cacheDirectory!=null&&!this.sharedCaches) {
+			// Create cache for repository and algorithm
+			this.cache = SvnChecksumGenerator.createChecksumCache(this.cacheDirectory, this.repositoryUuid, algorithm);
+			this.cache.load();
+			listener.onDebug(this.cache.size()+" checksums loaded from cache.");
+			// Create directory listing cache for repository
+			this.listingCache = new ListingCache(this.cacheDirectory.resolve(this.repositoryUuid+".listing"), this.repositoryUuid);
+			this.listingCache.load();
+			listener.onDebug(this.listingCache.size()+" directory listings loaded from cache.");
+		}
+		// Read copies of root directory history
+		if (this.copyOrigins)
+			this.readCopies(listener);
 		/*
-		 * Compute checksums.
+		 * List files and compute checksums.
 		 */
-		// Initialize progress counter
-		this.shouldBreak = false;
+		// Initialize externals
+		this.externalRepositoryPools = new ArrayList<>();
+		this.externalRepositoryRevisions = new HashMap<>();
+		this.externalSessionPools = new ConcurrentHashMap<>();
+		this.externalDirectories = new ConcurrentHashMap<>();
+		this.externalGrafts = new ConcurrentHashMap<>();
+		// Initialize progress
+		this.fileCounter = new AtomicInteger();
 		this.progressCounter = new AtomicInteger();
+		this.reportedFileCounter = new AtomicInteger();
+		this.cachedDirectoryCounter = new AtomicInteger();
+		this.cachedFileCounter = new AtomicInteger();
+		this.serverChecksumCounter = new AtomicInteger();
+		this.avoidedByteCounter = new AtomicLong();
+		// Check server checksums availability
+		if (this.serverChecksums&&algorithm!=ChecksumAlgorithm.MD5)
+			listener.onDebug("Server checksums are only available with MD5 algorithm, file contents will be downloaded.");
 		// Notify worker
-		listener.onProgress(0);
-		// Create executer service
-		executorService = Executors.newFixedThreadPool(SvnChecksumGenerator.NBR_EXECUTORS, this.svnClientThreadFactory);
-		// Process root directory
-		this.processDirectory(executorService, rootDirectory, listener);
-		// Await terminaison
+		listener.onStart();
+		// Create request executor
+		SvnRequestLimiter requestLimiter = new SvnRequestLimiter(this.sessionPool.getSize(), this.adaptiveConcurrency, this.maxRequestRate);
+		SvnRequestHedger requestHedger = this.hedgeRate>0 ? new SvnRequestHedger(this.hedgeRate) : null;
+		SvnRequestExecutor requestExecutor = new SvnRequestExecutor(this.sessionPool.getSize(), this.retryPolicy, requestLimiter, requestHedger,
+				this.continueOnError);
+		this.failedPaths = requestExecutor.getFailedPaths();
+		// Check computation mode
+		if (manifestReader==null)
+			// List root directory, each listed file being hashed as soon as its directory is listed
+			this.prepareListDirectory(requestExecutor, this.rootDirectory, listener, ignoreMatchers);
+		else
+			// Update manifest, each changed resource being listed and hashed again
+			this.prepareUpdate(requestExecutor, manifestReader, fromRevision, listener, ignoreMatchers);
 		try {
-			executorService.shutdown();
-			executorService.awaitTermination(1, TimeUnit.DAYS);
+			// Wait until the last pending task finishes
+			requestExecutor.await();
 		} catch (InterruptedException exception) {
 			throw new ChecksumException("Checksum computation did not end in time.", exception);
+		} finally {
+			// Release executors
+			requestExecutor.shutdown();
+			// Close session pools of external repositories
+			for (SvnSessionPool externalRepositoryPool : this.externalRepositoryPools) {
+				externalRepositoryPool.close();
+			}
 		}
 		// Check if process has broken
-		if (this.shouldBreak)
+		if (requestExecutor.shouldBreak())
 			throw new ChecksumException("An error occured while checksum computation.");
+		// Graft each external already listed elsewhere
+		for (Map.Entry<SvnDirectory, SvnDirectory> externalGraft : this.externalGrafts.entrySet()) {
+			this.graftExternal(externalGraft.getValue(), externalGraft.getKey(), new HashSet<SvnDirectory>(), ignoreMatchers);
+		}
+		listener.onDebug(this.fileCounter+" files found.");
+		listener.onDebug(requestExecutor.getRetryCount()+" Subversion requests retried.");
+		if (this.adaptiveConcurrency)
+			listener.onDebug(requestLimiter.getLimit()+" concurrent Subversion requests reached.");
+		if (requestHedger!=null)
+			listener.onDebug(requestHedger.getHedgeCount()+" file requests hedged ("+requestExecutor.getHedgeWinCount()+" completed first).");
+		if (!this.failedPaths.isEmpty())
+			listener.onDebug(this.failedPaths.size()+" paths skipped on error.");
+		if (this.reportContent)
+			listener.onDebug(this.reportedFileCounter+" files hashed from report.");
+		if (!this.externalGrafts.isEmpty())
+			listener.onDebug(this.externalGrafts.size()+" externals grafted from "+this.externalDirectories.size()+" listed externals.");
+		// Save directory listing cache
+		if (this.listingCache!=null) {
+			if (!this.sharedCaches)
+				this.listingCache.save();
+			listener.onDebug(this.cachedDirectoryCounter+" directories read from cache.");
+		}
+		// Save checksum cache
+		if (this.cache!=null) {
+			if (!this.sharedCaches)
+				this.cache.save();
+			listener.onDebug(this.cachedFileCounter+" checksums read from cache.");
+		}
 		// Sort root directory
 		this.rootDirectory.sort();
+		// Compute directory checksums
+		this.rootDirectory.computeChecksum();
 		// Notify worker
 		listener.onDone();
 		// Compute elapsed time
@@ -224,39 +612,39 @@ public class SvnChecksumGenerator implements ChecksumGenerator {
 		if (elapsedTime==0)
 			elapsedTime = 1;
 		listener.onDebug(this.fileCounter+" hashs in "+elapsedTime+" secs ("+this.fileCounter.get()/elapsedTime+" hashs/secs)");
+		if (this.serverChecksums)
+			listener.onDebug(this.serverChecksumCounter+" server checksums used ("+this.avoidedByteCounter+" bytes not downloaded)");
+		listener.onDebug(this.sessionPool.getCreatedSessionCount()+" Subversion sessions opened.");
 		// Return the root directory
 		return this.rootDirectory;
 	}
 
 	/**
-	 * Prepare directory listing directory content.
+	 * Prepare manifest update.
 	 * 
-	 * @param executorService
-	 *            The executor service to get executors.
-	 * @param directory
-	 *            The directory resource to list.
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param manifestReader
+	 *            The reader of the manifest to update.
+	 * @param fromRevision
+	 *            The revision the manifest was computed at.
 	 * @param listener
 	 *            The listener to notify computation progress.
 	 * @param ignoreMatchers
 	 *            The list of path matcher to check for ignoring resource.
 	 */
-	public void prepareListDirectory(final ExecutorService executorService, final SvnDirectory directory, final ChecksumListener listener,
-			final PathMatcher[] ignoreMatchers) {
-		// Add directory pending directories
-		this.pendingDirectories.add(directory);
-		// Submit a task to list directory
-		executorService.submit(new Callable<Void>() {
+	private void prepareUpdate(final SvnRequestExecutor requestExecutor, final ManifestReader manifestReader, final long fromRevision,
+			final ChecksumListener listener, final PathMatcher[] ignoreMatchers) {
+		// Submit a task to update manifest
+		requestExecutor.submit(new Callable<Void>() {
 			@Override
 			public Void call() throws Exception {
-				// Check if should break
-				if (SvnChecksumGenerator.this.shouldBreak)
-					return null;
 				try {
-					// List directory content
-					SvnChecksumGenerator.this.listDirectory(executorService, directory, listener, ignoreMatchers);
+					// Update manifest
+					SvnChecksumGenerator.this.updateManifest(requestExecutor, manifestReader, fromRevision, listener, ignoreMatchers);
 				} catch (ChecksumException exception) {
 					// Break the process
-					SvnChecksumGenerator.this.shouldBreak = true;
+					requestExecutor.breakProcess();
 					// Notify listener
 					listener.onError(exception);
 				}
@@ -267,341 +655,1959 @@ public class SvnChecksumGenerator implements ChecksumGenerator {
 	}
 
 	/**
-	 * List directory content.
+	 * Update manifest.<br/>
+	 * The manifest is read as the resource tree, then each resource changed since the manifest revision and each unpinned external is removed and
+	 * processed again.
 	 * 
-	 * @param executorService
-	 *            The executor service to get executors.
-	 * @param directory
-	 *            The directory resource to list.
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param manifestReader
+	 *            The reader of the manifest to update.
+	 * @param fromRevision
+	 *            The revision the manifest was computed at.
 	 * @param listener
 	 *            The listener to notify computation progress.
 	 * @param ignoreMatchers
 	 *            The list of path matcher to check for ignoring resource.
 	 * @throws ChecksumException
-	 *             Throw exception if the directory could not be listed.
+	 *             Throws exception if the manifest could not be updated.
 	 */
-	public void listDirectory(ExecutorService executorService, SvnDirectory directory, ChecksumListener listener, PathMatcher[] ignoreMatchers)
-			throws ChecksumException {
-		/*
-		 * Handle parallel programmation.
-		 */
-		// Check current thread type
-		Thread currentThread = Thread.currentThread();
-		if (currentThread instanceof SvnClientThread)
-			// Get Subversion repository from Subversion client thread
-			this.repository = ((SvnClientThread) Thread.currentThread()).getRepository();
-		// Get directory path
-		String path = directory.getPath();
-		// Get directory working copy path
-		String workingCopyPath = directory.getWorkingCopyPath();
-		try {
-			// Get properties of directory
-			SVNProperties properties = new SVNProperties();
-			// Get path entries
-			Collection<?> entries = this.repository.getDir(path, -1, properties, (Collection<?>) null);
-			// Declare ignore resource status
-			boolean ignoredResource;
-			// Process each entry
-			for (Object entry : entries) {
-				SVNDirEntry dirEntry = (SVNDirEntry) entry;
-				// Get entry kind
-				SVNNodeKind nodeKind = dirEntry.getKind();
-				// Mark resource as not ignored
-				ignoredResource = false;
-				// Get working copy related path
-				Path entryWorkingCopyPath = Paths.get(workingCopyPath, dirEntry.getName());
-				// Check each path matcher
-				for (PathMatcher matcher : ignoreMatchers) {
-					// Check if path matcher matches
-					if (matcher.matches(entryWorkingCopyPath))
-						// Mark directory as ignored
-						ignoredResource = true;
+	private void updateManifest(SvnRequestExecutor requestExecutor, ManifestReader manifestReader, long fromRevision, ChecksumListener listener,
+			PathMatcher[] ignoreMatchers) throws ChecksumException {
+		// Read manifest as resource tree
+		this.readManifest(manifestReader);
+		// Get changed and modified paths from log
+		final String rootPath = this.rootDirectory.getPath();
+		final Set<String> changedPaths = new TreeSet<>();
+		final Set<String> modifiedPaths = new TreeSet<>();
+		ISVNLogEntryHandler logEntryHandler = new ISVNLogEntryHandler() {
+			@Override
+			public void handleLogEntry(SVNLogEntry logEntry) throws SVNException {
+				// Check each changed path of the revision
+				for (SVNLogEntryPath logEntryPath : logEntry.getChangedPaths().values()) {
+					// Get changed path
+					String path = logEntryPath.getPath();
+					// Check if root directory or one of its parents is changed
+					if (path.equals(rootPath)||rootPath.startsWith(path.endsWith("/") ? path : path+"/")) {
+						// Check if root directory is only modified
+						if (logEntryPath.getType()==SVNLogEntryPath.TYPE_MODIFIED) {
+							if (path.equals(rootPath))
+								modifiedPaths.add("");
+						} else {
+							// Update the whole root directory
+							changedPaths.add("");
+						}
+					}
+					// Check if a resource of root directory is changed
+					else if (path.startsWith(rootPath+"/")) {
+						// Get path relative to root directory
+						String relativePath = path.substring(rootPath.length()+1);
+						// Save modified or changed path
+						if (logEntryPath.getType()==SVNLogEntryPath.TYPE_MODIFIED)
+							modifiedPaths.add(relativePath);
+						else
+							changedPaths.add(relativePath);
+					}
 				}
-				// Check if resource is ignored
-				if (ignoredResource) {
-					// Skip the entry
+			}
+		};
+		// Get repository root URL to resolve externals
+		SVNURL rootUrl = this.sessionPool.getRepositoryRoot();
+		// Declare unpinned externals by path relative to root directory
+		Map<String, SVNExternal> unpinnedExternals;
+		SVNRepository repository = this.sessionPool.acquire();
+		try {
+			// Read log of root directory since manifest revision
+			if (fromRevision<this.revision)
+				repository.log(new String[] {rootPath.isEmpty() ? "/" : rootPath}, fromRevision+1, this.revision, true, false, logEntryHandler);
+			/*
+			 * Check modified paths.
+			 */
+			// Check each modified path
+			for (String modifiedPath : modifiedPaths) {
+				// Check if modified path is already changed
+				if (SvnChecksumGenerator.isChangedPath(modifiedPath, changedPaths))
+					continue;
+				// Check if a modified file is in manifest
+				AbstractResource resource = this.getResource(modifiedPath);
+				if (resource instanceof SvnFile) {
+					// Update modified file
+					changedPaths.add(modifiedPath);
 					continue;
 				}
-				// Check entry kind
-				if (nodeKind==SVNNodeKind.DIR) {
-					// Create Subversion directory
-					SvnDirectory childDirectory = new SvnDirectory(dirEntry.getName());
-					// Add child Subversion directory
-					directory.addChild(childDirectory);
-					// Recursively process directory
-					this.prepareListDirectory(executorService, childDirectory, listener, ignoreMatchers);
-				} else {
-					// Create Subversion file
-					SvnFile file = new SvnFile(dirEntry.getName());
-					// Add child Subversion file
-					directory.addChild(file);
-					// Update file counter
-					this.fileCounter.incrementAndGet();
-				}
+				// Check if modified directory externals definition changed
+				String path = modifiedPath.isEmpty() ? rootPath : rootPath+"/"+modifiedPath;
+				if (resource==null||!Objects.equals(this.getExternals(repository, path, fromRevision), this.getExternals(repository, path, this.revision)))
+					// Update modified directory
+					changedPaths.add(modifiedPath);
 			}
 			/*
-			 * Process externals.
+			 * Get unpinned externals.
 			 */
-			// Get directory externals property
-			String externals = properties.getStringValue(SVNProperty.EXTERNALS);
-			// Check if externals property is defined
-			if (externals==null) {
-				this.pendingDirectories.remove(directory);
-				return;
+			unpinnedExternals = this.getUnpinnedExternals(repository, rootUrl, ignoreMatchers);
+		} catch (SVNException exception) {
+			this.sessionPool.invalidate(repository);
+			throw new ChecksumException("Unable to read Subversion log of \""+rootPath+"\" since revision "+fromRevision+".", exception);
+		}
+		this.sessionPool.release(repository);
+		listener.onDebug(changedPaths.size()+" changed paths found since revision "+fromRevision+".");
+		listener.onDebug(unpinnedExternals.size()+" unpinned externals found.");
+		/*
+		 * Update changed paths.
+		 */
+		// Check if the whole root directory is changed
+		if (changedPaths.contains("")) {
+			// Remove each root directory child
+			for (AbstractResource child : new ArrayList<>(this.rootDirectory.getChildren())) {
+				this.removeResource(child);
 			}
-			try {
-				// Parse external definition
-				SVNExternal[] svnExternals = SVNExternal.parseExternals(path, externals);
-				// Process each external
-				for (SVNExternal svnExternal : svnExternals) {
-					// Resolve external URL
-					SVNURL rootUrl = this.repository.getRepositoryRoot(false);
-					SVNURL ownerUrl = rootUrl.appendPath(path, false);
-					svnExternal.resolveURL(rootUrl, ownerUrl);
-					// Mark resource as not ignored
-					ignoredResource = false;
-					/*
-					 * Create external resources up to external location.
-					 */
-					// Get external path
-					String externalPath = svnExternal.getPath();
-					// Get working copy related path
-					Path externalWorkingCopyPath = Paths.get(workingCopyPath, externalPath);
-					// Check each path matcher
-					for (PathMatcher matcher : ignoreMatchers) {
-						// Check if path matcher matches
-						if (matcher.matches(externalWorkingCopyPath))
-							// Mark externals as ignored
-							ignoredResource = true;
-					}
-					// Check if externals is ignored
-					if (ignoredResource) {
-						// Skip the externals
+			// List root directory again
+			this.prepareListDirectory(requestExecutor, this.rootDirectory, listener, ignoreMatchers);
+			return;
+		}
+		// Remove each changed resource, getting the parent directory to process it again
+		Map<String, SvnDirectory> changedResources = new LinkedHashMap<>();
+		for (String changedPath : changedPaths) {
+			// Check if a parent path is already changed
+			int separatorIndex = changedPath.lastIndexOf('/');
+			if (separatorIndex!=-1&&SvnChecksumGenerator.isChangedPath(changedPath.substring(0, separatorIndex), changedPaths))
+				continue;
+			// Remove changed resource from manifest
+			AbstractResource resource = this.getResource(changedPath);
+			if (resource!=null)
+				this.removeResource(resource);
+			// Get changed resource parent directory, creating missing ones
+			SvnDirectory parent = this.getParentDirectory(changedPath);
+			// Check if changed resource is ignored
+			String name = changedPath.substring(changedPath.lastIndexOf('/')+1);
+			if (!SvnChecksumGenerator.isIgnored(Paths.get(parent.getWorkingCopyPath(), name), ignoreMatchers))
+				changedResources.put(changedPath, parent);
+		}
+		// Remove each unpinned external not already listed again from a changed path, getting its parent directory to process it again
+		Map<String, SvnDirectory> changedExternals = new LinkedHashMap<>();
+		for (String externalPath : unpinnedExternals.keySet()) {
+			// Check if external or a parent path is already changed
+			if (SvnChecksumGenerator.isChangedPath(externalPath, changedPaths))
+				continue;
+			// Remove external from manifest
+			AbstractResource resource = this.getResource(externalPath);
+			if (resource!=null)
+				this.removeResource(resource);
+			// Get external parent directory, creating missing ones
+			changedExternals.put(externalPath, this.getParentDirectory(externalPath));
+		}
+		// Process each changed resource again, once the resource tree is no more changed
+		for (Map.Entry<String, SvnDirectory> changedResource : changedResources.entrySet()) {
+			String name = changedResource.getKey().substring(changedResource.getKey().lastIndexOf('/')+1);
+			this.prepareChangedResource(requestExecutor, changedResource.getValue(), name, listener, ignoreMatchers);
+		}
+		// Process each unpinned external again at HEAD
+		for (Map.Entry<String, SvnDirectory> changedExternal : changedExternals.entrySet()) {
+			String name = changedExternal.getKey().substring(changedExternal.getKey().lastIndexOf('/')+1);
+			this.prepareExternal(requestExecutor, changedExternal.getValue(), name, unpinnedExternals.get(changedExternal.getKey()).getResolvedURL(), -1,
+					listener, ignoreMatchers);
+		}
+	}
+
+	/**
+	 * Get the unpinned externals defined in the root directory tree.<br/>
+	 * The externals definitions are received from a single depth infinity status report of the root directory, without file contents.
+	 * 
+	 * @param repository
+	 *            The Subversion session to report root directory.
+	 * @param rootUrl
+	 *            The repository root URL.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @return The resolved unpinned externals by path relative to the root directory.
+	 * @throws SVNException
+	 *             Throws exception if the root directory could not be reported or an externals definition could not be parsed.
+	 */
+	private Map<String, SVNExternal> getUnpinnedExternals(SVNRepository repository, SVNURL rootUrl, PathMatcher[] ignoreMatchers) throws SVNException {
+		// Get root directory path
+		String rootPath = this.rootDirectory.getPath();
+		// Create a separate root directory to report, not to change the manifest resource tree
+		SvnDirectory reportedDirectory = new SvnDirectory(rootPath);
+		SvnListingEditor editor = new SvnListingEditor(reportedDirectory, new AtomicInteger(), ignoreMatchers);
+		// Save session location
+		SVNURL location = repository.getLocation();
+		try {
+			// Move session to root directory location
+			repository.setLocation(rootUrl.appendPath(rootPath, false), false);
+			// Report an empty working copy to receive the whole directory tree without file contents
+			final long revision = this.revision;
+			repository.status(revision, null, SVNDepth.INFINITY, new ISVNReporterBaton() {
+				@Override
+				public void report(ISVNReporter reporter) throws SVNException {
+					reporter.setPath("", null, revision, SVNDepth.INFINITY, true);
+					reporter.finishReport();
+				}
+			}, editor);
+			// Check each directory externals definition
+			Map<String, SVNExternal> unpinnedExternals = new LinkedHashMap<>();
+			for (Map.Entry<SvnDirectory, String> externals : editor.getExternals().entrySet()) {
+				SvnDirectory directory = externals.getKey();
+				String path = directory.getPath();
+				// Parse externals definition
+				for (SVNExternal svnExternal : SVNExternal.parseExternals(path, externals.getValue())) {
+					// Check if external is pinned or ignored
+					if (svnExternal.getRevision().getNumber()>=0
+							||SvnChecksumGenerator.isIgnored(Paths.get(directory.getWorkingCopyPath(), svnExternal.getPath()), ignoreMatchers))
 						continue;
-					}
-					// Split external resource path
-					String[] externalPathPart = externalPath.split("/");
-					// Create each child resource up to external location
-					SvnDirectory parent = directory;
-					for (int i = 0; i<externalPathPart.length-1; i++) {
-						// Create child resource to external location
-						SvnDirectory childDirectory = new SvnDirectory(externalPathPart[i]);
-						// Add child resource
-						parent.addChild(childDirectory);
-						// Set child resource as next location
-						parent = childDirectory;
-					}
-					/*
-					 * Create external resource.
-					 */
-					// Get external name
-					String externalName = externalPathPart[externalPathPart.length-1];
-					// Get external URL path
-					String urlPath = svnExternal.getResolvedURL().getPath();
-					// Get external revision
-					long revision = svnExternal.getRevision().getNumber();
-					// Check external type
-					SVNNodeKind nodeKind = this.repository.checkPath(urlPath, revision);
-					// Create external resource
-					AbstractResource externalResource;
-					if (nodeKind==SVNNodeKind.DIR) {
-						// Create external directory
-						externalResource = new SvnDirectory(externalName);
-					} else if (nodeKind==SVNNodeKind.FILE) {
-						// Create external file
-						externalResource = new SvnFile(externalName);
-						// Update file counter
-						this.fileCounter.incrementAndGet();
-					} else {
-						throw new ChecksumException("Unable to get external type for path \""+urlPath+"\".");
-					}
-					// Manually set path for external resource
-					externalResource.setPath(svnExternal.getResolvedURL().getPath());
-					// Manually set revision
-					((SvnResource) externalResource).setRevision(revision);
-					// Add external resource
-					parent.addChild(externalResource);
-					/*
-					 * Process external.
-					 */
-					// Process external directory
-					if (nodeKind==SVNNodeKind.DIR) {
-						// Process external directory
-						this.prepareListDirectory(executorService, (SvnDirectory) externalResource, listener, ignoreMatchers);
-					}
+					// Resolve external URL
+					svnExternal.resolveURL(rootUrl, rootUrl.appendPath(path, false));
+					// Save external by path relative to root directory
+					unpinnedExternals.put((path+"/"+svnExternal.getPath()).substring(rootPath.length()+1), svnExternal);
 				}
-			} catch (SVNException exception) {
-				this.pendingDirectories.remove(directory);
-				throw new ChecksumException("Unable to process external for \""+path+"\".", exception);
 			}
-		} catch (SVNException exception) {
-			this.pendingDirectories.remove(directory);
-			throw new ChecksumException("Unable to list Subversion directory \""+path+"\".", exception);
+			// Return unpinned externals
+			return unpinnedExternals;
+		} finally {
+			// Restore session location
+			repository.setLocation(location, false);
 		}
-		this.pendingDirectories.remove(directory);
 	}
 
 	/**
-	 * Process a directory.
+	 * Get the parent directory of a resource of the root directory, creating missing directories.
 	 * 
-	 * @param executorService
-	 *            The executor service to get executors.
-	 * @param directory
-	 *            The directory to proceed.
-	 * @param listener
-	 *            The listener to notify computation progress.
-	 * @throws ChecksumException
-	 *             Throws exception if a checksum could not be computed.
+	 * @param relativePath
+	 *            The resource path relative to the root directory.
+	 * @return The resource parent directory.
 	 */
-	public void processDirectory(ExecutorService executorService, SvnDirectory directory, ChecksumListener listener) throws ChecksumException {
-		// Process each child resource
-		for (AbstractResource resource : directory.getChildren()) {
-			// Check if should break
-			if (this.shouldBreak)
-				break;
-			// Check resource type
-			if (resource instanceof SvnDirectory)
-				// Recursively process directory
-				this.processDirectory(executorService, (SvnDirectory) resource, listener);
-			else if (resource instanceof SvnFile)
-				// Prepare file
-				this.prepareFile(executorService, (SvnFile) resource, listener);
+	private SvnDirectory getParentDirectory(String relativePath) {
+		// Get each parent directory from its parent
+		SvnDirectory parent = this.rootDirectory;
+		String[] names = relativePath.split("/");
+		for (int index = 0; index<names.length-1; index++) {
+			AbstractResource child = SvnChecksumGenerator.getChild(parent, names[index]);
+			if (!(child instanceof SvnDirectory)) {
+				child = new SvnDirectory(names[index]);
+				parent.addChild(child);
+			}
+			parent = (SvnDirectory) child;
 		}
+		// Return parent directory
+		return parent;
 	}
 
 	/**
-	 * Process a file.
+	 * Read manifest as the resource tree of the root directory.
 	 * 
-	 * @param executorService
-	 *            The executor service to get executors.
-	 * @param file
-	 *            The file to proceed.
-	 * @param listener
-	 *            The listener to notify computation progress.
+	 * @param manifestReader
+	 *            The reader of the manifest to read.
 	 * @throws ChecksumException
-	 *             Throws exception if the checksum could not be computed.
+	 *             Throws exception if the manifest could not be read.
 	 */
-	public void prepareFile(ExecutorService executorService, final SvnFile file, final ChecksumListener listener) throws ChecksumException {
-		// Submit a new task to process file
-		executorService.submit(new Callable<Void>() {
-			@Override
-			public Void call() throws Exception {
-				// Check if should break
-				if (SvnChecksumGenerator.this.shouldBreak)
-					return null;
-				try {
-					// Process file
-					SvnChecksumGenerator.this.processFile(repository, file);
-					// Update progress counter
-					int progress = SvnChecksumGenerator.this.progressCounter.incrementAndGet();
-					// Notify listener
-					listener.onProgress(progress*100/SvnChecksumGenerator.this.fileCounter.intValue());
-				} catch (ChecksumException exception) {
-					// Break the process
-					SvnChecksumGenerator.this.shouldBreak = true;
-					// Notify listener
-					listener.onError(exception);
+	private void readManifest(ManifestReader manifestReader) throws ChecksumException {
+		// Get root directory working copy path prefix
+		String prefix = this.rootDirectory.getWorkingCopyPath()+"/";
+		// Declare directories being read, from the last read one to the root one
+		Deque<SvnDirectory> directories = new ArrayDeque<>();
+		directories.push(this.rootDirectory);
+		// Read each manifest resource
+		AbstractResource resource;
+		while ((resource = manifestReader.read())!=null) {
+			// Check resource path, skipping root directory checksum
+			String path = resource.getPath();
+			if (resource instanceof AbstractDirectory&&path.equals(this.rootDirectory.getWorkingCopyPath()))
+				continue;
+			if (!path.startsWith(prefix))
+				throw new ChecksumException("The manifest path \""+path+"\" is not in \""+this.rootDirectory.getWorkingCopyPath()+"\".");
+			// Get back to the resource parent directory, manifest being sorted
+			while (directories.size()>1&&!path.startsWith(directories.peek().getWorkingCopyPath()+"/"))
+				directories.pop();
+			// Create missing parent directories
+			int nameIndex = directories.peek().getWorkingCopyPath().length()+1;
+			for (int separatorIndex = path.indexOf('/', nameIndex); separatorIndex!=-1; separatorIndex = path.indexOf('/', nameIndex)) {
+				SvnDirectory directory = new SvnDirectory(path.substring(nameIndex, separatorIndex));
+				directories.peek().addChild(directory);
+				directories.push(directory);
+				nameIndex = separatorIndex+1;
+			}
+			// Check resource type
+			if (resource instanceof AbstractDirectory) {
+				// Create Subversion directory
+				SvnDirectory directory = new SvnDirectory(resource.getName());
+				directories.peek().addChild(directory);
+				directories.push(directory);
+			} else {
+				// Create Subversion file with manifest checksum
+				SvnFile file = new SvnFile(resource.getName());
+				file.setChecksum(((AbstractFile) resource).getChecksum());
+				directories.peek().addChild(file);
+				// Update file and progress counters
+				this.fileCounter.incrementAndGet();
+				this.progressCounter.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Get the externals definition of a directory.
+	 * 
+	 * @param repository
+	 *            The Subversion session to get directory properties.
+	 * @param path
+	 *            The directory path.
+	 * @param revision
+	 *            The directory revision.
+	 * @return The externals definition (<code>null</code> if the directory has no externals definition or did not exist).
+	 * @throws SVNException
+	 *             Throws exception if the directory properties could not be get.
+	 */
+	private String getExternals(SVNRepository repository, String path, long revision) throws SVNException {
+		// Check directory existence
+		if (repository.checkPath(path, revision)!=SVNNodeKind.DIR)
+			return null;
+		// Get directory properties
+		SVNProperties properties = new SVNProperties();
+		repository.getDir(path, revision, properties, (Collection<SVNDirEntry>) null);
+		// Return externals definition
+		return properties.getStringValue(SVNProperty.EXTERNALS);
+	}
+
+	/**
+	 * Get a resource of the root directory.
+	 * 
+	 * @param relativePath
+	 *            The resource path relative to the root directory.
+	 * @return The resource (<code>null</code> if there is no such resource).
+	 */
+	private AbstractResource getResource(String relativePath) {
+		// Check root directory
+		AbstractResource resource = this.rootDirectory;
+		if (relativePath.isEmpty())
+			return resource;
+		// Get each resource from its parent
+		for (String name : relativePath.split("/")) {
+			if (!(resource instanceof AbstractDirectory))
+				return null;
+			resource = SvnChecksumGenerator.getChild((AbstractDirectory) resource, name);
+		}
+		// Return resource
+		return resource;
+	}
+
+	/**
+	 * Remove a resource from the tree, updating file and progress counters.
+	 * 
+	 * @param resource
+	 *            The resource to remove.
+	 */
+	private void removeResource(AbstractResource resource) {
+		// Check resource type
+		if (resource instanceof AbstractDirectory) {
+			// Remove each child resource
+			for (AbstractResource child : new ArrayList<>(((AbstractDirectory) resource).getChildren())) {
+				this.removeResource(child);
+			}
+		} else {
+			// Update file and progress counters
+			this.fileCounter.decrementAndGet();
+			this.progressCounter.decrementAndGet();
+		}
+		// Remove resource from its parent
+		resource.getParent().removeChild(resource);
+	}
+
+	/**
+	 * Prepare changed resource processing.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param parent
+	 *            The parent directory of the changed resource.
+	 * @param name
+	 *            The changed resource name.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 */
+	private void prepareChangedResource(final SvnRequestExecutor requestExecutor, final SvnDirectory parent, final String name,
+			final ChecksumListener listener, final PathMatcher[] ignoreMatchers) {
+		// Submit a task to process changed resource
+		requestExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				// Check if should break
+				if (requestExecutor.shouldBreak())
+					return null;
+				try {
+					// Get changed resource kind
+					final String path = parent.getPath()+"/"+name;
+					SVNNodeKind nodeKind = requestExecutor.request(SvnChecksumGenerator.this.sessionPool, new SvnRequest<SVNNodeKind>() {
+						@Override
+						public SVNNodeKind execute(SVNRepository repository) throws ChecksumException {
+							try {
+								return repository.checkPath(path, SvnChecksumGenerator.this.revision);
+							} catch (SVNException exception) {
+								throw new ChecksumException("Unable to check Subversion path \""+path+"\".", exception);
+							}
+						}
+					});
+					// Check changed resource kind
+					if (nodeKind==SVNNodeKind.DIR) {
+						// Create Subversion directory
+						SvnDirectory directory = new SvnDirectory(name);
+						// Add child Subversion directory, concurrently with other changed resources of the parent
+						parent.addChild(directory);
+						// List changed directory
+						SvnChecksumGenerator.this.prepareListDirectory(requestExecutor, directory, listener, ignoreMatchers);
+					} else if (nodeKind==SVNNodeKind.FILE) {
+						// Create Subversion file
+						SvnFile file = new SvnFile(name);
+						// Add child Subversion file, concurrently with other changed resources of the parent
+						parent.addChild(file);
+						// Update file counter
+						SvnChecksumGenerator.this.fileCounter.incrementAndGet();
+						// Compute changed file checksum
+						SvnChecksumGenerator.this.prepareFile(requestExecutor, file, listener);
+					}
+				} catch (ChecksumException exception) {
+					// Skip changed resource or break the process
+					requestExecutor.fail(parent.getWorkingCopyPath()+"/"+name, exception, listener);
+				}
+				// Return void
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Prepare directory listing directory content.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param directory
+	 *            The directory resource to list.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 */
+	public void prepareListDirectory(final SvnRequestExecutor requestExecutor, final SvnDirectory directory, final ChecksumListener listener,
+			final PathMatcher[] ignoreMatchers) {
+		// Submit a task to list directory
+		requestExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				// Check if should break
+				if (requestExecutor.shouldBreak())
+					return null;
+				// Get directory session pool
+				SvnSessionPool sessionPool = SvnChecksumGenerator.this.getSessionPool(directory);
+				try {
+					// Check listing strategy
+					if (SvnChecksumGenerator.this.reportListing||SvnChecksumGenerator.this.reportContent) {
+						// Report whole directory tree
+						SvnListingEditor editor = requestExecutor.request(sessionPool, new SvnRequest<SvnListingEditor>() {
+							@Override
+							public SvnListingEditor execute(SVNRepository repository) throws ChecksumException {
+								return SvnChecksumGenerator.this.reportDirectory(repository, directory, ignoreMatchers);
+							}
+						});
+						// Process reported directory tree
+						SvnChecksumGenerator.this.processReport(requestExecutor, directory, editor, listener, ignoreMatchers);
+					} else {
+						// Get directory listing
+						Listing listing = requestExecutor.request(sessionPool, new SvnRequest<Listing>() {
+							@Override
+							public Listing execute(SVNRepository repository) throws ChecksumException {
+								return SvnChecksumGenerator.this.getListing(repository, directory);
+							}
+						});
+						// Add listing to directory
+						SvnChecksumGenerator.this.addListing(requestExecutor, directory, listing, listener, ignoreMatchers);
+					}
+				} catch (ChecksumException exception) {
+					// Skip directory or break the process
+					requestExecutor.fail(directory.getWorkingCopyPath(), exception, listener);
+				}
+				// Return void
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Get directory listing.<br/>
+	 * The directory is not changed so the listing could be requested again on failure.
+	 * 
+	 * @param repository
+	 *            The Subversion session to list directory.
+	 * @param directory
+	 *            The directory resource to list.
+	 * @return The directory listing.
+	 * @throws ChecksumException
+	 *             Throw exception if the directory could not be listed.
+	 */
+	private Listing getListing(SVNRepository repository, SvnDirectory directory) throws ChecksumException {
+		// Get directory path
+		String path = directory.getPath();
+		try {
+			// Get properties of directory
+			SVNProperties properties = new SVNProperties();
+			// Get path entries
+			Collection<?> entries = repository.getDir(path, this.getRevision(directory), properties, (Collection<?>) null);
+			// Create listing from each entry
+			List<ListingEntry> listingEntries = new ArrayList<>(entries.size());
+			for (Object entry : entries) {
+				SVNDirEntry dirEntry = (SVNDirEntry) entry;
+				listingEntries.add(new ListingEntry(dirEntry.getName(), dirEntry.getKind()==SVNNodeKind.DIR, dirEntry.getSize(), dirEntry.hasProperties(),
+						dirEntry.getRevision()));
+			}
+			Listing listing = new Listing(directory.getCommittedRevision(), listingEntries, properties.getStringValue(SVNProperty.EXTERNALS));
+			// Cache listing if directory committed revision is known and directory is from the repository
+			if (this.listingCache!=null&&directory.getCommittedRevision()>=0&&this.getSessionPool(directory)==this.sessionPool)
+				this.listingCache.put(this.getOriginPath(path, directory.getCommittedRevision()), listing);
+			// Return directory listing
+			return listing;
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to list Subversion directory \""+path+"\".", exception);
+		}
+	}
+
+	/**
+	 * Add a directory listing to a directory.<br/>
+	 * Child directories with a cached listing for their committed revision are grafted from cache, others are listed.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param directory
+	 *            The directory resource to add listing to.
+	 * @param listing
+	 *            The directory listing to add.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throw exception if the directory externals could not be processed.
+	 */
+	private void addListing(SvnRequestExecutor requestExecutor, SvnDirectory directory, Listing listing, ChecksumListener listener, PathMatcher[] ignoreMatchers)
+			throws ChecksumException {
+		// Get directory working copy path
+		String workingCopyPath = directory.getWorkingCopyPath();
+		// Check if child directory listings could be cached
+		boolean cacheable = this.listingCache!=null&&this.getSessionPool(directory)==this.sessionPool;
+		// Create child resources in a local buffer
+		List<AbstractResource> children = new ArrayList<>(listing.getEntries().size());
+		for (ListingEntry entry : listing.getEntries()) {
+			// Check if resource is ignored
+			if (SvnChecksumGenerator.isIgnored(Paths.get(workingCopyPath, entry.getName()), ignoreMatchers))
+				// Skip the entry
+				continue;
+			// Check entry kind
+			if (entry.isDirectory()) {
+				// Create Subversion directory
+				SvnDirectory childDirectory = new SvnDirectory(entry.getName());
+				// Set directory committed revision
+				childDirectory.setCommittedRevision(entry.getRevision());
+				// Buffer child Subversion directory
+				children.add(childDirectory);
+			} else {
+				// Create Subversion file
+				SvnFile file = new SvnFile(entry.getName());
+				// Set file size
+				file.setSize(entry.getSize());
+				// Set file properties status
+				file.setProperties(entry.hasProperties());
+				// Set file committed revision
+				file.setCommittedRevision(entry.getRevision());
+				// Buffer child Subversion file
+				children.add(file);
+			}
+		}
+		// Publish child resources at once, before any task processes them
+		directory.addChildren(children);
+		// Process each child resource
+		for (AbstractResource child : children) {
+			// Check child type
+			if (child instanceof SvnDirectory) {
+				SvnDirectory childDirectory = (SvnDirectory) child;
+				// Get cached child directory listing
+				Listing childListing = null;
+				if (cacheable)
+					childListing = this.listingCache.get(this.getOriginPath(childDirectory.getPath(), childDirectory.getCommittedRevision()),
+							childDirectory.getCommittedRevision());
+				// Check cached child directory listing
+				if (childListing!=null) {
+					// Update cached directory counter
+					this.cachedDirectoryCounter.incrementAndGet();
+					// Graft cached child directory listing
+					this.addListing(requestExecutor, childDirectory, childListing, listener, ignoreMatchers);
+				} else {
+					// Recursively process directory
+					this.prepareListDirectory(requestExecutor, childDirectory, listener, ignoreMatchers);
+				}
+			} else {
+				// Update file counter
+				this.fileCounter.incrementAndGet();
+				// Compute file checksum
+				this.prepareFile(requestExecutor, (SvnFile) child, listener);
+			}
+		}
+		// Check if externals property is defined
+		if (listing.getExternals()!=null)
+			// Process externals
+			this.processExternals(requestExecutor, directory, listing.getExternals(), listener, ignoreMatchers);
+	}
+
+	/**
+	 * Report directory content.<br/>
+	 * The whole directory tree is received from a single depth infinity report against an empty working copy. On failure, the partially reported
+	 * tree is discarded so the report could be requested again.
+	 * 
+	 * @param repository
+	 *            The Subversion session to report directory.
+	 * @param directory
+	 *            The directory resource to report.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @return The listing editor that received the report.
+	 * @throws ChecksumException
+	 *             Throw exception if the directory could not be reported.
+	 */
+	private SvnListingEditor reportDirectory(SVNRepository repository, SvnDirectory directory, PathMatcher[] ignoreMatchers) throws ChecksumException {
+		// Get directory path
+		String path = directory.getPath();
+		// Get directory session pool
+		SvnSessionPool sessionPool = this.getSessionPool(directory);
+		// Create listing editor, hashing file contents if needed
+		SvnListingEditor editor = this.reportContent ? new SvnContentEditor(directory, sessionPool, ignoreMatchers) : new SvnListingEditor(directory,
+				this.fileCounter, ignoreMatchers);
+		try {
+			// Save session location
+			SVNURL location = repository.getLocation();
+			try {
+				// Move session to directory location
+				repository.setLocation(sessionPool.getRepositoryRoot().appendPath(path, false), false);
+				// Get revision to report
+				final long revision = this.getRevision(directory);
+				// Create empty working copy report
+				ISVNReporterBaton reporterBaton = new ISVNReporterBaton() {
+					@Override
+					public void report(ISVNReporter reporter) throws SVNException {
+						reporter.setPath("", null, revision, SVNDepth.INFINITY, true);
+						reporter.finishReport();
+					}
+				};
+				// Report an empty working copy to receive the whole directory tree
+				if (this.reportContent)
+					// Receive file contents with an update
+					repository.update(revision, null, SVNDepth.INFINITY, false, reporterBaton, editor);
+				else
+					// Receive tree only with a status
+					repository.status(revision, null, SVNDepth.INFINITY, reporterBaton, editor);
+			} finally {
+				// Restore session location
+				repository.setLocation(location, false);
+			}
+		} catch (SVNException exception) {
+			// Discard partially reported tree
+			this.discardChildren(directory);
+			throw new ChecksumException("Unable to report Subversion directory \""+path+"\".", exception);
+		}
+		// Return listing editor
+		return editor;
+	}
+
+	/**
+	 * Discard the children of a partially reported directory.<br/>
+	 * The counters updated by the report are restored.
+	 * 
+	 * @param directory
+	 *            The partially reported directory.
+	 */
+	private void discardChildren(SvnDirectory directory) {
+		// Discard each child resource
+		for (AbstractResource child : new ArrayList<>(directory.getChildren())) {
+			// Check child type
+			if (child instanceof SvnDirectory) {
+				// Recursively discard directory children
+				this.discardChildren((SvnDirectory) child);
+			} else {
+				// Restore file counters
+				this.fileCounter.decrementAndGet();
+				if (((SvnFile) child).getChecksum()!=null) {
+					this.reportedFileCounter.decrementAndGet();
+					this.progressCounter.decrementAndGet();
+				}
+			}
+			// Remove child resource
+			directory.removeChild(child);
+		}
+	}
+
+	/**
+	 * Process a reported directory tree.<br/>
+	 * Files not hashed from report are hashed, then externals of reported directories are processed.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param directory
+	 *            The reported directory resource.
+	 * @param editor
+	 *            The listing editor that received the report.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throw exception if the directory externals could not be processed.
+	 */
+	private void processReport(SvnRequestExecutor requestExecutor, SvnDirectory directory, SvnListingEditor editor, ChecksumListener listener,
+			PathMatcher[] ignoreMatchers) throws ChecksumException {
+		// Compute checksums of reported files not hashed from report
+		this.processDirectory(requestExecutor, directory, listener);
+		/*
+		 * Process externals.
+		 */
+		// Process each directory externals definition
+		for (Map.Entry<SvnDirectory, String> externals : editor.getExternals().entrySet()) {
+			this.processExternals(requestExecutor, externals.getKey(), externals.getValue(), listener, ignoreMatchers);
+		}
+	}
+
+	/**
+	 * Process directory externals.<br/>
+	 * Resources up to each external location are created, then each external is processed by its own task with a session of its repository.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param directory
+	 *            The directory resource defining externals.
+	 * @param externals
+	 *            The externals definition of the directory.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throw exception if the externals could not be processed.
+	 */
+	private void processExternals(SvnRequestExecutor requestExecutor, SvnDirectory directory, String externals, ChecksumListener listener,
+			PathMatcher[] ignoreMatchers) throws ChecksumException {
+		// Get directory path
+		String path = directory.getPath();
+		// Get directory working copy path
+		String workingCopyPath = directory.getWorkingCopyPath();
+		// Get directory repository root URL
+		SVNURL ownerRootUrl = this.getSessionPool(directory).getRepositoryRoot();
+		// Create the intermediate directories, by path, shared by externals of the definition
+		Map<String, SvnDirectory> intermediateDirectories = new HashMap<>();
+		try {
+			// Parse external definition
+			SVNExternal[] svnExternals = SVNExternal.parseExternals(path, externals);
+			// Process each external
+			for (SVNExternal svnExternal : svnExternals) {
+				// Resolve external URL
+				SVNURL ownerUrl = ownerRootUrl.appendPath(path, false);
+				svnExternal.resolveURL(ownerRootUrl, ownerUrl);
+				/*
+				 * Create external resources up to external location.
+				 */
+				// Get external path
+				String externalPath = svnExternal.getPath();
+				// Check if externals is ignored
+				if (SvnChecksumGenerator.isIgnored(Paths.get(workingCopyPath, externalPath), ignoreMatchers)) {
+					// Skip the externals
+					continue;
+				}
+				// Split external resource path
+				String[] externalPathPart = externalPath.split("/");
+				// Create each child resource up to external location
+				SvnDirectory parent = directory;
+				for (int i = 0; i<externalPathPart.length-1; i++) {
+					// Get child resource to external location
+					String intermediatePath = parent.getWorkingCopyPath()+"/"+externalPathPart[i];
+					SvnDirectory childDirectory = intermediateDirectories.get(intermediatePath);
+					if (childDirectory==null) {
+						// Create child resource to external location
+						childDirectory = new SvnDirectory(externalPathPart[i]);
+						// Add child resource
+						parent.addChild(childDirectory);
+						intermediateDirectories.put(intermediatePath, childDirectory);
+					}
+					// Set child resource as next location
+					parent = childDirectory;
+				}
+				/*
+				 * Process external.
+				 */
+				// Get external name
+				String externalName = externalPathPart[externalPathPart.length-1];
+				// Prepare external processing
+				this.prepareExternal(requestExecutor, parent, externalName, svnExternal.getResolvedURL(), svnExternal.getRevision().getNumber(), listener,
+						ignoreMatchers);
+			}
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to process external for \""+path+"\".", exception);
+		}
+	}
+
+	/**
+	 * Prepare external processing.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param parent
+	 *            The directory resource to add external to.
+	 * @param name
+	 *            The external name.
+	 * @param url
+	 *            The external resolved URL.
+	 * @param revision
+	 *            The external revision (<code>-1</code> for HEAD).
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 */
+	private void prepareExternal(final SvnRequestExecutor requestExecutor, final SvnDirectory parent, final String name, final SVNURL url,
+			final long revision, final ChecksumListener listener, final PathMatcher[] ignoreMatchers) {
+		// Submit a task to process external
+		requestExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				// Check if should break
+				if (requestExecutor.shouldBreak())
+					return null;
+				try {
+					// Get external repository session pool
+					final SvnSessionPool sessionPool = SvnChecksumGenerator.this.getExternalSessionPool(url);
+					// Process external
+					requestExecutor.request(sessionPool, new SvnRequest<Void>() {
+						@Override
+						public Void execute(SVNRepository repository) throws ChecksumException {
+							SvnChecksumGenerator.this.processExternal(repository, sessionPool, requestExecutor, parent, name, url, revision, listener,
+									ignoreMatchers);
+							return null;
+						}
+					});
+				} catch (ChecksumException exception) {
+					// Skip external or break the process
+					requestExecutor.fail(parent.getWorkingCopyPath()+"/"+name, exception, listener);
+				}
+				// Return void
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Process an external.<br/>
+	 * External directories already listed for the same URL and revision are grafted at the end of the computation instead of being listed again.
+	 * 
+	 * @param repository
+	 *            The Subversion session of the external repository.
+	 * @param sessionPool
+	 *            The session pool of the external repository.
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param parent
+	 *            The directory resource to add external to.
+	 * @param name
+	 *            The external name.
+	 * @param url
+	 *            The external resolved URL.
+	 * @param revision
+	 *            The external revision (<code>-1</code> for HEAD).
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throw exception if the external could not be processed.
+	 */
+	private void processExternal(SVNRepository repository, SvnSessionPool sessionPool, SvnRequestExecutor requestExecutor, SvnDirectory parent,
+			String name, SVNURL url, long revision, ChecksumListener listener, PathMatcher[] ignoreMatchers) throws ChecksumException {
+		// Get external path from its repository root
+		String urlPath = url.getPath().substring(sessionPool.getRepositoryRoot().getPath().length());
+		if (urlPath.isEmpty())
+			urlPath = "/";
+		// Get external revision
+		if (revision<0)
+			revision = this.getPinnedRevision(sessionPool, repository);
+		// Check external type
+		SVNNodeKind nodeKind;
+		try {
+			nodeKind = repository.checkPath(urlPath, revision);
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to get external type for \""+url+"\".", exception);
+		}
+		/*
+		 * Create external resource.
+		 */
+		AbstractResource externalResource;
+		if (nodeKind==SVNNodeKind.DIR) {
+			// Create external directory
+			externalResource = new SvnDirectory(name);
+		} else if (nodeKind==SVNNodeKind.FILE) {
+			// Create external file
+			externalResource = new SvnFile(name);
+			// Update file counter
+			this.fileCounter.incrementAndGet();
+		} else {
+			throw new ChecksumException("Unable to get external type for \""+url+"\".");
+		}
+		// Manually set path for external resource
+		externalResource.setPath(urlPath);
+		// Manually set revision
+		((SvnResource) externalResource).setRevision(revision);
+		// Save external session pool if repository differs from parent one
+		if (sessionPool!=this.getSessionPool(parent))
+			this.externalSessionPools.put(externalResource, sessionPool);
+		// Add external resource, concurrently with other externals of the parent
+		parent.addChild(externalResource);
+		/*
+		 * Process external.
+		 */
+		if (nodeKind==SVNNodeKind.DIR) {
+			// Check if external directory is already listed
+			SvnDirectory listedDirectory = this.externalDirectories.putIfAbsent(url+"@"+revision, (SvnDirectory) externalResource);
+			if (listedDirectory==null) {
+				// Process external directory
+				this.prepareListDirectory(requestExecutor, (SvnDirectory) externalResource, listener, ignoreMatchers);
+			} else {
+				// Graft listed external directory once computed
+				this.externalGrafts.put((SvnDirectory) externalResource, listedDirectory);
+			}
+		} else {
+			// Compute external file checksum
+			this.prepareFile(requestExecutor, (SvnFile) externalResource, listener);
+		}
+	}
+
+	/**
+	 * Graft an external directory from the listed external directory of the same URL and revision.<br/>
+	 * Resources are copied with their checksums. Externals grafted inside the listed external directory are copied from their own listed external
+	 * directory.
+	 * 
+	 * @param source
+	 *            The listed external directory to graft from.
+	 * @param target
+	 *            The external directory to graft to.
+	 * @param sources
+	 *            The listed external directories being grafted, to detect cyclic externals.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throws exception if the externals are cyclic.
+	 */
+	private void graftExternal(SvnDirectory source, SvnDirectory target, Set<SvnDirectory> sources, PathMatcher[] ignoreMatchers)
+			throws ChecksumException {
+		// Check cyclic externals
+		if (!sources.add(source))
+			throw new ChecksumException("Cyclic externals found for \""+source.getPath()+"\".");
+		// Get target working copy path
+		String workingCopyPath = target.getWorkingCopyPath();
+		// Copy each child resource
+		for (AbstractResource child : source.getChildren()) {
+			// Check if resource is ignored
+			if (SvnChecksumGenerator.isIgnored(Paths.get(workingCopyPath, child.getName()), ignoreMatchers))
+				// Skip the resource
+				continue;
+			// Check resource type
+			if (child instanceof SvnDirectory) {
+				SvnDirectory sourceDirectory = (SvnDirectory) child;
+				// Copy directory
+				SvnDirectory targetDirectory = new SvnDirectory(sourceDirectory.getName());
+				targetDirectory.setPath(sourceDirectory.getPath());
+				targetDirectory.setRevision(sourceDirectory.getRevision());
+				targetDirectory.setCommittedRevision(sourceDirectory.getCommittedRevision());
+				target.addChild(targetDirectory);
+				// Recursively graft directory, from its own listed external directory if grafted
+				SvnDirectory listedDirectory = this.externalGrafts.get(sourceDirectory);
+				this.graftExternal(listedDirectory==null ? sourceDirectory : listedDirectory, targetDirectory, sources, ignoreMatchers);
+			} else {
+				SvnFile sourceFile = (SvnFile) child;
+				// Copy file
+				SvnFile targetFile = new SvnFile(sourceFile.getName());
+				targetFile.setPath(sourceFile.getPath());
+				targetFile.setRevision(sourceFile.getRevision());
+				targetFile.setCommittedRevision(sourceFile.getCommittedRevision());
+				targetFile.setSize(sourceFile.getSize());
+				targetFile.setProperties(sourceFile.hasProperties());
+				targetFile.setChecksum(sourceFile.getChecksum());
+				target.addChild(targetFile);
+				// Update file counter
+				this.fileCounter.incrementAndGet();
+			}
+		}
+		// Release source
+		sources.remove(source);
+	}
+
+	/**
+	 * Process a directory.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param directory
+	 *            The directory to proceed.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @throws ChecksumException
+	 *             Throws exception if a checksum could not be computed.
+	 */
+	public void processDirectory(SvnRequestExecutor requestExecutor, SvnDirectory directory, ChecksumListener listener) throws ChecksumException {
+		// Process each child resource
+		for (AbstractResource resource : directory.getChildren()) {
+			// Check if should break
+			if (requestExecutor.shouldBreak())
+				break;
+			// Check resource type
+			if (resource instanceof SvnDirectory)
+				// Recursively process directory
+				this.processDirectory(requestExecutor, (SvnDirectory) resource, listener);
+			else if (resource instanceof SvnFile&&((SvnFile) resource).getChecksum()==null)
+				// Prepare file without checksum from report
+				this.prepareFile(requestExecutor, (SvnFile) resource, listener);
+		}
+	}
+
+	/**
+	 * Process a file.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param file
+	 *            The file to proceed.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum could not be computed.
+	 */
+	public void prepareFile(SvnRequestExecutor requestExecutor, final SvnFile file, final ChecksumListener listener) throws ChecksumException {
+		// Check if file is changed
+		if (!this.isChanged(file)) {
+			// Mark file as unchanged so its directories still have checksums
+			file.setUnchanged(true);
+			// Update progress counter without hashing file
+			this.progressCounter.incrementAndGet();
+			return;
+		}
+		// Submit a new task to process file
+		requestExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				// Check if should break
+				if (requestExecutor.shouldBreak())
+					return null;
+				// Declare file completion status, shared with hedged request
+				AtomicBoolean completed = new AtomicBoolean();
+				// Check if file request should be hedged
+				SvnRequestHedger requestHedger = requestExecutor.getRequestHedger();
+				if (requestHedger==null) {
+					// Fetch file
+					SvnChecksumGenerator.this.fetchFile(requestExecutor, file, completed, false, -1, listener);
+					// Return void
+					return null;
+				}
+				// Fetch file, scheduling hedged request once file request is sent
+				ScheduledFuture<?> hedge = SvnChecksumGenerator.this.fetchFile(requestExecutor, file, completed, false, requestHedger.start(), listener);
+				// Cancel hedged request if not started
+				requestExecutor.cancelHedge(hedge);
+				// Return void
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Fetch a file checksum.<br/>
+	 * The file could be fetched by its request and its hedged request at once. The first one to complete sets the file checksum and updates
+	 * progress, the other one being cancelled. A failure of the hedged request is ignored as the file request is still running.<br/>
+	 * The hedged request is scheduled once the file request is sent, and only the time spent by the server to process the file request is
+	 * recorded as its latency. Waiting for the request limiter, for a session or before a retry is left out, so local contention does not
+	 * trigger hedged requests.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param file
+	 *            The file to fetch.
+	 * @param completed
+	 *            The file completion status, shared by the file request and its hedged request.
+	 * @param hedged
+	 *            <code>true</code> if the request is the hedged request, <code>false</code> otherwise.
+	 * @param hedgeDelay
+	 *            The delay after which the file request is hedged (in nanoseconds, <code>-1</code> if the request should not be hedged).
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @return The scheduled hedged request (<code>null</code> if no hedged request was scheduled).
+	 */
+	private ScheduledFuture<?> fetchFile(final SvnRequestExecutor requestExecutor, final SvnFile file, final AtomicBoolean completed, final boolean hedged,
+			final long hedgeDelay, final ChecksumListener listener) {
+		// Declare hedged request, scheduled by the first file request attempt
+		final AtomicReference<ScheduledFuture<?>> hedge = new AtomicReference<>();
+		try {
+			// Process file unless the other request completes it first
+			Boolean processed = requestExecutor.request(this.getSessionPool(file), new SvnRequest<Boolean>() {
+				@Override
+				public Boolean execute(SVNRepository repository) throws ChecksumException {
+					// Check if file request latency is observed
+					SvnRequestHedger requestHedger = requestExecutor.getRequestHedger();
+					if (hedged||requestHedger==null)
+						return SvnChecksumGenerator.this.processFile(repository, file, completed);
+					// Schedule hedged request if file request is slow
+					if (hedgeDelay>=0&&hedge.get()==null)
+						hedge.set(SvnChecksumGenerator.this.scheduleHedge(requestExecutor, file, completed, hedgeDelay, listener));
+					// Process file then record its latency
+					long startTime = System.nanoTime();
+					Boolean processed = SvnChecksumGenerator.this.processFile(repository, file, completed);
+					requestHedger.record(System.nanoTime()-startTime);
+					return processed;
 				}
+			}, completed);
+			// Check if the other request completed the file
+			if (processed==null||!processed)
+				return hedge.get();
+			// Update hedged request counter
+			if (hedged)
+				requestExecutor.recordHedgeWin();
+		} catch (ChecksumException exception) {
+			// Ignore failure of hedged request or if the other request completed the file
+			if (hedged||!completed.compareAndSet(false, true))
+				return hedge.get();
+			// Skip file or break the process
+			requestExecutor.fail(file.getWorkingCopyPath(), exception, listener);
+		}
+		// Update progress counter
+		int progress = this.progressCounter.incrementAndGet();
+		// Notify listener
+		listener.onProgress(progress*100/this.fileCounter.intValue());
+		// Return scheduled hedged request
+		return hedge.get();
+	}
+
+	/**
+	 * Schedule the hedged request of a file request.<br/>
+	 * The hedged request is submitted by the request executor after the delay, and fetches the file unless it was completed meanwhile.
+	 * 
+	 * @param requestExecutor
+	 *            The executor of tasks and Subversion requests.
+	 * @param file
+	 *            The file to fetch.
+	 * @param completed
+	 *            The file completion status, shared by the file request and its hedged request.
+	 * @param delay
+	 *            The delay after which the file request is hedged (in nanoseconds).
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @return The scheduled hedged request.
+	 */
+	private ScheduledFuture<?> scheduleHedge(final SvnRequestExecutor requestExecutor, final SvnFile file, final AtomicBoolean completed, long delay,
+			final ChecksumListener listener) {
+		// Schedule hedged request
+		return requestExecutor.scheduleHedge(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				// Fetch file unless already completed
+				if (!completed.get())
+					SvnChecksumGenerator.this.fetchFile(requestExecutor, file, completed, true, -1, listener);
 				// Return void
 				return null;
 			}
-		});
+		}, completed, delay);
 	}
 
 	/**
-	 * Process a file.
+	 * Process a file.<br/>
+	 * The file checksum is only set if the file was not completed by another request, content download being cancelled as soon as it is.
 	 * 
 	 * @param repository
-	 *            The Subversion repository.
+	 *            The Subversion session to get file.
 	 * @param file
 	 *            The file to proceed.
+	 * @param completed
+	 *            The file completion status, shared by the concurrent requests of the file.
+	 * @return <code>true</code> if the file was completed by this request, <code>false</code> if it was completed by another request.
 	 * @throws ChecksumException
 	 *             Throws exception if the checksum could not be computed.
 	 */
-	public void processFile(SVNRepository repository, SvnFile file) throws ChecksumException {
+	public boolean processFile(SVNRepository repository, SvnFile file, AtomicBoolean completed) throws ChecksumException {
+		// Get file cache path
+		String path = this.getCachePath(file);
 		/*
-		 * Handle parallel programmation.
+		 * Use cached checksum.
 		 */
-		// Check current thread type
-		Thread currentThread = Thread.currentThread();
-		if (currentThread instanceof SvnClientThread)
-			// Get Subversion repository from Subversion client thread
-			repository = ((SvnClientThread) Thread.currentThread()).getRepository();
+		// Check if checksum could be cached
+		boolean cacheable = this.cache!=null&&file.getCommittedRevision()>=0&&this.getSessionPool(file)==this.sessionPool;
+		if (cacheable) {
+			// Get cached checksum
+			byte[] checksum = this.cache.get(path, file.getCommittedRevision());
+			if (checksum!=null) {
+				// Check if file was completed by another request
+				if (!completed.compareAndSet(false, true))
+					return false;
+				// Store cached checksum to file
+				file.setChecksum(checksum);
+				// Update cached file counter
+				this.cachedFileCounter.incrementAndGet();
+				return true;
+			}
+		}
+		// Compute file checksum
+		byte[] checksum = this.computeChecksum(repository, file, completed);
+		// Check if file was completed by another request
+		if (!completed.compareAndSet(false, true))
+			return false;
+		// Store computed checksum to file
+		file.setChecksum(checksum);
+		// Cache computed checksum
+		if (cacheable)
+			this.cache.put(path, file.getCommittedRevision(), checksum);
+		return true;
+	}
+
+	/**
+	 * Compute a file checksum, from server checksum if possible or from file content.
+	 * 
+	 * @param repository
+	 *            The Subversion repository.
+	 * @param file
+	 *            The file to compute checksum.
+	 * @param cancelled
+	 *            The cancellation status of content download.
+	 * @return The file checksum.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum could not be computed.
+	 */
+	private byte[] computeChecksum(SVNRepository repository, SvnFile file, AtomicBoolean cancelled) throws ChecksumException {
+		// Get file path, revision and repository root URL
+		String path = file.getPath();
+		long revision = this.getRevision(file);
+		SVNURL rootUrl = this.getSessionPool(file).getRepositoryRoot();
 		/*
-		 * Get file keywords.
+		 * Use server checksum.
 		 */
-		// Get file path
-		String path = file.getPath();
-		// Get file properties
-		SVNProperties properties = new SVNProperties();
-		try {
-			repository.getFile(path, -1, properties, null);
-		} catch (SVNException exception) {
-			throw new ChecksumException("Unable to get file properties for \""+path+"\".", exception);
+		// Check if server checksum could be used instead of file content
+		if (this.serverChecksums&&this.algorithm==ChecksumAlgorithm.MD5) {
+			// Get file properties only
+			SVNProperties properties = new SVNProperties();
+			this.getFile(repository, path, revision, properties, null);
+			// Get server checksum
+			String serverChecksum = properties.getStringValue(SVNProperty.CHECKSUM);
+			// Check server checksum matches content without keywords to translate
+			if (serverChecksum!=null&&properties.getStringValue(SVNProperty.KEYWORDS)==null) {
+				// Parse server checksum
+				byte[] checksum = SvnChecksumGenerator.parseChecksum(serverChecksum);
+				// Check if server checksum should be verified
+				if (this.verifyRate>0&&ThreadLocalRandom.current().nextDouble()<this.verifyRate) {
+					// Compute checksum from file content
+					byte[] contentChecksum = this.computeChecksum(repository, rootUrl, path, revision, false, cancelled);
+					// Check server checksum
+					if (!Arrays.equals(checksum, contentChecksum))
+						throw new ChecksumException("Server checksum does not match file content for \""+path+"\".");
+				} else {
+					// Update server checksum counters
+					this.serverChecksumCounter.incrementAndGet();
+					if (file.getSize()>0)
+						this.avoidedByteCounter.addAndGet(file.getSize());
+				}
+				// Return server checksum
+				return checksum;
+			}
 		}
-		// Get file keywords
-		String keywords = properties.getStringValue(SVNProperty.KEYWORDS);
-		Map<String, byte[]> keywordsMap = null;
-		if (keywords!=null) {
-			// Get repository root
-			String repositoryRoot = null;
-			try {
-				repository.getRepositoryRoot(true).toString();
-			} catch (SVNException exception) {
-				throw new ChecksumException("Unable to get repository root for \""+path+"\".", exception);
+		// Compute checksum from file content
+		return this.computeChecksum(repository, rootUrl, path, revision, file.hasProperties(), cancelled);
+	}
+
+	/**
+	 * Compute a checksum from file content.<br/>
+	 * File properties and content are requested at once. Properties are not requested if the file has none, so its content is directly digested.
+	 * 
+	 * @param repository
+	 *            The Subversion repository.
+	 * @param rootUrl
+	 *            The Subversion repository root URL.
+	 * @param path
+	 *            The file path.
+	 * @param revision
+	 *            The file revision.
+	 * @param hasProperties
+	 *            <code>true</code> if the file has properties (such as keywords to translate), <code>false</code> otherwise.
+	 * @param cancelled
+	 *            The cancellation status of content download.
+	 * @return The file content checksum.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum could not be computed.
+	 */
+	private byte[] computeChecksum(SVNRepository repository, SVNURL rootUrl, String path, long revision, boolean hasProperties, AtomicBoolean cancelled)
+			throws ChecksumException {
+		// Check if file has properties
+		if (!hasProperties) {
+			// Create message digest
+			MessageDigest digest = this.createDigest();
+			// Digest file content while getting it
+			try (DigestOutputStream digestOutputStream = new DigestOutputStream(SVNFileUtil.DUMMY_OUT, digest)) {
+				this.getFile(repository, path, revision, null, new CancellableOutputStream(digestOutputStream, cancelled));
+			} catch (IOException exception) {
+				throw new ChecksumException("Unable to get file content for \""+path+"\".", exception);
 			}
-			String cmtRev = properties.getStringValue(SVNProperty.COMMITTED_REVISION);
-			String cmtDate = properties.getStringValue(SVNProperty.COMMITTED_DATE);
-			String author = properties.getStringValue(SVNProperty.LAST_AUTHOR);
-			keywordsMap = SVNTranslator.computeKeywords(keywords, repository.getLocation().toString(), repositoryRoot, author, cmtDate, cmtRev,
-					SvnChecksumGenerator.SVN_OPTIONS);
+			// Return computed digest
+			return digest.digest();
 		}
 		/*
-		 * Create digest output stream.
+		 * Get file properties and content.
 		 */
-		// Create message digest
-		MessageDigest digest;
+		// Get file properties and content in a single request
+		SVNProperties properties = new SVNProperties();
+		ByteArrayOutputStream contentOutputStream = new ByteArrayOutputStream();
+		this.getFile(repository, path, revision, properties, new CancellableOutputStream(contentOutputStream, cancelled));
+		// Digest file content
+		return this.digestContent(rootUrl, path, properties, contentOutputStream);
+	}
+
+	/**
+	 * Create the message digest of the checksum algorithm.
+	 * 
+	 * @return The created message digest.
+	 * @throws ChecksumException
+	 *             Throws exception if the algorithm is not available.
+	 */
+	private MessageDigest createDigest() throws ChecksumException {
 		try {
-			digest = MessageDigest.getInstance(this.algorithm.getName());
+			return MessageDigest.getInstance(this.algorithm.getName());
 		} catch (NoSuchAlgorithmException exception) {
 			throw new ChecksumException("Unable to compute \""+this.algorithm+"\" checksum.", exception);
 		}
-		/*
-		 * Get output stream for file content
-		 */
+	}
+
+	/**
+	 * Digest a file content, translating its keywords if needed.
+	 * 
+	 * @param rootUrl
+	 *            The Subversion repository root URL.
+	 * @param path
+	 *            The file path.
+	 * @param properties
+	 *            The file properties.
+	 * @param contentOutputStream
+	 *            The buffered file content.
+	 * @return The file content checksum.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum could not be computed.
+	 */
+	private byte[] digestContent(SVNURL rootUrl, String path, SVNProperties properties, ByteArrayOutputStream contentOutputStream) throws ChecksumException {
+		// Create message digest
+		MessageDigest digest = this.createDigest();
 		// Create output stream with digest decorator
-		try (OutputStream outputStream = new ByteArrayOutputStream(); DigestOutputStream digestOutputStream = new DigestOutputStream(outputStream, digest)) {
-			// Declare final output stream
-			OutputStream finalOutputStream;
+		try (DigestOutputStream digestOutputStream = new DigestOutputStream(SVNFileUtil.DUMMY_OUT, digest)) {
 			// Create translator if file has keywords
-			if (keywordsMap!=null) {
-				// Get related file encoding description
-				try {
-					String eol = properties.getStringValue(SVNProperty.EOL_STYLE);
-					String mimeType = properties.getStringValue(SVNProperty.MIME_TYPE);
-					String charset = SVNTranslator.getCharset(properties.getStringValue(SVNProperty.CHARSET), mimeType, path, SvnChecksumGenerator.SVN_OPTIONS);
-					// Create translating output stream for keywords
-					finalOutputStream = SVNTranslator.getTranslatingOutputStream(digestOutputStream, charset,
-							SVNTranslator.getEOL(eol, SvnChecksumGenerator.SVN_OPTIONS), false, keywordsMap, true);
-				} catch (SVNException exception) {
-					throw new ChecksumException("Unable to compute file encoding for \""+path+"\".", exception);
+			OutputStream finalOutputStream = SvnChecksumGenerator.getTranslatingOutputStream(digestOutputStream, rootUrl, path, properties);
+			// Write buffered file content
+			contentOutputStream.writeTo(finalOutputStream);
+			finalOutputStream.flush();
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to get file content for \""+path+"\".", exception);
+		}
+		// Return computed digest
+		return digest.digest();
+	}
+
+	/**
+	 * Get file properties and content.
+	 * 
+	 * @param repository
+	 *            The Subversion repository.
+	 * @param path
+	 *            The file path.
+	 * @param revision
+	 *            The file revision.
+	 * @param properties
+	 *            The properties to fill (<code>null</code> to not get properties).
+	 * @param outputStream
+	 *            The output stream to write content to (<code>null</code> to not get content).
+	 * @throws ChecksumException
+	 *             Throws exception if the file could not be get.
+	 */
+	private void getFile(SVNRepository repository, String path, long revision, SVNProperties properties, OutputStream outputStream)
+			throws ChecksumException {
+		try {
+			repository.getFile(path, revision, properties, outputStream);
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to get file \""+path+"\".", exception);
+		}
+	}
+
+	/**
+	 * Get an output stream translating file content as a checkout would.<br/>
+	 * Keywords are expanded and end of lines converted only if the file has keywords to translate, otherwise the content is written as is.
+	 * 
+	 * @param outputStream
+	 *            The output stream to write translated content to.
+	 * @param rootUrl
+	 *            The Subversion repository root URL.
+	 * @param path
+	 *            The file path.
+	 * @param properties
+	 *            The file properties, with the committed revision, date and author entry properties.
+	 * @return The translating output stream (the output stream itself if the file has no keyword to translate).
+	 * @throws ChecksumException
+	 *             Throws exception if the translation could not be computed.
+	 */
+	static OutputStream getTranslatingOutputStream(OutputStream outputStream, SVNURL rootUrl, String path, SVNProperties properties)
+			throws ChecksumException {
+		// Get file keywords
+		Map<String, byte[]> keywordsMap = SvnChecksumGenerator.computeKeywords(rootUrl, path, properties);
+		if (keywordsMap==null)
+			return outputStream;
+		// Get related file encoding description
+		try {
+			String eol = properties.getStringValue(SVNProperty.EOL_STYLE);
+			String mimeType = properties.getStringValue(SVNProperty.MIME_TYPE);
+			String charset = SVNTranslator.getCharset(properties.getStringValue(SVNProperty.CHARSET), mimeType, path, SvnChecksumGenerator.SVN_OPTIONS);
+			// Create translating output stream for keywords
+			return SVNTranslator.getTranslatingOutputStream(outputStream, charset, SVNTranslator.getEOL(eol, SvnChecksumGenerator.SVN_OPTIONS), false,
+					keywordsMap, true);
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to compute file encoding for \""+path+"\".", exception);
+		}
+	}
+
+	/**
+	 * Compute the keywords to translate for a file.
+	 * 
+	 * @param rootUrl
+	 *            The Subversion repository root URL.
+	 * @param path
+	 *            The file path.
+	 * @param properties
+	 *            The file properties.
+	 * @return The keywords to translate (<code>null</code> if the file has no keyword to translate).
+	 * @throws ChecksumException
+	 *             Throws exception if the file URL could not be computed.
+	 */
+	private static Map<String, byte[]> computeKeywords(SVNURL rootUrl, String path, SVNProperties properties) throws ChecksumException {
+		// Get file keywords
+		String keywords = properties.getStringValue(SVNProperty.KEYWORDS);
+		if (keywords==null)
+			return null;
+		// Get file URL from repository root
+		String url;
+		try {
+			url = rootUrl.appendPath(path, false).toString();
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to get file URL for \""+path+"\".", exception);
+		}
+		// Get keywords values
+		String cmtRev = properties.getStringValue(SVNProperty.COMMITTED_REVISION);
+		String cmtDate = properties.getStringValue(SVNProperty.COMMITTED_DATE);
+		String author = properties.getStringValue(SVNProperty.LAST_AUTHOR);
+		// Compute keywords
+		return SVNTranslator.computeKeywords(keywords, url, rootUrl.toString(), author, cmtDate, cmtRev, SvnChecksumGenerator.SVN_OPTIONS);
+	}
+
+	/**
+	 * Read the copies of the root directory history.<br/>
+	 * The history is read up to the root directory creation, so the copy creating the root directory is included.
+	 * 
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @throws ChecksumException
+	 *             Throws exception if the log could not be read.
+	 */
+	private void readCopies(ChecksumListener listener) throws ChecksumException {
+		// Get root directory path
+		final String rootPath = this.rootDirectory.getPath();
+		// Collect copies of, above or under root directory
+		final Map<String, Copy> copies = new HashMap<>();
+		ISVNLogEntryHandler logEntryHandler = new ISVNLogEntryHandler() {
+			@Override
+			public void handleLogEntry(SVNLogEntry logEntry) throws SVNException {
+				// Check each changed path of the revision
+				for (SVNLogEntryPath logEntryPath : logEntry.getChangedPaths().values()) {
+					// Check if path is copied
+					String path = logEntryPath.getPath();
+					if (logEntryPath.getCopyPath()==null)
+						continue;
+					// Save copy related to root directory, replacing previous copy of the same path
+					if (path.equals(rootPath)||path.startsWith(rootPath+"/")||rootPath.startsWith(path+"/"))
+						copies.put(path, new Copy(logEntryPath.getCopyPath(), logEntry.getRevision()));
 				}
-			} else {
-				// Use default digest output stream
-				finalOutputStream = digestOutputStream;
 			}
-			// Get file content
+		};
+		SVNRepository repository = this.sessionPool.acquire();
+		try {
+			// Read log of root directory history, stopping at its copy
+			repository.log(new String[] {rootPath.isEmpty() ? "/" : rootPath}, 0, this.revision, true, true, logEntryHandler);
+		} catch (SVNException exception) {
+			this.sessionPool.invalidate(repository);
+			throw new ChecksumException("Unable to read Subversion log of \""+rootPath+"\".", exception);
+		}
+		this.sessionPool.release(repository);
+		// Save copies
+		this.copies = copies;
+		listener.onDebug(copies.size()+" copies found in history.");
+	}
+
+	/**
+	 * Get the path to cache a file checksum.
+	 * 
+	 * @param file
+	 *            The file to cache checksum.
+	 * @return The file copy origin path, or the file path if the file has properties.
+	 */
+	private String getCachePath(SvnFile file) {
+		// Check if file may have keywords depending on its location
+		if (file.hasProperties())
+			return file.getPath();
+		// Return file copy origin path
+		return this.getOriginPath(file.getPath(), file.getCommittedRevision());
+	}
+
+	/**
+	 * Get the copy origin path of a resource.<br/>
+	 * A resource committed before the last copy of itself or of a parent was not changed since this copy, so it is the same as the copied
+	 * resource.
+	 * 
+	 * @param path
+	 *            The resource path.
+	 * @param committedRevision
+	 *            The resource committed revision.
+	 * @return The path the resource was copied from, or the resource path if it was not copied or changed since it was copied.
+	 */
+	private String getOriginPath(String path, long committedRevision) {
+		// Check if copy origins are used
+		if (this.copies==null||committedRevision<0)
+			return path;
+		// Look for the last copy of the resource or one of its parents
+		Copy lastCopy = null;
+		String copiedPath = null;
+		for (String parentPath = path; !parentPath.isEmpty(); parentPath = parentPath.substring(0, Math.max(parentPath.lastIndexOf('/'), 0))) {
+			Copy copy = this.copies.get(parentPath);
+			if (copy!=null&&(lastCopy==null||copy.revision>lastCopy.revision)) {
+				lastCopy = copy;
+				copiedPath = parentPath;
+			}
+		}
+		// Check if resource was changed since its copy
+		if (lastCopy==null||committedRevision>=lastCopy.revision)
+			return path;
+		// Return path the resource was copied from
+		return lastCopy.copyPath+path.substring(copiedPath.length());
+	}
+
+	/**
+	 * Check if a file is changed and should be hashed.
+	 * 
+	 * @param file
+	 *            The file to check.
+	 * @return <code>true</code> if the file should be hashed, <code>false</code> if it is left without checksum.
+	 */
+	private boolean isChanged(SvnFile file) {
+		// Check if file hashing is restricted, then if file may have keywords
+		if (this.changedPaths==null||file.hasProperties())
+			return true;
+		// Check if file is from an external, its path being a path of the external repository
+		AbstractResource resource = file;
+		while (resource!=null) {
+			if (((SvnResource) resource).getRevision()>=0)
+				return true;
+			// Get parent resource
+			resource = resource.getParent();
+		}
+		// Check file path then each parent path
+		String path = file.getPath();
+		while (path.lastIndexOf('/')>0) {
+			// Check if path is changed
+			if (this.changedPaths.contains(path))
+				return true;
+			// Get parent path
+			path = path.substring(0, path.lastIndexOf('/'));
+		}
+		// Check the last path
+		return this.changedPaths.contains(path);
+	}
+
+	/**
+	 * Get the revision to request a resource.
+	 * 
+	 * @param resource
+	 *            The resource to get revision.
+	 * @return The revision of the closest external resource, or the revision to compute checksums.
+	 */
+	private long getRevision(AbstractResource resource) {
+		// Look for the closest resource with a revision
+		for (AbstractResource parent = resource; parent instanceof SvnResource; parent = parent.getParent()) {
+			// Check resource revision
+			long revision = ((SvnResource) parent).getRevision();
+			if (revision>=0)
+				return revision;
+		}
+		// Return the revision to compute checksums
+		return this.revision;
+	}
+
+	/**
+	 * Get the session pool to request a resource.
+	 * 
+	 * @param resource
+	 *            The resource to get session pool.
+	 * @return The session pool of the closest external resource from another repository, or the session pool to compute checksums.
+	 */
+	private SvnSessionPool getSessionPool(AbstractResource resource) {
+		// Check if there is any external resource from another repository
+		if (!this.externalSessionPools.isEmpty()) {
+			// Look for the closest resource with a session pool
+			for (AbstractResource parent = resource; parent!=null; parent = parent.getParent()) {
+				// Check resource session pool
+				SvnSessionPool sessionPool = this.externalSessionPools.get(parent);
+				if (sessionPool!=null)
+					return sessionPool;
+			}
+		}
+		// Return the session pool to compute checksums
+		return this.sessionPool;
+	}
+
+	/**
+	 * Get the session pool of an external URL.<br/>
+	 * A session pool is created for each external repository, with the same credentials and size, and closed at the end of the computation.
+	 * 
+	 * @param url
+	 *            The external URL.
+	 * @return The session pool of the external URL repository.
+	 * @throws ChecksumException
+	 *             Throws exception if the session pool could not be created.
+	 */
+	private synchronized SvnSessionPool getExternalSessionPool(SVNURL url) throws ChecksumException {
+		// Check if URL is from the repository
+		String urlString = url.toString();
+		if (this.sessionPool.contains(urlString))
+			return this.sessionPool;
+		// Look for an external repository session pool
+		for (SvnSessionPool externalRepositoryPool : this.externalRepositoryPools) {
+			if (externalRepositoryPool.contains(urlString))
+				return externalRepositoryPool;
+		}
+		// Create external repository session pool
+		SvnSessionPool externalRepositoryPool = this.sessionPool.derive(urlString);
+		this.externalRepositoryPools.add(externalRepositoryPool);
+		// Fetch repository information before any session of the pool is held
+		externalRepositoryPool.getRepositoryRoot();
+		// Return created session pool
+		return externalRepositoryPool;
+	}
+
+	/**
+	 * Get the revision to compute checksums of a repository.
+	 * 
+	 * @param sessionPool
+	 *            The session pool of the repository.
+	 * @param repository
+	 *            A Subversion session of the repository.
+	 * @return The revision to compute checksums of the repository (its HEAD revision resolved at first use).
+	 * @throws ChecksumException
+	 *             Throws exception if the HEAD revision could not be get.
+	 */
+	private synchronized long getPinnedRevision(SvnSessionPool sessionPool, SVNRepository repository) throws ChecksumException {
+		// Check if session pool is the repository one
+		if (sessionPool==this.sessionPool)
+			return this.revision;
+		// Check if external repository revision is already resolved
+		Long revision = this.externalRepositoryRevisions.get(sessionPool);
+		if (revision==null) {
+			// Pin external repository HEAD revision
 			try {
-				repository.getFile(path, -1, null, finalOutputStream);
+				revision = repository.getLatestRevision();
 			} catch (SVNException exception) {
-				throw new ChecksumException("Unable to get file content for \""+path+"\".", exception);
+				throw new ChecksumException("Unable to get the Subversion HEAD revision.", exception);
 			}
-			// Compute digest
-			byte[] digestBytes = digestOutputStream.getMessageDigest().digest();
-			// Store digest to file
-			file.setChecksum(digestBytes);
-		} catch (IOException exception) {
-			throw new ChecksumException("Unable to get file content for \""+path+"\".", exception);
+			this.externalRepositoryRevisions.put(sessionPool, revision);
+		}
+		// Return external repository revision
+		return revision;
+	}
+
+	/**
+	 * Create a checksum cache for a repository and an algorithm.<br/>
+	 * The cache settings hold the translation settings as they change file checksums.
+	 * 
+	 * @param cacheDirectory
+	 *            The checksum cache directory (<code>null</code> for a cache that is never loaded nor saved).
+	 * @param repositoryUuid
+	 *            The repository UUID.
+	 * @param algorithm
+	 *            The checksum algorithm.
+	 * @return The created checksum cache.
+	 */
+	static ChecksumCache createChecksumCache(Path cacheDirectory, String repositoryUuid, ChecksumAlgorithm algorithm) {
+		// Get cache file
+		Path cachePath = cacheDirectory==null ? null : cacheDirectory.resolve(repositoryUuid+"-"+algorithm+".cache");
+		// Create translation settings
+		StringBuilder settings = new StringBuilder("eol=");
+		for (byte b : SvnChecksumGenerator.SVN_OPTIONS.getNativeEOL()) {
+			settings.append(String.format("%02x", b));
+		}
+		// Return created cache
+		return new ChecksumCache(cachePath, settings.toString());
+	}
+
+	/**
+	 * Check if a path or one of its parent paths is changed.
+	 * 
+	 * @param path
+	 *            The path to check, relative to the root directory.
+	 * @param changedPaths
+	 *            The changed paths, relative to the root directory.
+	 * @return <code>true</code> if the path or one of its parent paths is changed, <code>false</code> otherwise.
+	 */
+	private static boolean isChangedPath(String path, Set<String> changedPaths) {
+		// Check path then each parent path
+		while (!changedPaths.contains(path)) {
+			// Check if root directory is reached
+			if (path.isEmpty())
+				return false;
+			// Get parent path
+			int separatorIndex = path.lastIndexOf('/');
+			path = separatorIndex==-1 ? "" : path.substring(0, separatorIndex);
+		}
+		// Path is changed
+		return true;
+	}
+
+	/**
+	 * Get a child resource by name.
+	 * 
+	 * @param directory
+	 *            The directory to get child from.
+	 * @param name
+	 *            The child name.
+	 * @return The child resource (<code>null</code> if there is no such child).
+	 */
+	private static AbstractResource getChild(AbstractDirectory directory, String name) {
+		// Look for the child with the name
+		for (AbstractResource child : directory.getChildren()) {
+			if (child.getName().equals(name))
+				return child;
+		}
+		// No such child
+		return null;
+	}
+
+	/**
+	 * Check if a resource is ignored.
+	 * 
+	 * @param workingCopyPath
+	 *            The resource working copy path.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @return <code>true</code> if the resource is ignored, <code>false</code> otherwise.
+	 */
+	static boolean isIgnored(Path workingCopyPath, PathMatcher[] ignoreMatchers) {
+		// Check each path matcher
+		for (PathMatcher matcher : ignoreMatchers) {
+			// Check if path matcher matches
+			if (matcher.matches(workingCopyPath))
+				return true;
+		}
+		// Resource is not ignored
+		return false;
+	}
+
+	/**
+	 * Parse an hexadecimal checksum.
+	 * 
+	 * @param hexChecksum
+	 *            The hexadecimal checksum representation.
+	 * @return The checksum bytes.
+	 */
+	private static byte[] parseChecksum(String hexChecksum) {
+		// Create checksum bytes
+		byte[] checksum = new byte[hexChecksum.length()/2];
+		// Parse each byte
+		for (int i = 0; i<checksum.length; i++) {
+			checksum[i] = (byte) Integer.parseInt(hexChecksum.substring(i*2, i*2+2), 16);
+		}
+		// Return checksum bytes
+		return checksum;
+	}
+
+	/**
+	 * This class is an output stream failing once cancelled.<br/>
+	 * It aborts a content download as soon as another request completed the file.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class CancellableOutputStream extends FilterOutputStream {
+		/** The cancellation status. */
+		private final AtomicBoolean cancelled;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param outputStream
+		 *            The output stream to write to.
+		 * @param cancelled
+		 *            The cancellation status.
+		 */
+		private CancellableOutputStream(OutputStream outputStream, AtomicBoolean cancelled) {
+			super(outputStream);
+			this.cancelled = cancelled;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.checkCancelled();
+			this.out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.checkCancelled();
+			this.out.write(b, off, len);
+		}
+
+		/**
+		 * Check if the download was cancelled.
+		 * 
+		 * @throws IOException
+		 *             Throws exception if the download was cancelled.
+		 */
+		private void checkCancelled() throws IOException {
+			if (this.cancelled.get())
+				throw new IOException("File download cancelled.");
+		}
+	}
+
+	/**
+	 * This class is a copy of the root directory history.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class Copy {
+		/** The path the resource was copied from. */
+		private final String copyPath;
+		/** The revision the resource was copied at. */
+		private final long revision;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param copyPath
+		 *            The path the resource was copied from.
+		 * @param revision
+		 *            The revision the resource was copied at.
+		 */
+		private Copy(String copyPath, long revision) {
+			this.copyPath = copyPath;
+			this.revision = revision;
+		}
+	}
+
+	/**
+	 * This class is a Subversion editor building the resource tree and hashing file contents of a directory.<br/>
+	 * File contents are rebuilt from the deltas of the report against an empty working copy. As file properties may be received after file content,
+	 * file content is buffered until file edition ends and then digested with its keywords translated.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private class SvnContentEditor extends SvnListingEditor {
+		/** The Subversion repository root URL of the edited files. */
+		private final SVNURL rootUrl;
+		/** The checksum cache status (<code>true</code> if edited files are from the repository to cache checksums, <code>false</code> otherwise). */
+		private final boolean cacheable;
+		/** The delta processor to rebuild file contents. */
+		private final SVNDeltaProcessor deltaProcessor;
+		/** The properties of the file being edited. */
+		private SVNProperties properties;
+		/** The content of the file being edited. */
+		private ByteArrayOutputStream contentOutputStream;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param rootDirectory
+		 *            The root directory to build.
+		 * @param sessionPool
+		 *            The session pool of the root directory.
+		 * @param ignoreMatchers
+		 *            The list of path matcher to check for ignoring resource.
+		 * @throws ChecksumException
+		 *             Throws exception if the repository root URL could not be get.
+		 */
+		public SvnContentEditor(SvnDirectory rootDirectory, SvnSessionPool sessionPool, PathMatcher[] ignoreMatchers) throws ChecksumException {
+			super(rootDirectory, SvnChecksumGenerator.this.fileCounter, ignoreMatchers);
+			this.rootUrl = sessionPool.getRepositoryRoot();
+			this.cacheable = SvnChecksumGenerator.this.cache!=null&&sessionPool==SvnChecksumGenerator.this.sessionPool;
+			this.deltaProcessor = new SVNDeltaProcessor();
+		}
+
+		@Override
+		public void addFile(String path, String copyFromPath, long copyFromRevision) throws SVNException {
+			super.addFile(path, copyFromPath, copyFromRevision);
+			// Initialize file properties and content
+			this.properties = new SVNProperties();
+			this.contentOutputStream = new ByteArrayOutputStream();
+		}
+
+		@Override
+		public void changeFileProperty(String path, String propertyName, SVNPropertyValue propertyValue) throws SVNException {
+			super.changeFileProperty(path, propertyName, propertyValue);
+			// Save file property
+			if (this.getFile()!=null&&propertyValue!=null)
+				this.properties.put(propertyName, propertyValue);
+		}
+
+		@Override
+		public void applyTextDelta(String path, String baseChecksum) throws SVNException {
+			// Check if file is edited
+			if (this.getFile()==null)
+				return;
+			// Apply deltas to an empty base
+			this.deltaProcessor.applyTextDelta(SVNFileUtil.DUMMY_IN, this.contentOutputStream, false);
+		}
+
+		@Override
+		public OutputStream textDeltaChunk(String path, SVNDiffWindow diffWindow) throws SVNException {
+			// Check if file is edited
+			if (this.getFile()==null)
+				return SVNFileUtil.DUMMY_OUT;
+			// Apply delta window
+			return this.deltaProcessor.textDeltaChunk(diffWindow);
+		}
+
+		@Override
+		public void textDeltaEnd(String path) throws SVNException {
+			// Check if file is edited
+			if (this.getFile()==null)
+				return;
+			// End delta application
+			this.deltaProcessor.textDeltaEnd();
+		}
+
+		@Override
+		public void closeFile(String path, String textChecksum) throws SVNException {
+			// Get edited file
+			SvnFile file = this.getFile();
+			if (file!=null) {
+				// Set file size
+				file.setSize(this.contentOutputStream.size());
+				// Digest file content
+				try {
+					file.setChecksum(SvnChecksumGenerator.this.digestContent(this.rootUrl, file.getPath(), this.properties, this.contentOutputStream));
+				} catch (ChecksumException exception) {
+					throw new SVNException(SVNErrorMessage.create(SVNErrorCode.UNKNOWN, exception.getMessage()), exception);
+				}
+				// Cache computed checksum
+				if (this.cacheable&&file.getCommittedRevision()>=0)
+					SvnChecksumGenerator.this.cache.put(SvnChecksumGenerator.this.getCachePath(file), file.getCommittedRevision(), file.getChecksum());
+				// Update reported file and progress counters
+				SvnChecksumGenerator.this.reportedFileCounter.incrementAndGet();
+				SvnChecksumGenerator.this.progressCounter.incrementAndGet();
+			}
+			// Release file properties and content
+			this.properties = null;
+			this.contentOutputStream = null;
+			super.closeFile(path, textChecksum);
 		}
 	}
 }
\ No newline at end of file
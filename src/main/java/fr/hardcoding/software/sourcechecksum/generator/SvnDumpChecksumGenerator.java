@@ -0,0 +1,1240 @@
+package fr.hardcoding.software.sourcechecksum.generator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.tmatesoft.svn.core.ISVNCanceller;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNRevisionProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.delta.SVNDeltaReader;
+import org.tmatesoft.svn.core.internal.util.SVNEncodingUtil;
+import org.tmatesoft.svn.core.internal.wc.ISVNLoadHandler;
+import org.tmatesoft.svn.core.internal.wc.SVNAdminHelper;
+import org.tmatesoft.svn.core.internal.wc.SVNDumpStreamParser;
+import org.tmatesoft.svn.core.internal.wc.SVNExternal;
+import org.tmatesoft.svn.core.internal.wc.SVNFileUtil;
+import org.tmatesoft.svn.core.io.ISVNDeltaConsumer;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaProcessor;
+import org.tmatesoft.svn.core.io.diff.SVNDiffWindow;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
+import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.svn.SvnDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.svn.SvnFile;
+
+/**
+ * This class is a checksum generator reading a Subversion dump stream.<br/>
+ * The stream written by <code>svnadmin dump</code> or <code>svnrdump dump</code>, with or without deltas, is parsed in a single pass. The tree of
+ * each revision shares its unchanged nodes with the previous revision, so copies are resolved from any earlier revision. File texts are hashed as
+ * they are streamed and appended to a temporary content file, to apply later deltas and to translate keywords once the location of each file at the
+ * revision to compute checksums is known.<br/>
+ * The checksums are the same as the {@link SvnChecksumGenerator} ones for the same URL and revision. Externals are resolved from the dumped
+ * repository only.
+ * 
+ * @author Bruce BUJON
+ * 
+ */
+public class SvnDumpChecksumGenerator implements ChecksumGenerator {
+	/** The buffer size to copy file texts. */
+	private static final int BUFFER_SIZE = 64*1024;
+	/*
+	 * Subversion related.
+	 */
+	/** The Subversion URL to compute checksums. */
+	private final String url;
+	/** The Subversion repository root URL of the dump. */
+	private final SVNURL repositoryRootUrl;
+	/** The root directory path from the repository root (empty for the repository root). */
+	private final String rootPath;
+	/** The dump stream to read. */
+	private final InputStream dumpInputStream;
+	/** The requested revision to compute checksums (<code>-1</code> for the last dumped revision). */
+	private long requestedRevision;
+	/** The revision to compute checksums (requested revision or last dumped revision). */
+	private long revision;
+	/** The dumped revisions, by revision number (<code>null</code> for revisions not dumped). */
+	private List<DumpRevision> revisions;
+	/*
+	 * Checksum computation related.
+	 */
+	/** The algorithm to use to compute checksum. */
+	private ChecksumAlgorithm algorithm;
+	/** The directory of the temporary content file (<code>null</code> for the default temporary directory). */
+	private Path tempDirectory;
+	/** The store of dumped file texts. */
+	private ContentStore contentStore;
+	/** The empty file text. */
+	private Content emptyContent;
+	/*
+	 * Progress related.
+	 */
+	/** The file counter of computed checksum. */
+	private int fileCounter;
+	/** The file counter of translated keywords. */
+	private int translatedFileCounter;
+	/** The byte counter of file texts streamed from the dump. */
+	private long streamedByteCounter;
+
+	/**
+	 * Constructor.<br/>
+	 * The dump stream is read by the checksum computation and is not closed by the generator.
+	 * 
+	 * @param url
+	 *            The Subversion URL to compute checksum (must be a directory).
+	 * @param repositoryRootUrl
+	 *            The Subversion repository root URL of the dump.
+	 * @param dumpInputStream
+	 *            The dump stream to read.
+	 * @throws ChecksumException
+	 *             Throws exception if the generator could not be created.
+	 */
+	public SvnDumpChecksumGenerator(String url, String repositoryRootUrl, InputStream dumpInputStream) throws ChecksumException {
+		// Save URL and dump stream
+		this.url = url;
+		this.dumpInputStream = dumpInputStream;
+		// Check Subversion root URL
+		if (repositoryRootUrl.endsWith("/"))
+			repositoryRootUrl = repositoryRootUrl.substring(0, repositoryRootUrl.length()-1);
+		if (!url.startsWith(repositoryRootUrl))
+			throw new ChecksumException("An error happend retrieving resource location.");
+		try {
+			this.repositoryRootUrl = SVNURL.parseURIEncoded(repositoryRootUrl);
+		} catch (SVNException exception) {
+			throw new ChecksumException("Invalid repository root URL \""+repositoryRootUrl+"\".", exception);
+		}
+		// Get resource URL
+		String resourceUrl = url.substring(repositoryRootUrl.length());
+		// Check URL leading slash
+		if (resourceUrl.length()>0&&resourceUrl.charAt(resourceUrl.length()-1)=='/')
+			resourceUrl = resourceUrl.substring(0, resourceUrl.length()-1);
+		// Save root directory path, named as the Subversion checksum generator does
+		this.rootPath = resourceUrl;
+		// Compute checksums at the last dumped revision by default
+		this.requestedRevision = -1;
+	}
+
+	/**
+	 * Set the revision to compute checksums.
+	 * 
+	 * @param revision
+	 *            The revision to compute checksums (<code>-1</code> for the last dumped revision).
+	 */
+	public void setRevision(long revision) {
+		this.requestedRevision = revision;
+	}
+
+	/**
+	 * Set the directory of the temporary content file.<br/>
+	 * The content file holds each file text of the dump up to the revision to compute checksums and is deleted at the end of the computation.
+	 * 
+	 * @param tempDirectory
+	 *            The directory of the temporary content file (<code>null</code> for the default temporary directory).
+	 */
+	public void setTempDirectory(Path tempDirectory) {
+		this.tempDirectory = tempDirectory;
+	}
+
+	/*
+	 * Checksum Generator.
+	 */
+
+	@Override
+	public AbstractDirectory compute(ChecksumAlgorithm algorithm, ChecksumListener listener, PathMatcher... ignoreMatchers) throws ChecksumException {
+		// Save algorithm to use
+		this.algorithm = algorithm;
+		// Save start time
+		long startTime = System.nanoTime();
+		// Initialize progress
+		this.revisions = new ArrayList<>();
+		this.fileCounter = 0;
+		this.translatedFileCounter = 0;
+		this.streamedByteCounter = 0;
+		// Notify worker
+		listener.onStart();
+		// Declare root directory
+		SvnDirectory rootDirectory;
+		// Create content store
+		try (ContentStore contentStore = new ContentStore(this.tempDirectory)) {
+			this.contentStore = contentStore;
+			this.emptyContent = new Content(0, 0, this.createDigest().digest());
+			/*
+			 * Parse dump stream.
+			 */
+			// Parse dump stream up to the revision to compute checksums
+			try {
+				SVNDumpStreamParser parser = new SVNDumpStreamParser(ISVNCanceller.NULL);
+				parser.parseDumpStream(new BufferedInputStream(this.dumpInputStream, SvnDumpChecksumGenerator.BUFFER_SIZE), new DumpLoadHandler(listener),
+						StandardCharsets.UTF_8.newDecoder());
+			} catch (SVNCancelException exception) {
+				// Revisions after the revision to compute checksums are not read
+			} catch (SVNException exception) {
+				throw new ChecksumException("Unable to read the Subversion dump stream.", exception);
+			}
+			// Get revision to compute checksums
+			if (this.requestedRevision>=0) {
+				// Check requested revision was dumped
+				if (this.requestedRevision>=this.revisions.size()||this.revisions.get((int) this.requestedRevision)==null)
+					throw new ChecksumException("The revision "+this.requestedRevision+" is not in the Subversion dump stream.");
+				this.revision = this.requestedRevision;
+			} else {
+				// Check a revision was dumped
+				if (this.revisions.isEmpty())
+					throw new ChecksumException("No revision was found in the Subversion dump stream.");
+				this.revision = this.revisions.size()-1;
+			}
+			listener.onDebug("Computing checksums at revision "+this.revision+".");
+			listener.onDebug(this.streamedByteCounter+" bytes of file texts streamed from dump.");
+			/*
+			 * Build root directory.
+			 */
+			// Get root directory node
+			DumpNode rootNode = this.getNode(this.revision, this.rootPath);
+			if (rootNode==null)
+				throw new ChecksumException("No repository was found at \""+this.url+"\".");
+			if (rootNode instanceof DumpFile)
+				throw new ChecksumException("The URL \""+this.url+"\" should be a directory.");
+			// Create root directory
+			rootDirectory = new SvnDirectory(this.rootPath);
+			// Build root directory from its node
+			this.buildDirectory(rootDirectory, (DumpDirectory) rootNode, this.rootPath, new HashSet<String>(), ignoreMatchers);
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to store the Subversion dump file texts.", exception);
+		} finally {
+			// Release dumped revisions
+			this.revisions = null;
+			this.contentStore = null;
+		}
+		listener.onDebug(this.fileCounter+" files found.");
+		listener.onDebug(this.translatedFileCounter+" files with keywords translated.");
+		// Sort root directory
+		rootDirectory.sort();
+		// Compute directory checksums
+		rootDirectory.computeChecksum();
+		// Notify worker
+		listener.onDone();
+		// Compute elapsed time
+		long elapsedTime = (System.nanoTime()-startTime)/1000000000;
+		if (elapsedTime==0)
+			elapsedTime = 1;
+		listener.onDebug(this.fileCounter+" hashs in "+elapsedTime+" secs ("+this.fileCounter/elapsedTime+" hashs/secs)");
+		// Return the root directory
+		return rootDirectory;
+	}
+
+	/**
+	 * Build a directory from its node.
+	 * 
+	 * @param directory
+	 *            The directory to build.
+	 * @param node
+	 *            The directory node.
+	 * @param path
+	 *            The directory path from the repository root.
+	 * @param externals
+	 *            The externals being built, by URL and revision, to detect cyclic externals.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throws exception if the directory could not be built.
+	 */
+	private void buildDirectory(SvnDirectory directory, DumpDirectory node, String path, Set<String> externals, PathMatcher[] ignoreMatchers)
+			throws ChecksumException {
+		// Get directory working copy path
+		String workingCopyPath = directory.getWorkingCopyPath();
+		// Build each child resource
+		for (Map.Entry<String, DumpNode> child : node.children.entrySet()) {
+			// Check if resource is ignored
+			String name = child.getKey();
+			if (SvnChecksumGenerator.isIgnored(Paths.get(workingCopyPath, name), ignoreMatchers))
+				// Skip the resource
+				continue;
+			// Check resource type
+			if (child.getValue() instanceof DumpDirectory) {
+				// Create child directory
+				SvnDirectory childDirectory = new SvnDirectory(name);
+				directory.addChild(childDirectory);
+				// Recursively build child directory
+				this.buildDirectory(childDirectory, (DumpDirectory) child.getValue(), path+"/"+name, externals, ignoreMatchers);
+			} else {
+				// Create child file
+				directory.addChild(this.createFile(name, (DumpFile) child.getValue(), path+"/"+name));
+			}
+		}
+		// Build directory externals
+		String externalsDefinition = node.properties.getStringValue(SVNProperty.EXTERNALS);
+		if (externalsDefinition!=null)
+			this.buildExternals(directory, path, externalsDefinition, externals, ignoreMatchers);
+	}
+
+	/**
+	 * Build directory externals.<br/>
+	 * Resources up to each external location are created, then each external is built from the dumped repository at its revision.
+	 * 
+	 * @param directory
+	 *            The directory resource defining externals.
+	 * @param path
+	 *            The directory path from the repository root.
+	 * @param externalsDefinition
+	 *            The externals definition of the directory.
+	 * @param externals
+	 *            The externals being built, by URL and revision, to detect cyclic externals.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throw exception if the externals could not be built.
+	 */
+	private void buildExternals(SvnDirectory directory, String path, String externalsDefinition, Set<String> externals, PathMatcher[] ignoreMatchers)
+			throws ChecksumException {
+		// Get directory working copy path
+		String workingCopyPath = directory.getWorkingCopyPath();
+		// Create the intermediate directories, by path, shared by externals of the definition
+		Map<String, SvnDirectory> intermediateDirectories = new HashMap<>();
+		try {
+			// Parse external definition
+			SVNExternal[] svnExternals = SVNExternal.parseExternals(path, externalsDefinition);
+			// Process each external
+			for (SVNExternal svnExternal : svnExternals) {
+				// Resolve external URL
+				SVNURL ownerUrl = this.repositoryRootUrl.appendPath(path, false);
+				svnExternal.resolveURL(this.repositoryRootUrl, ownerUrl);
+				/*
+				 * Create external resources up to external location.
+				 */
+				// Get external path
+				String externalPath = svnExternal.getPath();
+				// Check if externals is ignored
+				if (SvnChecksumGenerator.isIgnored(Paths.get(workingCopyPath, externalPath), ignoreMatchers)) {
+					// Skip the externals
+					continue;
+				}
+				// Split external resource path
+				String[] externalPathPart = externalPath.split("/");
+				// Create each child resource up to external location
+				SvnDirectory parent = directory;
+				for (int i = 0; i<externalPathPart.length-1; i++) {
+					// Get child resource to external location
+					String intermediatePath = parent.getWorkingCopyPath()+"/"+externalPathPart[i];
+					SvnDirectory childDirectory = intermediateDirectories.get(intermediatePath);
+					if (childDirectory==null) {
+						// Create child resource to external location
+						childDirectory = new SvnDirectory(externalPathPart[i]);
+						// Add child resource
+						parent.addChild(childDirectory);
+						intermediateDirectories.put(intermediatePath, childDirectory);
+					}
+					// Set child resource as next location
+					parent = childDirectory;
+				}
+				/*
+				 * Build external.
+				 */
+				// Get external name
+				String externalName = externalPathPart[externalPathPart.length-1];
+				// Build external
+				this.buildExternal(parent, externalName, svnExternal.getResolvedURL(), svnExternal.getRevision().getNumber(), externals, ignoreMatchers);
+			}
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to process external for \""+path+"\".", exception);
+		}
+	}
+
+	/**
+	 * Build an external.
+	 * 
+	 * @param parent
+	 *            The directory resource to add external to.
+	 * @param name
+	 *            The external name.
+	 * @param url
+	 *            The external resolved URL.
+	 * @param revision
+	 *            The external revision (<code>-1</code> for the revision to compute checksums).
+	 * @param externals
+	 *            The externals being built, by URL and revision, to detect cyclic externals.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 * @throws ChecksumException
+	 *             Throw exception if the external could not be built.
+	 */
+	private void buildExternal(SvnDirectory parent, String name, SVNURL url, long revision, Set<String> externals, PathMatcher[] ignoreMatchers)
+			throws ChecksumException {
+		// Check external is from the dumped repository
+		String urlString = url.toString();
+		String rootUrlString = this.repositoryRootUrl.toString();
+		if (!urlString.equals(rootUrlString)&&!urlString.startsWith(rootUrlString+"/"))
+			throw new ChecksumException("Unable to get external \""+url+"\" from another repository than the dumped one.");
+		// Get external path from its repository root
+		String urlPath = url.getPath().substring(this.repositoryRootUrl.getPath().length());
+		if (urlPath.isEmpty())
+			urlPath = "/";
+		// Get external revision
+		if (revision<0)
+			revision = this.revision;
+		// Get external node
+		DumpNode node = this.getNode(revision, urlPath);
+		if (node==null)
+			throw new ChecksumException("Unable to get external type for \""+url+"\".");
+		// Check cyclic externals
+		String external = url+"@"+revision;
+		if (!externals.add(external))
+			throw new ChecksumException("Cyclic externals found for \""+url+"\".");
+		// Check external type
+		if (node instanceof DumpDirectory) {
+			// Create external directory
+			SvnDirectory externalDirectory = new SvnDirectory(name);
+			// Manually set path and revision for external directory
+			externalDirectory.setPath(urlPath);
+			externalDirectory.setRevision(revision);
+			parent.addChild(externalDirectory);
+			// Build external directory
+			this.buildDirectory(externalDirectory, (DumpDirectory) node, urlPath, externals, ignoreMatchers);
+		} else {
+			// Create external file
+			SvnFile externalFile = this.createFile(name, (DumpFile) node, urlPath);
+			// Manually set path and revision for external file
+			externalFile.setPath(urlPath);
+			externalFile.setRevision(revision);
+			parent.addChild(externalFile);
+		}
+		// Release external
+		externals.remove(external);
+	}
+
+	/**
+	 * Create a file from its node.
+	 * 
+	 * @param name
+	 *            The file name.
+	 * @param node
+	 *            The file node.
+	 * @param path
+	 *            The file path from the repository root.
+	 * @return The created file, with its checksum.
+	 * @throws ChecksumException
+	 *             Throws exception if the file checksum could not be computed.
+	 */
+	private SvnFile createFile(String name, DumpFile node, String path) throws ChecksumException {
+		// Create file
+		SvnFile file = new SvnFile(name);
+		file.setCommittedRevision(node.revision);
+		file.setSize(node.content.size);
+		file.setProperties(!node.properties.isEmpty());
+		// Compute file checksum
+		file.setChecksum(this.computeChecksum(node, path));
+		// Update file counter
+		this.fileCounter++;
+		// Return created file
+		return file;
+	}
+
+	/**
+	 * Compute a file checksum.<br/>
+	 * The checksum of the streamed text is used unless the file has keywords to translate. Keywords are translated as a checkout would, from the
+	 * file location and the revision it was last changed.
+	 * 
+	 * @param node
+	 *            The file node.
+	 * @param path
+	 *            The file path from the repository root.
+	 * @return The file checksum.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum could not be computed.
+	 */
+	private byte[] computeChecksum(DumpFile node, String path) throws ChecksumException {
+		// Check if file has keywords to translate
+		if (node.properties.getStringValue(SVNProperty.KEYWORDS)==null)
+			return node.content.checksum;
+		// Add committed revision, date and author to file properties
+		SVNProperties properties = new SVNProperties(node.properties);
+		DumpRevision committedRevision = this.revisions.get((int) node.revision);
+		properties.put(SVNProperty.COMMITTED_REVISION, Long.toString(node.revision));
+		if (committedRevision.date!=null)
+			properties.put(SVNProperty.COMMITTED_DATE, committedRevision.date);
+		if (committedRevision.author!=null)
+			properties.put(SVNProperty.LAST_AUTHOR, committedRevision.author);
+		// Create message digest
+		MessageDigest digest = this.createDigest();
+		// Create output stream with digest decorator
+		try (DigestOutputStream digestOutputStream = new DigestOutputStream(SVNFileUtil.DUMMY_OUT, digest);
+				InputStream contentInputStream = this.contentStore.read(node.content)) {
+			// Create translator as the Subversion checksum generator does
+			OutputStream finalOutputStream = SvnChecksumGenerator.getTranslatingOutputStream(digestOutputStream, this.repositoryRootUrl, path,
+					properties);
+			// Write stored file text
+			SvnDumpChecksumGenerator.copy(contentInputStream, finalOutputStream, Long.MAX_VALUE);
+			finalOutputStream.flush();
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to get file content for \""+path+"\".", exception);
+		}
+		// Update translated file counter
+		this.translatedFileCounter++;
+		// Return computed digest
+		return digest.digest();
+	}
+
+	/**
+	 * Create the message digest of the checksum algorithm.
+	 * 
+	 * @return The created message digest.
+	 * @throws ChecksumException
+	 *             Throws exception if the algorithm is not available.
+	 */
+	private MessageDigest createDigest() throws ChecksumException {
+		try {
+			return MessageDigest.getInstance(this.algorithm.getName());
+		} catch (NoSuchAlgorithmException exception) {
+			throw new ChecksumException("Unable to compute \""+this.algorithm+"\" checksum.", exception);
+		}
+	}
+
+	/**
+	 * Get a node of a dumped revision.
+	 * 
+	 * @param revision
+	 *            The revision to get node.
+	 * @param path
+	 *            The node path from the repository root.
+	 * @return The node (<code>null</code> if there is no such node or if the revision was not dumped).
+	 */
+	private DumpNode getNode(long revision, String path) {
+		// Get dumped revision
+		if (revision<0||revision>=this.revisions.size()||this.revisions.get((int) revision)==null)
+			return null;
+		// Walk from revision root to node
+		DumpNode node = this.revisions.get((int) revision).root;
+		for (String name : path.split("/")) {
+			// Skip empty name of leading, trailing or root path
+			if (name.isEmpty())
+				continue;
+			// Check node is a directory
+			if (!(node instanceof DumpDirectory))
+				return null;
+			// Get child node
+			node = ((DumpDirectory) node).children.get(SVNEncodingUtil.uriDecode(name));
+		}
+		// Return node
+		return node;
+	}
+
+	/**
+	 * Store a file text streamed from the dump.<br/>
+	 * The text is hashed while it is stored, the delta being applied against its base text first if needed.
+	 * 
+	 * @param inputStream
+	 *            The dump stream to read text from.
+	 * @param length
+	 *            The length of text to read.
+	 * @param base
+	 *            The base text to apply delta against (<code>null</code> if the text is not a delta).
+	 * @param path
+	 *            The file path from the repository root.
+	 * @return The stored text.
+	 * @throws IOException
+	 *             Throws exception if the text could not be stored.
+	 * @throws SVNException
+	 *             Throws exception if the text could not be read or the delta applied.
+	 */
+	private Content storeContent(InputStream inputStream, long length, Content base, String path) throws IOException, SVNException {
+		// Check empty text
+		if (length==0)
+			return this.emptyContent;
+		// Create message digest
+		MessageDigest digest;
+		try {
+			digest = this.createDigest();
+		} catch (ChecksumException exception) {
+			throw new SVNException(SVNErrorMessage.create(SVNErrorCode.UNSUPPORTED_FEATURE, exception.getMessage()), exception);
+		}
+		// Get stored text offset
+		long offset = this.contentStore.getSize();
+		// Create output stream with digest decorator
+		try (DigestOutputStream digestOutputStream = new DigestOutputStream(this.contentStore.append(), digest)) {
+			// Check if text is a delta
+			if (base==null) {
+				// Copy full text
+				if (SvnDumpChecksumGenerator.copy(inputStream, digestOutputStream, length)<length)
+					SVNAdminHelper.generateIncompleteDataError();
+			} else {
+				// Apply delta against base text
+				try (InputStream baseInputStream = this.contentStore.read(base)) {
+					SVNDeltaProcessor deltaProcessor = new SVNDeltaProcessor();
+					deltaProcessor.applyTextDelta(baseInputStream, digestOutputStream, false);
+					DeltaConsumer deltaConsumer = new DeltaConsumer(deltaProcessor);
+					// Read each delta window
+					SVNDeltaReader deltaReader = new SVNDeltaReader();
+					byte[] buffer = new byte[SvnDumpChecksumGenerator.BUFFER_SIZE];
+					long remaining = length;
+					while (remaining>0) {
+						int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+						if (read<0)
+							SVNAdminHelper.generateIncompleteDataError();
+						deltaReader.nextWindow(buffer, 0, read, path, deltaConsumer);
+						remaining -= read;
+					}
+					// Apply last delta window
+					deltaReader.reset(path, deltaConsumer);
+					deltaProcessor.textDeltaEnd();
+				}
+			}
+		}
+		// Update streamed byte counter
+		long size = this.contentStore.getSize()-offset;
+		this.streamedByteCounter += size;
+		// Return stored text
+		return new Content(offset, size, digest.digest());
+	}
+
+	/**
+	 * Copy a stream.
+	 * 
+	 * @param inputStream
+	 *            The stream to copy from.
+	 * @param outputStream
+	 *            The stream to copy to.
+	 * @param length
+	 *            The maximum number of bytes to copy.
+	 * @return The number of copied bytes.
+	 * @throws IOException
+	 *             Throws exception if the stream could not be copied.
+	 */
+	private static long copy(InputStream inputStream, OutputStream outputStream, long length) throws IOException {
+		// Copy each buffer up to length
+		byte[] buffer = new byte[SvnDumpChecksumGenerator.BUFFER_SIZE];
+		long copied = 0;
+		while (copied<length) {
+			int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, length-copied));
+			if (read<0)
+				break;
+			outputStream.write(buffer, 0, read);
+			copied += read;
+		}
+		// Return the number of copied bytes
+		return copied;
+	}
+
+	/**
+	 * This class is a load handler building the tree of each dumped revision.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private class DumpLoadHandler implements ISVNLoadHandler {
+		/** The listener to notify computation progress. */
+		private final ChecksumListener listener;
+		/** The revision being loaded (<code>null</code> outside of a revision). */
+		private DumpRevision dumpRevision;
+		/** The number of the revision being loaded. */
+		private long revision;
+		/** The path of the node being loaded. */
+		private String path;
+		/** The node being loaded (<code>null</code> until changed). */
+		private DumpNode node;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param listener
+		 *            The listener to notify computation progress.
+		 */
+		public DumpLoadHandler(ChecksumListener listener) {
+			this.listener = listener;
+		}
+
+		/**
+		 * Get the node being loaded, ready to be changed in the revision being loaded.
+		 * 
+		 * @return The node being loaded.
+		 * @throws SVNException
+		 *             Throws exception if the node could not be found.
+		 */
+		private DumpNode getNode() throws SVNException {
+			// Get changeable node on first change
+			if (this.node==null)
+				this.node = this.getChangeableNode(this.path);
+			// Return node
+			return this.node;
+		}
+
+		/**
+		 * Get a node ready to be changed in the revision being loaded.<br/>
+		 * The node and its parents are copied from the previous revision if they are not yet changed in the revision being loaded.
+		 * 
+		 * @param path
+		 *            The node path from the repository root.
+		 * @return The changeable node.
+		 * @throws SVNException
+		 *             Throws exception if the node could not be found.
+		 */
+		private DumpNode getChangeableNode(String path) throws SVNException {
+			// Get changeable revision root
+			DumpDirectory directory = (DumpDirectory) this.dumpRevision.root.change(this.revision);
+			this.dumpRevision.root = directory;
+			DumpNode node = directory;
+			// Walk from revision root to node
+			for (String name : path.split("/")) {
+				// Skip empty name of root path
+				if (name.isEmpty())
+					continue;
+				// Check node is a directory
+				if (!(node instanceof DumpDirectory))
+					this.fail("Unable to find \""+path+"\" in the Subversion dump stream.");
+				directory = (DumpDirectory) node;
+				// Get changeable child node
+				node = directory.children.get(name);
+				if (node==null)
+					this.fail("Unable to find \""+path+"\" in the Subversion dump stream.");
+				node = node.change(this.revision);
+				directory.children.put(name, node);
+			}
+			// Return changeable node
+			return node;
+		}
+
+		/**
+		 * Get the parent directory of a node, ready to be changed in the revision being loaded.
+		 * 
+		 * @param path
+		 *            The node path from the repository root.
+		 * @return The changeable parent directory.
+		 * @throws SVNException
+		 *             Throws exception if the parent directory could not be found.
+		 */
+		private DumpDirectory getChangeableParent(String path) throws SVNException {
+			// Get parent path
+			int index = path.lastIndexOf('/');
+			DumpNode parent = this.getChangeableNode(index<0 ? "" : path.substring(0, index));
+			// Check parent is a directory
+			if (!(parent instanceof DumpDirectory))
+				this.fail("Unable to find the parent directory of \""+path+"\" in the Subversion dump stream.");
+			// Return changeable parent directory
+			return (DumpDirectory) parent;
+		}
+
+		/**
+		 * Fail loading the dump stream.
+		 * 
+		 * @param message
+		 *            The error message.
+		 * @throws SVNException
+		 *             Throws exception with the error message.
+		 */
+		private void fail(String message) throws SVNException {
+			throw new SVNException(SVNErrorMessage.create(SVNErrorCode.STREAM_MALFORMED_DATA, message));
+		}
+
+		/**
+		 * Normalize a dumped path.
+		 * 
+		 * @param path
+		 *            The dumped path.
+		 * @return The path without leading nor trailing slash.
+		 */
+		private String normalize(String path) {
+			// Remove leading slash
+			while (path.startsWith("/"))
+				path = path.substring(1);
+			// Remove trailing slash
+			while (path.endsWith("/"))
+				path = path.substring(0, path.length()-1);
+			// Return normalized path
+			return path;
+		}
+
+		/*
+		 * Load Handler.
+		 */
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void openRevision(Map headers) throws SVNException {
+			// Get revision number
+			long revision = Long.parseLong((String) headers.get(SVNAdminHelper.DUMPFILE_REVISION_NUMBER));
+			// Stop reading after the requested revision
+			long requestedRevision = SvnDumpChecksumGenerator.this.requestedRevision;
+			if (requestedRevision>=0&&revision>requestedRevision)
+				throw new SVNCancelException();
+			// Get previous revision root
+			List<DumpRevision> revisions = SvnDumpChecksumGenerator.this.revisions;
+			DumpDirectory root = revisions.isEmpty() ? new DumpDirectory(revision) : revisions.get(revisions.size()-1).root;
+			// Add revision, sharing the previous revision root until changed
+			while (revisions.size()<revision)
+				revisions.add(null);
+			if (revisions.size()!=revision)
+				this.fail("Unexpected revision "+revision+" in the Subversion dump stream.");
+			this.dumpRevision = new DumpRevision(root);
+			this.revision = revision;
+			revisions.add(this.dumpRevision);
+			// Notify listener
+			if (requestedRevision>0)
+				this.listener.onProgress((int) (revision*100/requestedRevision));
+		}
+
+		@Override
+		public void setRevisionProperty(String propertyName, SVNPropertyValue propertyValue) throws SVNException {
+			// Save revision author and date for keywords
+			if (SVNRevisionProperty.AUTHOR.equals(propertyName))
+				this.dumpRevision.author = SVNPropertyValue.getPropertyAsString(propertyValue);
+			else if (SVNRevisionProperty.DATE.equals(propertyName))
+				this.dumpRevision.date = SVNPropertyValue.getPropertyAsString(propertyValue);
+		}
+
+		@Override
+		public void closeRevision() throws SVNException {
+			// Clear revision being loaded
+			this.dumpRevision = null;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void openNode(Map headers) throws SVNException {
+			// Get node path and action
+			this.path = this.normalize((String) headers.get(SVNAdminHelper.DUMPFILE_NODE_PATH));
+			this.node = null;
+			String action = (String) headers.get(SVNAdminHelper.DUMPFILE_NODE_ACTION);
+			// Get node name
+			String name = this.path.substring(this.path.lastIndexOf('/')+1);
+			// Delete replaced or deleted node
+			if ("delete".equals(action)||"replace".equals(action)) {
+				if (this.getChangeableParent(this.path).children.remove(name)==null)
+					this.fail("Unable to find \""+this.path+"\" in the Subversion dump stream.");
+			}
+			// Add replaced or added node
+			if ("add".equals(action)||"replace".equals(action)) {
+				// Declare added node
+				DumpNode node;
+				// Check if node is copied
+				String copyFromPath = (String) headers.get(SVNAdminHelper.DUMPFILE_NODE_COPYFROM_PATH);
+				if (copyFromPath!=null) {
+					// Get copied node
+					long copyFromRevision = Long.parseLong((String) headers.get(SVNAdminHelper.DUMPFILE_NODE_COPYFROM_REVISION));
+					node = SvnDumpChecksumGenerator.this.getNode(copyFromRevision, this.normalize(copyFromPath));
+					if (node==null)
+						this.fail("Unable to find the copy source \""+copyFromPath+"@"+copyFromRevision+"\" in the Subversion dump stream.");
+					// Mark copied file as committed in the revision, children of copied directories keeping their committed revision
+					if (node instanceof DumpFile)
+						node = node.change(this.revision);
+				} else if ("dir".equals(headers.get(SVNAdminHelper.DUMPFILE_NODE_KIND))) {
+					// Create directory
+					node = new DumpDirectory(this.revision);
+				} else {
+					// Create empty file
+					node = new DumpFile(this.revision, SvnDumpChecksumGenerator.this.emptyContent);
+				}
+				// Add node to parent directory
+				this.getChangeableParent(this.path).children.put(name, node);
+			}
+		}
+
+		@Override
+		public void removeNodeProperties() throws SVNException {
+			// Clear node properties
+			this.getNode().properties.clear();
+		}
+
+		@Override
+		public void setNodeProperty(String propertyName, SVNPropertyValue propertyValue) throws SVNException {
+			// Set node property
+			this.getNode().properties.put(propertyName, propertyValue);
+		}
+
+		@Override
+		public void deleteNodeProperty(String propertyName) throws SVNException {
+			// Remove node property
+			this.getNode().properties.remove(propertyName);
+		}
+
+		@Override
+		public void applyTextDelta() throws SVNException {
+			// Texts are applied while parsing text blocks
+		}
+
+		@Override
+		public void setFullText() throws SVNException {
+			// Texts are applied while parsing text blocks
+		}
+
+		@Override
+		public void parseTextBlock(InputStream dumpStream, long contentLength, boolean isDelta) throws SVNException {
+			// Check node is a file
+			DumpNode node = this.getNode();
+			if (!(node instanceof DumpFile))
+				this.fail("Unable to set text of directory \""+this.path+"\" in the Subversion dump stream.");
+			DumpFile file = (DumpFile) node;
+			// Store file text
+			try {
+				file.content = SvnDumpChecksumGenerator.this.storeContent(dumpStream, contentLength, isDelta ? file.content : null, "/"+this.path);
+			} catch (IOException exception) {
+				throw new SVNException(SVNErrorMessage.create(SVNErrorCode.IO_ERROR, "Unable to store text of \""+this.path+"\"."), exception);
+			}
+		}
+
+		@Override
+		public void closeNode() throws SVNException {
+			// Clear node being loaded
+			this.path = null;
+			this.node = null;
+		}
+
+		@Override
+		public void parseUUID(String uuid) throws SVNException {
+			// Repository UUID is not needed to compute checksums
+		}
+	}
+
+	/**
+	 * This class is a delta consumer applying delta windows with a delta processor.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private static class DeltaConsumer implements ISVNDeltaConsumer {
+		/** The delta processor to apply windows with. */
+		private final SVNDeltaProcessor deltaProcessor;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param deltaProcessor
+		 *            The delta processor to apply windows with.
+		 */
+		public DeltaConsumer(SVNDeltaProcessor deltaProcessor) {
+			this.deltaProcessor = deltaProcessor;
+		}
+
+		/*
+		 * Delta Consumer.
+		 */
+
+		@Override
+		public void applyTextDelta(String path, String baseChecksum) throws SVNException {
+			// Delta processor is already applying text delta
+		}
+
+		@Override
+		public OutputStream textDeltaChunk(String path, SVNDiffWindow diffWindow) throws SVNException {
+			return this.deltaProcessor.textDeltaChunk(diffWindow);
+		}
+
+		@Override
+		public void textDeltaEnd(String path) throws SVNException {
+			// Delta processor is ended once the whole delta is read
+		}
+	}
+
+	/**
+	 * This class represents a dumped revision.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private static class DumpRevision {
+		/** The revision root directory. */
+		private DumpDirectory root;
+		/** The revision author (<code>null</code> if the revision has no author). */
+		private String author;
+		/** The revision date (<code>null</code> if the revision has no date). */
+		private String date;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param root
+		 *            The revision root directory.
+		 */
+		public DumpRevision(DumpDirectory root) {
+			this.root = root;
+		}
+	}
+
+	/**
+	 * This class represents a node of a dumped revision tree.<br/>
+	 * A node is shared by the trees of the following revisions until it is changed, a changed node being a copy of the previous one.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private abstract static class DumpNode {
+		/** The revision the node was last changed. */
+		protected final long revision;
+		/** The node properties. */
+		protected final SVNProperties properties;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param revision
+		 *            The revision the node was last changed.
+		 * @param properties
+		 *            The node properties.
+		 */
+		public DumpNode(long revision, SVNProperties properties) {
+			this.revision = revision;
+			this.properties = properties;
+		}
+
+		/**
+		 * Get the node to change in a revision.
+		 * 
+		 * @param revision
+		 *            The revision to change the node in.
+		 * @return The node itself if already changed in the revision, a copy of the node otherwise.
+		 */
+		public DumpNode change(long revision) {
+			return this.revision==revision ? this : this.copy(revision);
+		}
+
+		/**
+		 * Copy the node.
+		 * 
+		 * @param revision
+		 *            The revision the copy is changed in.
+		 * @return The node copy.
+		 */
+		protected abstract DumpNode copy(long revision);
+	}
+
+	/**
+	 * This class represents a directory node of a dumped revision tree.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private static class DumpDirectory extends DumpNode {
+		/** The child nodes, by name. */
+		private final Map<String, DumpNode> children;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param revision
+		 *            The revision the directory was last changed.
+		 */
+		public DumpDirectory(long revision) {
+			super(revision, new SVNProperties());
+			this.children = new HashMap<>();
+		}
+
+		/**
+		 * Copy constructor.
+		 * 
+		 * @param revision
+		 *            The revision the copy is changed in.
+		 * @param directory
+		 *            The directory to copy.
+		 */
+		private DumpDirectory(long revision, DumpDirectory directory) {
+			super(revision, new SVNProperties(directory.properties));
+			this.children = new HashMap<>(directory.children);
+		}
+
+		@Override
+		protected DumpNode copy(long revision) {
+			return new DumpDirectory(revision, this);
+		}
+	}
+
+	/**
+	 * This class represents a file node of a dumped revision tree.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private static class DumpFile extends DumpNode {
+		/** The file text. */
+		private Content content;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param revision
+		 *            The revision the file was last changed.
+		 * @param content
+		 *            The file text.
+		 */
+		public DumpFile(long revision, Content content) {
+			super(revision, new SVNProperties());
+			this.content = content;
+		}
+
+		/**
+		 * Copy constructor.
+		 * 
+		 * @param revision
+		 *            The revision the copy is changed in.
+		 * @param file
+		 *            The file to copy.
+		 */
+		private DumpFile(long revision, DumpFile file) {
+			super(revision, new SVNProperties(file.properties));
+			this.content = file.content;
+		}
+
+		@Override
+		protected DumpNode copy(long revision) {
+			return new DumpFile(revision, this);
+		}
+	}
+
+	/**
+	 * This class represents a file text stored in the content store.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private static class Content {
+		/** The text offset in the content store. */
+		private final long offset;
+		/** The text size in bytes. */
+		private final long size;
+		/** The text checksum. */
+		private final byte[] checksum;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param offset
+		 *            The text offset in the content store.
+		 * @param size
+		 *            The text size in bytes.
+		 * @param checksum
+		 *            The text checksum.
+		 */
+		public Content(long offset, long size, byte[] checksum) {
+			this.offset = offset;
+			this.size = size;
+			this.checksum = checksum;
+		}
+	}
+
+	/**
+	 * This class is a store of file texts, appended to a temporary file deleted once closed.
+	 * 
+	 * @author Bruce BUJON
+	 * 
+	 */
+	private static class ContentStore implements Closeable {
+		/** The temporary file channel. */
+		private final FileChannel channel;
+		/** The stored byte count. */
+		private long size;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param directory
+		 *            The directory of the temporary file (<code>null</code> for the default temporary directory).
+		 * @throws IOException
+		 *             Throws exception if the temporary file could not be created.
+		 */
+		public ContentStore(Path directory) throws IOException {
+			// Create temporary file
+			Path path = directory==null ? Files.createTempFile("dump", ".tmp") : Files.createTempFile(directory, "dump", ".tmp");
+			// Open temporary file, deleting it once closed
+			this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+		}
+
+		/**
+		 * Get the stored byte count.
+		 * 
+		 * @return The stored byte count, which is the offset of the next appended text.
+		 */
+		public long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Get an output stream to append a text.
+		 * 
+		 * @return The output stream to append a text, which must be closed before reading the store.
+		 */
+		public OutputStream append() {
+			return new BufferedOutputStream(new OutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					this.write(new byte[] { (byte) b }, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					// Write bytes at the end of the store
+					ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+					while (buffer.hasRemaining()) {
+						ContentStore.this.size += ContentStore.this.channel.write(buffer, ContentStore.this.size);
+					}
+				}
+			}, SvnDumpChecksumGenerator.BUFFER_SIZE);
+		}
+
+		/**
+		 * Get an input stream to read a stored text.
+		 * 
+		 * @param content
+		 *            The stored text to read.
+		 * @return The input stream to read the stored text.
+		 */
+		public InputStream read(final Content content) {
+			return new BufferedInputStream(new InputStream() {
+				/** The position of the next byte to read. */
+				private long position = content.offset;
+
+				@Override
+				public int read() throws IOException {
+					byte[] b = new byte[1];
+					return this.read(b, 0, 1)<0 ? -1 : b[0]&0xff;
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					// Check end of text
+					long remaining = content.offset+content.size-this.position;
+					if (remaining<=0)
+						return -1;
+					// Read bytes from the store
+					int read = ContentStore.this.channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), this.position);
+					if (read>0)
+						this.position += read;
+					return read;
+				}
+			}, SvnDumpChecksumGenerator.BUFFER_SIZE);
+		}
+
+		/*
+		 * Closeable.
+		 */
+
+		@Override
+		public void close() throws IOException {
+			this.channel.close();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,265 @@
+package fr.hardcoding.software.sourcechecksum.generator;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.diff.SVNDiffWindow;
+
+import fr.hardcoding.software.sourcechecksum.resource.svn.SvnDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.svn.SvnFile;
+
+/**
+ * This class is a Subversion editor building the resource tree of a directory.<br/>
+ * It is driven by a depth infinity report against an empty working copy, so the whole directory tree is received from a single streamed response.
+ * Externals definitions are collected to be processed once the report ends.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnListingEditor implements ISVNEditor {
+	/** The root directory to build. */
+	private final SvnDirectory rootDirectory;
+	/** The file counter to update. */
+	private final AtomicInteger fileCounter;
+	/** The list of path matcher to check for ignoring resource. */
+	private final PathMatcher[] ignoreMatchers;
+	/** The directories being edited, from the current directory to the root one. */
+	private final Deque<SvnDirectory> directories;
+	/** The depth of ignored directories being edited (<code>0</code> if the current directory is not ignored). */
+	private int ignoredDepth;
+	/** The file being edited (<code>null</code> if no file is edited or the file is ignored). */
+	private SvnFile file;
+	/** The externals definitions of edited directories. */
+	private final Map<SvnDirectory, String> externals;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param rootDirectory
+	 *            The root directory to build.
+	 * @param fileCounter
+	 *            The file counter to update.
+	 * @param ignoreMatchers
+	 *            The list of path matcher to check for ignoring resource.
+	 */
+	public SvnListingEditor(SvnDirectory rootDirectory, AtomicInteger fileCounter, PathMatcher[] ignoreMatchers) {
+		this.rootDirectory = rootDirectory;
+		this.fileCounter = fileCounter;
+		this.ignoreMatchers = ignoreMatchers;
+		this.directories = new ArrayDeque<>();
+		this.ignoredDepth = 0;
+		this.externals = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Get the externals definitions of edited directories.
+	 * 
+	 * @return The externals definitions by directory.
+	 */
+	public Map<SvnDirectory, String> getExternals() {
+		return this.externals;
+	}
+
+	/**
+	 * Get the file being edited.
+	 * 
+	 * @return The file being edited (<code>null</code> if no file is edited or the file is ignored).
+	 */
+	protected SvnFile getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Check if a resource is ignored.
+	 * 
+	 * @param path
+	 *            The edited resource path.
+	 * @return <code>true</code> if the resource is ignored, <code>false</code> otherwise.
+	 */
+	private boolean isIgnored(String path) {
+		// Get working copy related path
+		Path workingCopyPath = Paths.get(this.directories.peek().getWorkingCopyPath(), SvnListingEditor.getName(path));
+		// Check each path matcher
+		for (PathMatcher matcher : this.ignoreMatchers) {
+			// Check if path matcher matches
+			if (matcher.matches(workingCopyPath))
+				return true;
+		}
+		// Resource is not ignored
+		return false;
+	}
+
+	/**
+	 * Get resource name from edited path.
+	 * 
+	 * @param path
+	 *            The edited resource path.
+	 * @return The resource name.
+	 */
+	private static String getName(String path) {
+		return path.substring(path.lastIndexOf('/')+1);
+	}
+
+	/*
+	 * Subversion editor.
+	 */
+
+	@Override
+	public void targetRevision(long revision) {
+		// Nothing to do
+	}
+
+	@Override
+	public void openRoot(long revision) {
+		// Edit root directory
+		this.directories.push(this.rootDirectory);
+	}
+
+	@Override
+	public void deleteEntry(String path, long revision) {
+		// Nothing to do as the report starts from an empty working copy
+	}
+
+	@Override
+	public void absentDir(String path) {
+		// Nothing to do as the directory could not be read
+	}
+
+	@Override
+	public void absentFile(String path) {
+		// Nothing to do as the file could not be read
+	}
+
+	@Override
+	public void addDir(String path, String copyFromPath, long copyFromRevision) {
+		// Check if directory is ignored
+		if (this.ignoredDepth>0||this.isIgnored(path)) {
+			// Increase ignored depth
+			this.ignoredDepth++;
+			return;
+		}
+		// Create Subversion directory
+		SvnDirectory directory = new SvnDirectory(SvnListingEditor.getName(path));
+		// Add child Subversion directory
+		this.directories.peek().addChild(directory);
+		// Edit directory
+		this.directories.push(directory);
+	}
+
+	@Override
+	public void openDir(String path, long revision) {
+		// Handle as a directory addition
+		this.addDir(path, null, -1);
+	}
+
+	@Override
+	public void changeDirProperty(String name, SVNPropertyValue value) {
+		// Check if directory is ignored
+		if (this.ignoredDepth>0)
+			return;
+		// Check externals property
+		if (SVNProperty.EXTERNALS.equals(name)&&value!=null)
+			// Save directory externals definition
+			this.externals.put(this.directories.peek(), SVNPropertyValue.getPropertyAsString(value));
+	}
+
+	@Override
+	public void closeDir() {
+		// Check if directory is ignored
+		if (this.ignoredDepth>0) {
+			// Decrease ignored depth
+			this.ignoredDepth--;
+			return;
+		}
+		// End directory edition
+		this.directories.pop();
+	}
+
+	@Override
+	public void addFile(String path, String copyFromPath, long copyFromRevision) throws SVNException {
+		// Check if file is ignored
+		if (this.ignoredDepth>0||this.isIgnored(path)) {
+			// Mark file as ignored
+			this.file = null;
+			return;
+		}
+		// Create Subversion file
+		this.file = new SvnFile(SvnListingEditor.getName(path));
+		// Mark file without properties until a property is received
+		this.file.setProperties(false);
+		// Add child Subversion file
+		this.directories.peek().addChild(this.file);
+		// Update file counter
+		this.fileCounter.incrementAndGet();
+	}
+
+	@Override
+	public void openFile(String path, long revision) throws SVNException {
+		// Handle as a file addition
+		this.addFile(path, null, -1);
+	}
+
+	@Override
+	public void changeFileProperty(String path, String propertyName, SVNPropertyValue propertyValue) throws SVNException {
+		// Check if file is edited
+		if (this.file==null)
+			return;
+		// Check if a regular property is received
+		if (SVNProperty.isRegularProperty(propertyName))
+			// Mark file as having properties
+			this.file.setProperties(true);
+		// Check if committed revision is received
+		else if (SVNProperty.COMMITTED_REVISION.equals(propertyName)&&propertyValue!=null)
+			// Set file committed revision
+			this.file.setCommittedRevision(Long.parseLong(SVNPropertyValue.getPropertyAsString(propertyValue)));
+	}
+
+	@Override
+	public void closeFile(String path, String textChecksum) throws SVNException {
+		// End file edition
+		this.file = null;
+	}
+
+	@Override
+	public SVNCommitInfo closeEdit() {
+		// Nothing to commit
+		return null;
+	}
+
+	@Override
+	public void abortEdit() {
+		// Nothing to do
+	}
+
+	/*
+	 * Delta consumer.
+	 */
+
+	@Override
+	public void applyTextDelta(String path, String baseChecksum) throws SVNException {
+		// Nothing to do as file contents are not listed
+	}
+
+	@Override
+	public OutputStream textDeltaChunk(String path, SVNDiffWindow diffWindow) throws SVNException {
+		// Ignore delta as file contents are not listed
+		return null;
+	}
+
+	@Override
+	public void textDeltaEnd(String path) throws SVNException {
+		// Nothing to do as file contents are not listed
+	}
+}
\ No newline at end of file
@@ -0,0 +1,323 @@
+package fr.hardcoding.software.sourcechecksum.generator;
+
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.wc.SVNFileUtil;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.ISVNReporter;
+import org.tmatesoft.svn.core.io.ISVNReporterBaton;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.diff.SVNDiffWindow;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
+
+/**
+ * This class restricts the checksum computation of two Subversion locations of the same repository to their differences.<br/>
+ * A server-side diff reports the added, deleted and modified paths between both locations without sending file contents. Each generator then
+ * only hashes the files under these paths, other files being left without checksum on both sides so they are not reported as different.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnServerDiff {
+	/** The checksum generator of the left location. */
+	private final SvnChecksumGenerator leftGenerator;
+	/** The checksum generator of the right location. */
+	private final SvnChecksumGenerator rightGenerator;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param leftGenerator
+	 *            The checksum generator of the left location.
+	 * @param rightGenerator
+	 *            The checksum generator of the right location.
+	 * @throws ChecksumException
+	 *             Throws exception if the locations are not from the same repository.
+	 */
+	public SvnServerDiff(SvnChecksumGenerator leftGenerator, SvnChecksumGenerator rightGenerator) throws ChecksumException {
+		// Check both generators share the same session pool
+		if (leftGenerator.getSessionPool()!=rightGenerator.getSessionPool())
+			throw new ChecksumException("Server-side diff is only available for locations of the same repository.");
+		// Save generators
+		this.leftGenerator = leftGenerator;
+		this.rightGenerator = rightGenerator;
+	}
+
+	/**
+	 * Prepare both generators to only hash the differences between their locations.<br/>
+	 * The revisions of both locations are pinned so the checksums are computed at the diffed revisions.
+	 * 
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @throws ChecksumException
+	 *             Throws exception if the differences could not be get.
+	 */
+	public void prepare(ChecksumListener listener) throws ChecksumException {
+		// Get session pool and repository root URL
+		SvnSessionPool sessionPool = this.leftGenerator.getSessionPool();
+		SVNURL rootUrl = sessionPool.getRepositoryRoot();
+		// Get location paths
+		String leftPath = this.leftGenerator.getRootPath();
+		String rightPath = this.rightGenerator.getRootPath();
+		// Create diff editor
+		SvnDiffEditor editor = new SvnDiffEditor();
+		// Declare location revisions
+		long leftRevision = this.leftGenerator.getRequestedRevision();
+		long rightRevision = this.rightGenerator.getRequestedRevision();
+		// Acquire Subversion session
+		SVNRepository repository = sessionPool.acquire();
+		try {
+			// Pin HEAD revision for locations without requested revision
+			if (leftRevision<0||rightRevision<0) {
+				long headRevision = repository.getLatestRevision();
+				if (leftRevision<0)
+					leftRevision = headRevision;
+				if (rightRevision<0)
+					rightRevision = headRevision;
+			}
+			// Move session to left location
+			repository.setLocation(rootUrl.appendPath(leftPath, false), false);
+			// Create full working copy report of left location
+			final long reportedRevision = leftRevision;
+			ISVNReporterBaton reporterBaton = new ISVNReporterBaton() {
+				@Override
+				public void report(ISVNReporter reporter) throws SVNException {
+					reporter.setPath("", null, reportedRevision, SVNDepth.INFINITY, false);
+					reporter.finishReport();
+				}
+			};
+			// Diff left location against right location, comparing contents regardless of ancestry and without getting them
+			repository.diff(rootUrl.appendPath(rightPath, false), rightRevision, leftRevision, null, true, SVNDepth.INFINITY, false, reporterBaton,
+					editor);
+		} catch (SVNException exception) {
+			// Evict Subversion session as it may be broken
+			sessionPool.invalidate(repository);
+			throw new ChecksumException("Unable to diff Subversion locations \""+leftPath+"\" and \""+rightPath+"\".", exception);
+		}
+		// Release Subversion session
+		sessionPool.release(repository);
+		// Notify listener
+		listener.onDebug(editor.getDeletedPaths().size()+" deleted, "+editor.getAddedPaths().size()+" added and "+editor.getModifiedPaths().size()
+				+" modified paths found by server-side diff.");
+		// Pin generator revisions
+		this.leftGenerator.setRevision(leftRevision);
+		this.rightGenerator.setRevision(rightRevision);
+		// Restrict left generator to deleted and modified paths
+		Set<String> leftChangedPaths = new HashSet<>();
+		SvnServerDiff.addPaths(leftChangedPaths, leftPath, editor.getDeletedPaths());
+		SvnServerDiff.addPaths(leftChangedPaths, leftPath, editor.getModifiedPaths());
+		this.leftGenerator.setChangedPaths(leftChangedPaths);
+		// Restrict right generator to added and modified paths
+		Set<String> rightChangedPaths = new HashSet<>();
+		SvnServerDiff.addPaths(rightChangedPaths, rightPath, editor.getAddedPaths());
+		SvnServerDiff.addPaths(rightChangedPaths, rightPath, editor.getModifiedPaths());
+		this.rightGenerator.setChangedPaths(rightChangedPaths);
+	}
+
+	/**
+	 * Add diffed paths as repository paths.
+	 * 
+	 * @param paths
+	 *            The repository paths to add to.
+	 * @param rootPath
+	 *            The repository path of the diffed location.
+	 * @param diffedPaths
+	 *            The diffed paths, relative to the location, to add.
+	 */
+	private static void addPaths(Set<String> paths, String rootPath, Set<String> diffedPaths) {
+		for (String diffedPath : diffedPaths) {
+			paths.add(rootPath+"/"+diffedPath);
+		}
+	}
+
+	/**
+	 * This class is a Subversion editor collecting the changed paths of a diff.<br/>
+	 * As file contents are not requested, a modified file content is only notified by an empty text delta.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	static class SvnDiffEditor implements ISVNEditor {
+		/** The deleted paths. */
+		private final Set<String> deletedPaths;
+		/** The added paths. */
+		private final Set<String> addedPaths;
+		/** The modified file paths. */
+		private final Set<String> modifiedPaths;
+		/** The depth of added directories being edited (<code>0</code> if the current directory is not added). */
+		private int addedDepth;
+		/** The path of the opened file (<code>null</code> if no file is opened). */
+		private String openedPath;
+		/** The opened file modification status (<code>true</code> if its content or a regular property changed, <code>false</code> otherwise). */
+		private boolean modified;
+
+		/**
+		 * Constructor.
+		 */
+		public SvnDiffEditor() {
+			this.deletedPaths = new HashSet<>();
+			this.addedPaths = new HashSet<>();
+			this.modifiedPaths = new HashSet<>();
+			this.addedDepth = 0;
+		}
+
+		/**
+		 * Get the deleted paths.
+		 * 
+		 * @return The deleted paths, relative to the diffed location.
+		 */
+		public Set<String> getDeletedPaths() {
+			return this.deletedPaths;
+		}
+
+		/**
+		 * Get the added paths.
+		 * 
+		 * @return The added paths, relative to the diffed location.
+		 */
+		public Set<String> getAddedPaths() {
+			return this.addedPaths;
+		}
+
+		/**
+		 * Get the modified file paths.
+		 * 
+		 * @return The modified file paths, relative to the diffed location.
+		 */
+		public Set<String> getModifiedPaths() {
+			return this.modifiedPaths;
+		}
+
+		/*
+		 * Subversion editor.
+		 */
+
+		@Override
+		public void targetRevision(long revision) {
+			// Nothing to do
+		}
+
+		@Override
+		public void openRoot(long revision) {
+			// Nothing to do
+		}
+
+		@Override
+		public void deleteEntry(String path, long revision) {
+			// Save deleted path
+			this.deletedPaths.add(path);
+		}
+
+		@Override
+		public void absentDir(String path) {
+			// Nothing to do as the directory could not be read
+		}
+
+		@Override
+		public void absentFile(String path) {
+			// Nothing to do as the file could not be read
+		}
+
+		@Override
+		public void addDir(String path, String copyFromPath, long copyFromRevision) {
+			// Save added path unless its parent directory is added
+			if (this.addedDepth==0)
+				this.addedPaths.add(path);
+			// Increase added depth
+			this.addedDepth++;
+		}
+
+		@Override
+		public void openDir(String path, long revision) {
+			// Nothing to do as directory changes are notified by its children
+		}
+
+		@Override
+		public void changeDirProperty(String name, SVNPropertyValue value) {
+			// Nothing to do as directory properties are not hashed
+		}
+
+		@Override
+		public void closeDir() {
+			// Decrease added depth
+			if (this.addedDepth>0)
+				this.addedDepth--;
+		}
+
+		@Override
+		public void addFile(String path, String copyFromPath, long copyFromRevision) {
+			// Save added path unless its parent directory is added
+			if (this.addedDepth==0)
+				this.addedPaths.add(path);
+		}
+
+		@Override
+		public void openFile(String path, long revision) {
+			// Open file as not modified until a change is received
+			this.openedPath = path;
+			this.modified = false;
+		}
+
+		@Override
+		public void changeFileProperty(String path, String propertyName, SVNPropertyValue propertyValue) {
+			// Check if a regular property of the opened file changed
+			if (this.openedPath!=null&&SVNProperty.isRegularProperty(propertyName))
+				// Mark file as modified as its keywords may have changed
+				this.modified = true;
+		}
+
+		@Override
+		public void closeFile(String path, String textChecksum) {
+			// Save opened file path if modified
+			if (this.openedPath!=null&&this.modified)
+				this.modifiedPaths.add(this.openedPath);
+			// End file edition
+			this.openedPath = null;
+		}
+
+		@Override
+		public SVNCommitInfo closeEdit() {
+			// Nothing to commit
+			return null;
+		}
+
+		@Override
+		public void abortEdit() {
+			// Nothing to do
+		}
+
+		/*
+		 * Delta consumer.
+		 */
+
+		@Override
+		public void applyTextDelta(String path, String baseChecksum) {
+			// Check if a file is opened
+			if (this.openedPath!=null)
+				// Mark file as modified as its content changed
+				this.modified = true;
+		}
+
+		@Override
+		public OutputStream textDeltaChunk(String path, SVNDiffWindow diffWindow) {
+			// Ignore delta as file contents are not requested
+			return SVNFileUtil.DUMMY_OUT;
+		}
+
+		@Override
+		public void textDeltaEnd(String path) {
+			// Nothing to do as file contents are not requested
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,524 @@
+package fr.hardcoding.software.sourcechecksum.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.tmatesoft.sqljet.core.SqlJetException;
+import org.tmatesoft.sqljet.core.table.ISqlJetCursor;
+import org.tmatesoft.sqljet.core.table.ISqlJetTransaction;
+import org.tmatesoft.sqljet.core.table.SqlJetDb;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.ISVNReporter;
+import org.tmatesoft.svn.core.io.ISVNReporterBaton;
+import org.tmatesoft.svn.core.io.SVNRepository;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.generator.SvnServerDiff.SvnDiffEditor;
+import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
+
+/**
+ * This class restricts the checksum computation of a Subversion working copy and a Subversion location to their differences.<br/>
+ * The working copy database records the revision, the pristine SHA-1 checksum, the size and the modification time of each node. A working
+ * file with its recorded size and modification time (or with its pristine checksum) is not locally modified, and a server-side diff from the
+ * recorded revisions reports the out-of-date paths. Only locally modified files and out-of-date paths are then hashed, other files being left
+ * without checksum on both sides so they are not reported as different.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnWorkingCopyDiff {
+	/** The path comparator, ordering parent paths before their children. */
+	private static final Comparator<String> PATH_COMPARATOR = new Comparator<String>() {
+		@Override
+		public int compare(String path1, String path2) {
+			return path1.replace('/', '\0').compareTo(path2.replace('/', '\0'));
+		}
+	};
+	/** The checksum generator of the working copy. */
+	private final FsChecksumGenerator leftGenerator;
+	/** The checksum generator of the Subversion location. */
+	private final SvnChecksumGenerator rightGenerator;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param leftGenerator
+	 *            The checksum generator of the working copy (must be the root of the working copy).
+	 * @param rightGenerator
+	 *            The checksum generator of the Subversion location.
+	 */
+	public SvnWorkingCopyDiff(FsChecksumGenerator leftGenerator, SvnChecksumGenerator rightGenerator) {
+		this.leftGenerator = leftGenerator;
+		this.rightGenerator = rightGenerator;
+	}
+
+	/**
+	 * Prepare both generators to only hash the differences between the working copy and the Subversion location.<br/>
+	 * The revision of the Subversion location is pinned so the checksums are computed at the diffed revision.
+	 * 
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 * @throws ChecksumException
+	 *             Throws exception if the working copy could not be read or the differences could not be get.
+	 */
+	public void prepare(ChecksumListener listener) throws ChecksumException {
+		/*
+		 * Read working copy database.
+		 */
+		// Get working copy database
+		Path workingCopyPath = this.leftGenerator.getPath();
+		Path databasePath = workingCopyPath.resolve(".svn").resolve("wc.db");
+		if (!Files.isRegularFile(databasePath))
+			throw new ChecksumException("The path \""+workingCopyPath+"\" is not the root of a Subversion working copy.");
+		// Read working copy nodes
+		WorkingCopyReader reader = new WorkingCopyReader();
+		try {
+			SqlJetDb database = SqlJetDb.open(databasePath.toFile(), false);
+			try {
+				database.runReadTransaction(reader);
+			} finally {
+				database.close();
+			}
+		} catch (SqlJetException exception) {
+			throw new ChecksumException("Unable to read Subversion working copy database \""+databasePath+"\".", exception);
+		}
+		Map<String, Node> nodes = reader.getNodes();
+		Node rootNode = nodes.get("");
+		if (rootNode==null)
+			throw new ChecksumException("Unable to find the root of Subversion working copy \""+workingCopyPath+"\".");
+		// Check working copy repository
+		SvnSessionPool sessionPool = this.rightGenerator.getSessionPool();
+		if (!sessionPool.getRepositoryUuid().equals(reader.getRepositoryUuid()))
+			throw new ChecksumException("Working copy diff is only available for a location of the working copy repository.");
+		/*
+		 * Find locally modified paths.
+		 */
+		// Collect paths changed in working copy
+		Set<String> localPaths = new HashSet<>(reader.getWorkingPaths());
+		// Collect unchanged file paths
+		Set<String> unchangedPaths = new HashSet<>();
+		for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+			// Check node is a file without location dependent content nor local change
+			String relativePath = entry.getKey();
+			Node node = entry.getValue();
+			if (!node.isPresent()||!node.isFile()||node.isExternal()||node.hasProperties()||localPaths.contains(relativePath))
+				continue;
+			// Check working file modification
+			if (this.isModified(workingCopyPath.resolve(relativePath), node))
+				localPaths.add(relativePath);
+			else
+				unchangedPaths.add(relativePath);
+		}
+		/*
+		 * Find out-of-date paths.
+		 */
+		// Get target revision
+		long targetRevision = this.rightGenerator.getRequestedRevision();
+		// Get repository root URL and location paths
+		SVNURL rootUrl = sessionPool.getRepositoryRoot();
+		String rightPath = this.rightGenerator.getRootPath();
+		String workingCopyRepositoryPath = "/"+rootNode.getRepositoryPath();
+		// Create diff editor
+		SvnDiffEditor editor = new SvnDiffEditor();
+		// Acquire Subversion session
+		SVNRepository repository = sessionPool.acquire();
+		try {
+			// Pin HEAD revision if no revision is requested
+			if (targetRevision<0)
+				targetRevision = repository.getLatestRevision();
+			// Move session to working copy location
+			repository.setLocation(rootUrl.appendPath(workingCopyRepositoryPath, false), false);
+			// Diff working copy recorded revisions against location, comparing contents regardless of ancestry and without getting them
+			repository.diff(rootUrl.appendPath(rightPath, false), targetRevision, rootNode.getRevision(), null, true, SVNDepth.INFINITY, false,
+					new WorkingCopyReporterBaton(nodes), editor);
+		} catch (SVNException exception) {
+			// Evict Subversion session as it may be broken
+			sessionPool.invalidate(repository);
+			throw new ChecksumException("Unable to diff Subversion working copy \""+workingCopyPath+"\" and location \""+rightPath+"\".", exception);
+		}
+		// Release Subversion session
+		sessionPool.release(repository);
+		// Collect out-of-date paths
+		Set<String> outOfDatePaths = new HashSet<>();
+		outOfDatePaths.addAll(editor.getDeletedPaths());
+		outOfDatePaths.addAll(editor.getAddedPaths());
+		outOfDatePaths.addAll(editor.getModifiedPaths());
+		// Notify listener
+		listener.onDebug(localPaths.size()+" locally modified and "+outOfDatePaths.size()+" out-of-date paths found in working copy.");
+		/*
+		 * Restrict generators.
+		 */
+		// Pin location revision
+		this.rightGenerator.setRevision(targetRevision);
+		// Restrict working copy generator to files neither locally modified nor out-of-date
+		Set<String> leftUnchangedPaths = new HashSet<>();
+		for (String unchangedPath : unchangedPaths) {
+			if (!SvnWorkingCopyDiff.isUnder(unchangedPath, outOfDatePaths))
+				leftUnchangedPaths.add(unchangedPath);
+		}
+		this.leftGenerator.setUnchangedPaths(leftUnchangedPaths);
+		// Restrict location generator to locally modified and out-of-date paths
+		Set<String> rightChangedPaths = new HashSet<>();
+		for (String localPath : localPaths) {
+			rightChangedPaths.add(rightPath+"/"+localPath);
+		}
+		for (String outOfDatePath : outOfDatePaths) {
+			rightChangedPaths.add(rightPath+"/"+outOfDatePath);
+		}
+		this.rightGenerator.setChangedPaths(rightChangedPaths);
+	}
+
+	/**
+	 * Check whether a working file is modified from its pristine content.<br/>
+	 * A file with the recorded size and modification time is not modified. Otherwise, a file with the recorded size is compared to its
+	 * pristine checksum, so a file only touched does not need to be fetched from the repository.
+	 * 
+	 * @param file
+	 *            The working file to check.
+	 * @param node
+	 *            The working copy node of the file.
+	 * @return <code>true</code> if the working file is missing or modified, <code>false</code> otherwise.
+	 * @throws ChecksumException
+	 *             Throws exception if the working file could not be read.
+	 */
+	private boolean isModified(Path file, Node node) throws ChecksumException {
+		// Check if file is missing
+		if (!Files.isRegularFile(file))
+			return true;
+		try {
+			// Check file size
+			if (Files.size(file)!=node.getSize())
+				return true;
+			// Check file modification time
+			if (Files.getLastModifiedTime(file).to(TimeUnit.MICROSECONDS)==node.getModificationTime())
+				return false;
+			// Check pristine checksum availability
+			if (node.getChecksum()==null)
+				return true;
+			// Compute file SHA-1 checksum
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			try (InputStream inputStream = Files.newInputStream(file)) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = inputStream.read(buffer))!=-1) {
+					digest.update(buffer, 0, read);
+				}
+			}
+			StringBuilder stringBuilder = new StringBuilder();
+			for (byte b : digest.digest()) {
+				stringBuilder.append(String.format("%02x", b));
+			}
+			// Compare to pristine checksum
+			return !stringBuilder.toString().equals(node.getChecksum());
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to read working file \""+file+"\".", exception);
+		} catch (NoSuchAlgorithmException exception) {
+			throw new ChecksumException("Unable to compute \"SHA-1\" checksum.", exception);
+		}
+	}
+
+	/**
+	 * Check whether a path is at or under one of paths.
+	 * 
+	 * @param path
+	 *            The relative path to check.
+	 * @param paths
+	 *            The relative paths to check against.
+	 * @return <code>true</code> if the path or one of its parents is in the paths, <code>false</code> otherwise.
+	 */
+	private static boolean isUnder(String path, Set<String> paths) {
+		// Check path then each parent path
+		while (!path.isEmpty()) {
+			if (paths.contains(path))
+				return true;
+			int index = path.lastIndexOf('/');
+			path = index<0 ? "" : path.substring(0, index);
+		}
+		// Check root path
+		return paths.contains(path);
+	}
+
+	/**
+	 * This class is a working copy node, as recorded in the base layer of the working copy database.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class Node {
+		/** The node repository path, relative to repository root. */
+		private final String repositoryPath;
+		/** The node revision. */
+		private final long revision;
+		/** The node presence (<code>normal</code>, <code>not-present</code>, <code>excluded</code>, etc). */
+		private final String presence;
+		/** The node kind (<code>file</code>, <code>dir</code>, etc). */
+		private final String kind;
+		/** The node depth (<code>null</code> if not a directory). */
+		private final String depth;
+		/** The node properties status (<code>true</code> if the node has properties, <code>false</code> otherwise). */
+		private final boolean properties;
+		/** The file external status (<code>true</code> if the node is a file external, <code>false</code> otherwise). */
+		private final boolean external;
+		/** The pristine SHA-1 checksum (<code>null</code> if not a file). */
+		private final String checksum;
+		/** The recorded working file size (<code>-1</code> if not recorded). */
+		private final long size;
+		/** The recorded working file modification time, in microseconds (<code>-1</code> if not recorded). */
+		private final long modificationTime;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param cursor
+		 *            The cursor on the node row of the working copy database.
+		 * @throws SqlJetException
+		 *             Throws exception if the node row could not be read.
+		 */
+		public Node(ISqlJetCursor cursor) throws SqlJetException {
+			this.repositoryPath = cursor.getString("repos_path");
+			this.revision = cursor.getInteger("revision");
+			this.presence = cursor.getString("presence");
+			this.kind = cursor.getString("kind");
+			this.depth = cursor.getString("depth");
+			byte[] properties = cursor.isNull("properties") ? null : cursor.getBlobAsArray("properties");
+			this.properties = properties!=null&&properties.length>2;
+			this.external = !cursor.isNull("file_external");
+			String checksum = cursor.getString("checksum");
+			this.checksum = checksum!=null&&checksum.startsWith("$sha1$") ? checksum.substring(6) : null;
+			this.size = cursor.isNull("translated_size") ? -1 : cursor.getInteger("translated_size");
+			this.modificationTime = cursor.isNull("last_mod_time") ? -1 : cursor.getInteger("last_mod_time");
+		}
+
+		/**
+		 * Get the node repository path.
+		 * 
+		 * @return The node repository path, relative to repository root.
+		 */
+		public String getRepositoryPath() {
+			return this.repositoryPath;
+		}
+
+		/**
+		 * Get the node revision.
+		 * 
+		 * @return The node revision.
+		 */
+		public long getRevision() {
+			return this.revision;
+		}
+
+		/**
+		 * Check whether the node is present in the working copy.
+		 * 
+		 * @return <code>true</code> if the node is present, <code>false</code> if it is not present or excluded.
+		 */
+		public boolean isPresent() {
+			return "normal".equals(this.presence)||"incomplete".equals(this.presence);
+		}
+
+		/**
+		 * Check whether the node is a file.
+		 * 
+		 * @return <code>true</code> if the node is a file, <code>false</code> otherwise.
+		 */
+		public boolean isFile() {
+			return "file".equals(this.kind);
+		}
+
+		/**
+		 * Get the node depth to report.
+		 * 
+		 * @return The node depth.
+		 */
+		public SVNDepth getDepth() {
+			return this.depth==null ? SVNDepth.INFINITY : SVNDepth.fromString(this.depth);
+		}
+
+		/**
+		 * Check whether the node has properties.
+		 * 
+		 * @return <code>true</code> if the node has properties, <code>false</code> otherwise.
+		 */
+		public boolean hasProperties() {
+			return this.properties;
+		}
+
+		/**
+		 * Check whether the node is a file external.
+		 * 
+		 * @return <code>true</code> if the node is a file external, <code>false</code> otherwise.
+		 */
+		public boolean isExternal() {
+			return this.external;
+		}
+
+		/**
+		 * Get the pristine SHA-1 checksum.
+		 * 
+		 * @return The pristine checksum as hexadecimal string (<code>null</code> if not a file).
+		 */
+		public String getChecksum() {
+			return this.checksum;
+		}
+
+		/**
+		 * Get the recorded working file size.
+		 * 
+		 * @return The recorded size (<code>-1</code> if not recorded).
+		 */
+		public long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Get the recorded working file modification time.
+		 * 
+		 * @return The recorded modification time, in microseconds (<code>-1</code> if not recorded).
+		 */
+		public long getModificationTime() {
+			return this.modificationTime;
+		}
+	}
+
+	/**
+	 * This class is a transaction reading the nodes of a working copy database.<br/>
+	 * Base nodes (at operation depth <code>0</code>) are the nodes checked out from the repository, nodes at higher operation depth are local
+	 * additions, deletions, copies or moves.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class WorkingCopyReader implements ISqlJetTransaction {
+		/** The base nodes, by relative path. */
+		private final Map<String, Node> nodes;
+		/** The relative paths of nodes changed in working copy. */
+		private final Set<String> workingPaths;
+		/** The working copy repository UUID. */
+		private String repositoryUuid;
+
+		/**
+		 * Constructor.
+		 */
+		public WorkingCopyReader() {
+			this.nodes = new TreeMap<>(SvnWorkingCopyDiff.PATH_COMPARATOR);
+			this.workingPaths = new HashSet<>();
+		}
+
+		/**
+		 * Get the base nodes.
+		 * 
+		 * @return The base nodes, by relative path, parents being before their children.
+		 */
+		public Map<String, Node> getNodes() {
+			return this.nodes;
+		}
+
+		/**
+		 * Get the relative paths of nodes changed in working copy.
+		 * 
+		 * @return The relative paths of changed nodes.
+		 */
+		public Set<String> getWorkingPaths() {
+			return this.workingPaths;
+		}
+
+		/**
+		 * Get the working copy repository UUID.
+		 * 
+		 * @return The repository UUID (<code>null</code> if not found).
+		 */
+		public String getRepositoryUuid() {
+			return this.repositoryUuid;
+		}
+
+		@Override
+		public Object run(SqlJetDb database) throws SqlJetException {
+			// Read each node
+			ISqlJetCursor cursor = database.getTable("NODES").open();
+			try {
+				while (!cursor.eof()) {
+					// Check node operation depth
+					String relativePath = cursor.getString("local_relpath");
+					if (cursor.getInteger("op_depth")==0)
+						this.nodes.put(relativePath, new Node(cursor));
+					else
+						this.workingPaths.add(relativePath);
+					cursor.next();
+				}
+			} finally {
+				cursor.close();
+			}
+			// Read repository UUID
+			cursor = database.getTable("REPOSITORY").open();
+			try {
+				if (!cursor.eof())
+					this.repositoryUuid = cursor.getString("uuid");
+			} finally {
+				cursor.close();
+			}
+			// Return nothing
+			return null;
+		}
+	}
+
+	/**
+	 * This class is a reporter baton describing the recorded revision of each working copy node.<br/>
+	 * Only nodes whose revision differs from their parent one and nodes not present are reported, as for a mixed revisions working copy.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class WorkingCopyReporterBaton implements ISVNReporterBaton {
+		/** The base nodes, by relative path, parents being before their children. */
+		private final Map<String, Node> nodes;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param nodes
+		 *            The base nodes, by relative path, parents being before their children.
+		 */
+		public WorkingCopyReporterBaton(Map<String, Node> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public void report(ISVNReporter reporter) throws SVNException {
+			// Report root node
+			Node rootNode = this.nodes.get("");
+			reporter.setPath("", null, rootNode.getRevision(), rootNode.getDepth(), false);
+			// Report each other node
+			for (Map.Entry<String, Node> entry : this.nodes.entrySet()) {
+				String relativePath = entry.getKey();
+				Node node = entry.getValue();
+				if (relativePath.isEmpty())
+					continue;
+				// Check node presence
+				if (!node.isPresent()) {
+					reporter.deletePath(relativePath);
+					continue;
+				}
+				// Check node revision against parent one
+				int index = relativePath.lastIndexOf('/');
+				Node parentNode = this.nodes.get(index<0 ? "" : relativePath.substring(0, index));
+				if (parentNode==null||parentNode.getRevision()!=node.getRevision()||!node.isFile()&&node.getDepth()!=SVNDepth.INFINITY)
+					reporter.setPath(relativePath, null, node.getRevision(), node.getDepth(), false);
+			}
+			// Finish report
+			reporter.finishReport();
+		}
+	}
+}
\ No newline at end of file
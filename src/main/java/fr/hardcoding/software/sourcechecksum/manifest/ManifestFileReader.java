@@ -0,0 +1,280 @@
+package fr.hardcoding.software.sourcechecksum.manifest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
+import fr.hardcoding.software.sourcechecksum.resource.manifest.ManifestDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.manifest.ManifestFile;
+
+/**
+ * This class is a reader of manifest file written in list mode.<br>
+ * Each line holds a checksum and a path separated by a tabulation. Directory lines (with a trailing slash path) are read as directories, allowing to
+ * skip their content without parsing it. Directory lines could end with the byte length of the directory content, separated by a tabulation, so
+ * the content is skipped by moving in the file without reading it.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ManifestFileReader implements ManifestReader {
+	/** The read buffer size (in bytes). */
+	private static final int BUFFER_SIZE = 64*1024;
+	/** The manifest file path. */
+	private final Path manifestPath;
+	/** The manifest file channel. */
+	private final FileChannel channel;
+	/** The read buffer. */
+	private final byte[] buffer;
+	/** The position of the next byte to read in the buffer. */
+	private int bufferPosition;
+	/** The number of bytes available in the buffer. */
+	private int bufferLimit;
+	/** The bytes of the line being read. */
+	private byte[] lineBytes;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param manifestPath
+	 *            The manifest file path.
+	 * @throws ChecksumException
+	 *             Throws exception if the manifest could not be opened.
+	 */
+	public ManifestFileReader(Path manifestPath) throws ChecksumException {
+		this.manifestPath = manifestPath;
+		try {
+			this.channel = FileChannel.open(manifestPath, StandardOpenOption.READ);
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to read manifest \""+manifestPath+"\".", exception);
+		}
+		this.buffer = new byte[ManifestFileReader.BUFFER_SIZE];
+		this.bufferPosition = 0;
+		this.bufferLimit = 0;
+		this.lineBytes = new byte[256];
+	}
+
+	/**
+	 * Parse a manifest line.
+	 * 
+	 * @param line
+	 *            The line to parse.
+	 * @return The parsed resource (<code>null</code> if line is <code>null</code>).
+	 * @throws ChecksumException
+	 *             Throws exception if the line is not valid.
+	 */
+	private AbstractResource parseLine(String line) throws ChecksumException {
+		// Check end of manifest
+		if (line==null)
+			return null;
+		// Split checksum and path
+		int separatorIndex = line.indexOf('\t');
+		if (separatorIndex==-1)
+			throw new ChecksumException("Invalid line in manifest \""+this.manifestPath+"\": "+line);
+		byte[] checksum = this.parseChecksum(line, separatorIndex);
+		String path = line.substring(separatorIndex+1);
+		// Check directory content length
+		int lengthIndex = path.lastIndexOf('\t');
+		if (lengthIndex>0&&path.charAt(lengthIndex-1)=='/') {
+			long contentLength;
+			try {
+				contentLength = Long.parseLong(path.substring(lengthIndex+1));
+			} catch (NumberFormatException exception) {
+				throw new ChecksumException("Invalid directory length in manifest \""+this.manifestPath+"\": "+line, exception);
+			}
+			if (contentLength<0)
+				throw new ChecksumException("Invalid directory length in manifest \""+this.manifestPath+"\": "+line);
+			return new ManifestDirectory(path.substring(0, lengthIndex-1), checksum, contentLength);
+		}
+		// Create resource
+		if (path.endsWith("/"))
+			return new ManifestDirectory(path.substring(0, path.length()-1), checksum);
+		else
+			return new ManifestFile(path, checksum);
+	}
+
+	/**
+	 * Fill the read buffer if fully read.
+	 * 
+	 * @return <code>true</code> if bytes are available in the buffer, <code>false</code> if the end of the manifest is reached.
+	 * @throws IOException
+	 *             Throws exception if the manifest could not be read.
+	 */
+	private boolean fillBuffer() throws IOException {
+		// Check remaining bytes
+		if (this.bufferPosition<this.bufferLimit)
+			return true;
+		// Read next bytes
+		int read = this.channel.read(ByteBuffer.wrap(this.buffer));
+		this.bufferPosition = 0;
+		this.bufferLimit = Math.max(read, 0);
+		return read>0;
+	}
+
+	/**
+	 * Read the next line.
+	 * 
+	 * @return The next line without its line separator (<code>null</code> if the end of the manifest is reached).
+	 * @throws IOException
+	 *             Throws exception if the manifest could not be read.
+	 */
+	private String readLine() throws IOException {
+		// Declare line length
+		int length = 0;
+		// Read bytes until end of line
+		while (this.fillBuffer()) {
+			// Look for end of line in buffer
+			int end = this.bufferPosition;
+			while (end<this.bufferLimit&&this.buffer[end]!='\n')
+				end++;
+			// Append line bytes
+			int count = end-this.bufferPosition;
+			if (length+count>this.lineBytes.length)
+				this.lineBytes = Arrays.copyOf(this.lineBytes, Math.max(length+count, this.lineBytes.length*2));
+			System.arraycopy(this.buffer, this.bufferPosition, this.lineBytes, length, count);
+			length += count;
+			// Check end of line
+			if (end<this.bufferLimit) {
+				this.bufferPosition = end+1;
+				return this.decodeLine(length);
+			}
+			this.bufferPosition = end;
+		}
+		// Return last line without line separator
+		return length==0 ? null : this.decodeLine(length);
+	}
+
+	/**
+	 * Decode the bytes of the line being read.
+	 * 
+	 * @param length
+	 *            The number of line bytes.
+	 * @return The decoded line, without carriage return.
+	 */
+	private String decodeLine(int length) {
+		// Remove carriage return
+		if (length>0&&this.lineBytes[length-1]=='\r')
+			length--;
+		// Decode line
+		return new String(this.lineBytes, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Move forward in the manifest without reading.
+	 * 
+	 * @param length
+	 *            The number of bytes to move forward.
+	 * @throws IOException
+	 *             Throws exception if the manifest position could not be changed.
+	 */
+	private void moveForward(long length) throws IOException {
+		// Check if position is in buffer
+		int remaining = this.bufferLimit-this.bufferPosition;
+		if (length<=remaining) {
+			this.bufferPosition += length;
+			return;
+		}
+		// Move in file and clear buffer
+		this.channel.position(this.channel.position()+length-remaining);
+		this.bufferPosition = 0;
+		this.bufferLimit = 0;
+	}
+
+	/**
+	 * Parse a checksum.
+	 * 
+	 * @param line
+	 *            The line to parse checksum from.
+	 * @param length
+	 *            The length of the checksum representation.
+	 * @return The parsed checksum.
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum is not valid.
+	 */
+	private byte[] parseChecksum(String line, int length) throws ChecksumException {
+		// Check checksum representation length
+		if (length%2!=0)
+			throw new ChecksumException("Invalid checksum in manifest \""+this.manifestPath+"\": "+line);
+		// Parse each byte
+		byte[] checksum = new byte[length/2];
+		for (int i = 0; i<checksum.length; i++) {
+			int high = Character.digit(line.charAt(i*2), 16);
+			int low = Character.digit(line.charAt(i*2+1), 16);
+			if (high==-1||low==-1)
+				throw new ChecksumException("Invalid checksum in manifest \""+this.manifestPath+"\": "+line);
+			checksum[i] = (byte) (high<<4|low);
+		}
+		// Return parsed checksum
+		return checksum;
+	}
+
+	/*
+	 * Manifest reader.
+	 */
+
+	@Override
+	public AbstractResource read() throws ChecksumException {
+		// Read next line
+		String line;
+		try {
+			line = this.readLine();
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to read manifest \""+this.manifestPath+"\".", exception);
+		}
+		// Parse line
+		return this.parseLine(line);
+	}
+
+	@Override
+	public AbstractResource skip(AbstractDirectory directory) throws ChecksumException {
+		// Compute directory content prefix
+		String prefix = directory.getPath()+"/";
+		try {
+			// Check root directory
+			if (directory.getPath().indexOf('/')==-1)
+				// Skip the whole manifest
+				return null;
+			// Check directory content length
+			long contentLength = directory instanceof ManifestDirectory ? ((ManifestDirectory) directory).getContentLength() : -1;
+			if (contentLength<0) {
+				// Skip lines of directory content without parsing them
+				String line;
+				while ((line = this.readLine())!=null) {
+					int separatorIndex = line.indexOf('\t');
+					if (separatorIndex==-1||!line.startsWith(prefix, separatorIndex+1))
+						break;
+				}
+				// Parse the first line after the directory content
+				return this.parseLine(line);
+			}
+			// Move to the end of directory content
+			if (contentLength>0) {
+				this.moveForward(contentLength-1);
+				if (!this.fillBuffer()||this.buffer[this.bufferPosition++]!='\n')
+					throw new ChecksumException("Invalid directory length in manifest \""+this.manifestPath+"\" for \""+directory.getPath()+"/\".");
+			}
+			// Parse the first line after the directory content
+			AbstractResource resource = this.parseLine(this.readLine());
+			if (resource!=null&&resource.getPath().startsWith(prefix))
+				throw new ChecksumException("Invalid directory length in manifest \""+this.manifestPath+"\" for \""+directory.getPath()+"/\".");
+			return resource;
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to read manifest \""+this.manifestPath+"\".", exception);
+		}
+	}
+
+	@Override
+	public void close() throws ChecksumException {
+		try {
+			this.channel.close();
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to close manifest \""+this.manifestPath+"\".", exception);
+		}
+	}
+}
\ No newline at end of file
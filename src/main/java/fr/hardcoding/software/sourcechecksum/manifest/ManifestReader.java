@@ -0,0 +1,38 @@
+package fr.hardcoding.software.sourcechecksum.manifest;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
+
+/**
+ * This interface represents a reader of manifest resources sorted by path.<br>
+ * Resources are sorted using the {@link fr.hardcoding.software.sourcechecksum.ChecksumTool#compareResourcePath(AbstractResource, AbstractResource)}
+ * order.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public interface ManifestReader extends AutoCloseable {
+	/**
+	 * Read the next resource.
+	 * 
+	 * @return The next resource (<code>null</code> if no resource left).
+	 * @throws ChecksumException
+	 *             Throws exception if the resource could not be read.
+	 */
+	public AbstractResource read() throws ChecksumException;
+
+	/**
+	 * Skip the content of a directory.
+	 * 
+	 * @param directory
+	 *            The directory previously read to skip the content.
+	 * @return The next resource after the directory content (<code>null</code> if no resource left).
+	 * @throws ChecksumException
+	 *             Throws exception if the resources could not be read.
+	 */
+	public AbstractResource skip(AbstractDirectory directory) throws ChecksumException;
+
+	@Override
+	public void close() throws ChecksumException;
+}
\ No newline at end of file
@@ -0,0 +1,329 @@
+package fr.hardcoding.software.sourcechecksum.manifest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.ChecksumTool;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
+import fr.hardcoding.software.sourcechecksum.resource.manifest.ManifestDirectory;
+import fr.hardcoding.software.sourcechecksum.resource.manifest.ManifestFile;
+
+/**
+ * This class sorts manifest resources by path within a memory budget.<br>
+ * Resources are buffered in memory and spilled as sorted runs to temporary files when the budget is exceeded. The runs are then merged while
+ * reading.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ManifestSorter implements AutoCloseable {
+	/** The resource path comparator. */
+	private static final Comparator<AbstractResource> PATH_COMPARATOR = new Comparator<AbstractResource>() {
+		@Override
+		public int compare(AbstractResource resource1, AbstractResource resource2) {
+			return ChecksumTool.compareResourcePath(resource1, resource2);
+		}
+	};
+	/** The estimated memory overhead of a buffered resource (in bytes). */
+	private static final int RESOURCE_OVERHEAD = 96;
+	/** The temporary directory to store sorted runs. */
+	private final Path temporaryDirectory;
+	/** The memory budget for buffered resources (in bytes). */
+	private final long memoryBudget;
+	/** The buffered resources. */
+	private final List<AbstractResource> resources;
+	/** The estimated memory used by buffered resources (in bytes). */
+	private long memoryUsage;
+	/** The sorted run files. */
+	private final List<Path> runFiles;
+	/** The opened run readers. */
+	private final List<RunReader> runReaders;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param temporaryDirectory
+	 *            The temporary directory to store sorted runs.
+	 * @param memoryBudget
+	 *            The memory budget for buffered resources (in bytes).
+	 */
+	public ManifestSorter(Path temporaryDirectory, long memoryBudget) {
+		this.temporaryDirectory = temporaryDirectory;
+		this.memoryBudget = memoryBudget;
+		this.resources = new ArrayList<>();
+		this.memoryUsage = 0;
+		this.runFiles = new ArrayList<>();
+		this.runReaders = new ArrayList<>();
+	}
+
+	/**
+	 * Add a resource to sort.
+	 * 
+	 * @param resource
+	 *            The resource to add.
+	 * @throws ChecksumException
+	 *             Throws exception if the resource could not be spilled to a sorted run.
+	 */
+	public synchronized void add(AbstractResource resource) throws ChecksumException {
+		// Buffer resource
+		this.resources.add(resource);
+		this.memoryUsage += ManifestSorter.RESOURCE_OVERHEAD+resource.getPath().length()*2;
+		// Check memory budget
+		if (this.memoryUsage>this.memoryBudget)
+			this.spill();
+	}
+
+	/**
+	 * Get the number of sorted runs spilled to temporary files.
+	 * 
+	 * @return The number of sorted runs.
+	 */
+	public synchronized int getRunCount() {
+		return this.runFiles.size();
+	}
+
+	/**
+	 * Get a reader of the sorted resources.<br>
+	 * No resource should be added once the reader is created.
+	 * 
+	 * @return The reader of sorted resources.
+	 * @throws ChecksumException
+	 *             Throws exception if the sorted runs could not be read.
+	 */
+	public synchronized ManifestReader sort() throws ChecksumException {
+		// Check if resources fit in memory
+		if (this.runFiles.isEmpty()) {
+			// Sort resources in memory
+			Collections.sort(this.resources, ManifestSorter.PATH_COMPARATOR);
+			final Iterator<AbstractResource> iterator = this.resources.iterator();
+			return new ManifestReader() {
+				@Override
+				public AbstractResource read() {
+					return iterator.hasNext() ? iterator.next() : null;
+				}
+
+				@Override
+				public AbstractResource skip(AbstractDirectory directory) throws ChecksumException {
+					return ManifestSorter.skip(this, directory);
+				}
+
+				@Override
+				public void close() {
+					// Nothing to close
+				}
+			};
+		}
+		// Spill remaining resources
+		if (!this.resources.isEmpty())
+			this.spill();
+		// Open each run
+		final PriorityQueue<RunReader> queue = new PriorityQueue<>(this.runFiles.size(), new Comparator<RunReader>() {
+			@Override
+			public int compare(RunReader reader1, RunReader reader2) {
+				return ChecksumTool.compareResourcePath(reader1.current, reader2.current);
+			}
+		});
+		for (Path runFile : this.runFiles) {
+			RunReader runReader = new RunReader(runFile);
+			this.runReaders.add(runReader);
+			if (runReader.next())
+				queue.add(runReader);
+		}
+		// Merge runs
+		return new ManifestReader() {
+			@Override
+			public AbstractResource read() throws ChecksumException {
+				// Get run reader with the first resource
+				RunReader runReader = queue.poll();
+				if (runReader==null)
+					return null;
+				// Take its resource and move to its next one
+				AbstractResource resource = runReader.current;
+				if (runReader.next())
+					queue.add(runReader);
+				return resource;
+			}
+
+			@Override
+			public AbstractResource skip(AbstractDirectory directory) throws ChecksumException {
+				return ManifestSorter.skip(this, directory);
+			}
+
+			@Override
+			public void close() throws ChecksumException {
+				ManifestSorter.this.close();
+			}
+		};
+	}
+
+	/**
+	 * Skip the content of a directory by reading resources.
+	 * 
+	 * @param reader
+	 *            The reader to skip directory content.
+	 * @param directory
+	 *            The directory previously read to skip the content.
+	 * @return The next resource after the directory content (<code>null</code> if no resource left).
+	 * @throws ChecksumException
+	 *             Throws exception if the resources could not be read.
+	 */
+	private static AbstractResource skip(ManifestReader reader, AbstractDirectory directory) throws ChecksumException {
+		// Compute directory content prefix
+		String prefix = directory.getPath()+"/";
+		// Read resources until out of the directory
+		AbstractResource resource;
+		do {
+			resource = reader.read();
+		} while (resource!=null&&resource.getPath().startsWith(prefix));
+		// Return next resource
+		return resource;
+	}
+
+	/**
+	 * Spill buffered resources as a sorted run.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the sorted run could not be written.
+	 */
+	private void spill() throws ChecksumException {
+		// Sort buffered resources
+		Collections.sort(this.resources, ManifestSorter.PATH_COMPARATOR);
+		try {
+			// Create run file
+			Path runFile = Files.createTempFile(this.temporaryDirectory, "manifest", ".run");
+			this.runFiles.add(runFile);
+			// Write each resource
+			try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(runFile)))) {
+				for (AbstractResource resource : this.resources) {
+					// Get resource checksum
+					boolean directory = resource instanceof AbstractDirectory;
+					byte[] checksum = directory ? ((AbstractDirectory) resource).getChecksum() : ((AbstractFile) resource).getChecksum();
+					// Write resource, its path being length prefixed as it could exceed modified UTF-8 limit
+					outputStream.writeBoolean(directory);
+					byte[] pathBytes = resource.getPath().getBytes(StandardCharsets.UTF_8);
+					outputStream.writeInt(pathBytes.length);
+					outputStream.write(pathBytes);
+					outputStream.writeShort(checksum==null ? -1 : checksum.length);
+					if (checksum!=null)
+						outputStream.write(checksum);
+				}
+			}
+		} catch (IOException exception) {
+			throw new ChecksumException("Unable to write sorted run.", exception);
+		}
+		// Clear buffered resources
+		this.resources.clear();
+		this.memoryUsage = 0;
+	}
+
+	/*
+	 * Auto closeable.
+	 */
+
+	@Override
+	public synchronized void close() throws ChecksumException {
+		// Declare first close failure
+		IOException failure = null;
+		// Close run readers
+		for (RunReader runReader : this.runReaders) {
+			try {
+				runReader.inputStream.close();
+			} catch (IOException exception) {
+				failure = exception;
+			}
+		}
+		this.runReaders.clear();
+		// Delete run files
+		for (Path runFile : this.runFiles) {
+			try {
+				Files.deleteIfExists(runFile);
+			} catch (IOException exception) {
+				failure = exception;
+			}
+		}
+		this.runFiles.clear();
+		// Check failure
+		if (failure!=null)
+			throw new ChecksumException("Unable to delete sorted runs.", failure);
+	}
+
+	/**
+	 * This class is a reader of a sorted run.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class RunReader {
+		/** The run input stream. */
+		private final DataInputStream inputStream;
+		/** The current resource (<code>null</code> if run is fully read). */
+		private AbstractResource current;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param runFile
+		 *            The run file to read.
+		 * @throws ChecksumException
+		 *             Throws exception if the run could not be opened.
+		 */
+		public RunReader(Path runFile) throws ChecksumException {
+			try {
+				this.inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile)));
+			} catch (IOException exception) {
+				throw new ChecksumException("Unable to read sorted run.", exception);
+			}
+		}
+
+		/**
+		 * Read the next resource of the run.
+		 * 
+		 * @return <code>true</code> if a resource was read, <code>false</code> if the run is fully read.
+		 * @throws ChecksumException
+		 *             Throws exception if the run could not be read.
+		 */
+		public boolean next() throws ChecksumException {
+			try {
+				// Read resource type
+				boolean directory;
+				try {
+					directory = this.inputStream.readBoolean();
+				} catch (EOFException exception) {
+					this.current = null;
+					return false;
+				}
+				// Read resource path and checksum
+				byte[] pathBytes = new byte[this.inputStream.readInt()];
+				this.inputStream.readFully(pathBytes);
+				String path = new String(pathBytes, StandardCharsets.UTF_8);
+				short checksumLength = this.inputStream.readShort();
+				byte[] checksum = null;
+				if (checksumLength>=0) {
+					checksum = new byte[checksumLength];
+					this.inputStream.readFully(checksum);
+				}
+				// Create resource
+				this.current = directory ? new ManifestDirectory(path, checksum) : new ManifestFile(path, checksum);
+				return true;
+			} catch (IOException exception) {
+				throw new ChecksumException("Unable to read sorted run.", exception);
+			}
+		}
+	}
+}
\ No newline at end of file
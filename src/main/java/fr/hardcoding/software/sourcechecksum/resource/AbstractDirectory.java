@@ -1,14 +1,21 @@
 package fr.hardcoding.software.sourcechecksum.resource;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
 import fr.hardcoding.software.sourcechecksum.ChecksumTool;
+import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
 
 /**
- * This class represents an abstract directory.
+ * This class represents an abstract directory.<br/>
+ * Children could be added concurrently by the tasks building the tree. A task should buffer the children it creates then publish them at
+ * once with {@link #addChildren(List)}, so the directory is only locked once. Children should only be read once the tree is built.
  * 
  * @author Bruce BUJON
  * 
@@ -21,8 +28,16 @@ public abstract class AbstractDirectory extends AbstractResource {
 			return ChecksumTool.compareResource(resource1, resource2);
 		}
 	};
+	/**
+	 * The directory checksum algorithm.<br>
+	 * Directory checksums prune whole subtrees in diff and match moved directories, so they always use a collision resistant algorithm
+	 * whatever the file checksum algorithm.
+	 */
+	public static final ChecksumAlgorithm CHECKSUM_ALGORITHM = ChecksumAlgorithm.SHA256;
 	/** The resource children. */
 	protected final List<AbstractResource> children;
+	/** The directory checksum (<code>null</code> until computed or if a child checksum is missing). */
+	private byte[] checksum;
 
 	/**
 	 * Constructor.
@@ -41,13 +56,41 @@ public abstract class AbstractDirectory extends AbstractResource {
 	 * @param resource
 	 *            The child resource to add.
 	 */
-	public void addChild(AbstractResource resource) {
+	public synchronized void addChild(AbstractResource resource) {
 		// Set resource parent
 		resource.parent = this;
 		// Add resource to children
 		this.children.add(resource);
 	}
 
+	/**
+	 * Add child resources at once.
+	 * 
+	 * @param resources
+	 *            The child resources to add.
+	 */
+	public synchronized void addChildren(List<? extends AbstractResource> resources) {
+		// Set each resource parent
+		for (AbstractResource resource : resources) {
+			resource.parent = this;
+		}
+		// Add resources to children
+		this.children.addAll(resources);
+	}
+
+	/**
+	 * Remove a child resource.
+	 * 
+	 * @param resource
+	 *            The child resource to remove.
+	 */
+	public synchronized void removeChild(AbstractResource resource) {
+		// Remove resource from children
+		if (this.children.remove(resource))
+			// Clear resource parent
+			resource.parent = null;
+	}
+
 	/**
 	 * Get the resource children.
 	 * 
@@ -72,6 +115,82 @@ public abstract class AbstractDirectory extends AbstractResource {
 		}
 	}
 	
+	/**
+	 * Get the directory checksum.
+	 * 
+	 * @return The directory checksum (<code>null</code> until computed or if a child checksum is missing).
+	 */
+	public byte[] getChecksum() {
+		return this.checksum;
+	}
+
+	/**
+	 * Set the directory checksum.
+	 * 
+	 * @param checksum
+	 *            The directory checksum to set.
+	 */
+	public void setChecksum(byte[] checksum) {
+		this.checksum = checksum;
+	}
+
+	/**
+	 * Recursively compute the directory checksums.<br>
+	 * The checksum of a directory is computed from the names and the checksums of its children, so two directories with the same checksum have the
+	 * same content. The directory must be sorted (calling {@link #sort()}) and its file checksums computed before. Directory checksums are
+	 * always computed with the {@link #CHECKSUM_ALGORITHM}. A file known unchanged is digested by its name only, as the compared directory has
+	 * the same unchanged file.
+	 * 
+	 * @return The directory checksum (<code>null</code> if a child checksum is missing).
+	 * @throws ChecksumException
+	 *             Throws exception if the checksum could not be computed.
+	 */
+	public byte[] computeChecksum() throws ChecksumException {
+		// Create message digest
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(AbstractDirectory.CHECKSUM_ALGORITHM.getName());
+		} catch (NoSuchAlgorithmException exception) {
+			throw new ChecksumException("Unable to compute \""+AbstractDirectory.CHECKSUM_ALGORITHM+"\" checksum.", exception);
+		}
+		// Declare missing child checksum status
+		boolean missingChecksum = false;
+		// Digest each child
+		for (AbstractResource child : this.children) {
+			// Get child checksum
+			byte[] childChecksum;
+			byte childType;
+			if (child instanceof AbstractDirectory) {
+				// Recursively compute child directory checksum
+				childChecksum = ((AbstractDirectory) child).computeChecksum();
+				childType = 'd';
+			} else {
+				AbstractFile file = (AbstractFile) child;
+				childChecksum = file.getChecksum();
+				childType = 'f';
+				// Check if file is known unchanged
+				if (childChecksum==null&&file.isUnchanged()) {
+					childChecksum = new byte[0];
+					childType = 'u';
+				}
+			}
+			// Check child checksum
+			if (childChecksum==null) {
+				missingChecksum = true;
+				continue;
+			}
+			// Digest child type, name and checksum
+			digest.update(childType);
+			digest.update(child.getName().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(childChecksum);
+		}
+		// Save directory checksum
+		this.checksum = missingChecksum ? null : digest.digest();
+		// Return directory checksum
+		return this.checksum;
+	}
+
 	@Override
 	public String toString() {
 		return "Directory "+this.getName();
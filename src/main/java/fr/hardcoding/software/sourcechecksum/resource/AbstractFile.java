@@ -9,6 +9,8 @@ package fr.hardcoding.software.sourcechecksum.resource;
 public abstract class AbstractFile extends AbstractResource {
 	/** The resource checksum. */
 	private byte[] checksum;
+	/** The unchanged status (<code>true</code> if the file is known identical to the compared file, <code>false</code> otherwise). */
+	private boolean unchanged;
 
 	/**
 	 * Constructor.
@@ -39,6 +41,25 @@ public abstract class AbstractFile extends AbstractResource {
 		this.checksum = checksum;
 	}
 
+	/**
+	 * Check whether the file is known identical to the compared file and left without checksum.
+	 * 
+	 * @return <code>true</code> if the file is known unchanged, <code>false</code> otherwise.
+	 */
+	public boolean isUnchanged() {
+		return this.unchanged;
+	}
+
+	/**
+	 * Set whether the file is known identical to the compared file and left without checksum.
+	 * 
+	 * @param unchanged
+	 *            <code>true</code> if the file is known unchanged, <code>false</code> otherwise.
+	 */
+	public void setUnchanged(boolean unchanged) {
+		this.unchanged = unchanged;
+	}
+
 	@Override
 	public String toString() {
 		return "File "+this.getName();
@@ -0,0 +1,54 @@
+package fr.hardcoding.software.sourcechecksum.resource.manifest;
+
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+
+/**
+ * This class represents a directory read from a checksum manifest.<br>
+ * A manifest directory is not attached to a parent directory and only knows its path.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ManifestDirectory extends AbstractDirectory {
+	/** The byte length of the directory content in the manifest (<code>-1</code> if unknown). */
+	private final long contentLength;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param path
+	 *            The directory path (slash separated, starting with the root directory name).
+	 * @param checksum
+	 *            The directory checksum (may be <code>null</code> if unknown).
+	 */
+	public ManifestDirectory(String path, byte[] checksum) {
+		this(path, checksum, -1);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param path
+	 *            The directory path (slash separated, starting with the root directory name).
+	 * @param checksum
+	 *            The directory checksum (may be <code>null</code> if unknown).
+	 * @param contentLength
+	 *            The byte length of the directory content in the manifest (<code>-1</code> if unknown).
+	 */
+	public ManifestDirectory(String path, byte[] checksum, long contentLength) {
+		super(path.substring(path.lastIndexOf('/')+1));
+		// Save directory path, checksum and content length
+		this.setPath(path);
+		this.setChecksum(checksum);
+		this.contentLength = contentLength;
+	}
+
+	/**
+	 * Get the byte length of the directory content in the manifest.
+	 * 
+	 * @return The byte length of the lines following the directory line up to the end of its content (<code>-1</code> if unknown).
+	 */
+	public long getContentLength() {
+		return this.contentLength;
+	}
+}
\ No newline at end of file
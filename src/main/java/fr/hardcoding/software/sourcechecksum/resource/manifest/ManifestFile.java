@@ -0,0 +1,27 @@
+package fr.hardcoding.software.sourcechecksum.resource.manifest;
+
+import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
+
+/**
+ * This class represents a file read from a checksum manifest.<br>
+ * A manifest file is not attached to a parent directory and only knows its path.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ManifestFile extends AbstractFile {
+	/**
+	 * Constructor.
+	 * 
+	 * @param path
+	 *            The file path (slash separated, starting with the root directory name).
+	 * @param checksum
+	 *            The file checksum.
+	 */
+	public ManifestFile(String path, byte[] checksum) {
+		super(path.substring(path.lastIndexOf('/')+1));
+		// Save file path and checksum
+		this.setPath(path);
+		this.setChecksum(checksum);
+	}
+}
\ No newline at end of file
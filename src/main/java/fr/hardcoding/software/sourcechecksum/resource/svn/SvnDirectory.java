@@ -12,6 +12,8 @@ import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
 public class SvnDirectory extends AbstractDirectory implements SvnResource {
 	/** The Subversion resource attributes. */
 	private SvnResourceAttributes attributes;
+	/** The directory committed revision (<code>-1</code> if the committed revision is unknown). */
+	private long committedRevision;
 
 	/**
 	 * Constructor.
@@ -23,6 +25,27 @@ public class SvnDirectory extends AbstractDirectory implements SvnResource {
 		super(name);
 		// Create Subversion resource attributes
 		this.attributes = new SvnResourceAttributes();
+		// Mark committed revision as unknown
+		this.committedRevision = -1;
+	}
+
+	/**
+	 * Get the directory committed revision.
+	 * 
+	 * @return The revision the directory content was last committed (<code>-1</code> if the committed revision is unknown).
+	 */
+	public long getCommittedRevision() {
+		return this.committedRevision;
+	}
+
+	/**
+	 * Set the directory committed revision.
+	 * 
+	 * @param committedRevision
+	 *            The revision the directory content was last committed (<code>-1</code> if the committed revision is unknown).
+	 */
+	public void setCommittedRevision(long committedRevision) {
+		this.committedRevision = committedRevision;
 	}
 
 	/**
@@ -36,7 +59,7 @@ public class SvnDirectory extends AbstractDirectory implements SvnResource {
 		super.addChild(resource);
 		// Set resource revision
 		if (resource instanceof SvnResource&&this.getRevision()!=-1&&((SvnResource) resource).getRevision()==-1)
-			((SvnDirectory) resource).setRevision(this.getRevision());
+			((SvnResource) resource).setRevision(this.getRevision());
 	}
 
 	/*
@@ -11,6 +11,12 @@ import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
 public class SvnFile extends AbstractFile implements SvnResource {
 	/** The Subversion resource attributes. */
 	private SvnResourceAttributes attributes;
+	/** The file size in bytes (<code>-1</code> if the size is unknown). */
+	private long size;
+	/** The file committed revision (<code>-1</code> if the committed revision is unknown). */
+	private long committedRevision;
+	/** The file properties status (<code>true</code> if the file may have properties, <code>false</code> if it has none). */
+	private boolean properties;
 
 	/**
 	 * Constructor.
@@ -22,6 +28,69 @@ public class SvnFile extends AbstractFile implements SvnResource {
 		super(name);
 		// Create Subversion resource attributes
 		this.attributes = new SvnResourceAttributes();
+		// Mark size as unknown
+		this.size = -1;
+		// Mark committed revision as unknown
+		this.committedRevision = -1;
+		// Mark file as having properties until known
+		this.properties = true;
+	}
+
+	/**
+	 * Get the file size.
+	 * 
+	 * @return The file size in bytes (<code>-1</code> if the size is unknown).
+	 */
+	public long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Set the file size.
+	 * 
+	 * @param size
+	 *            The file size in bytes to set (<code>-1</code> if the size is unknown).
+	 */
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	/**
+	 * Get the file committed revision.
+	 * 
+	 * @return The revision the file was last committed (<code>-1</code> if the committed revision is unknown).
+	 */
+	public long getCommittedRevision() {
+		return this.committedRevision;
+	}
+
+	/**
+	 * Set the file committed revision.
+	 * 
+	 * @param committedRevision
+	 *            The revision the file was last committed (<code>-1</code> if the committed revision is unknown).
+	 */
+	public void setCommittedRevision(long committedRevision) {
+		this.committedRevision = committedRevision;
+	}
+
+	/**
+	 * Check whether the file has properties.
+	 * 
+	 * @return <code>true</code> if the file may have properties, <code>false</code> if it has none.
+	 */
+	public boolean hasProperties() {
+		return this.properties;
+	}
+
+	/**
+	 * Set whether the file has properties.
+	 * 
+	 * @param properties
+	 *            <code>true</code> if the file may have properties, <code>false</code> if it has none.
+	 */
+	public void setProperties(boolean properties) {
+		this.properties = properties;
 	}
 
 	/*
@@ -0,0 +1,27 @@
+package fr.hardcoding.software.sourcechecksum.session;
+
+import org.tmatesoft.svn.core.io.SVNRepository;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+
+/**
+ * This interface is a Subversion request to execute with a session.<br/>
+ * A request could be executed again on failure, so it should not change resources before succeeding.
+ * 
+ * @author Bruce BUJON
+ *
+ * @param <T>
+ *            The request result type.
+ */
+public interface SvnRequest<T> {
+	/**
+	 * Execute the request.
+	 * 
+	 * @param repository
+	 *            The Subversion session to execute the request with.
+	 * @return The request result.
+	 * @throws ChecksumException
+	 *             Throws exception if the request failed.
+	 */
+	T execute(SVNRepository repository) throws ChecksumException;
+}
\ No newline at end of file
@@ -0,0 +1,368 @@
+package fr.hardcoding.software.sourcechecksum.session;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.tmatesoft.svn.core.io.SVNRepository;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+
+/**
+ * This class executes the tasks and Subversion requests of a checksum computation.<br>
+ * Tasks are tracked until the last one finishes, as each task submits the tasks it discovers before finishing. Requests wait for the request
+ * limiter, are retried on transient failure by the retry policy and slow requests could be hedged. A failed resource is either skipped or breaks
+ * the computation.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnRequestExecutor {
+	/** The executor service to run tasks. */
+	private final ExecutorService executorService;
+	/** The retry policy of failed Subversion requests. */
+	private final SvnRetryPolicy retryPolicy;
+	/** The limiter of concurrent Subversion requests. */
+	private final SvnRequestLimiter requestLimiter;
+	/** The hedger of slow requests (<code>null</code> if requests are not hedged). */
+	private final SvnRequestHedger requestHedger;
+	/** The scheduler of hedged requests (<code>null</code> if requests are not hedged). */
+	private final ScheduledThreadPoolExecutor hedgeScheduler;
+	/** The continue on error status (<code>true</code> to skip resources that could not be computed, <code>false</code> to break the process). */
+	private final boolean continueOnError;
+	/** The counter of submitted tasks not yet finished. */
+	private final AtomicInteger pendingTaskCounter;
+	/** The completion latch, released when the last pending task finishes. */
+	private final CountDownLatch completionLatch;
+	/** The break status (<code>true</code> if the process should break, <code>false</code> otherwise). */
+	private volatile boolean shouldBreak;
+	/** The error messages of resources skipped on error, by working copy path. */
+	private final Map<String, String> failedPaths;
+	/** The counter of retried Subversion requests. */
+	private final AtomicInteger retryCounter;
+	/** The counter of requests completed by their hedged request. */
+	private final AtomicInteger hedgeWinCounter;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param threadCount
+	 *            The number of threads to run tasks.
+	 * @param retryPolicy
+	 *            The retry policy of failed Subversion requests.
+	 * @param requestLimiter
+	 *            The limiter of concurrent Subversion requests.
+	 * @param requestHedger
+	 *            The hedger of slow requests (<code>null</code> to not hedge requests).
+	 * @param continueOnError
+	 *            The continue on error status (<code>true</code> to skip resources that could not be computed, <code>false</code> to break the
+	 *            process).
+	 */
+	public SvnRequestExecutor(int threadCount, SvnRetryPolicy retryPolicy, SvnRequestLimiter requestLimiter, SvnRequestHedger requestHedger,
+			boolean continueOnError) {
+		// Save settings
+		this.retryPolicy = retryPolicy;
+		this.requestLimiter = requestLimiter;
+		this.requestHedger = requestHedger;
+		this.continueOnError = continueOnError;
+		// Create executor service
+		this.executorService = Executors.newFixedThreadPool(threadCount);
+		// Create hedged request scheduler
+		if (this.requestHedger==null) {
+			this.hedgeScheduler = null;
+		} else {
+			this.hedgeScheduler = new ScheduledThreadPoolExecutor(1);
+			this.hedgeScheduler.setRemoveOnCancelPolicy(true);
+		}
+		// Initialize progress
+		this.pendingTaskCounter = new AtomicInteger();
+		this.completionLatch = new CountDownLatch(1);
+		this.shouldBreak = false;
+		this.failedPaths = new ConcurrentSkipListMap<>();
+		this.retryCounter = new AtomicInteger();
+		this.hedgeWinCounter = new AtomicInteger();
+	}
+
+	/**
+	 * Get the limiter of concurrent Subversion requests.
+	 * 
+	 * @return The limiter of concurrent Subversion requests.
+	 */
+	public SvnRequestLimiter getRequestLimiter() {
+		return this.requestLimiter;
+	}
+
+	/**
+	 * Get the hedger of slow requests.
+	 * 
+	 * @return The hedger of slow requests (<code>null</code> if requests are not hedged).
+	 */
+	public SvnRequestHedger getRequestHedger() {
+		return this.requestHedger;
+	}
+
+	/**
+	 * Get the resources skipped on error.
+	 * 
+	 * @return The error messages of resources skipped on error, by working copy path.
+	 */
+	public Map<String, String> getFailedPaths() {
+		return this.failedPaths;
+	}
+
+	/**
+	 * Get the number of retried Subversion requests.
+	 * 
+	 * @return The number of retried Subversion requests.
+	 */
+	public int getRetryCount() {
+		return this.retryCounter.get();
+	}
+
+	/**
+	 * Get the number of requests completed by their hedged request.
+	 * 
+	 * @return The number of requests completed by their hedged request.
+	 */
+	public int getHedgeWinCount() {
+		return this.hedgeWinCounter.get();
+	}
+
+	/**
+	 * Record a request completed by its hedged request.
+	 */
+	public void recordHedgeWin() {
+		this.hedgeWinCounter.incrementAndGet();
+	}
+
+	/**
+	 * Check whether the process should break.
+	 * 
+	 * @return <code>true</code> if the process should break, <code>false</code> otherwise.
+	 */
+	public boolean shouldBreak() {
+		return this.shouldBreak;
+	}
+
+	/**
+	 * Break the process.<br/>
+	 * Tasks should check the break status before running and failed requests are no more retried.
+	 */
+	public void breakProcess() {
+		this.shouldBreak = true;
+	}
+
+	/**
+	 * Submit a task, tracking its completion.<br/>
+	 * As tasks are submitted by the task that discovers them before it finishes, the pending task counter only reaches zero when the last task
+	 * finishes.
+	 * 
+	 * @param task
+	 *            The task to submit.
+	 */
+	public void submit(final Callable<Void> task) {
+		// Update pending task counter
+		this.pendingTaskCounter.incrementAndGet();
+		// Submit task
+		this.executorService.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					// Execute task
+					return task.call();
+				} finally {
+					// Complete task
+					SvnRequestExecutor.this.completeTask();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Schedule the hedged request of a slow request.<br/>
+	 * The hedged request is submitted after the delay if the request is not completed yet and the hedged request rate allows it. The scheduled
+	 * request is counted as a pending task until it is submitted or cancelled.
+	 * 
+	 * @param hedgedTask
+	 *            The task executing the hedged request.
+	 * @param completed
+	 *            The completion status, shared by the request and its hedged request.
+	 * @param delay
+	 *            The delay after which the request is hedged (in nanoseconds).
+	 * @return The scheduled hedged request.
+	 */
+	public ScheduledFuture<?> scheduleHedge(final Callable<Void> hedgedTask, final AtomicBoolean completed, long delay) {
+		// Update pending task counter
+		this.pendingTaskCounter.incrementAndGet();
+		// Schedule hedged request
+		return this.hedgeScheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					// Check if request is still running and could be hedged
+					if (completed.get()||SvnRequestExecutor.this.shouldBreak||!SvnRequestExecutor.this.requestHedger.tryHedge())
+						return;
+					// Submit hedged request
+					SvnRequestExecutor.this.submit(hedgedTask);
+				} finally {
+					// Complete scheduled task
+					SvnRequestExecutor.this.completeTask();
+				}
+			}
+		}, delay, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Cancel a scheduled hedged request if not started yet.
+	 * 
+	 * @param hedge
+	 *            The scheduled hedged request (<code>null</code> if no hedged request was scheduled).
+	 */
+	public void cancelHedge(ScheduledFuture<?> hedge) {
+		// Complete scheduled task if cancelled before running
+		if (hedge!=null&&hedge.cancel(false))
+			this.completeTask();
+	}
+
+	/**
+	 * Wait until the last pending task finishes.<br/>
+	 * At least one task should have been submitted before waiting.
+	 * 
+	 * @throws InterruptedException
+	 *             Throws exception if the current thread was interrupted while waiting.
+	 */
+	public void await() throws InterruptedException {
+		this.completionLatch.await();
+	}
+
+	/**
+	 * Release executors.<br/>
+	 * Running tasks are interrupted and no more task could be submitted.
+	 */
+	public void shutdown() {
+		this.executorService.shutdownNow();
+		if (this.hedgeScheduler!=null)
+			this.hedgeScheduler.shutdownNow();
+	}
+
+	/**
+	 * Execute a Subversion request, retrying it on transient failure.<br/>
+	 * Each attempt waits for the request limiter then acquires its own session. A failed session is invalidated as it may be broken, so the
+	 * request is retried on a new session. The session is released before returning, so the caller could acquire other sessions.
+	 * 
+	 * @param sessionPool
+	 *            The session pool to acquire sessions from.
+	 * @param request
+	 *            The request to execute.
+	 * @return The request result.
+	 * @throws ChecksumException
+	 *             Throws exception if the request failed and could not be retried.
+	 */
+	public <T> T request(SvnSessionPool sessionPool, SvnRequest<T> request) throws ChecksumException {
+		return this.request(sessionPool, request, null);
+	}
+
+	/**
+	 * Execute a cancellable Subversion request, retrying it on transient failure.<br/>
+	 * A request failing once cancelled is neither retried nor reported.
+	 * 
+	 * @param sessionPool
+	 *            The session pool to acquire sessions from.
+	 * @param request
+	 *            The request to execute.
+	 * @param cancelled
+	 *            The request cancellation status (<code>null</code> if the request could not be cancelled).
+	 * @return The request result (<code>null</code> if the request was cancelled).
+	 * @throws ChecksumException
+	 *             Throws exception if the request failed and could not be retried.
+	 */
+	public <T> T request(SvnSessionPool sessionPool, SvnRequest<T> request, AtomicBoolean cancelled) throws ChecksumException {
+		// Try request until success or last attempt
+		for (int attempt = 0;; attempt++) {
+			// Wait for request limiter
+			long startTime = this.requestLimiter.acquire();
+			// Declare Subversion session
+			SVNRepository repository = null;
+			try {
+				// Acquire Subversion session
+				repository = sessionPool.acquire();
+				// Execute request
+				T result = request.execute(repository);
+				// Release Subversion session and request limiter
+				sessionPool.release(repository);
+				this.requestLimiter.release(startTime, false);
+				// Return request result
+				return result;
+			} catch (ChecksumException exception) {
+				// Evict Subversion session as it may be broken
+				if (repository!=null)
+					sessionPool.invalidate(repository);
+				// Check if request was cancelled
+				if (cancelled!=null&&cancelled.get()) {
+					// Release request limiter
+					this.requestLimiter.release(startTime, false);
+					return null;
+				}
+				// Release request limiter, notifying server failure
+				this.requestLimiter.release(startTime, SvnRetryPolicy.isTransient(exception));
+				// Check if request should be retried
+				if (this.shouldBreak||!this.retryPolicy.isRetryable(exception, attempt))
+					throw exception;
+				// Update retry counter
+				this.retryCounter.incrementAndGet();
+				// Wait before retrying
+				this.retryPolicy.backoff(attempt);
+			}
+		}
+	}
+
+	/**
+	 * Handle a resource that could not be computed.<br/>
+	 * The resource is skipped if the executor continues on error, otherwise the process breaks.
+	 * 
+	 * @param workingCopyPath
+	 *            The working copy path of the failed resource.
+	 * @param exception
+	 *            The failure exception.
+	 * @param listener
+	 *            The listener to notify computation progress.
+	 */
+	public void fail(String workingCopyPath, ChecksumException exception, ChecksumListener listener) {
+		// Check if should continue on error
+		if (this.continueOnError) {
+			// Get failure message
+			String message = exception.getMessage();
+			if (exception.getCause()!=null&&exception.getCause().getMessage()!=null)
+				message += " "+exception.getCause().getMessage();
+			message = message.replaceAll("\\s+", " ");
+			// Save failed path
+			this.failedPaths.put(workingCopyPath, message);
+			// Notify listener
+			listener.onDebug("Skipping "+workingCopyPath+": "+message);
+		} else {
+			// Break the process
+			this.shouldBreak = true;
+			// Notify listener
+			listener.onError(exception);
+		}
+	}
+
+	/**
+	 * Complete a pending task.<br/>
+	 * The completion latch is released if it was the last pending task.
+	 */
+	private void completeTask() {
+		// Release completion latch if it was the last pending task
+		if (this.pendingTaskCounter.decrementAndGet()==0)
+			this.completionLatch.countDown();
+	}
+}
\ No newline at end of file
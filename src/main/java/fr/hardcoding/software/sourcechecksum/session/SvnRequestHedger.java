@@ -0,0 +1,102 @@
+package fr.hardcoding.software.sourcechecksum.session;
+
+import java.util.Arrays;
+
+/**
+ * This class decides when to hedge slow Subversion requests.<br>
+ * A request still running after the observed 95th percentile latency is likely a straggler (such as a request stalled on a slow server node), so
+ * a duplicate request is sent on another session and the first one to complete is kept. The number of duplicate requests is capped by a rate
+ * of the requests sent, so hedging could not overload the server.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnRequestHedger {
+	/** The latency percentile after which a request is hedged. */
+	private static final double PERCENTILE = 0.95;
+	/** The number of latencies to observe before hedging requests. */
+	private static final int MIN_SAMPLES = 20;
+	/** The number of latest latencies to compute percentile from. */
+	private static final int WINDOW_SIZE = 1000;
+	/** The number of latencies to observe before computing percentile again. */
+	private static final int UPDATE_INTERVAL = 50;
+	/** The maximum rate of hedged requests (from <code>0</code> to <code>1</code>). */
+	private final double maxRate;
+	/** The latest latencies, as a ring buffer (in nanoseconds). */
+	private final long[] latencies;
+	/** The number of observed latencies. */
+	private long sampleCount;
+	/** The latency after which a request is hedged (in nanoseconds, <code>-1</code> until enough latencies are observed). */
+	private long delay;
+	/** The number of started requests. */
+	private long requestCount;
+	/** The number of hedged requests. */
+	private long hedgeCount;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxRate
+	 *            The maximum rate of hedged requests (from <code>0</code> to <code>1</code>).
+	 */
+	public SvnRequestHedger(double maxRate) {
+		this.maxRate = maxRate;
+		this.latencies = new long[SvnRequestHedger.WINDOW_SIZE];
+		this.delay = -1;
+	}
+
+	/**
+	 * Get the number of hedged requests.
+	 * 
+	 * @return The number of hedged requests.
+	 */
+	public synchronized long getHedgeCount() {
+		return this.hedgeCount;
+	}
+
+	/**
+	 * Start a request.
+	 * 
+	 * @return The delay after which the request should be hedged (in nanoseconds, <code>-1</code> if the request should not be hedged).
+	 */
+	public synchronized long start() {
+		// Update request counter
+		this.requestCount++;
+		// Return hedge delay
+		return this.delay;
+	}
+
+	/**
+	 * Record the latency of a completed request.
+	 * 
+	 * @param latency
+	 *            The request latency (in nanoseconds).
+	 */
+	public synchronized void record(long latency) {
+		// Save latency in ring buffer
+		this.latencies[(int) (this.sampleCount%SvnRequestHedger.WINDOW_SIZE)] = latency;
+		this.sampleCount++;
+		// Check if percentile should be computed again
+		if (this.sampleCount<SvnRequestHedger.MIN_SAMPLES||this.sampleCount%SvnRequestHedger.UPDATE_INTERVAL!=0&&this.delay>=0)
+			return;
+		// Compute latency percentile
+		long[] sortedLatencies = Arrays.copyOf(this.latencies, (int) Math.min(this.sampleCount, SvnRequestHedger.WINDOW_SIZE));
+		Arrays.sort(sortedLatencies);
+		this.delay = sortedLatencies[(int) (sortedLatencies.length*SvnRequestHedger.PERCENTILE)];
+	}
+
+	/**
+	 * Check whether a slow request could be hedged.<br>
+	 * A request is hedged only if the number of hedged requests stays under the maximum rate of the started requests.
+	 * 
+	 * @return <code>true</code> if the request could be hedged, <code>false</code> otherwise.
+	 */
+	public synchronized boolean tryHedge() {
+		// Check hedged request rate
+		if (this.hedgeCount+1>this.maxRate*this.requestCount)
+			return false;
+		// Update hedged request counter
+		this.hedgeCount++;
+		return true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package fr.hardcoding.software.sourcechecksum.session;
+
+import java.util.concurrent.TimeUnit;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+
+/**
+ * This class limits the concurrent Subversion requests sent to a server.<br>
+ * The concurrency limit could adapt to the server feedback, as a congestion control: it grows by one request each round trip while the request
+ * latency stays flat (additive increase) and shrinks by a factor on rising latency or server failure (multiplicative decrease). Latency is
+ * considered as rising when its short term average exceeds its long term average by a tolerance, so the limit does not depend on the absolute
+ * latency of the server.<br>
+ * The request rate could also be bounded, spacing requests evenly so scans could run without disturbing other server users.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnRequestLimiter {
+	/** The initial concurrency limit of adaptive limiter. */
+	private static final int INITIAL_LIMIT = 4;
+	/** The decrease factor of concurrency limit on rising latency. */
+	private static final double LATENCY_DECREASE_FACTOR = 0.8;
+	/** The decrease factor of concurrency limit on server failure. */
+	private static final double FAILURE_DECREASE_FACTOR = 0.5;
+	/** The ratio between short and long term latencies above which latency is considered as rising. */
+	private static final double LATENCY_TOLERANCE = 2;
+	/** The smoothing factor of short term latency average. */
+	private static final double SHORT_SMOOTHING = 0.2;
+	/** The smoothing factor of long term latency average. */
+	private static final double LONG_SMOOTHING = 0.02;
+	/** The maximum concurrency limit. */
+	private final int maxLimit;
+	/** The adaptive status (<code>true</code> to adapt concurrency limit to server feedback, <code>false</code> to keep the maximum limit). */
+	private final boolean adaptive;
+	/** The minimum interval between two requests (in nanoseconds, <code>0</code> if the rate is not bounded). */
+	private final long interval;
+	/** The current concurrency limit. */
+	private double limit;
+	/** The number of requests in flight. */
+	private int inFlight;
+	/** The short term latency average (in nanoseconds, <code>0</code> until a request completes). */
+	private double shortLatency;
+	/** The long term latency average (in nanoseconds, <code>0</code> until a request completes). */
+	private double longLatency;
+	/** The time of the last limit decrease (in nanoseconds). */
+	private long decreaseTime;
+	/** The time the next request could be sent at (in nanoseconds). */
+	private long nextRequestTime;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxLimit
+	 *            The maximum number of concurrent requests.
+	 * @param adaptive
+	 *            <code>true</code> to adapt concurrency limit to server feedback, <code>false</code> to keep the maximum limit.
+	 * @param maxRate
+	 *            The maximum number of requests per second (<code>0</code> to not bound the request rate).
+	 */
+	public SvnRequestLimiter(int maxLimit, boolean adaptive, double maxRate) {
+		this.maxLimit = maxLimit;
+		this.adaptive = adaptive;
+		this.interval = maxRate>0 ? (long) (TimeUnit.SECONDS.toNanos(1)/maxRate) : 0;
+		this.limit = adaptive ? Math.min(SvnRequestLimiter.INITIAL_LIMIT, maxLimit) : maxLimit;
+		this.decreaseTime = System.nanoTime();
+		this.nextRequestTime = System.nanoTime();
+	}
+
+	/**
+	 * Get the current concurrency limit.
+	 * 
+	 * @return The current number of concurrent requests allowed.
+	 */
+	public synchronized int getLimit() {
+		return (int) this.limit;
+	}
+
+	/**
+	 * Acquire the permission to send a request.<br>
+	 * The call waits until the number of requests in flight is under the concurrency limit, then until the request rate allows a new request.
+	 * 
+	 * @return The request start time, to give back on release (in nanoseconds).
+	 * @throws ChecksumException
+	 *             Throws exception if the wait is interrupted.
+	 */
+	public long acquire() throws ChecksumException {
+		// Declare request time
+		long requestTime;
+		synchronized (this) {
+			try {
+				// Wait for an available request slot
+				while (this.inFlight>=(int) this.limit)
+					this.wait();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new ChecksumException("Interrupted while waiting to send a Subversion request.", exception);
+			}
+			this.inFlight++;
+			// Reserve request time according to the request rate
+			requestTime = Math.max(System.nanoTime(), this.nextRequestTime);
+			this.nextRequestTime = requestTime+this.interval;
+		}
+		try {
+			// Wait until request time
+			long delay = requestTime-System.nanoTime();
+			if (delay>0)
+				TimeUnit.NANOSECONDS.sleep(delay);
+		} catch (InterruptedException exception) {
+			// Give request slot back
+			synchronized (this) {
+				this.inFlight--;
+				this.notifyAll();
+			}
+			Thread.currentThread().interrupt();
+			throw new ChecksumException("Interrupted while waiting to send a Subversion request.", exception);
+		}
+		// Return request start time
+		return System.nanoTime();
+	}
+
+	/**
+	 * Release the permission of a completed request.<br>
+	 * The concurrency limit is adapted from the request latency and status.
+	 * 
+	 * @param startTime
+	 *            The request start time, as returned by {@link #acquire()} (in nanoseconds).
+	 * @param overloaded
+	 *            <code>true</code> if the request failed because of the server (such as connection failure or timeout), <code>false</code>
+	 *            otherwise.
+	 */
+	public synchronized void release(long startTime, boolean overloaded) {
+		// Release request slot
+		this.inFlight--;
+		// Check if limit should adapt
+		if (this.adaptive) {
+			// Get current time and request latency
+			long time = System.nanoTime();
+			long latency = time-startTime;
+			if (overloaded) {
+				// Decrease limit on server failure
+				this.decrease(time, SvnRequestLimiter.FAILURE_DECREASE_FACTOR);
+			} else {
+				// Update latency averages
+				if (this.longLatency==0) {
+					this.shortLatency = latency;
+					this.longLatency = latency;
+				} else {
+					this.shortLatency += (latency-this.shortLatency)*SvnRequestLimiter.SHORT_SMOOTHING;
+					this.longLatency += (latency-this.longLatency)*SvnRequestLimiter.LONG_SMOOTHING;
+				}
+				// Check latency trend
+				if (this.shortLatency>this.longLatency*SvnRequestLimiter.LATENCY_TOLERANCE)
+					// Decrease limit on rising latency
+					this.decrease(time, SvnRequestLimiter.LATENCY_DECREASE_FACTOR);
+				else
+					// Increase limit by one request per round trip of the whole limit
+					this.limit = Math.min(this.maxLimit, this.limit+1/this.limit);
+			}
+		}
+		// Notify waiting requests
+		this.notifyAll();
+	}
+
+	/**
+	 * Decrease the concurrency limit.<br>
+	 * The limit is decreased at most once per round trip, as the requests in flight of the same round trip give the same congestion signal.
+	 * 
+	 * @param time
+	 *            The current time (in nanoseconds).
+	 * @param factor
+	 *            The decrease factor.
+	 */
+	private void decrease(long time, double factor) {
+		// Check if limit was decreased during the last round trip
+		if (time-this.decreaseTime<this.shortLatency)
+			return;
+		// Decrease limit
+		this.limit = Math.max(1, this.limit*factor);
+		this.decreaseTime = time;
+	}
+}
\ No newline at end of file
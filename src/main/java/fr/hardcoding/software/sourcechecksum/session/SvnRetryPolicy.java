@@ -0,0 +1,135 @@
+package fr.hardcoding.software.sourcechecksum.session;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+
+/**
+ * This class is the retry policy of failed Subversion requests.<br>
+ * Only transient failures (connection, timeout, server error or I/O failures) are retried, others (such as missing path or authorization
+ * failures) would fail again. Retries wait for an exponential delay with jitter, so concurrent failing requests do not retry at once against a
+ * struggling server.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnRetryPolicy {
+	/** The default number of retries. */
+	public static final int DEFAULT_RETRIES = 3;
+	/** The default delay before the first retry (in milliseconds). */
+	public static final long DEFAULT_DELAY = 1000;
+	/** The maximum delay before a retry (in milliseconds). */
+	private static final long MAX_DELAY = 60000;
+	/** The Subversion error codes of transient failures. */
+	private static final Set<SVNErrorCode> TRANSIENT_ERROR_CODES = new HashSet<>(Arrays.asList(SVNErrorCode.IO_ERROR, SVNErrorCode.IO_WRITE_ERROR,
+			SVNErrorCode.IO_PIPE_READ_ERROR, SVNErrorCode.RA_DAV_SOCK_INIT, SVNErrorCode.RA_DAV_REQUEST_FAILED, SVNErrorCode.RA_DAV_OPTIONS_REQ_FAILED,
+			SVNErrorCode.RA_DAV_MALFORMED_DATA, SVNErrorCode.RA_DAV_RESPONSE_HEADER_BADNESS, SVNErrorCode.RA_DAV_CONN_TIMEOUT,
+			SVNErrorCode.RA_SVN_CONNECTION_CLOSED, SVNErrorCode.RA_SVN_IO_ERROR, SVNErrorCode.RA_SVN_MALFORMED_DATA));
+	/** The number of retries. */
+	private final int retries;
+	/** The delay before the first retry (in milliseconds). */
+	private final long delay;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param retries
+	 *            The number of retries (<code>0</code> to never retry).
+	 * @param delay
+	 *            The delay before the first retry (in milliseconds), doubled for each following retry.
+	 */
+	public SvnRetryPolicy(int retries, long delay) {
+		this.retries = retries;
+		this.delay = delay;
+	}
+
+	/**
+	 * Get the number of retries.
+	 * 
+	 * @return The number of retries.
+	 */
+	public int getRetries() {
+		return this.retries;
+	}
+
+	/**
+	 * Check whether a failed request should be retried.
+	 * 
+	 * @param exception
+	 *            The request failure.
+	 * @param attempt
+	 *            The failed attempt (<code>0</code> for the first request).
+	 * @return <code>true</code> if the failure is transient and retries remain, <code>false</code> otherwise.
+	 */
+	public boolean isRetryable(ChecksumException exception, int attempt) {
+		return attempt<this.retries&&SvnRetryPolicy.isTransient(exception);
+	}
+
+	/**
+	 * Check whether a failure is transient.
+	 * 
+	 * @param throwable
+	 *            The failure to check.
+	 * @return <code>true</code> if the failure or one of its causes is a transient Subversion or I/O failure, <code>false</code> otherwise.
+	 */
+	public static boolean isTransient(Throwable throwable) {
+		// Check failure and each cause
+		for (Throwable cause = throwable; cause!=null; cause = cause.getCause()) {
+			// Check Subversion failure
+			if (cause instanceof SVNException) {
+				// Check each error message
+				for (SVNErrorMessage errorMessage = ((SVNException) cause).getErrorMessage(); errorMessage!=null; errorMessage = errorMessage
+						.getChildErrorMessage()) {
+					if (SvnRetryPolicy.TRANSIENT_ERROR_CODES.contains(errorMessage.getErrorCode()))
+						return true;
+				}
+			}
+			// Check I/O failure
+			else if (cause instanceof IOException)
+				return true;
+		}
+		// Failure is not transient
+		return false;
+	}
+
+	/**
+	 * Get the delay before retrying a failed attempt.<br>
+	 * The delay doubles for each attempt up to a maximum, and is randomly chosen between its half and its value.
+	 * 
+	 * @param attempt
+	 *            The failed attempt (<code>0</code> for the first request).
+	 * @return The delay before retrying (in milliseconds).
+	 */
+	public long getDelay(int attempt) {
+		// Compute exponential delay
+		long maxDelay = attempt<30 ? Math.min(this.delay<<attempt, SvnRetryPolicy.MAX_DELAY) : SvnRetryPolicy.MAX_DELAY;
+		// Return delay with jitter
+		return maxDelay/2+ThreadLocalRandom.current().nextLong(maxDelay-maxDelay/2+1);
+	}
+
+	/**
+	 * Wait before retrying a failed attempt.
+	 * 
+	 * @param attempt
+	 *            The failed attempt (<code>0</code> for the first request).
+	 * @throws ChecksumException
+	 *             Throws exception if the wait is interrupted.
+	 */
+	public void backoff(int attempt) throws ChecksumException {
+		try {
+			Thread.sleep(this.getDelay(attempt));
+		} catch (InterruptedException exception) {
+			// Restore interrupted status
+			Thread.currentThread().interrupt();
+			throw new ChecksumException("Interrupted while waiting to retry Subversion request.", exception);
+		}
+	}
+}
\ No newline at end of file
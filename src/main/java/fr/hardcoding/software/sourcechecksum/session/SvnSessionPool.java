@@ -0,0 +1,365 @@
+package fr.hardcoding.software.sourcechecksum.session;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.internal.io.dav.DAVRepositoryFactory;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.internal.io.svn.SVNRepositoryFactoryImpl;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+
+/**
+ * This class is a bounded pool of Subversion sessions.<br>
+ * Sessions are lazily created up to the pool size and kept alive to be reused by any thread, for the whole computation and by any generator on
+ * the same repository. Sessions idle for a while are checked before being reused and broken sessions are evicted.<br>
+ * HTTP(S), SVN (svnserve) and FILE (direct FSFS access) protocols are supported.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnSessionPool implements AutoCloseable {
+	/** The default pool size for HTTP(S) protocols. */
+	public static final int DEFAULT_SIZE = 30;
+	/** The default pool size for SVN protocols. */
+	public static final int DEFAULT_SVN_SIZE = 10;
+	/** The delay after which an idle session is checked before being reused (in milliseconds). */
+	private static final long HEALTH_CHECK_DELAY = 30000;
+	/** The Subversion URL of the sessions. */
+	private final SVNURL url;
+	/** The Subversion authentication manager of the sessions. */
+	private final ISVNAuthenticationManager authenticationManager;
+	/** The pool size. */
+	private final int size;
+	/** The permits to acquire a session (one per session of the pool). */
+	private final Semaphore permits;
+	/** The idle sessions, from the last released to the first one. */
+	private final Deque<IdleSession> idleSessions;
+	/** The counter of created sessions. */
+	private final AtomicInteger createdSessionCounter;
+	/** The Subversion repository root URL (<code>null</code> until requested). */
+	private SVNURL repositoryRootUrl;
+	/** The Subversion repository UUID (<code>null</code> until requested). */
+	private String repositoryUuid;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the sessions.
+	 * @param user
+	 *            The Subversion user name.
+	 * @param passwd
+	 *            The Subversion user password.
+	 * @param size
+	 *            The pool size.
+	 * @throws ChecksumException
+	 *             Throws exception if the URL is not valid.
+	 */
+	public SvnSessionPool(String url, String user, char[] passwd, int size) throws ChecksumException {
+		this(url, SVNWCUtil.createDefaultAuthenticationManager(user, passwd), size);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the sessions.
+	 * @param authenticationManager
+	 *            The Subversion authentication manager of the sessions.
+	 * @param size
+	 *            The pool size.
+	 * @throws ChecksumException
+	 *             Throws exception if the URL is not valid.
+	 */
+	private SvnSessionPool(String url, ISVNAuthenticationManager authenticationManager, int size) throws ChecksumException {
+		try {
+			this.url = SVNURL.parseURIEncoded(url);
+		} catch (SVNException exception) {
+			throw new ChecksumException("Invalid Subversion URL \""+url+"\".", exception);
+		}
+		// Initialize factories for DAV, SVN and local FSFS access
+		DAVRepositoryFactory.setup();
+		SVNRepositoryFactoryImpl.setup();
+		FSRepositoryFactory.setup();
+		// Save authentication manager
+		this.authenticationManager = authenticationManager;
+		// Initialize pool
+		this.size = size;
+		this.permits = new Semaphore(size, true);
+		this.idleSessions = new ArrayDeque<>();
+		this.createdSessionCounter = new AtomicInteger();
+	}
+
+	/**
+	 * Get the default pool size for an URL, according to its protocol.<br>
+	 * Each HTTP(S) request has a high latency and the server handles many concurrent connections. Each SVN session holds a svnserve connection
+	 * that is much faster but more expensive for the server. FILE sessions read FSFS directly, so they are bound to local CPUs and disks.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the sessions.
+	 * @return The default pool size.
+	 */
+	public static int getDefaultSize(String url) {
+		// Check URL protocol
+		if (url.startsWith("file:"))
+			return Runtime.getRuntime().availableProcessors();
+		if (url.startsWith("svn:")||url.startsWith("svn+"))
+			return SvnSessionPool.DEFAULT_SVN_SIZE;
+		return SvnSessionPool.DEFAULT_SIZE;
+	}
+
+	/**
+	 * Get the pool size.
+	 * 
+	 * @return The maximum number of sessions.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Get the number of created sessions.
+	 * 
+	 * @return The number of created sessions.
+	 */
+	public int getCreatedSessionCount() {
+		return this.createdSessionCounter.get();
+	}
+
+	/**
+	 * Get the Subversion repository root URL.
+	 * 
+	 * @return The Subversion repository root URL.
+	 * @throws ChecksumException
+	 *             Throws exception if the repository root URL could not be get.
+	 */
+	public synchronized SVNURL getRepositoryRoot() throws ChecksumException {
+		// Check if repository root URL is cached
+		if (this.repositoryRootUrl==null)
+			this.fetchRepositoryInformation();
+		// Return repository root URL
+		return this.repositoryRootUrl;
+	}
+
+	/**
+	 * Get the Subversion repository UUID.
+	 * 
+	 * @return The Subversion repository UUID.
+	 * @throws ChecksumException
+	 *             Throws exception if the repository UUID could not be get.
+	 */
+	public synchronized String getRepositoryUuid() throws ChecksumException {
+		// Check if repository UUID is cached
+		if (this.repositoryUuid==null)
+			this.fetchRepositoryInformation();
+		// Return repository UUID
+		return this.repositoryUuid;
+	}
+
+	/**
+	 * Check if an URL belongs to the repository of the sessions.
+	 * 
+	 * @param url
+	 *            The URL to check.
+	 * @return <code>true</code> if the URL belongs to the repository of the sessions, <code>false</code> otherwise.
+	 * @throws ChecksumException
+	 *             Throws exception if the repository root URL could not be get.
+	 */
+	public boolean contains(String url) throws ChecksumException {
+		// Get repository root URL
+		String rootUrl = this.getRepositoryRoot().toString();
+		// Check URL is the root URL or one of its descendants
+		return url.equals(rootUrl)||url.startsWith(rootUrl+"/");
+	}
+
+	/**
+	 * Create a pool for another Subversion URL, with the same credentials and size.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the sessions.
+	 * @return The created session pool.
+	 * @throws ChecksumException
+	 *             Throws exception if the URL is not valid.
+	 */
+	public SvnSessionPool derive(String url) throws ChecksumException {
+		return new SvnSessionPool(url, this.authenticationManager, this.size);
+	}
+
+	/**
+	 * Fetch and cache the Subversion repository information.
+	 * 
+	 * @throws ChecksumException
+	 *             Throws exception if the repository information could not be get.
+	 */
+	private void fetchRepositoryInformation() throws ChecksumException {
+		// Get a session
+		SVNRepository session = this.acquire();
+		try {
+			// Get repository information
+			this.repositoryRootUrl = session.getRepositoryRoot(true);
+			this.repositoryUuid = session.getRepositoryUUID(true);
+		} catch (SVNException exception) {
+			this.invalidate(session);
+			throw new ChecksumException("Unable to get the Subversion repository information.", exception);
+		}
+		// Release the session
+		this.release(session);
+	}
+
+	/**
+	 * Acquire a session.<br>
+	 * An idle session is reused if any, otherwise a session is created if the pool is not full. Else, the call waits for a session to be released.
+	 * 
+	 * @return The acquired session.
+	 * @throws ChecksumException
+	 *             Throws exception if no session could be acquired.
+	 */
+	public SVNRepository acquire() throws ChecksumException {
+		// Wait for an available session
+		try {
+			this.permits.acquire();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new ChecksumException("Interrupted while waiting for a Subversion session.", exception);
+		}
+		try {
+			// Reuse an idle session
+			IdleSession idleSession;
+			while ((idleSession = this.pollIdleSession())!=null) {
+				// Check if session should be checked
+				if (System.currentTimeMillis()-idleSession.time<SvnSessionPool.HEALTH_CHECK_DELAY)
+					return idleSession.session;
+				try {
+					// Check session
+					idleSession.session.testConnection();
+					return idleSession.session;
+				} catch (SVNException exception) {
+					// Evict broken session
+					idleSession.session.closeSession();
+				}
+			}
+			// Create a new session
+			return this.createSession();
+		} catch (ChecksumException|RuntimeException exception) {
+			// Give back session permit
+			this.permits.release();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Release a session to be reused.
+	 * 
+	 * @param session
+	 *            The session to release.
+	 */
+	public void release(SVNRepository session) {
+		try {
+			// Restore session location
+			if (!this.url.equals(session.getLocation()))
+				session.setLocation(this.url, false);
+			// Save idle session
+			synchronized (this.idleSessions) {
+				this.idleSessions.push(new IdleSession(session));
+			}
+		} catch (SVNException exception) {
+			// Evict session that could not be restored
+			session.closeSession();
+		}
+		// Give back session permit
+		this.permits.release();
+	}
+
+	/**
+	 * Invalidate a broken session.<br>
+	 * The session is closed and a new session will be created when needed.
+	 * 
+	 * @param session
+	 *            The session to invalidate.
+	 */
+	public void invalidate(SVNRepository session) {
+		// Close session
+		session.closeSession();
+		// Give back session permit
+		this.permits.release();
+	}
+
+	/**
+	 * Get the last released idle session.
+	 * 
+	 * @return The last released idle session (<code>null</code> if there is no idle session).
+	 */
+	private IdleSession pollIdleSession() {
+		synchronized (this.idleSessions) {
+			return this.idleSessions.poll();
+		}
+	}
+
+	/**
+	 * Create a new session.<br>
+	 * It could be overridden to decorate sessions (such as to measure or throttle requests).
+	 * 
+	 * @return The created session.
+	 * @throws ChecksumException
+	 *             Throws exception if the session could not be created.
+	 */
+	protected SVNRepository createSession() throws ChecksumException {
+		try {
+			// Create session
+			SVNRepository session = SVNRepositoryFactory.create(this.url, null);
+			session.setAuthenticationManager(this.authenticationManager);
+			// Update created session counter
+			this.createdSessionCounter.incrementAndGet();
+			// Return created session
+			return session;
+		} catch (SVNException exception) {
+			throw new ChecksumException("Unable to create Subversion session for \""+this.url+"\".", exception);
+		}
+	}
+
+	/*
+	 * Auto closeable.
+	 */
+
+	@Override
+	public void close() {
+		// Close each idle session
+		IdleSession idleSession;
+		while ((idleSession = this.pollIdleSession())!=null) {
+			idleSession.session.closeSession();
+		}
+	}
+
+	/**
+	 * This class is an idle session of the pool.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private static class IdleSession {
+		/** The idle session. */
+		private final SVNRepository session;
+		/** The time the session became idle (in milliseconds). */
+		private final long time;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param session
+		 *            The idle session.
+		 */
+		private IdleSession(SVNRepository session) {
+			this.session = session;
+			this.time = System.currentTimeMillis();
+		}
+	}
+}
\ No newline at end of file
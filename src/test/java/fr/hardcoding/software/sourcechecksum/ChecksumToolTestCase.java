@@ -1,6 +1,7 @@
 package fr.hardcoding.software.sourcechecksum;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -8,6 +9,7 @@ import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -17,9 +19,13 @@ import junit.framework.TestSuite;
 import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
 import fr.hardcoding.software.sourcechecksum.generator.FsChecksumGenerator;
 import fr.hardcoding.software.sourcechecksum.listener.ConsoleOutputListener;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestFileReader;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestReader;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestSorter;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractFile;
 import fr.hardcoding.software.sourcechecksum.resource.AbstractResource;
+import fr.hardcoding.software.sourcechecksum.resource.manifest.ManifestFile;
 
 /**
  * This class is a test case for the checksum tools.
@@ -293,4 +299,387 @@ public class ChecksumToolTestCase extends TestCase {
 		// Check ignored resources
 		assertEquals(1, leftDirectory.getChildren().size());
 	}
+
+	/**
+	 * Test directory checksums.
+	 */
+	public void testDirectoryChecksum() {
+		// Create paths to compute checksums
+		Path leftPath = Paths.get("src", "test", "resources", "files", "left");
+		Path rightPath = Paths.get("src", "test", "resources", "files", "right");
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		// Declare computed directories
+		AbstractDirectory leftDirectory = null;
+		AbstractDirectory otherLeftDirectory = null;
+		AbstractDirectory rightDirectory = null;
+		AbstractDirectory crcLeftDirectory = null;
+		try {
+			// Compute checksums
+			leftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.SHA256, listener);
+			otherLeftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.SHA256, listener);
+			rightDirectory = new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.SHA256, listener);
+			crcLeftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.CRC32, listener);
+		} catch (ChecksumException exception) {
+			fail("Unable to compute checksums.");
+		}
+		// Check directory checksums
+		assertNotNull(leftDirectory.getChecksum());
+		assertEquals(32, leftDirectory.getChecksum().length);
+		// Check directory checksums do not use the CRC-32 file algorithm
+		assertEquals(32, crcLeftDirectory.getChecksum().length);
+		assertTrue(Arrays.equals(leftDirectory.getChecksum(), otherLeftDirectory.getChecksum()));
+		assertFalse(Arrays.equals(leftDirectory.getChecksum(), rightDirectory.getChecksum()));
+		// Check identical directories have no difference
+		assertFalse(ChecksumTool.computeDifferences(leftDirectory, otherLeftDirectory).hasDifference());
+		// Check different directories difference tree
+		assertEquals(3, ChecksumTool.computeDifferences(leftDirectory, rightDirectory).getDifferences().size());
+		// Declare temporary output file
+		Path outputPath = null;
+		try {
+			outputPath = Files.createTempFile("test", ".tmp");
+		} catch (IOException exception) {
+			fail("Unable to create temporary output file.");
+		}
+		try {
+			// Output checksums with directory checksums
+			ChecksumTool.outputResourceChecksum(leftDirectory, outputPath.toFile(), true);
+		} catch (ChecksumException exception) {
+			fail("Unable to output checksums.");
+		}
+		// Check output content
+		try {
+			List<String> outputLines = Files.readAllLines(outputPath);
+			assertEquals(5, outputLines.size());
+			// Check root directory line ends with the byte length of its content
+			long contentLength = Files.size(outputPath)-outputLines.get(0).length()-System.lineSeparator().length();
+			assertTrue(outputLines.get(0).endsWith("\tleft/\t"+contentLength));
+			assertEquals("37288a2f2760819bf2b11484dffb9276e9cf79368d8208399b0fad6538bc1795	left/a.png", outputLines.get(1));
+		} catch (IOException exception) {
+			fail("Unable to read output checksums.");
+		}
+	}
+
+	/**
+	 * Test out of core differences.
+	 */
+	public void testOutOfCoreDiff() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create file trees
+			Path temporaryPath = Files.createTempDirectory("test");
+			Path leftPath = temporaryPath.resolve("left");
+			Path rightPath = temporaryPath.resolve("right");
+			ChecksumToolTestCase.createFileTrees(leftPath, rightPath);
+			/*
+			 * Compare in memory and out of core differences.
+			 */
+			// Create output files
+			Path inMemoryOutputPath = Files.createTempFile("test", ".tmp");
+			Path outOfCoreOutputPath = Files.createTempFile("test", ".tmp");
+			// Compute differences in memory
+			AbstractDirectory leftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.SHA256, listener);
+			AbstractDirectory rightDirectory = new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.SHA256, listener);
+			ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, inMemoryOutputPath.toFile());
+			// Compute differences out of core with a memory budget forcing a sorted run per file
+			try (ManifestSorter leftSorter = new ManifestSorter(temporaryPath, 1); ManifestSorter rightSorter = new ManifestSorter(temporaryPath, 1)) {
+				new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.SHA256, listener, leftSorter);
+				new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.SHA256, listener, rightSorter);
+				assertEquals(9, leftSorter.getRunCount());
+				ChecksumTool.outputDiffResourceChecksum(leftSorter.sort(), rightSorter.sort(), outOfCoreOutputPath.toFile());
+			}
+			// Check outputs are identical
+			List<String> outputLines = Files.readAllLines(outOfCoreOutputPath);
+			assertEquals(6, outputLines.size());
+			assertEquals(Files.readAllLines(inMemoryOutputPath), outputLines);
+			// Check sorted runs keep paths longer than modified UTF-8 limit
+			char[] name = new char[70000];
+			Arrays.fill(name, 'a');
+			String longPath = "left/"+new String(name);
+			try (ManifestSorter sorter = new ManifestSorter(temporaryPath, 1)) {
+				sorter.add(new ManifestFile(longPath, new byte[] { 1, 2, 3, 4 }));
+				sorter.add(new ManifestFile("left/b", new byte[] { 5, 6, 7, 8 }));
+				assertEquals(2, sorter.getRunCount());
+				ManifestReader reader = sorter.sort();
+				assertEquals(longPath, reader.read().getPath());
+				assertEquals("left/b", reader.read().getPath());
+				assertNull(reader.read());
+			}
+		} catch (IOException|ChecksumException exception) {
+			fail("Unable to compute out of core differences: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test manifest differences.
+	 */
+	public void testManifestDiff() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create file trees
+			Path temporaryPath = Files.createTempDirectory("test");
+			Path leftPath = temporaryPath.resolve("left");
+			Path rightPath = temporaryPath.resolve("right");
+			ChecksumToolTestCase.createFileTrees(leftPath, rightPath);
+			// Compute differences from file trees
+			Path diffOutputPath = temporaryPath.resolve("diff.txt");
+			AbstractDirectory leftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.SHA256, listener);
+			AbstractDirectory rightDirectory = new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.SHA256, listener);
+			ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, diffOutputPath.toFile());
+			List<String> diffLines = Files.readAllLines(diffOutputPath);
+			// Check manifests with and without directory checksums
+			for (boolean directoryChecksums : new boolean[] { false, true }) {
+				// Output manifests
+				Path leftManifestPath = temporaryPath.resolve("left-"+directoryChecksums+".txt");
+				Path rightManifestPath = temporaryPath.resolve("right-"+directoryChecksums+".txt");
+				ChecksumTool.outputResourceChecksum(leftDirectory, leftManifestPath.toFile(), directoryChecksums);
+				ChecksumTool.outputResourceChecksum(rightDirectory, rightManifestPath.toFile(), directoryChecksums);
+				// Compute differences from manifests
+				Path manifestOutputPath = temporaryPath.resolve("manifest-diff-"+directoryChecksums+".txt");
+				try (ManifestReader leftReader = new ManifestFileReader(leftManifestPath);
+						ManifestReader rightReader = new ManifestFileReader(rightManifestPath)) {
+					ChecksumTool.outputDiffResourceChecksum(leftReader, rightReader, manifestOutputPath.toFile());
+				}
+				// Check outputs are identical
+				assertEquals(diffLines, Files.readAllLines(manifestOutputPath));
+			}
+			// Check identical manifests have no difference
+			Path leftManifestPath = temporaryPath.resolve("left-true.txt");
+			Path manifestOutputPath = temporaryPath.resolve("manifest-same.txt");
+			try (ManifestReader leftReader = new ManifestFileReader(leftManifestPath); ManifestReader rightReader = new ManifestFileReader(leftManifestPath)) {
+				ChecksumTool.outputDiffResourceChecksum(leftReader, rightReader, manifestOutputPath.toFile());
+			}
+			assertEquals(0, Files.size(manifestOutputPath));
+		} catch (IOException|ChecksumException exception) {
+			fail("Unable to compute manifest differences: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test manifest differences skip identical directory contents without reading them and check path order.
+	 */
+	public void testManifestSkip() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create file trees with a large identical directory
+			Path temporaryPath = Files.createTempDirectory("test");
+			Path leftPath = temporaryPath.resolve("left");
+			Path rightPath = temporaryPath.resolve("right");
+			for (int directoryIndex = 0; directoryIndex<20; directoryIndex++) {
+				for (int fileIndex = 0; fileIndex<50; fileIndex++) {
+					String file = "big/dir"+directoryIndex+"/file"+fileIndex+".txt";
+					for (Path rootPath : new Path[] { leftPath, rightPath }) {
+						Path filePath = rootPath.resolve(file);
+						Files.createDirectories(filePath.getParent());
+						Files.write(filePath, file.getBytes());
+					}
+				}
+			}
+			Files.write(leftPath.resolve("a.txt"), "left".getBytes());
+			Files.write(rightPath.resolve("a.txt"), "right".getBytes());
+			// Output manifests with directory checksums
+			AbstractDirectory leftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.SHA256, listener);
+			AbstractDirectory rightDirectory = new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.SHA256, listener);
+			Path leftManifestPath = temporaryPath.resolve("left.txt");
+			Path rightManifestPath = temporaryPath.resolve("right.txt");
+			ChecksumTool.outputResourceChecksum(leftDirectory, leftManifestPath.toFile(), true);
+			ChecksumTool.outputResourceChecksum(rightDirectory, rightManifestPath.toFile(), true);
+			// Replace the identical directory content by invalid lines, failing if they were read
+			ChecksumToolTestCase.scrambleDirectoryContent(leftManifestPath, "left/big/");
+			ChecksumToolTestCase.scrambleDirectoryContent(rightManifestPath, "right/big/");
+			// Compute differences from manifests
+			Path manifestOutputPath = temporaryPath.resolve("manifest-diff.txt");
+			try (ManifestReader leftReader = new ManifestFileReader(leftManifestPath); ManifestReader rightReader = new ManifestFileReader(rightManifestPath)) {
+				ChecksumTool.outputDiffResourceChecksum(leftReader, rightReader, manifestOutputPath.toFile());
+			}
+			// Check the only difference is found
+			List<String> outputLines = Files.readAllLines(manifestOutputPath);
+			assertEquals(1, outputLines.size());
+			assertTrue(outputLines.get(0).contains("\tleft/a.txt\t"));
+			/*
+			 * Check manifest out of path order.
+			 */
+			// Output manifests without directory checksums
+			ChecksumTool.outputResourceChecksum(leftDirectory, leftManifestPath.toFile(), false);
+			ChecksumTool.outputResourceChecksum(rightDirectory, rightManifestPath.toFile(), false);
+			// Swap two lines of left manifest
+			List<String> lines = Files.readAllLines(leftManifestPath);
+			Collections.swap(lines, 10, 20);
+			Files.write(leftManifestPath, lines);
+			// Check differences could not be computed
+			try (ManifestReader leftReader = new ManifestFileReader(leftManifestPath); ManifestReader rightReader = new ManifestFileReader(rightManifestPath)) {
+				ChecksumTool.outputDiffResourceChecksum(leftReader, rightReader, manifestOutputPath.toFile());
+				fail("Manifest out of path order should not be diffed.");
+			} catch (ChecksumException exception) {
+				assertTrue(exception.getMessage().startsWith("Manifest is not sorted by path"));
+			}
+		} catch (IOException|ChecksumException exception) {
+			fail("Unable to compute manifest differences: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test moved and copied resource detection.
+	 */
+	public void testMoveDetection() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create file trees (each file content is given after its path)
+			Path temporaryPath = Files.createTempDirectory("test");
+			Path leftPath = temporaryPath.resolve("left");
+			Path rightPath = temporaryPath.resolve("right");
+			String[] leftFiles = new String[] { "lib/x.txt", "x", "lib/y/z.txt", "z", "a.txt", "a", "b.txt", "b", "gone.txt", "gone" };
+			String[] rightFiles = new String[] { "vendor/lib2/x.txt", "x", "vendor/lib2/y/z.txt", "z", "b.txt", "b2", "c.txt", "a", "d.txt", "a", "new.txt",
+					"new" };
+			for (int i = 0; i<leftFiles.length; i += 2) {
+				Path filePath = leftPath.resolve(leftFiles[i]);
+				Files.createDirectories(filePath.getParent());
+				Files.write(filePath, leftFiles[i+1].getBytes());
+			}
+			for (int i = 0; i<rightFiles.length; i += 2) {
+				Path filePath = rightPath.resolve(rightFiles[i]);
+				Files.createDirectories(filePath.getParent());
+				Files.write(filePath, rightFiles[i+1].getBytes());
+			}
+			// Compute differences with move detection
+			Path outputPath = temporaryPath.resolve("diff.txt");
+			AbstractDirectory leftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.CRC32, listener);
+			AbstractDirectory rightDirectory = new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.CRC32, listener);
+			ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, outputPath.toFile(), true);
+			// Check output content
+			List<String> outputLines = Files.readAllLines(outputPath);
+			assertEquals(6, outputLines.size());
+			assertTrue(outputLines.get(0).matches("\\p{XDigit}+\tleft/b.txt\t\\p{XDigit}+\tright/b.txt"));
+			assertTrue(outputLines.get(1).matches("(\\p{XDigit}+)\tleft/lib/\t\\1\tright/vendor/lib2/\tMOVED"));
+			assertTrue(outputLines.get(2).matches("(\\p{XDigit}+)\tleft/a.txt\t\\1\tright/c.txt\tMOVED"));
+			assertTrue(outputLines.get(3).matches("(\\p{XDigit}+)\tleft/a.txt\t\\1\tright/d.txt\tCOPIED"));
+			assertTrue(outputLines.get(4).matches("\t\t\\p{XDigit}+\tright/new.txt"));
+			assertTrue(outputLines.get(5).matches("\\p{XDigit}+\tleft/gone.txt\t\t"));
+			/*
+			 * Check a directory is not moved twice when its sub-directory was moved first.
+			 */
+			// Create file trees with a left directory copied as a whole after its sub-directory
+			Path nestedPath = Files.createTempDirectory("test");
+			Path nestedLeftPath = nestedPath.resolve("left");
+			Path nestedRightPath = nestedPath.resolve("right");
+			leftFiles = new String[] { "outer/m.txt", "m", "outer/inner/n.txt", "n" };
+			rightFiles = new String[] { "r1/n.txt", "n", "r2/m.txt", "m", "r2/inner/n.txt", "n" };
+			for (int i = 0; i<leftFiles.length; i += 2) {
+				Path filePath = nestedLeftPath.resolve(leftFiles[i]);
+				Files.createDirectories(filePath.getParent());
+				Files.write(filePath, leftFiles[i+1].getBytes());
+			}
+			for (int i = 0; i<rightFiles.length; i += 2) {
+				Path filePath = nestedRightPath.resolve(rightFiles[i]);
+				Files.createDirectories(filePath.getParent());
+				Files.write(filePath, rightFiles[i+1].getBytes());
+			}
+			// Compute differences with move detection
+			leftDirectory = new FsChecksumGenerator(nestedLeftPath).compute(ChecksumAlgorithm.CRC32, listener);
+			rightDirectory = new FsChecksumGenerator(nestedRightPath).compute(ChecksumAlgorithm.CRC32, listener);
+			ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, outputPath.toFile(), true);
+			// Check each left resource is moved once
+			outputLines = Files.readAllLines(outputPath);
+			assertEquals(3, outputLines.size());
+			assertTrue(outputLines.get(0).matches("(\\p{XDigit}+)\tleft/outer/inner/\t\\1\tright/r1/\tMOVED"));
+			assertTrue(outputLines.get(1).matches("\t\t\\p{XDigit}+\tright/r2/inner/n.txt"));
+			assertTrue(outputLines.get(2).matches("(\\p{XDigit}+)\tleft/outer/m.txt\t\\1\tright/r2/m.txt\tMOVED"));
+		} catch (IOException|ChecksumException exception) {
+			fail("Unable to compute differences: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test differences of files left unhashed on one or both sides.
+	 */
+	public void testUnhashedDiff() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create file trees
+			Path temporaryPath = Files.createTempDirectory("test");
+			Path leftPath = temporaryPath.resolve("left");
+			Path rightPath = temporaryPath.resolve("right");
+			Files.createDirectories(leftPath);
+			Files.createDirectories(rightPath);
+			for (String file : new String[] { "a.txt", "b.txt", "c.txt" }) {
+				Files.write(leftPath.resolve(file), file.getBytes());
+				Files.write(rightPath.resolve(file), file.getBytes());
+			}
+			AbstractDirectory leftDirectory = new FsChecksumGenerator(leftPath).compute(ChecksumAlgorithm.CRC32, listener);
+			AbstractDirectory rightDirectory = new FsChecksumGenerator(rightPath).compute(ChecksumAlgorithm.CRC32, listener);
+			// Leave a.txt unhashed on both sides and b.txt unhashed on the left side
+			((AbstractFile) leftDirectory.getChildren().get(0)).setChecksum(null);
+			((AbstractFile) rightDirectory.getChildren().get(0)).setChecksum(null);
+			((AbstractFile) leftDirectory.getChildren().get(1)).setChecksum(null);
+			leftDirectory.computeChecksum();
+			rightDirectory.computeChecksum();
+			// Compute differences
+			Path outputPath = temporaryPath.resolve("diff.txt");
+			ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, outputPath.toFile());
+			// Check only the file hashed on one side is reported
+			List<String> outputLines = Files.readAllLines(outputPath);
+			assertEquals(1, outputLines.size());
+			assertTrue(outputLines.get(0).matches(ChecksumTool.UNHASHED_CHECKSUM+"\tleft/b.txt\t\\p{XDigit}+\tright/b.txt"));
+		} catch (IOException|ChecksumException exception) {
+			fail("Unable to compute differences: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Replace each line of a directory content in a manifest by an invalid line of the same length.
+	 * 
+	 * @param manifestPath
+	 *            The manifest path.
+	 * @param directoryPath
+	 *            The directory path with trailing slash.
+	 * @throws IOException
+	 *             Throws exception if the manifest could not be changed.
+	 */
+	private static void scrambleDirectoryContent(Path manifestPath, String directoryPath) throws IOException {
+		// Read manifest bytes
+		byte[] bytes = Files.readAllBytes(manifestPath);
+		String content = new String(bytes, StandardCharsets.ISO_8859_1);
+		// Get directory content length
+		int lengthIndex = content.indexOf("\t"+directoryPath+"\t")+directoryPath.length()+2;
+		int contentIndex = content.indexOf('\n', lengthIndex)+1;
+		long contentLength = Long.parseLong(content.substring(lengthIndex, contentIndex-1).trim());
+		assertTrue(contentLength>0);
+		// Replace each line content
+		for (int index = contentIndex; index<contentIndex+contentLength; index++) {
+			if (bytes[index]!='\n'&&bytes[index]!='\r')
+				bytes[index] = 'x';
+		}
+		// Write manifest bytes
+		Files.write(manifestPath, bytes);
+	}
+
+	/**
+	 * Create left and right file trees with differences.
+	 * 
+	 * @param leftPath
+	 *            The left root directory to create.
+	 * @param rightPath
+	 *            The right root directory to create.
+	 * @throws IOException
+	 *             Throws exception if a file could not be created.
+	 */
+	private static void createFileTrees(Path leftPath, Path rightPath) throws IOException {
+		// Create left files
+		for (String file : new String[] { "a.txt", "a", "sub.txt", "sub/x.txt", "sub/y", "sub/deep/z.txt", "b/c.d", "same/e.txt", "same/f/g" }) {
+			Path filePath = leftPath.resolve(file);
+			Files.createDirectories(filePath.getParent());
+			Files.write(filePath, file.getBytes());
+		}
+		// Create right files
+		for (String file : new String[] { "a.txt", "sub.txt", "sub/x.txt", "sub/deep/z.txt", "sub/deep/zz.txt", "c/d.e", "same/e.txt", "same/f/g" }) {
+			Path filePath = rightPath.resolve(file);
+			Files.createDirectories(filePath.getParent());
+			Files.write(filePath, file.equals("sub.txt") ? "changed".getBytes() : file.getBytes());
+		}
+	}
 }
\ No newline at end of file
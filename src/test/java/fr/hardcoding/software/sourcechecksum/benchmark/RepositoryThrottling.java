@@ -0,0 +1,160 @@
+package fr.hardcoding.software.sourcechecksum.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+
+/**
+ * This class describes the network conditions simulated by {@link ThrottledRepository} and measures the requests sent through it.<br>
+ * Each request waits for a latency, each transferred content waits for the bandwidth and data requests fail at a given rate with a transient
+ * server error. The first file request of a stalled path also waits for a stall duration, as a request stuck on a slow server node.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class RepositoryThrottling {
+	/** The latency of each request (in milliseconds). */
+	private final long latency;
+	/** The bandwidth of each session (in bytes per second, <code>0</code> if not limited). */
+	private final long bandwidth;
+	/** The rate of failing data requests (from <code>0</code> to <code>1</code>). */
+	private final double errorRate;
+	/** The stall durations of the stalled paths not requested yet (in milliseconds). */
+	private final Map<String, Long> stalledPaths;
+	/** The counter of sent requests. */
+	private final AtomicLong requestCounter;
+	/** The counter of transferred content bytes. */
+	private final AtomicLong byteCounter;
+	/** The counter of injected errors. */
+	private final AtomicLong errorCounter;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param latency
+	 *            The latency of each request (in milliseconds).
+	 * @param bandwidth
+	 *            The bandwidth of each session (in bytes per second, <code>0</code> if not limited).
+	 * @param errorRate
+	 *            The rate of failing data requests (from <code>0</code> to <code>1</code>).
+	 */
+	public RepositoryThrottling(long latency, long bandwidth, double errorRate) {
+		this.latency = latency;
+		this.bandwidth = bandwidth;
+		this.errorRate = errorRate;
+		this.stalledPaths = new ConcurrentHashMap<>();
+		this.requestCounter = new AtomicLong();
+		this.byteCounter = new AtomicLong();
+		this.errorCounter = new AtomicLong();
+	}
+
+	/**
+	 * Stall the first file request of a path.
+	 * 
+	 * @param path
+	 *            The repository path of the file to stall.
+	 * @param duration
+	 *            The stall duration (in milliseconds).
+	 */
+	public void addStalledPath(String path, long duration) {
+		this.stalledPaths.put(path, duration);
+	}
+
+	/**
+	 * Get the number of sent requests.
+	 * 
+	 * @return The number of sent requests.
+	 */
+	public long getRequestCount() {
+		return this.requestCounter.get();
+	}
+
+	/**
+	 * Get the number of transferred content bytes.
+	 * 
+	 * @return The number of transferred content bytes.
+	 */
+	public long getByteCount() {
+		return this.byteCounter.get();
+	}
+
+	/**
+	 * Get the number of injected errors.
+	 * 
+	 * @return The number of injected errors.
+	 */
+	public long getErrorCount() {
+		return this.errorCounter.get();
+	}
+
+	/**
+	 * Simulate a request.
+	 * 
+	 * @param data
+	 *            <code>true</code> if the request is a data request that could fail, <code>false</code> otherwise.
+	 * @throws SVNException
+	 *             Throws exception if an error is injected.
+	 */
+	public void request(boolean data) throws SVNException {
+		// Update request counter
+		this.requestCounter.incrementAndGet();
+		// Wait for latency
+		RepositoryThrottling.sleep(TimeUnit.MILLISECONDS.toNanos(this.latency));
+		// Inject error
+		if (data&&this.errorRate>0&&ThreadLocalRandom.current().nextDouble()<this.errorRate) {
+			this.errorCounter.incrementAndGet();
+			SVNErrorMessage errorMessage = SVNErrorMessage.create(SVNErrorCode.RA_DAV_REQUEST_FAILED, "Injected server error");
+			throw new SVNException(errorMessage);
+		}
+	}
+
+	/**
+	 * Simulate a file request stall.<br>
+	 * Only the first request of a stalled path waits, so a duplicate request of the same file is not stalled.
+	 * 
+	 * @param path
+	 *            The repository path of the requested file.
+	 */
+	public void stall(String path) {
+		// Check if path is stalled
+		Long duration = this.stalledPaths.remove(path);
+		if (duration!=null)
+			// Wait for stall duration
+			RepositoryThrottling.sleep(TimeUnit.MILLISECONDS.toNanos(duration));
+	}
+
+	/**
+	 * Simulate a content transfer.
+	 * 
+	 * @param length
+	 *            The number of transferred bytes.
+	 */
+	public void transfer(long length) {
+		// Update byte counter
+		this.byteCounter.addAndGet(length);
+		// Wait for bandwidth
+		if (this.bandwidth>0)
+			RepositoryThrottling.sleep(TimeUnit.SECONDS.toNanos(length)/this.bandwidth);
+	}
+
+	/**
+	 * Sleep without being interrupted.
+	 * 
+	 * @param duration
+	 *            The sleep duration (in nanoseconds).
+	 */
+	private static void sleep(long duration) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(duration);
+		} catch (InterruptedException exception) {
+			// Restore interrupted status
+			Thread.currentThread().interrupt();
+		}
+	}
+}
\ No newline at end of file
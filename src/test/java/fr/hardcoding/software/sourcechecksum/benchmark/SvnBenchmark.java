@@ -0,0 +1,251 @@
+package fr.hardcoding.software.sourcechecksum.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaGenerator;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
+import fr.hardcoding.software.sourcechecksum.generator.SvnChecksumGenerator;
+import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.listener.ConsoleOutputListener;
+import fr.hardcoding.software.sourcechecksum.session.SvnRetryPolicy;
+
+/**
+ * This class is a benchmark of the Subversion checksum computation.<br>
+ * A local repository of configurable shape is created, then checksums are computed through sessions simulating network conditions (latency,
+ * bandwidth and server errors), so Subversion performance changes could be measured offline. It runs from the test classpath, such as:
+ * <code>java -cp target/classes:target/test-classes:&lt;dependencies&gt; fr.hardcoding.software.sourcechecksum.benchmark.SvnBenchmark --latency 50</code>
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class SvnBenchmark {
+	/**
+	 * The main procedure.
+	 * 
+	 * @param args
+	 *            The CLI parameters.
+	 */
+	public static void main(String[] args) {
+		// Create checksum listener
+		ChecksumListener listener = new ConsoleOutputListener();
+		/*
+		 * Parse parameters.
+		 */
+		// Create options declaration
+		Options options = new Options();
+		options.addOption(Option.builder().longOpt("directories").desc("The number of directories (100 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("files").desc("The number of files per directory (20 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("size").desc("The file size in bytes (4096 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("keywords").desc("The rate of files with keywords to translate (0.1 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("externals").desc("The number of directories with an external to a shared library (0 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("latency").desc("The latency of each request in milliseconds (20 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("bandwidth").desc("The bandwidth of each session in bytes per second (not limited by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("errorRate").desc("The rate of failing data requests (0 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("sessions").desc("The number of concurrent Subversion sessions (10 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("reportListing").desc("List directory trees from a single report").build());
+		options.addOption(Option.builder().longOpt("reportContent").desc("Hash file contents from a single report").build());
+		options.addOption(Option.builder().longOpt("adaptiveSessions").desc("Adapt the number of concurrent requests to server feedback").build());
+		options.addOption(Option.builder().longOpt("hedgeRate").desc("The maximum rate of hedged file requests (0 by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("retries").desc("The number of retries of failed requests ("+SvnRetryPolicy.DEFAULT_RETRIES+" by default)").hasArg(true).build());
+		options.addOption(Option.builder().longOpt("help").desc("Print this help").build());
+		// Parse command line
+		CommandLine commandLine = null;
+		try {
+			CommandLineParser commandLineParser = new DefaultParser();
+			commandLine = commandLineParser.parse(options, args);
+		} catch (ParseException exception) {
+			// Notify user then exit
+			listener.onError(exception);
+			System.exit(0);
+		}
+		// Check help parameter
+		if (commandLine.hasOption("help")) {
+			// Print help
+			HelpFormatter helpFormatter = new HelpFormatter();
+			helpFormatter.printHelp("java fr.hardcoding.software.sourcechecksum.benchmark.SvnBenchmark [parameters]", options);
+			// Exit
+			System.exit(0);
+		}
+		try {
+			/*
+			 * Create repository.
+			 */
+			int nbrDirectories = Integer.parseInt(commandLine.getOptionValue("directories", "100"));
+			int nbrFiles = Integer.parseInt(commandLine.getOptionValue("files", "20"));
+			int nbrExternals = Math.min(Integer.parseInt(commandLine.getOptionValue("externals", "0")), nbrDirectories);
+			String url = SvnBenchmark.createRepository(Files.createTempDirectory("benchmark"), nbrDirectories, nbrFiles,
+					Integer.parseInt(commandLine.getOptionValue("size", "4096")), Double.parseDouble(commandLine.getOptionValue("keywords", "0.1")),
+					nbrExternals);
+			/*
+			 * Compute checksums.
+			 */
+			// Create simulated network conditions
+			RepositoryThrottling throttling = new RepositoryThrottling(Long.parseLong(commandLine.getOptionValue("latency", "20")), Long.parseLong(commandLine
+					.getOptionValue("bandwidth", "0")), Double.parseDouble(commandLine.getOptionValue("errorRate", "0")));
+			try (ThrottledSessionPool sessionPool = new ThrottledSessionPool(url, Integer.parseInt(commandLine.getOptionValue("sessions", "10")),
+					throttling)) {
+				// Create and configure checksum generator
+				SvnChecksumGenerator checksumGenerator = new SvnChecksumGenerator(url, sessionPool);
+				checksumGenerator.setReportListing(commandLine.hasOption("reportListing"));
+				checksumGenerator.setReportContent(commandLine.hasOption("reportContent"));
+				checksumGenerator.setAdaptiveConcurrency(commandLine.hasOption("adaptiveSessions"));
+				checksumGenerator.setHedgeRate(Double.parseDouble(commandLine.getOptionValue("hedgeRate", "0")));
+				checksumGenerator.setRetryPolicy(new SvnRetryPolicy(Integer.parseInt(commandLine.getOptionValue("retries",
+						Integer.toString(SvnRetryPolicy.DEFAULT_RETRIES))), SvnRetryPolicy.DEFAULT_DELAY));
+				// Compute checksums
+				long startTime = System.nanoTime();
+				checksumGenerator.compute(ChecksumAlgorithm.SHA256, listener);
+				long elapsedTime = System.nanoTime()-startTime;
+				/*
+				 * Report measures.
+				 */
+				double seconds = elapsedTime/1e9;
+				System.out.println();
+				System.out.println("Requests: "+throttling.getRequestCount()+" ("+throttling.getErrorCount()+" errors injected)");
+				System.out.println("Bytes: "+throttling.getByteCount());
+				System.out.println(String.format("Wall time: %.3f secs", seconds));
+				System.out.println(String.format("Throughput: %.1f files/secs, %.1f requests/secs, %.1f KB/secs", (nbrDirectories+nbrExternals)*nbrFiles/seconds,
+						throttling.getRequestCount()/seconds, throttling.getByteCount()/1024/seconds));
+			}
+		} catch (NumberFormatException exception) {
+			// Notify user then exit
+			System.err.println("Invalid numeric parameter.");
+			System.exit(0);
+		} catch (IOException|SVNException|ChecksumException exception) {
+			// Notify listener on error
+			listener.onError(exception);
+		}
+	}
+
+	/**
+	 * Create a local repository.<br>
+	 * The trunk contains directories of files with deterministic content. Some files have keywords to translate and some directories have an
+	 * external to a shared library, outside of the trunk.
+	 * 
+	 * @param path
+	 *            The directory to create repository in.
+	 * @param nbrDirectories
+	 *            The number of directories.
+	 * @param nbrFiles
+	 *            The number of files per directory.
+	 * @param size
+	 *            The file size (in bytes).
+	 * @param keywordRate
+	 *            The rate of files with keywords to translate (from <code>0</code> to <code>1</code>).
+	 * @param nbrExternals
+	 *            The number of directories with an external to the shared library.
+	 * @return The trunk URL.
+	 * @throws SVNException
+	 *             Throws exception if the repository could not be created.
+	 */
+	public static String createRepository(Path path, int nbrDirectories, int nbrFiles, int size, double keywordRate, int nbrExternals)
+			throws SVNException {
+		// Create local repository
+		SVNURL url = SVNRepositoryFactory.createLocalRepository(path.toFile(), true, true);
+		SVNRepository repository = SVNRepositoryFactory.create(url);
+		try {
+			// Create commit editor
+			ISVNEditor editor = repository.getCommitEditor("Create benchmark repository", null);
+			SVNDeltaGenerator deltaGenerator = new SVNDeltaGenerator();
+			Random random = new Random(0);
+			editor.openRoot(-1);
+			// Add shared library
+			editor.addDir("lib", null, -1);
+			for (int fileIndex = 0; fileIndex<nbrFiles; fileIndex++) {
+				SvnBenchmark.addFile(editor, deltaGenerator, "lib/file"+fileIndex+".txt", SvnBenchmark.createContent(random, size, false));
+			}
+			editor.closeDir();
+			// Add trunk directories of files
+			editor.addDir("trunk", null, -1);
+			for (int directoryIndex = 0; directoryIndex<nbrDirectories; directoryIndex++) {
+				String directory = "trunk/dir"+directoryIndex;
+				editor.addDir(directory, null, -1);
+				if (directoryIndex<nbrExternals)
+					editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib lib"));
+				for (int fileIndex = 0; fileIndex<nbrFiles; fileIndex++) {
+					String file = directory+"/file"+fileIndex+".txt";
+					boolean keywords = random.nextDouble()<keywordRate;
+					SvnBenchmark.addFile(editor, deltaGenerator, file, SvnBenchmark.createContent(random, size, keywords));
+					if (keywords)
+						editor.changeFileProperty(file, SVNProperty.KEYWORDS, SVNPropertyValue.create("Id URL"));
+				}
+				editor.closeDir();
+			}
+			// Commit
+			editor.closeDir();
+			editor.closeDir();
+			editor.closeEdit();
+		} finally {
+			repository.closeSession();
+		}
+		// Return trunk URL
+		return url.appendPath("trunk", false).toString();
+	}
+
+	/**
+	 * Add a file to a commit.
+	 * 
+	 * @param editor
+	 *            The commit editor.
+	 * @param deltaGenerator
+	 *            The delta generator to send file content.
+	 * @param path
+	 *            The file path.
+	 * @param content
+	 *            The file content.
+	 * @throws SVNException
+	 *             Throws exception if the file could not be added.
+	 */
+	private static void addFile(ISVNEditor editor, SVNDeltaGenerator deltaGenerator, String path, byte[] content) throws SVNException {
+		editor.addFile(path, null, -1);
+		editor.applyTextDelta(path, null);
+		String checksum = deltaGenerator.sendDelta(path, new ByteArrayInputStream(content), editor, true);
+		editor.closeFile(path, checksum);
+	}
+
+	/**
+	 * Create a file content of printable lines.
+	 * 
+	 * @param random
+	 *            The random generator of content.
+	 * @param size
+	 *            The content size (in bytes).
+	 * @param keywords
+	 *            <code>true</code> to start content with keywords to translate, <code>false</code> otherwise.
+	 * @return The created content.
+	 */
+	private static byte[] createContent(Random random, int size, boolean keywords) {
+		// Create content
+		byte[] content = new byte[size];
+		for (int index = 0; index<size; index++) {
+			content[index] = (byte) (index%64==63 ? '\n' : 'a'+random.nextInt(26));
+		}
+		// Start content with keywords
+		if (keywords) {
+			byte[] keywordBytes = "$Id$\n$URL$\n".getBytes();
+			System.arraycopy(keywordBytes, 0, content, 0, Math.min(keywordBytes.length, size));
+		}
+		// Return created content
+		return content;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,465 @@
+package fr.hardcoding.software.sourcechecksum.benchmark;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+import org.tmatesoft.svn.core.ISVNDirEntryHandler;
+import org.tmatesoft.svn.core.ISVNLogEntryHandler;
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNLock;
+import org.tmatesoft.svn.core.SVNMergeInfoInheritance;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNRevisionProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.ISVNFileRevisionHandler;
+import org.tmatesoft.svn.core.io.ISVNInheritedPropertiesHandler;
+import org.tmatesoft.svn.core.io.ISVNLocationEntryHandler;
+import org.tmatesoft.svn.core.io.ISVNLocationSegmentHandler;
+import org.tmatesoft.svn.core.io.ISVNLockHandler;
+import org.tmatesoft.svn.core.io.ISVNReplayHandler;
+import org.tmatesoft.svn.core.io.ISVNReporterBaton;
+import org.tmatesoft.svn.core.io.ISVNWorkspaceMediator;
+import org.tmatesoft.svn.core.io.SVNCapability;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.diff.SVNDiffWindow;
+
+/**
+ * This class is a Subversion session decorator simulating network conditions.<br>
+ * Each request is delayed by the throttling latency and data requests (directory listings, file contents, path checks and reports) may fail
+ * with a transient server error. File contents and report deltas are delayed by the throttling bandwidth, and file requests of stalled paths by
+ * their stall duration.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ThrottledRepository extends SVNRepository {
+	/** The decorated session. */
+	private final SVNRepository repository;
+	/** The simulated network conditions. */
+	private final RepositoryThrottling throttling;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param repository
+	 *            The session to decorate.
+	 * @param throttling
+	 *            The simulated network conditions.
+	 */
+	public ThrottledRepository(SVNRepository repository, RepositoryThrottling throttling) {
+		super(repository.getLocation(), null);
+		this.repository = repository;
+		this.throttling = throttling;
+	}
+
+	/*
+	 * Session state.
+	 */
+
+	@Override
+	public void setLocation(SVNURL url, boolean forceReconnect) throws SVNException {
+		this.repository.setLocation(url, forceReconnect);
+		this.myLocation = url;
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public SVNURL getRepositoryRoot() {
+		return this.repository.getRepositoryRoot();
+	}
+
+	@Override
+	public SVNURL getRepositoryRoot(boolean forceConnection) throws SVNException {
+		return this.repository.getRepositoryRoot(forceConnection);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getRepositoryUUID() {
+		return this.repository.getRepositoryUUID();
+	}
+
+	@Override
+	public String getRepositoryUUID(boolean forceConnection) throws SVNException {
+		return this.repository.getRepositoryUUID(forceConnection);
+	}
+
+	@Override
+	public void setAuthenticationManager(ISVNAuthenticationManager authManager) {
+		super.setAuthenticationManager(authManager);
+		this.repository.setAuthenticationManager(authManager);
+	}
+
+	@Override
+	public void closeSession() {
+		this.repository.closeSession();
+	}
+
+	/*
+	 * Data requests.
+	 */
+
+	@Override
+	public SVNNodeKind checkPath(String path, long revision) throws SVNException {
+		this.throttling.request(true);
+		return this.repository.checkPath(path, revision);
+	}
+
+	@Override
+	public long getFile(String path, long revision, SVNProperties properties, OutputStream contents) throws SVNException {
+		this.throttling.request(true);
+		this.throttling.stall(path);
+		return this.repository.getFile(path, revision, properties, contents==null ? null : new ThrottledOutputStream(contents));
+	}
+
+	@Override
+	public long getDir(String path, long revision, SVNProperties properties, ISVNDirEntryHandler handler) throws SVNException {
+		this.throttling.request(true);
+		return this.repository.getDir(path, revision, properties, handler);
+	}
+
+	@Override
+	public long getDir(String path, long revision, SVNProperties properties, int entryFields, ISVNDirEntryHandler handler) throws SVNException {
+		this.throttling.request(true);
+		return this.repository.getDir(path, revision, properties, entryFields, handler);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public SVNDirEntry getDir(String path, long revision, boolean includeCommitMessages, Collection entries) throws SVNException {
+		this.throttling.request(true);
+		return this.repository.getDir(path, revision, includeCommitMessages, entries);
+	}
+
+	@Override
+	public void diff(SVNURL url, long targetRevision, long revision, String target, boolean ignoreAncestry, SVNDepth depth, boolean getContents,
+			ISVNReporterBaton reporter, ISVNEditor editor) throws SVNException {
+		this.throttling.request(true);
+		this.repository.diff(url, targetRevision, revision, target, ignoreAncestry, depth, getContents, reporter, new ThrottledEditor(editor));
+	}
+
+	@Override
+	public void update(SVNURL url, long revision, String target, SVNDepth depth, ISVNReporterBaton reporter, ISVNEditor editor) throws SVNException {
+		this.throttling.request(true);
+		this.repository.update(url, revision, target, depth, reporter, new ThrottledEditor(editor));
+	}
+
+	@Override
+	public void update(long revision, String target, SVNDepth depth, boolean sendCopyFromArgs, ISVNReporterBaton reporter, ISVNEditor editor)
+			throws SVNException {
+		this.throttling.request(true);
+		this.repository.update(revision, target, depth, sendCopyFromArgs, reporter, new ThrottledEditor(editor));
+	}
+
+	@Override
+	public void status(long revision, String target, SVNDepth depth, ISVNReporterBaton reporter, ISVNEditor editor) throws SVNException {
+		this.throttling.request(true);
+		this.repository.status(revision, target, depth, reporter, editor);
+	}
+
+	/*
+	 * Other requests.
+	 */
+
+	@Override
+	public void testConnection() throws SVNException {
+		this.throttling.request(false);
+		this.repository.testConnection();
+	}
+
+	@Override
+	public long getLatestRevision() throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getLatestRevision();
+	}
+
+	@Override
+	public long getDatedRevision(Date date) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getDatedRevision(date);
+	}
+
+	@Override
+	public SVNProperties getRevisionProperties(long revision, SVNProperties properties) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getRevisionProperties(revision, properties);
+	}
+
+	@Override
+	public void setRevisionPropertyValue(long revision, String propertyName, SVNPropertyValue propertyValue) throws SVNException {
+		this.throttling.request(false);
+		this.repository.setRevisionPropertyValue(revision, propertyName, propertyValue);
+	}
+
+	@Override
+	public SVNPropertyValue getRevisionPropertyValue(long revision, String propertyName) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getRevisionPropertyValue(revision, propertyName);
+	}
+
+	@Override
+	public void replay(long lowRevision, long revision, boolean sendDeltas, ISVNEditor editor) throws SVNException {
+		this.throttling.request(false);
+		this.repository.replay(lowRevision, revision, sendDeltas, new ThrottledEditor(editor));
+	}
+
+	@Override
+	public SVNDirEntry info(String path, long revision) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.info(path, revision);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public ISVNEditor getCommitEditor(String logMessage, Map locks, boolean keepLocks, ISVNWorkspaceMediator mediator) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getCommitEditor(logMessage, locks, keepLocks, mediator);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	protected ISVNEditor getCommitEditorInternal(Map locks, boolean keepLocks, SVNProperties revProps, ISVNWorkspaceMediator mediator)
+			throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getCommitEditor(revProps.getStringValue(SVNRevisionProperty.LOG), locks, keepLocks, revProps, mediator);
+	}
+
+	@Override
+	public SVNLock getLock(String path) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getLock(path);
+	}
+
+	@Override
+	public SVNLock[] getLocks(String path) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getLocks(path);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public void lock(Map pathsToRevisions, String comment, boolean force, ISVNLockHandler handler) throws SVNException {
+		this.throttling.request(false);
+		this.repository.lock(pathsToRevisions, comment, force, handler);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public void unlock(Map pathToTokens, boolean force, ISVNLockHandler handler) throws SVNException {
+		this.throttling.request(false);
+		this.repository.unlock(pathToTokens, force, handler);
+	}
+
+	@Override
+	public boolean hasCapability(SVNCapability capability) throws SVNException {
+		return this.repository.hasCapability(capability);
+	}
+
+	@Override
+	protected void getInheritedPropertiesImpl(String path, long revision, String propertyName, ISVNInheritedPropertiesHandler handler)
+			throws SVNException {
+		this.throttling.request(false);
+		this.repository.getInheritedProperties(path, revision, propertyName, handler);
+	}
+
+	@Override
+	protected long getDeletedRevisionImpl(String path, long pegRevision, long endRevision) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getDeletedRevision(path, pegRevision, endRevision);
+	}
+
+	@Override
+	protected long getLocationSegmentsImpl(String path, long pegRevision, long startRevision, long endRevision, ISVNLocationSegmentHandler handler)
+			throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getLocationSegments(path, pegRevision, startRevision, endRevision, handler);
+	}
+
+	@Override
+	protected int getLocationsImpl(String path, long pegRevision, long[] revisions, ISVNLocationEntryHandler handler) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getLocations(path, pegRevision, revisions, handler);
+	}
+
+	@Override
+	protected long logImpl(String[] targetPaths, long startRevision, long endRevision, boolean changedPath, boolean strictNode, long limit,
+			boolean includeMergedRevisions, String[] revisionPropertyNames, ISVNLogEntryHandler handler) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.log(targetPaths, startRevision, endRevision, changedPath, strictNode, limit, includeMergedRevisions,
+				revisionPropertyNames, handler);
+	}
+
+	@Override
+	protected int getFileRevisionsImpl(String path, long startRevision, long endRevision, boolean includeMergedRevisions,
+			ISVNFileRevisionHandler handler) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getFileRevisions(path, startRevision, endRevision, includeMergedRevisions, handler);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	protected Map getMergeInfoImpl(String[] paths, long revision, SVNMergeInfoInheritance inherit, boolean includeDescendants) throws SVNException {
+		this.throttling.request(false);
+		return this.repository.getMergeInfo(paths, revision, inherit, includeDescendants);
+	}
+
+	@Override
+	protected void replayRangeImpl(long startRevision, long endRevision, long lowRevision, boolean sendDeltas, ISVNReplayHandler handler)
+			throws SVNException {
+		this.throttling.request(false);
+		this.repository.replayRange(startRevision, endRevision, lowRevision, sendDeltas, handler);
+	}
+
+	/**
+	 * This class is an output stream delayed by the throttling bandwidth.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private class ThrottledOutputStream extends FilterOutputStream {
+		/**
+		 * Constructor.
+		 * 
+		 * @param outputStream
+		 *            The output stream to write to.
+		 */
+		private ThrottledOutputStream(OutputStream outputStream) {
+			super(outputStream);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			ThrottledRepository.this.throttling.transfer(1);
+			this.out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ThrottledRepository.this.throttling.transfer(len);
+			this.out.write(b, off, len);
+		}
+	}
+
+	/**
+	 * This class is an editor whose text deltas are delayed by the throttling bandwidth.
+	 * 
+	 * @author Bruce BUJON
+	 *
+	 */
+	private class ThrottledEditor implements ISVNEditor {
+		/** The decorated editor. */
+		private final ISVNEditor editor;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param editor
+		 *            The editor to decorate.
+		 */
+		private ThrottledEditor(ISVNEditor editor) {
+			this.editor = editor;
+		}
+
+		@Override
+		public void applyTextDelta(String path, String baseChecksum) throws SVNException {
+			this.editor.applyTextDelta(path, baseChecksum);
+		}
+
+		@Override
+		public OutputStream textDeltaChunk(String path, SVNDiffWindow diffWindow) throws SVNException {
+			ThrottledRepository.this.throttling.transfer(diffWindow.getNewDataLength());
+			return this.editor.textDeltaChunk(path, diffWindow);
+		}
+
+		@Override
+		public void textDeltaEnd(String path) throws SVNException {
+			this.editor.textDeltaEnd(path);
+		}
+
+		@Override
+		public void targetRevision(long revision) throws SVNException {
+			this.editor.targetRevision(revision);
+		}
+
+		@Override
+		public void openRoot(long revision) throws SVNException {
+			this.editor.openRoot(revision);
+		}
+
+		@Override
+		public void deleteEntry(String path, long revision) throws SVNException {
+			this.editor.deleteEntry(path, revision);
+		}
+
+		@Override
+		public void absentDir(String path) throws SVNException {
+			this.editor.absentDir(path);
+		}
+
+		@Override
+		public void absentFile(String path) throws SVNException {
+			this.editor.absentFile(path);
+		}
+
+		@Override
+		public void addDir(String path, String copyFromPath, long copyFromRevision) throws SVNException {
+			this.editor.addDir(path, copyFromPath, copyFromRevision);
+		}
+
+		@Override
+		public void openDir(String path, long revision) throws SVNException {
+			this.editor.openDir(path, revision);
+		}
+
+		@Override
+		public void changeDirProperty(String name, SVNPropertyValue value) throws SVNException {
+			this.editor.changeDirProperty(name, value);
+		}
+
+		@Override
+		public void closeDir() throws SVNException {
+			this.editor.closeDir();
+		}
+
+		@Override
+		public void addFile(String path, String copyFromPath, long copyFromRevision) throws SVNException {
+			this.editor.addFile(path, copyFromPath, copyFromRevision);
+		}
+
+		@Override
+		public void openFile(String path, long revision) throws SVNException {
+			this.editor.openFile(path, revision);
+		}
+
+		@Override
+		public void changeFileProperty(String path, String propertyName, SVNPropertyValue propertyValue) throws SVNException {
+			this.editor.changeFileProperty(path, propertyName, propertyValue);
+		}
+
+		@Override
+		public void closeFile(String path, String textChecksum) throws SVNException {
+			this.editor.closeFile(path, textChecksum);
+		}
+
+		@Override
+		public SVNCommitInfo closeEdit() throws SVNException {
+			return this.editor.closeEdit();
+		}
+
+		@Override
+		public void abortEdit() throws SVNException {
+			this.editor.abortEdit();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package fr.hardcoding.software.sourcechecksum.benchmark;
+
+import org.tmatesoft.svn.core.io.SVNRepository;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
+
+/**
+ * This class is a session pool whose sessions simulate network conditions.
+ * 
+ * @author Bruce BUJON
+ *
+ */
+public class ThrottledSessionPool extends SvnSessionPool {
+	/** The simulated network conditions. */
+	private final RepositoryThrottling throttling;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param url
+	 *            The Subversion URL of the sessions.
+	 * @param size
+	 *            The pool size.
+	 * @param throttling
+	 *            The simulated network conditions.
+	 * @throws ChecksumException
+	 *             Throws exception if the URL is not valid.
+	 */
+	public ThrottledSessionPool(String url, int size, RepositoryThrottling throttling) throws ChecksumException {
+		super(url, "benchmark", new char[0], size);
+		this.throttling = throttling;
+	}
+
+	@Override
+	protected SVNRepository createSession() throws ChecksumException {
+		return new ThrottledRepository(super.createSession(), this.throttling);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,1387 @@
+package fr.hardcoding.software.sourcechecksum.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNProperty;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.auth.BasicAuthenticationManager;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaGenerator;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import fr.hardcoding.software.sourcechecksum.ChecksumException;
+import fr.hardcoding.software.sourcechecksum.ChecksumTool;
+import fr.hardcoding.software.sourcechecksum.algorithm.ChecksumAlgorithm;
+import fr.hardcoding.software.sourcechecksum.benchmark.RepositoryThrottling;
+import fr.hardcoding.software.sourcechecksum.benchmark.SvnBenchmark;
+import fr.hardcoding.software.sourcechecksum.benchmark.ThrottledSessionPool;
+import fr.hardcoding.software.sourcechecksum.difference.DifferenceVisitor;
+import fr.hardcoding.software.sourcechecksum.difference.FileDifference;
+import fr.hardcoding.software.sourcechecksum.difference.MovedDirectoryDifference;
+import fr.hardcoding.software.sourcechecksum.listener.ChecksumListener;
+import fr.hardcoding.software.sourcechecksum.listener.ConsoleOutputListener;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestFileReader;
+import fr.hardcoding.software.sourcechecksum.manifest.ManifestReader;
+import fr.hardcoding.software.sourcechecksum.resource.AbstractDirectory;
+import fr.hardcoding.software.sourcechecksum.session.SvnRequestExecutor;
+import fr.hardcoding.software.sourcechecksum.session.SvnRequestLimiter;
+import fr.hardcoding.software.sourcechecksum.session.SvnRetryPolicy;
+import fr.hardcoding.software.sourcechecksum.session.SvnSessionPool;
+
+/**
+ * This class is a test case for the Subversion checksum generator.<br/>
+ * It uses a local file repository created for each test.
+ */
+public class SvnChecksumGeneratorTestCase extends TestCase {
+	/** The number of directories of the test repository. */
+	private static final int NBR_DIRECTORIES = 50;
+	/** The number of files per directory of the test repository. */
+	private static final int NBR_FILES = 10;
+	/** The depth of the task tree to check completion latch. */
+	private static final int TASK_TREE_DEPTH = 1000;
+
+	/**
+	 * Create the suite of tests.
+	 * 
+	 * @return The created suite of tests.
+	 */
+	public static Test suite() {
+		// Return test suite
+		return new TestSuite(SvnChecksumGeneratorTestCase.class);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param testName
+	 *            The name of the test case.
+	 */
+	public SvnChecksumGeneratorTestCase(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		// Initialize factory for local access
+		FSRepositoryFactory.setup();
+	}
+
+	/**
+	 * Test report listing and report content against directory listing.
+	 */
+	public void testReportListing() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Create ignore matcher
+			PathMatcher ignoreMatcher = FileSystems.getDefault().getPathMatcher("glob:trunk/ignored");
+			/*
+			 * Compare directory and report listings.
+			 */
+			// Compute checksums listing each directory
+			long startTime = System.nanoTime();
+			SvnChecksumGenerator directoryGenerator = new SvnChecksumGenerator(url, "test", new char[0]);
+			Path directoryOutputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(directoryGenerator.compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher), directoryOutputPath.toFile());
+			long directoryTime = System.nanoTime()-startTime;
+			// Compute checksums listing from report
+			startTime = System.nanoTime();
+			SvnChecksumGenerator reportGenerator = new SvnChecksumGenerator(url, "test", new char[0]);
+			reportGenerator.setReportListing(true);
+			Path reportOutputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(reportGenerator.compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher), reportOutputPath.toFile());
+			long reportTime = System.nanoTime()-startTime;
+			// Compute checksums hashing contents from report
+			startTime = System.nanoTime();
+			SvnChecksumGenerator contentGenerator = new SvnChecksumGenerator(url, "test", new char[0]);
+			contentGenerator.setReportContent(true);
+			Path contentOutputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(contentGenerator.compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher), contentOutputPath.toFile());
+			long contentTime = System.nanoTime()-startTime;
+			// Output benchmark
+			listener.onDebug("Directory listing in "+directoryTime/1000000+" ms, report listing in "+reportTime/1000000+" ms, report content in "+contentTime
+					/1000000+" ms");
+			// Check outputs are identical
+			List<String> outputLines = Files.readAllLines(reportOutputPath);
+			assertEquals(SvnChecksumGeneratorTestCase.NBR_DIRECTORIES*SvnChecksumGeneratorTestCase.NBR_FILES+1, outputLines.size());
+			assertEquals(Files.readAllLines(directoryOutputPath), outputLines);
+			assertEquals(outputLines, Files.readAllLines(contentOutputPath));
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compare listings: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test server checksums against downloaded content checksums.
+	 */
+	public void testServerChecksums() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Compute checksums from downloaded content
+			Path contentOutputPath = Files.createTempFile("test", ".tmp");
+			SvnChecksumGenerator contentGenerator = new SvnChecksumGenerator(url, "test", new char[0]);
+			ChecksumTool.outputResourceChecksum(contentGenerator.compute(ChecksumAlgorithm.MD5, listener), contentOutputPath.toFile());
+			// Compute checksums from server, verifying half of them
+			Path serverOutputPath = Files.createTempFile("test", ".tmp");
+			SvnChecksumGenerator serverGenerator = new SvnChecksumGenerator(url, "test", new char[0]);
+			serverGenerator.setServerChecksums(true);
+			serverGenerator.setVerifyRate(0.5);
+			ChecksumTool.outputResourceChecksum(serverGenerator.compute(ChecksumAlgorithm.MD5, listener), serverOutputPath.toFile());
+			// Check outputs are identical
+			assertEquals(Files.readAllLines(contentOutputPath), Files.readAllLines(serverOutputPath));
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compare server checksums: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test persistent checksum and directory listing caches.
+	 */
+	public void testChecksumCache() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			Path cachePath = Files.createTempDirectory("test");
+			// Compute checksums filling cache
+			SvnChecksumGenerator generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			generator.setCacheDirectory(cachePath);
+			Path firstOutputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), firstOutputPath.toFile());
+			assertTrue(debugMessages.contains("0 checksums read from cache."));
+			// Commit a file change
+			SVNRepository repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Change test file", null);
+				editor.openRoot(-1);
+				editor.openDir("dir0", -1);
+				editor.openFile("dir0/file0.txt", -1);
+				editor.applyTextDelta("dir0/file0.txt", null);
+				String checksum = new SVNDeltaGenerator().sendDelta("dir0/file0.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("dir0/file0.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Compute checksums from cache
+			generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			generator.setCacheDirectory(cachePath);
+			Path secondOutputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), secondOutputPath.toFile());
+			// Check only changed file was not read from cache
+			int nbrUnchangedFiles = SvnChecksumGeneratorTestCase.NBR_DIRECTORIES*SvnChecksumGeneratorTestCase.NBR_FILES+1;
+			assertTrue(debugMessages.contains(nbrUnchangedFiles+" checksums read from cache."));
+			// Check unchanged directories were read from cache (all but the changed one plus the ignored one, the trunk being always listed)
+			assertTrue(debugMessages.contains(SvnChecksumGeneratorTestCase.NBR_DIRECTORIES+" directories read from cache."));
+			List<String> firstOutputLines = Files.readAllLines(firstOutputPath);
+			List<String> secondOutputLines = Files.readAllLines(secondOutputPath);
+			assertEquals(firstOutputLines.size(), secondOutputLines.size());
+			firstOutputLines.removeAll(secondOutputLines);
+			assertEquals(1, firstOutputLines.size());
+			assertTrue(firstOutputLines.get(0).endsWith("trunk/dir0/file0.txt"));
+			// Replace directory listing cache by a truncated file without header
+			try (DirectoryStream<Path> listingPaths = Files.newDirectoryStream(cachePath, "*.listing")) {
+				for (Path listingPath : listingPaths) {
+					try (DataOutputStream outputStream = new DataOutputStream(Files.newOutputStream(listingPath))) {
+						outputStream.writeUTF("/trunk");
+						outputStream.writeLong(1);
+						outputStream.writeInt(100);
+					}
+				}
+			}
+			// Check stale directory listing cache is ignored
+			debugMessages.clear();
+			generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			generator.setCacheDirectory(cachePath);
+			Path thirdOutputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), thirdOutputPath.toFile());
+			assertTrue(debugMessages.contains("0 directory listings loaded from cache."));
+			assertEquals(secondOutputLines, Files.readAllLines(thirdOutputPath));
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums with caches: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test a bounded session pool shared by two generators.
+	 */
+	public void testSessionPool() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Create a session pool of two sessions
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 2)) {
+				// Compute checksums twice with the same pool
+				Path firstOutputPath = Files.createTempFile("test", ".tmp");
+				SvnChecksumGenerator firstGenerator = new SvnChecksumGenerator(url, sessionPool);
+				ChecksumTool.outputResourceChecksum(firstGenerator.compute(ChecksumAlgorithm.SHA256, listener), firstOutputPath.toFile());
+				Path secondOutputPath = Files.createTempFile("test", ".tmp");
+				SvnChecksumGenerator secondGenerator = new SvnChecksumGenerator(url, sessionPool);
+				secondGenerator.setReportListing(true);
+				ChecksumTool.outputResourceChecksum(secondGenerator.compute(ChecksumAlgorithm.SHA256, listener), secondOutputPath.toFile());
+				// Check outputs are identical
+				assertEquals(Files.readAllLines(firstOutputPath), Files.readAllLines(secondOutputPath));
+				// Check sessions were reused
+				assertTrue(sessionPool.getCreatedSessionCount()<=2);
+				// Check a broken session is evicted and replaced
+				SVNRepository session = sessionPool.acquire();
+				sessionPool.invalidate(session);
+				sessionPool.release(sessionPool.acquire());
+				assertTrue(sessionPool.getCreatedSessionCount()<=3);
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums with session pool: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test the default session pool size of each Subversion protocol.
+	 */
+	public void testDefaultSessionPoolSize() {
+		// Check local repositories are bound to processors
+		assertEquals(Runtime.getRuntime().availableProcessors(), SvnSessionPool.getDefaultSize("file:///var/svn/repository/trunk"));
+		// Check svnserve repositories, tunneled or not, hold fewer sessions
+		assertEquals(SvnSessionPool.DEFAULT_SVN_SIZE, SvnSessionPool.getDefaultSize("svn://localhost/repository/trunk"));
+		assertEquals(SvnSessionPool.DEFAULT_SVN_SIZE, SvnSessionPool.getDefaultSize("svn+ssh://localhost/repository/trunk"));
+		// Check HTTP(S) repositories hold more sessions
+		assertEquals(SvnSessionPool.DEFAULT_SIZE, SvnSessionPool.getDefaultSize("http://localhost/svn/repository/trunk"));
+		assertEquals(SvnSessionPool.DEFAULT_SIZE, SvnSessionPool.getDefaultSize("https://localhost/svn/repository/trunk"));
+		assertTrue(SvnSessionPool.DEFAULT_SVN_SIZE<SvnSessionPool.DEFAULT_SIZE);
+	}
+
+	/**
+	 * Test externals listed once and grafted, from the same and another repository.
+	 */
+	public void testExternals() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Create another repository with a library
+			Path otherRepositoryPath = Files.createTempDirectory("test");
+			SVNURL otherUrl = SVNRepositoryFactory.createLocalRepository(otherRepositoryPath.toFile(), true, true);
+			SvnChecksumGeneratorTestCase.commitLibrary(otherUrl, "other");
+			// Add a library to repository
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			SvnChecksumGeneratorTestCase.commitLibrary(rootUrl, "lib");
+			// Define externals to the libraries
+			SVNRepository repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Define externals", null);
+				editor.openRoot(-1);
+				editor.openDir("dir0", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib lib"));
+				editor.closeDir();
+				editor.openDir("dir1", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib lib\n"+otherUrl.appendPath("other", false)+" other"));
+				editor.closeDir();
+				editor.openDir("dir2", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib libs/first\n^/lib libs/second"));
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Compute checksums
+			SvnChecksumGenerator generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			Path outputPath = Files.createTempFile("test", ".tmp");
+			ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), outputPath.toFile());
+			List<String> outputLines = Files.readAllLines(outputPath);
+			// Check each library was listed once
+			assertTrue(debugMessages.contains("3 externals grafted from 2 listed externals."));
+			// Check grafted libraries have the listed library checksums
+			int nbrLibraryFiles = 0;
+			for (String line : outputLines) {
+				if (!line.endsWith("trunk/dir0/lib/file.txt"))
+					continue;
+				assertTrue(outputLines.contains(line.replace("dir0/lib", "dir1/lib")));
+				assertTrue(outputLines.contains(line.replace("dir0/lib", "dir2/libs/first")));
+				assertTrue(outputLines.contains(line.replace("dir0/lib", "dir2/libs/second")));
+				nbrLibraryFiles++;
+			}
+			assertEquals(1, nbrLibraryFiles);
+			// Check library from the other repository
+			boolean otherLibrary = false;
+			for (String line : outputLines) {
+				otherLibrary |= line.endsWith("trunk/dir1/other/file.txt");
+			}
+			assertTrue(otherLibrary);
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums with externals: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test concurrent listing builds the same tree as a sequential listing.
+	 */
+	public void testConcurrentListing() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Add libraries to repository
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			for (int libraryIndex = 0; libraryIndex<4; libraryIndex++) {
+				SvnChecksumGeneratorTestCase.commitLibrary(rootUrl, "lib"+libraryIndex);
+			}
+			// Define many externals in the same directories, some sharing intermediate directories
+			SVNRepository repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Define externals", null);
+				editor.openRoot(-1);
+				for (int directoryIndex = 0; directoryIndex<4; directoryIndex++) {
+					StringBuilder externals = new StringBuilder();
+					for (int externalIndex = 0; externalIndex<8; externalIndex++) {
+						externals.append("^/lib").append(externalIndex%4).append(" libs/ext").append(externalIndex).append('\n');
+						externals.append("^/lib").append(externalIndex%4).append(" ext").append(externalIndex).append('\n');
+					}
+					editor.openDir("dir"+directoryIndex, -1);
+					editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create(externals.toString()));
+					editor.closeDir();
+				}
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Compute checksums with a single session
+			List<String> sequentialOutputLines;
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 1)) {
+				Path outputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+						outputPath.toFile(), true);
+				sequentialOutputLines = Files.readAllLines(outputPath);
+			}
+			// Check each external file was output (each library has a single file)
+			int nbrExternalFiles = 0;
+			for (String line : sequentialOutputLines) {
+				if (line.contains("/ext")&&line.endsWith("/file.txt"))
+					nbrExternalFiles++;
+			}
+			assertEquals(4*16, nbrExternalFiles);
+			// Check repeated concurrent computations output the same tree
+			for (int run = 0; run<5; run++) {
+				try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 16)) {
+					Path outputPath = Files.createTempFile("test", ".tmp");
+					ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+							outputPath.toFile(), true);
+					assertEquals(sequentialOutputLines, Files.readAllLines(outputPath));
+				}
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums concurrently: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test the retry policy only retries transient failures.
+	 */
+	public void testRetryPolicy() {
+		// Create retry policy
+		SvnRetryPolicy retryPolicy = new SvnRetryPolicy(2, 100);
+		// Check transient failures are retried until no retry remains
+		ChecksumException transientException = new ChecksumException("Unable to get file.", new SVNException(SVNErrorMessage.create(
+				SVNErrorCode.RA_DAV_REQUEST_FAILED)));
+		assertTrue(retryPolicy.isRetryable(transientException, 0));
+		assertTrue(retryPolicy.isRetryable(transientException, 1));
+		assertFalse(retryPolicy.isRetryable(transientException, 2));
+		assertTrue(retryPolicy.isRetryable(new ChecksumException("Unable to get file.", new IOException("Connection reset")), 0));
+		// Check other failures are not retried
+		assertFalse(retryPolicy.isRetryable(new ChecksumException("Unable to get file.", new SVNException(SVNErrorMessage
+				.create(SVNErrorCode.RA_NOT_AUTHORIZED))), 0));
+		assertFalse(retryPolicy.isRetryable(new ChecksumException("Unable to get file.", new SVNException(SVNErrorMessage
+				.create(SVNErrorCode.FS_NOT_FOUND))), 0));
+		assertFalse(retryPolicy.isRetryable(new ChecksumException("Unable to get file."), 0));
+		// Check delays grow exponentially with jitter
+		for (int attempt = 0; attempt<3; attempt++) {
+			long delay = retryPolicy.getDelay(attempt);
+			assertTrue(delay>=(100<<attempt)/2);
+			assertTrue(delay<=100<<attempt);
+		}
+		// Check delays are bounded
+		assertTrue(retryPolicy.getDelay(100)<=60000);
+	}
+
+	/**
+	 * Test the request limiter adapts concurrency and bounds request rate.
+	 */
+	public void testRequestLimiter() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Check adaptive limit grows while requests succeed
+			SvnRequestLimiter requestLimiter = new SvnRequestLimiter(8, true, 0);
+			assertEquals(4, requestLimiter.getLimit());
+			for (int request = 0; request<100; request++)
+				requestLimiter.release(requestLimiter.acquire(), false);
+			assertEquals(8, requestLimiter.getLimit());
+			// Check adaptive limit shrinks on server failure
+			requestLimiter.release(requestLimiter.acquire(), true);
+			assertEquals(4, requestLimiter.getLimit());
+			// Check request rate is bounded
+			requestLimiter = new SvnRequestLimiter(8, false, 50);
+			long startTime = System.nanoTime();
+			for (int request = 0; request<11; request++)
+				requestLimiter.release(requestLimiter.acquire(), false);
+			assertTrue(System.nanoTime()-startTime>=180000000L);
+			// Check request slot is given back when interrupted while waiting for request rate
+			requestLimiter = new SvnRequestLimiter(1, false, 10);
+			requestLimiter.release(requestLimiter.acquire(), false);
+			Thread.currentThread().interrupt();
+			try {
+				requestLimiter.acquire();
+				fail("Interrupted request should not be sent.");
+			} catch (ChecksumException exception) {
+				assertTrue(Thread.interrupted());
+			}
+			requestLimiter.release(requestLimiter.acquire(), false);
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 8)) {
+				// Compute checksums with the whole session pool
+				Path firstOutputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+						firstOutputPath.toFile());
+				// Compute checksums with adaptive and rate bounded requests
+				Path secondOutputPath = Files.createTempFile("test", ".tmp");
+				SvnChecksumGenerator checksumGenerator = new SvnChecksumGenerator(url, sessionPool);
+				checksumGenerator.setAdaptiveConcurrency(true);
+				checksumGenerator.setMaxRequestRate(5000);
+				ChecksumTool.outputResourceChecksum(checksumGenerator.compute(ChecksumAlgorithm.SHA256, listener), secondOutputPath.toFile());
+				// Check outputs are identical
+				assertEquals(Files.readAllLines(firstOutputPath), Files.readAllLines(secondOutputPath));
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums with request limiter: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test the completion latch is released once, when the last task of a deep task tree finishes.
+	 */
+	public void testCompletionLatch() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		// Check with a single thread and with many threads
+		for (int threadCount : new int[] { 1, 16 }) {
+			// Check every task finishes before the latch is released
+			int taskCount = SvnChecksumGeneratorTestCase.checkCompletionLatch(threadCount, -1, listener);
+			assertEquals(2*SvnChecksumGeneratorTestCase.TASK_TREE_DEPTH+1, taskCount);
+			// Check a task failing partway neither holds nor releases the latch early
+			taskCount = SvnChecksumGeneratorTestCase.checkCompletionLatch(threadCount, SvnChecksumGeneratorTestCase.TASK_TREE_DEPTH/2, listener);
+			assertTrue(taskCount>SvnChecksumGeneratorTestCase.TASK_TREE_DEPTH/2);
+			assertTrue(taskCount<2*SvnChecksumGeneratorTestCase.TASK_TREE_DEPTH+1);
+		}
+	}
+
+	/**
+	 * Test hedged file requests compute the same checksums.
+	 */
+	public void testHedgedRequests() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Compute checksums without hedged requests
+			Path firstOutputPath = Files.createTempFile("test", ".tmp");
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 4)) {
+				ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+						firstOutputPath.toFile());
+			}
+			// Compute checksums with hedged requests, the first requests of two files of the last directory being stalled
+			RepositoryThrottling throttling = new RepositoryThrottling(0, 0, 0);
+			String stalledDirectory = "/trunk/dir"+(SvnChecksumGeneratorTestCase.NBR_DIRECTORIES-1);
+			throttling.addStalledPath(stalledDirectory+"/file0.txt", 2000);
+			throttling.addStalledPath(stalledDirectory+"/file1.txt", 2000);
+			Path secondOutputPath = Files.createTempFile("test", ".tmp");
+			try (SvnSessionPool sessionPool = new ThrottledSessionPool(url, 4, throttling)) {
+				SvnChecksumGenerator checksumGenerator = new SvnChecksumGenerator(url, sessionPool);
+				checksumGenerator.setHedgeRate(0.1);
+				ChecksumTool.outputResourceChecksum(checksumGenerator.compute(ChecksumAlgorithm.SHA256, listener), secondOutputPath.toFile());
+			}
+			// Check outputs are identical
+			List<String> lines = Files.readAllLines(firstOutputPath);
+			assertEquals(lines, Files.readAllLines(secondOutputPath));
+			// Check hedged requests are capped and completed the stalled requests
+			boolean hedgeMessage = false;
+			for (String message : debugMessages) {
+				if (message.endsWith(" completed first).")) {
+					hedgeMessage = true;
+					int hedgeCount = Integer.parseInt(message.substring(0, message.indexOf(' ')));
+					int hedgeWinCount = Integer.parseInt(message.substring(message.indexOf('(')+1, message.indexOf(" completed first")));
+					assertTrue(hedgeCount<=0.1*lines.size());
+					assertTrue(hedgeWinCount>0);
+				}
+			}
+			assertTrue(hedgeMessage);
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums with hedged requests: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test checksums computed through throttled and failing sessions.
+	 */
+	public void testThrottledRepository() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create benchmark repository
+			String url = SvnBenchmark.createRepository(Files.createTempDirectory("test"), 10, 10, 1024, 0.2, 2);
+			// Compute checksums through regular sessions
+			Path firstOutputPath = Files.createTempFile("test", ".tmp");
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 4)) {
+				ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+						firstOutputPath.toFile());
+			}
+			// Compute checksums through sessions with latency and server errors
+			Path secondOutputPath = Files.createTempFile("test", ".tmp");
+			RepositoryThrottling throttling = new RepositoryThrottling(1, 0, 0.1);
+			debugMessages.clear();
+			try (SvnSessionPool sessionPool = new ThrottledSessionPool(url, 4, throttling)) {
+				SvnChecksumGenerator checksumGenerator = new SvnChecksumGenerator(url, sessionPool);
+				checksumGenerator.setRetryPolicy(new SvnRetryPolicy(10, 10));
+				ChecksumTool.outputResourceChecksum(checksumGenerator.compute(ChecksumAlgorithm.SHA256, listener), secondOutputPath.toFile());
+			}
+			// Check outputs are identical
+			List<String> outputLines = Files.readAllLines(firstOutputPath);
+			assertEquals(12*10, outputLines.size());
+			assertEquals(outputLines, Files.readAllLines(secondOutputPath));
+			// Check each injected error was retried
+			assertTrue(throttling.getRequestCount()>0);
+			assertTrue(debugMessages.contains(throttling.getErrorCount()+" Subversion requests retried."));
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums through throttled sessions: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test failed resources are skipped when continuing on error.
+	 */
+	public void testContinueOnError() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Compute checksums without external
+			List<String> expectedOutputLines;
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 4)) {
+				Path outputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+						outputPath.toFile());
+				expectedOutputLines = Files.readAllLines(outputPath);
+			}
+			// Define an external to a missing path
+			SVNRepository repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Define missing external", null);
+				editor.openRoot(-1);
+				editor.openDir("dir0", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/missing ext"));
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], 4)) {
+				// Check computation breaks by default
+				try {
+					new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener);
+					fail("Computation should break on missing external.");
+				} catch (ChecksumException exception) {
+					// Computation broke as expected
+				}
+				// Check computation skips missing external when continuing on error
+				SvnChecksumGenerator checksumGenerator = new SvnChecksumGenerator(url, sessionPool);
+				checksumGenerator.setContinueOnError(true);
+				Path outputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputResourceChecksum(checksumGenerator.compute(ChecksumAlgorithm.SHA256, listener), outputPath.toFile(), false,
+						checksumGenerator.getFailedPaths());
+				assertEquals(1, checksumGenerator.getFailedPaths().size());
+				String failedPath = checksumGenerator.getFailedPaths().keySet().iterator().next();
+				assertTrue(failedPath.endsWith("dir0/ext"));
+				// Check other files are output, followed by the failed path
+				List<String> outputLines = Files.readAllLines(outputPath);
+				assertEquals(expectedOutputLines.size()+1, outputLines.size());
+				assertEquals(expectedOutputLines, outputLines.subList(0, expectedOutputLines.size()));
+				assertTrue(outputLines.get(expectedOutputLines.size()).startsWith("FAILED\t"+failedPath+"\t"));
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums on error: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test server-side diff against full diff of a branch.
+	 */
+	public void testServerDiff() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Add a library to repository
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			SvnChecksumGeneratorTestCase.commitLibrary(rootUrl, "lib");
+			String branchUrl = rootUrl.appendPath("branch", false).toString();
+			SVNRepository repository = SVNRepositoryFactory.create(rootUrl);
+			try {
+				// Change library
+				long libraryRevision = repository.getLatestRevision();
+				ISVNEditor editor = repository.getCommitEditor("Change library", null);
+				editor.openRoot(-1);
+				editor.openDir("lib", -1);
+				editor.openFile("lib/file.txt", -1);
+				editor.applyTextDelta("lib/file.txt", null);
+				String checksum = new SVNDeltaGenerator().sendDelta("lib/file.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("lib/file.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+				// Define externals to the library in trunk
+				editor = repository.getCommitEditor("Define externals", null);
+				editor.openRoot(-1);
+				editor.openDir("trunk", -1);
+				editor.openDir("trunk/dir2", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("-r"+libraryRevision+" ^/lib ext"));
+				editor.closeDir();
+				editor.openDir("trunk/dir3", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib ext"));
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+				// Create a branch from trunk then change it
+				long revision = repository.getLatestRevision();
+				editor = repository.getCommitEditor("Create branch", null);
+				editor.openRoot(-1);
+				editor.addDir("branch", "/trunk", revision);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+				editor = repository.getCommitEditor("Change branch", null);
+				editor.openRoot(-1);
+				editor.openDir("branch", -1);
+				editor.openDir("branch/dir0", -1);
+				editor.openFile("branch/dir0/file0.txt", -1);
+				editor.applyTextDelta("branch/dir0/file0.txt", null);
+				checksum = new SVNDeltaGenerator().sendDelta("branch/dir0/file0.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("branch/dir0/file0.txt", checksum);
+				editor.closeDir();
+				editor.deleteEntry("branch/dir1", -1);
+				editor.addDir("branch/added", null, -1);
+				editor.addFile("branch/added/file.txt", null, -1);
+				editor.applyTextDelta("branch/added/file.txt", null);
+				checksum = new SVNDeltaGenerator().sendDelta("branch/added/file.txt", new ByteArrayInputStream("added".getBytes()), editor, true);
+				editor.closeFile("branch/added/file.txt", checksum);
+				editor.closeDir();
+				// Pin the external to another library revision
+				editor.openDir("branch/dir2", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("-r"+(libraryRevision+1)+" ^/lib ext"));
+				editor.closeDir();
+				// Replace the external by a versioned directory
+				editor.openDir("branch/dir3", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, null);
+				editor.addDir("branch/dir3/ext", null, -1);
+				editor.addFile("branch/dir3/ext/file.txt", null, -1);
+				editor.applyTextDelta("branch/dir3/ext/file.txt", null);
+				checksum = new SVNDeltaGenerator().sendDelta("branch/dir3/ext/file.txt", new ByteArrayInputStream("versioned".getBytes()), editor, true);
+				editor.closeFile("branch/dir3/ext/file.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], SvnSessionPool.getDefaultSize(url))) {
+				// Compute full diff
+				Path fullOutputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputDiffResourceChecksum(new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+						new SvnChecksumGenerator(branchUrl, sessionPool).compute(ChecksumAlgorithm.SHA256, listener), fullOutputPath.toFile());
+				// Compute server-side diff
+				SvnChecksumGenerator leftGenerator = new SvnChecksumGenerator(url, sessionPool);
+				SvnChecksumGenerator rightGenerator = new SvnChecksumGenerator(branchUrl, sessionPool);
+				new SvnServerDiff(leftGenerator, rightGenerator).prepare(listener);
+				Path serverOutputPath = Files.createTempFile("test", ".tmp");
+				AbstractDirectory leftDirectory = leftGenerator.compute(ChecksumAlgorithm.SHA256, listener);
+				AbstractDirectory rightDirectory = rightGenerator.compute(ChecksumAlgorithm.SHA256, listener);
+				ChecksumTool.outputDiffResourceChecksum(leftDirectory, rightDirectory, serverOutputPath.toFile());
+				// Check unchanged directories are not descended although their files are not hashed
+				final List<String> comparedDirectories = new ArrayList<>();
+				ChecksumTool.visitDifferences(leftDirectory, rightDirectory, new DifferenceVisitor() {
+					@Override
+					public void enterDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+						if (leftDirectory!=null&&rightDirectory!=null)
+							comparedDirectories.add(leftDirectory.getPath());
+					}
+
+					@Override
+					public void visitFile(FileDifference fileDifference) {
+					}
+
+					@Override
+					public void visitMovedDirectory(MovedDirectoryDifference movedDirectoryDifference) {
+					}
+
+					@Override
+					public void exitDirectory(AbstractDirectory leftDirectory, AbstractDirectory rightDirectory) {
+					}
+				});
+				assertEquals(Arrays.asList("/trunk", "/trunk/dir0", "/trunk/dir2", "/lib", "/trunk/dir3", "/lib"), comparedDirectories);
+				// Check changed paths were found
+				assertTrue(debugMessages.contains("1 deleted, 2 added and 1 modified paths found by server-side diff."));
+				// Check outputs are identical, including the file with location dependent keywords and the external files
+				List<String> fullOutputLines = Files.readAllLines(fullOutputPath);
+				assertEquals(fullOutputLines, Files.readAllLines(serverOutputPath));
+				assertEquals(SvnChecksumGeneratorTestCase.NBR_FILES+5, fullOutputLines.size());
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute server-side diff: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test manifest update from log against full computation.
+	 */
+	public void testManifestUpdate() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository with an unpinned external to a library
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			SvnChecksumGeneratorTestCase.commitLibrary(rootUrl, "lib");
+			long manifestRevision;
+			SVNRepository repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Define external", null);
+				editor.openRoot(-1);
+				editor.openDir("dir6", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib ext"));
+				editor.closeDir();
+				editor.closeDir();
+				manifestRevision = editor.closeEdit().getNewRevision();
+			} finally {
+				repository.closeSession();
+			}
+			// Compute manifest with directory checksums
+			Path manifestPath = Files.createTempFile("test", ".tmp");
+			SvnChecksumGenerator generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), manifestPath.toFile(), true);
+			// Change library, without any log entry in trunk
+			repository = SVNRepositoryFactory.create(rootUrl);
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Change library", null);
+				editor.openRoot(-1);
+				editor.openDir("lib", -1);
+				editor.openFile("lib/file.txt", -1);
+				editor.applyTextDelta("lib/file.txt", null);
+				String checksum = new SVNDeltaGenerator().sendDelta("lib/file.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("lib/file.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Change trunk
+			repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Change trunk", null);
+				editor.openRoot(-1);
+				// Modify a file
+				editor.openDir("dir0", -1);
+				editor.openFile("dir0/file0.txt", -1);
+				editor.applyTextDelta("dir0/file0.txt", null);
+				String checksum = new SVNDeltaGenerator().sendDelta("dir0/file0.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("dir0/file0.txt", checksum);
+				editor.closeDir();
+				// Delete a directory
+				editor.deleteEntry("dir1", -1);
+				// Copy a directory
+				editor.addDir("copied", "/trunk/dir2", 1);
+				editor.closeDir();
+				// Add a file
+				editor.openDir("dir3", -1);
+				editor.addFile("dir3/added.txt", null, -1);
+				editor.applyTextDelta("dir3/added.txt", null);
+				checksum = new SVNDeltaGenerator().sendDelta("dir3/added.txt", new ByteArrayInputStream("added".getBytes()), editor, true);
+				editor.closeFile("dir3/added.txt", checksum);
+				editor.closeDir();
+				// Define externals
+				editor.openDir("dir4", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib lib"));
+				editor.closeDir();
+				// Change another directory property
+				editor.openDir("dir5", -1);
+				editor.changeDirProperty(SVNProperty.IGNORE, SVNPropertyValue.create("*.tmp"));
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Compute checksums
+			Path fullOutputPath = Files.createTempFile("test", ".tmp");
+			generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), fullOutputPath.toFile(), true);
+			// Update manifest
+			Path updateOutputPath = Files.createTempFile("test", ".tmp");
+			generator = new SvnChecksumGenerator(url, "test", new char[0]);
+			try (ManifestReader manifestReader = new ManifestFileReader(manifestPath)) {
+				ChecksumTool.outputResourceChecksum(generator.update(manifestReader, manifestRevision, ChecksumAlgorithm.SHA256, listener),
+						updateOutputPath.toFile(), true);
+			}
+			// Check only changed paths and unpinned externals were updated
+			assertTrue(debugMessages.contains("5 changed paths found since revision "+manifestRevision+"."));
+			assertTrue(debugMessages.contains("2 unpinned externals found."));
+			// Check updated manifest is identical
+			assertEquals(Files.readAllLines(fullOutputPath), Files.readAllLines(updateOutputPath));
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to update manifest: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test batch computation of tags against individual computations.
+	 */
+	public void testBatch() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			// Tag trunk, change a file then tag trunk again
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			String tagsUrl = rootUrl.appendPath("tags", false).toString();
+			SVNRepository repository = SVNRepositoryFactory.create(rootUrl);
+			try {
+				long revision = repository.getLatestRevision();
+				ISVNEditor editor = repository.getCommitEditor("Create first tag", null);
+				editor.openRoot(-1);
+				editor.addDir("tags", null, -1);
+				editor.addDir("tags/1.0", "/trunk", revision);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+				editor = repository.getCommitEditor("Change trunk", null);
+				editor.openRoot(-1);
+				editor.openDir("trunk", -1);
+				editor.openDir("trunk/dir0", -1);
+				editor.openFile("trunk/dir0/file0.txt", -1);
+				editor.applyTextDelta("trunk/dir0/file0.txt", null);
+				String checksum = new SVNDeltaGenerator().sendDelta("trunk/dir0/file0.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("trunk/dir0/file0.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+				revision = repository.getLatestRevision();
+				editor = repository.getCommitEditor("Create second tag", null);
+				editor.openRoot(-1);
+				editor.openDir("tags", -1);
+				editor.addDir("tags/1.1", "/trunk", revision);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			try (SvnSessionPool sessionPool = new SvnSessionPool(tagsUrl, "test", new char[0], SvnSessionPool.getDefaultSize(tagsUrl))) {
+				// Compute each tag in batch
+				SvnBatchGenerator batchGenerator = new SvnBatchGenerator(tagsUrl, sessionPool);
+				assertEquals(2, batchGenerator.getNames().size());
+				List<List<String>> batchOutputLines = new ArrayList<>();
+				for (String name : batchGenerator.getNames()) {
+					Path outputPath = Files.createTempFile("test", ".tmp");
+					ChecksumTool.outputResourceChecksum(batchGenerator.createGenerator(name, ChecksumAlgorithm.SHA256).compute(ChecksumAlgorithm.SHA256, listener),
+							outputPath.toFile());
+					batchOutputLines.add(Files.readAllLines(outputPath));
+				}
+				// Check first tag was fully hashed then second tag reused all but the changed file and the file with keywords
+				assertTrue(debugMessages.contains("1 copies found in history."));
+				assertTrue(debugMessages.contains("0 checksums read from cache."));
+				int nbrUnchangedFiles = SvnChecksumGeneratorTestCase.NBR_DIRECTORIES*SvnChecksumGeneratorTestCase.NBR_FILES;
+				assertTrue(debugMessages.contains(nbrUnchangedFiles+" checksums read from cache."));
+				// Check batch outputs are identical to individual computations
+				for (int index = 0; index<batchOutputLines.size(); index++) {
+					String tagUrl = SVNURL.parseURIEncoded(tagsUrl).appendPath(batchGenerator.getNames().get(index), false).toString();
+					Path outputPath = Files.createTempFile("test", ".tmp");
+					ChecksumTool.outputResourceChecksum(new SvnChecksumGenerator(tagUrl, sessionPool).compute(ChecksumAlgorithm.SHA256, listener),
+							outputPath.toFile());
+					assertEquals(Files.readAllLines(outputPath), batchOutputLines.get(index));
+				}
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums in batch: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test working copy diff against full diff.
+	 */
+	public void testWorkingCopyDiff() {
+		// Create output listener saving debug messages
+		final List<String> debugMessages = new ArrayList<>();
+		ConsoleOutputListener listener = new ConsoleOutputListener() {
+			@Override
+			public void onDebug(String message) {
+				debugMessages.add(message);
+			}
+		};
+		try {
+			// Create repository with an external to a library
+			String url = SvnChecksumGeneratorTestCase.createRepository();
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			SvnChecksumGeneratorTestCase.commitLibrary(rootUrl, "lib");
+			SVNRepository repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Define external", null);
+				editor.openRoot(-1);
+				editor.openDir("dir3", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("^/lib ext"));
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Check out trunk
+			Path workingCopyPath = Files.createTempDirectory("test");
+			SVNClientManager clientManager = SVNClientManager.newInstance();
+			try {
+				clientManager.getUpdateClient().doCheckout(SVNURL.parseURIEncoded(url), workingCopyPath.toFile(), SVNRevision.HEAD, SVNRevision.HEAD,
+						SVNDepth.INFINITY, false);
+			} finally {
+				clientManager.dispose();
+			}
+			// Change working copy: modify a file and an external file, touch a file, delete a file and add an unversioned file
+			Files.write(workingCopyPath.resolve("dir0/file0.txt"), "changed".getBytes());
+			Files.write(workingCopyPath.resolve("dir3/ext/file.txt"), "changed".getBytes());
+			Path touchedPath = workingCopyPath.resolve("dir0/file1.txt");
+			Files.setLastModifiedTime(touchedPath, FileTime.fromMillis(Files.getLastModifiedTime(touchedPath).toMillis()-60000));
+			Files.delete(workingCopyPath.resolve("dir1/file0.txt"));
+			Files.write(workingCopyPath.resolve("unversioned.txt"), "unversioned".getBytes());
+			// Commit a file change in repository
+			repository = SVNRepositoryFactory.create(SVNURL.parseURIEncoded(url));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Change test file", null);
+				editor.openRoot(-1);
+				editor.openDir("dir2", -1);
+				editor.openFile("dir2/file0.txt", -1);
+				editor.applyTextDelta("dir2/file0.txt", null);
+				String checksum = new SVNDeltaGenerator().sendDelta("dir2/file0.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("dir2/file0.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Ignore working copy administrative directories, including the one of the external
+			PathMatcher ignoreMatcher = FileSystems.getDefault().getPathMatcher("glob:{.svn,**/.svn}");
+			try (SvnSessionPool sessionPool = new SvnSessionPool(url, "test", new char[0], SvnSessionPool.getDefaultSize(url))) {
+				// Compute full diff
+				Path fullOutputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputDiffResourceChecksum(new FsChecksumGenerator(workingCopyPath).compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher),
+						new SvnChecksumGenerator(url, sessionPool).compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher), fullOutputPath.toFile());
+				// Compute working copy diff
+				FsChecksumGenerator leftGenerator = new FsChecksumGenerator(workingCopyPath);
+				SvnChecksumGenerator rightGenerator = new SvnChecksumGenerator(url, sessionPool);
+				new SvnWorkingCopyDiff(leftGenerator, rightGenerator).prepare(listener);
+				Path workingCopyOutputPath = Files.createTempFile("test", ".tmp");
+				ChecksumTool.outputDiffResourceChecksum(leftGenerator.compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher),
+						rightGenerator.compute(ChecksumAlgorithm.SHA256, listener, ignoreMatcher), workingCopyOutputPath.toFile());
+				// Check modified, missing and out-of-date files were found but not the touched file
+				assertTrue(debugMessages.contains("2 locally modified and 1 out-of-date paths found in working copy."));
+				// Check outputs are identical, including the external files
+				List<String> fullOutputLines = Files.readAllLines(fullOutputPath);
+				assertEquals(fullOutputLines, Files.readAllLines(workingCopyOutputPath));
+				assertEquals(5, fullOutputLines.size());
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute working copy diff: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Test checksums computed from dump streams against checksums computed from the repository.
+	 */
+	public void testDump() {
+		// Create output listener
+		ConsoleOutputListener listener = new ConsoleOutputListener();
+		try {
+			// Create benchmark repository with keywords and externals
+			Path repositoryPath = Files.createTempDirectory("test");
+			String url = SvnBenchmark.createRepository(repositoryPath, 5, 5, 1024, 0.5, 2);
+			SVNURL rootUrl = SVNURL.parseURIEncoded(url).removePathTail();
+			// Change trunk as another author
+			SVNRepository repository = SVNRepositoryFactory.create(rootUrl);
+			repository.setAuthenticationManager(BasicAuthenticationManager.newInstance("tester", new char[0]));
+			try {
+				ISVNEditor editor = repository.getCommitEditor("Change trunk", null);
+				SVNDeltaGenerator deltaGenerator = new SVNDeltaGenerator();
+				editor.openRoot(-1);
+				editor.openDir("trunk", -1);
+				// Modify a file with keywords and end of lines to translate
+				editor.openDir("trunk/dir0", -1);
+				editor.openFile("trunk/dir0/file0.txt", -1);
+				editor.changeFileProperty("trunk/dir0/file0.txt", SVNProperty.KEYWORDS, SVNPropertyValue.create("Id Rev Author Date URL"));
+				editor.changeFileProperty("trunk/dir0/file0.txt", SVNProperty.EOL_STYLE, SVNPropertyValue.create("CRLF"));
+				editor.applyTextDelta("trunk/dir0/file0.txt", null);
+				String checksum = deltaGenerator.sendDelta("trunk/dir0/file0.txt", new ByteArrayInputStream("$Id$\n$Rev$ $Author$\n$Date$\n$URL$\n"
+						.getBytes()), editor, true);
+				editor.closeFile("trunk/dir0/file0.txt", checksum);
+				// Copy a file with keywords
+				editor.addFile("trunk/dir0/copied.txt", "/trunk/dir1/file1.txt", 1);
+				editor.changeFileProperty("trunk/dir0/copied.txt", SVNProperty.KEYWORDS, SVNPropertyValue.create("Id URL"));
+				editor.closeFile("trunk/dir0/copied.txt", null);
+				editor.closeDir();
+				// Copy a directory
+				editor.addDir("trunk/copied", "/trunk/dir1", 1);
+				editor.closeDir();
+				// Replace a directory
+				editor.deleteEntry("trunk/dir2", -1);
+				editor.addDir("trunk/dir2", "/trunk/dir4", 1);
+				editor.closeDir();
+				// Delete a directory
+				editor.deleteEntry("trunk/dir3", -1);
+				// Define pinned and file externals
+				editor.openDir("trunk/dir4", -1);
+				editor.changeDirProperty(SVNProperty.EXTERNALS, SVNPropertyValue.create("-r1 ^/lib pinned\n^/trunk/dir0/file0.txt file.txt"));
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+				// Modify library
+				editor = repository.getCommitEditor("Change library", null);
+				editor.openRoot(-1);
+				editor.openDir("lib", -1);
+				editor.openFile("lib/file0.txt", -1);
+				editor.applyTextDelta("lib/file0.txt", null);
+				checksum = deltaGenerator.sendDelta("lib/file0.txt", new ByteArrayInputStream("changed".getBytes()), editor, true);
+				editor.closeFile("lib/file0.txt", checksum);
+				editor.closeDir();
+				editor.closeDir();
+				editor.closeEdit();
+			} finally {
+				repository.closeSession();
+			}
+			// Dump repository with full texts and with deltas
+			Path fullDumpPath = Files.createTempFile("test", ".dump");
+			Path deltaDumpPath = Files.createTempFile("test", ".dump");
+			SVNClientManager clientManager = SVNClientManager.newInstance();
+			try (OutputStream outputStream = Files.newOutputStream(fullDumpPath)) {
+				clientManager.getAdminClient().doDump(repositoryPath.toFile(), outputStream, SVNRevision.create(0), SVNRevision.HEAD, false, false);
+			}
+			try (OutputStream outputStream = Files.newOutputStream(deltaDumpPath)) {
+				clientManager.getAdminClient().doDump(repositoryPath.toFile(), outputStream, SVNRevision.create(0), SVNRevision.HEAD, false, true);
+			}
+			clientManager.dispose();
+			// Check checksums at each changed revision
+			for (long revision = 1; revision<=3; revision++) {
+				// Compute checksums from repository
+				Path outputPath = Files.createTempFile("test", ".tmp");
+				SvnChecksumGenerator generator = new SvnChecksumGenerator(url, "test", new char[0]);
+				generator.setRevision(revision);
+				ChecksumTool.outputResourceChecksum(generator.compute(ChecksumAlgorithm.SHA256, listener), outputPath.toFile(), true);
+				List<String> outputLines = Files.readAllLines(outputPath);
+				// Compute checksums from each dump
+				for (Path dumpPath : new Path[] { fullDumpPath, deltaDumpPath }) {
+					Path dumpOutputPath = Files.createTempFile("test", ".tmp");
+					try (InputStream inputStream = Files.newInputStream(dumpPath)) {
+						SvnDumpChecksumGenerator dumpGenerator = new SvnDumpChecksumGenerator(url, rootUrl.toString(), inputStream);
+						dumpGenerator.setRevision(revision);
+						ChecksumTool.outputResourceChecksum(dumpGenerator.compute(ChecksumAlgorithm.SHA256, listener), dumpOutputPath.toFile(), true);
+					}
+					// Check outputs are identical
+					assertEquals(outputLines, Files.readAllLines(dumpOutputPath));
+				}
+			}
+		} catch (IOException|SVNException|ChecksumException exception) {
+			fail("Unable to compute checksums from dump: "+exception.getMessage());
+		}
+	}
+
+	/**
+	 * Run a deep task tree and check the completion latch is released once every submitted task finished.<br/>
+	 * Each task of the tree submits its sub-task and a leaf task before finishing.
+	 * 
+	 * @param threadCount
+	 *            The number of threads to run tasks.
+	 * @param failureDepth
+	 *            The depth of the task that fails after submitting its own tasks (<code>-1</code> if no task fails).
+	 * @param listener
+	 *            The listener to notify failure.
+	 * @return The number of submitted tasks.
+	 */
+	private static int checkCompletionLatch(int threadCount, int failureDepth, ChecksumListener listener) {
+		// Create request executor
+		final SvnRequestExecutor requestExecutor = new SvnRequestExecutor(threadCount, new SvnRetryPolicy(0, 0), new SvnRequestLimiter(threadCount,
+				false, 0), null, false);
+		try {
+			// Submit task tree root
+			AtomicInteger submittedCounter = new AtomicInteger();
+			AtomicInteger finishedCounter = new AtomicInteger();
+			SvnChecksumGeneratorTestCase.submitTreeTask(requestExecutor, 0, failureDepth, submittedCounter, finishedCounter, listener);
+			// Wait for completion latch from another thread, so a latch never released fails instead of hanging
+			FutureTask<Void> completion = new FutureTask<>(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					requestExecutor.await();
+					return null;
+				}
+			});
+			new Thread(completion).start();
+			completion.get(60, TimeUnit.SECONDS);
+			// Check every submitted task finished before the latch was released
+			assertEquals(submittedCounter.get(), finishedCounter.get());
+			// Check no task finishes after the latch was released
+			Thread.sleep(100);
+			assertEquals(submittedCounter.get(), finishedCounter.get());
+			// Check break status
+			assertEquals(failureDepth>=0, requestExecutor.shouldBreak());
+			// Return the number of submitted tasks
+			return submittedCounter.get();
+		} catch (TimeoutException exception) {
+			fail("Completion latch was not released.");
+			return -1;
+		} catch (InterruptedException|ExecutionException exception) {
+			fail("Unable to wait for completion latch: "+exception.getMessage());
+			return -1;
+		} finally {
+			// Release executors
+			requestExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Submit a task of the task tree.
+	 * 
+	 * @param requestExecutor
+	 *            The executor to submit task to.
+	 * @param depth
+	 *            The task depth (the tree depth for leaf tasks).
+	 * @param failureDepth
+	 *            The depth of the task that fails after submitting its own tasks (<code>-1</code> if no task fails).
+	 * @param submittedCounter
+	 *            The counter of submitted tasks.
+	 * @param finishedCounter
+	 *            The counter of finished tasks.
+	 * @param listener
+	 *            The listener to notify failure.
+	 */
+	private static void submitTreeTask(final SvnRequestExecutor requestExecutor, final int depth, final int failureDepth,
+			final AtomicInteger submittedCounter, final AtomicInteger finishedCounter, final ChecksumListener listener) {
+		// Update submitted task counter
+		submittedCounter.incrementAndGet();
+		// Submit task
+		requestExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					// Check if should break
+					if (requestExecutor.shouldBreak())
+						return null;
+					// Submit sub-task and leaf task
+					if (depth<SvnChecksumGeneratorTestCase.TASK_TREE_DEPTH) {
+						SvnChecksumGeneratorTestCase.submitTreeTask(requestExecutor, depth+1, failureDepth, submittedCounter, finishedCounter, listener);
+						SvnChecksumGeneratorTestCase.submitTreeTask(requestExecutor, SvnChecksumGeneratorTestCase.TASK_TREE_DEPTH, failureDepth,
+								submittedCounter, finishedCounter, listener);
+					}
+					// Fail at failure depth, breaking the process
+					if (depth==failureDepth) {
+						ChecksumException exception = new ChecksumException("Unable to list directory at depth "+depth+".");
+						requestExecutor.fail("depth"+depth, exception, listener);
+						throw exception;
+					}
+					// Return void
+					return null;
+				} finally {
+					// Update finished task counter
+					finishedCounter.incrementAndGet();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Commit a library directory with a single file.
+	 * 
+	 * @param url
+	 *            The URL of the directory to add library to.
+	 * @param name
+	 *            The library name.
+	 * @throws SVNException
+	 *             Throws exception if the library could not be committed.
+	 */
+	private static void commitLibrary(SVNURL url, String name) throws SVNException {
+		SVNRepository repository = SVNRepositoryFactory.create(url);
+		try {
+			ISVNEditor editor = repository.getCommitEditor("Add library", null);
+			editor.openRoot(-1);
+			editor.addDir(name, null, -1);
+			String file = name+"/file.txt";
+			editor.addFile(file, null, -1);
+			editor.applyTextDelta(file, null);
+			String checksum = new SVNDeltaGenerator().sendDelta(file, new ByteArrayInputStream(name.getBytes()), editor, true);
+			editor.closeFile(file, checksum);
+			editor.closeDir();
+			editor.closeDir();
+			editor.closeEdit();
+		} finally {
+			repository.closeSession();
+		}
+	}
+
+	/**
+	 * Create a local repository with a trunk holding directories of files, a file with keywords and an ignored directory.
+	 * 
+	 * @return The URL of the repository trunk.
+	 * @throws IOException
+	 *             Throws exception if the repository directory could not be created.
+	 * @throws SVNException
+	 *             Throws exception if the repository could not be created.
+	 */
+	private static String createRepository() throws IOException, SVNException {
+		// Create local repository
+		Path repositoryPath = Files.createTempDirectory("test");
+		SVNURL url = SVNRepositoryFactory.createLocalRepository(repositoryPath.toFile(), true, true);
+		SVNRepository repository = SVNRepositoryFactory.create(url);
+		try {
+			// Create commit editor
+			ISVNEditor editor = repository.getCommitEditor("Create test repository", null);
+			SVNDeltaGenerator deltaGenerator = new SVNDeltaGenerator();
+			editor.openRoot(-1);
+			editor.addDir("trunk", null, -1);
+			// Add directories of files
+			for (int directoryIndex = 0; directoryIndex<SvnChecksumGeneratorTestCase.NBR_DIRECTORIES; directoryIndex++) {
+				String directory = "trunk/dir"+directoryIndex;
+				editor.addDir(directory, null, -1);
+				for (int fileIndex = 0; fileIndex<SvnChecksumGeneratorTestCase.NBR_FILES; fileIndex++) {
+					String file = directory+"/file"+fileIndex+".txt";
+					editor.addFile(file, null, -1);
+					editor.applyTextDelta(file, null);
+					String checksum = deltaGenerator.sendDelta(file, new ByteArrayInputStream(file.getBytes()), editor, true);
+					editor.closeFile(file, checksum);
+				}
+				editor.closeDir();
+			}
+			// Add file with keywords
+			editor.addFile("trunk/keywords.txt", null, -1);
+			editor.changeFileProperty("trunk/keywords.txt", SVNProperty.KEYWORDS, SVNPropertyValue.create("Id URL"));
+			editor.applyTextDelta("trunk/keywords.txt", null);
+			String checksum = deltaGenerator.sendDelta("trunk/keywords.txt", new ByteArrayInputStream("$Id$\n$URL$\n".getBytes()), editor, true);
+			editor.closeFile("trunk/keywords.txt", checksum);
+			// Add ignored directory
+			editor.addDir("trunk/ignored", null, -1);
+			editor.addFile("trunk/ignored/file.txt", null, -1);
+			editor.applyTextDelta("trunk/ignored/file.txt", null);
+			checksum = deltaGenerator.sendDelta("trunk/ignored/file.txt", new ByteArrayInputStream("ignored".getBytes()), editor, true);
+			editor.closeFile("trunk/ignored/file.txt", checksum);
+			editor.closeDir();
+			// Commit
+			editor.closeDir();
+			editor.closeDir();
+			editor.closeEdit();
+		} finally {
+			repository.closeSession();
+		}
+		// Return trunk URL
+		return url.appendPath("trunk", false).toString();
+	}
+}
\ No newline at end of file